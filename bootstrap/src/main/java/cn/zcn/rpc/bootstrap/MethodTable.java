@@ -0,0 +1,135 @@
+package cn.zcn.rpc.bootstrap;
+
+import cn.zcn.rpc.bootstrap.utils.Md5Util;
+import cn.zcn.rpc.bootstrap.utils.MethodSignatureUtil;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 接口的方法表，按方法签名排序后为每个远程方法分配从 0 开始的序号。
+ *
+ * <p>
+ * 服务提供者将方法表的摘要发布到注册中心（{@link cn.zcn.rpc.bootstrap.registry.Provider#METHODS}），
+ * 服务消费者的方法表摘要与之相同时，说明双方的接口定义一致，请求中只需携带方法序号，不再携带方法名与参数类型名，
+ * 服务端通过数组下标找到方法。摘要不同或没有摘要时，仍使用方法签名匹配。
+ *
+ * @author zicung
+ */
+public class MethodTable {
+
+    private static final ConcurrentMap<Class<?>, MethodTable> TABLES = new ConcurrentHashMap<>();
+
+    private final Method[] methods;
+    private final String[][] parameterTypes;
+    private final Map<Method, Integer> ids = new HashMap<>();
+    private final String digest;
+
+    private MethodTable(Class<?> clazz) {
+        List<Method> remoteMethods = new ArrayList<>();
+        for (Method method : clazz.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                // jdk1.8, default methods in interface, static methods in interface
+                continue;
+            }
+
+            remoteMethods.add(method);
+        }
+        remoteMethods.sort(Comparator.comparing(MethodSignatureUtil::getMethodSignature));
+
+        this.methods = remoteMethods.toArray(new Method[0]);
+        this.parameterTypes = new String[methods.length][];
+
+        StringBuilder signatures = new StringBuilder(clazz.getName());
+        for (int i = 0; i < methods.length; i++) {
+            Class<?>[] types = methods[i].getParameterTypes();
+            parameterTypes[i] = new String[types.length];
+            for (int j = 0; j < types.length; j++) {
+                parameterTypes[i][j] = types[j].getName();
+            }
+
+            ids.put(methods[i], i);
+            signatures.append(';').append(MethodSignatureUtil.getMethodSignature(methods[i]));
+        }
+
+        this.digest = toHex(Md5Util.computeMd5(signatures.toString()));
+    }
+
+    /**
+     * 获取接口的方法表
+     *
+     * @param clazz 接口类
+     * @return 方法表
+     */
+    public static MethodTable of(Class<?> clazz) {
+        return TABLES.computeIfAbsent(clazz, MethodTable::new);
+    }
+
+    /**
+     * 获取接口的方法表摘要，接口类无法加载时返回 null
+     *
+     * @param interfaceName 接口名
+     * @return 方法表摘要
+     */
+    public static String getDigest(String interfaceName) {
+        try {
+            return of(Class.forName(interfaceName)).getDigest();
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 方法数量
+     */
+    public int size() {
+        return methods.length;
+    }
+
+    /**
+     * @param id 方法序号
+     * @return 方法
+     */
+    public Method getMethod(int id) {
+        return methods[id];
+    }
+
+    /**
+     * @param id 方法序号
+     * @return 方法的参数类型名，调用者不应修改
+     */
+    public String[] getParameterTypes(int id) {
+        return parameterTypes[id];
+    }
+
+    /**
+     * @param method 方法
+     * @return 方法序号，不在方法表中时返回 -1
+     */
+    public int getId(Method method) {
+        Integer id = method == null ? null : ids.get(method);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return 接口名与所有方法签名的摘要，用于判断服务提供者与服务消费者的方法表是否一致
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return sb.toString();
+    }
+}
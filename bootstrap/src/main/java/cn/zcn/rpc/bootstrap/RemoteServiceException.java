@@ -0,0 +1,62 @@
+package cn.zcn.rpc.bootstrap;
+
+/**
+ * 服务提供者抛出的异常的紧凑形式，只包含原异常的类名、消息以及截断后的堆栈，不包含 cause。
+ *
+ * <p>
+ * 服务提供者配置了 {@link RpcConfigs#EXCEPTION_STACK_DEPTH} 时，使用该异常代替原异常返回给服务消费者，
+ * 避免序列化完整的异常对象图。
+ *
+ * @author zicung
+ */
+public class RemoteServiceException extends RpcException {
+
+    /** 原异常的类名 */
+    private final String remoteType;
+
+    public RemoteServiceException(String remoteType, String msg) {
+        super(msg);
+        this.remoteType = remoteType;
+    }
+
+    /**
+     * 将异常转换为紧凑形式
+     *
+     * @param t 原异常
+     * @param stackDepth 保留的堆栈深度
+     * @return 紧凑形式的异常
+     */
+    public static RemoteServiceException from(Throwable t, int stackDepth) {
+        if (t instanceof RemoteServiceException) {
+            return (RemoteServiceException) t;
+        }
+
+        RemoteServiceException exception = new RemoteServiceException(t.getClass().getName(), t.getMessage());
+
+        StackTraceElement[] stackTrace = t.getStackTrace();
+        int depth = Math.max(0, Math.min(stackDepth, stackTrace.length));
+        StackTraceElement[] truncated = new StackTraceElement[depth];
+        System.arraycopy(stackTrace, 0, truncated, 0, depth);
+        exception.setStackTrace(truncated);
+
+        return exception;
+    }
+
+    public String getRemoteType() {
+        return remoteType;
+    }
+
+    /**
+     * 堆栈由原异常截断得到，不捕获当前堆栈
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        String msg = getLocalizedMessage();
+        return msg != null ? remoteType + ": " + msg : remoteType;
+    }
+}
@@ -48,6 +48,15 @@ public class RpcConfigs {
     /** 过滤器列表 */
     public static final String FILTERS = "filters";
 
+    /** 服务消费者请求使用的序列化器，参考 {@code RpcSerializer}。服务提供者不支持时使用客户端默认的序列化器 */
+    public static final String SERIALIZER = "serializer";
+
+    /** 服务提供者支持的序列化器列表，发布到注册中心 */
+    public static final String SERIALIZERS = "serializers";
+
+    /** 服务提供者返回的异常保留的堆栈深度。默认值为 -1，返回完整的异常；大于等于 0 时返回紧凑形式的异常 */
+    public static final String EXCEPTION_STACK_DEPTH = "exceptionStackDepth";
+
     private static final String[] CONFIG_PATH = new String[] { "META-INF/rpc-config.properties",
                                                                "rpc-config.properties" };
 
@@ -3,6 +3,7 @@ package cn.zcn.rpc.bootstrap;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * Rpc 请求，包含对远程接口方法调用的接口名、方法名、方法参数类型、参数等数据。
@@ -23,6 +24,15 @@ public class RpcRequest implements Serializable {
 	/** 调用参数 */
 	private Object[] parameters = new String[0];
 
+	/** 方法在 {@link MethodTable} 中的序号，-1 表示使用方法名与参数类型匹配方法 */
+	private int methodId = -1;
+
+	/** 调用的方法，仅在服务消费者本地使用 */
+	private transient Method method;
+
+	/** 尚未反序列化的调用参数，仅在服务提供者本地使用 */
+	private transient Supplier<Object[]> lazyParameters;
+
 	public String getClazz() {
 		return clazz;
 	}
@@ -39,12 +49,36 @@ public class RpcRequest implements Serializable {
 		this.methodName = methodName;
 	}
 
+	/**
+	 * 获取调用参数，参数延迟反序列化时在第一次调用时反序列化
+	 *
+	 * @return 调用参数
+	 * @throws cn.zcn.rpc.remoting.exception.SerializationException
+	 *             参数反序列化失败
+	 */
 	public Object[] getParameters() {
+		if (lazyParameters != null) {
+			parameters = lazyParameters.get();
+			lazyParameters = null;
+		}
+
 		return parameters;
 	}
 
 	public void setParameters(Object[] parameters) {
 		this.parameters = parameters;
+		this.lazyParameters = null;
+	}
+
+	/**
+	 * 设置延迟反序列化的调用参数，服务提供者完成路由与检查后才通过 {@link #getParameters()} 反序列化
+	 *
+	 * @param lazyParameters
+	 *            反序列化调用参数
+	 */
+	public void setLazyParameters(Supplier<Object[]> lazyParameters) {
+		this.parameters = null;
+		this.lazyParameters = lazyParameters;
 	}
 
 	public String[] getParameterTypes() {
@@ -55,6 +89,40 @@ public class RpcRequest implements Serializable {
 		this.parameterTypes = parameterTypes;
 	}
 
+	public int getMethodId() {
+		return methodId;
+	}
+
+	public void setMethodId(int methodId) {
+		this.methodId = methodId;
+	}
+
+	public Method getMethod() {
+		return method;
+	}
+
+	public void setMethod(Method method) {
+		this.method = method;
+	}
+
+	/**
+	 * 创建只携带方法序号的请求，不包含方法名与参数类型
+	 * 
+	 * @param methodId
+	 *            方法在 {@link MethodTable} 中的序号
+	 * @return 新的请求
+	 */
+	public RpcRequest withMethodId(int methodId) {
+		RpcRequest request = new RpcRequest();
+		request.setClazz(clazz);
+		request.setMethodName(null);
+		request.setParameterTypes(null);
+		request.setParameters(getParameters());
+		request.setMethodId(methodId);
+		request.setMethod(method);
+		return request;
+	}
+
 	/**
 	 * 获取远程接口方法唯一标识，格式为：
 	 * 
@@ -75,6 +143,7 @@ public class RpcRequest implements Serializable {
         RpcRequest request = new RpcRequest();
         request.setClazz(method.getDeclaringClass().getName());
         request.setMethodName(method.getName());
+        request.setMethod(method);
 
         request.setParameters(parameters);
 
@@ -32,6 +32,15 @@ public class RpcResponse implements Serializable {
 		return state == 1;
 	}
 
+	/**
+	 * 获取响应结果，异常响应时为异常
+	 * 
+	 * @return 响应结果或异常
+	 */
+	public Object getOutcome() {
+		return outcome;
+	}
+
 	public Object get() throws ExecutionException {
 		if (this.state == NORMAL) {
 			return outcome;
@@ -1,5 +1,6 @@
 package cn.zcn.rpc.bootstrap.consumer;
 
+import cn.zcn.rpc.bootstrap.serialization.RpcEnvelopeSerializer;
 import cn.zcn.rpc.remoting.RemotingClient;
 import cn.zcn.rpc.remoting.config.ClientOptions;
 import cn.zcn.rpc.remoting.exception.LifecycleException;
@@ -23,6 +24,8 @@ public class ConsumerBootstrap extends AbstractLifecycle {
 
     @Override
     protected void doStart() throws LifecycleException {
+        RpcEnvelopeSerializer.register();
+
         remotingClient = new RemotingClient();
         remotingClient.start();
     }
@@ -35,6 +35,9 @@ public class ConsumerInterfaceConfig extends InterfaceConfig {
     /** 过滤器 */
     private List<String> filters = RpcConfigs.getList(RpcConfigs.FILTERS);
 
+    /** 序列化器，为 null 时使用客户端默认的序列化器 */
+    private String serializer = RpcConfigs.getString(RpcConfigs.SERIALIZER);
+
     /** 调用类型 */
     private InvokeType invokeType = InvokeType.SYNC;
 
@@ -86,6 +89,14 @@ public class ConsumerInterfaceConfig extends InterfaceConfig {
         this.filters = filters;
     }
 
+    public String getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(String serializer) {
+        this.serializer = serializer;
+    }
+
     public InvokeType getInvokeType() {
         return invokeType;
     }
@@ -1,6 +1,7 @@
 package cn.zcn.rpc.bootstrap.consumer;
 
 import cn.zcn.rpc.bootstrap.InvokeType;
+import cn.zcn.rpc.bootstrap.MethodTable;
 import cn.zcn.rpc.bootstrap.RpcException;
 import cn.zcn.rpc.bootstrap.RpcRequest;
 import cn.zcn.rpc.bootstrap.RpcResponse;
@@ -8,6 +9,7 @@ import cn.zcn.rpc.bootstrap.consumer.loadbalance.LoadBalance;
 import cn.zcn.rpc.bootstrap.extension.ExtensionLoader;
 import cn.zcn.rpc.bootstrap.filter.*;
 import cn.zcn.rpc.bootstrap.registry.Provider;
+import cn.zcn.rpc.bootstrap.serialization.RpcSerializers;
 import cn.zcn.rpc.remoting.RemotingClient;
 import cn.zcn.rpc.remoting.Url;
 import cn.zcn.rpc.remoting.exception.LifecycleException;
@@ -15,7 +17,10 @@ import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -110,10 +115,18 @@ public class DefaultRpcInvoker implements RpcInvoker {
 
         private final RemotingClient remotingClient;
         private final ConsumerInterfaceConfig interfaceConfig;
+        private final MethodTable methodTable;
+        private final Byte serializer;
+
+        /** 服务提供者发布的序列化器列表是否包含配置的序列化器 */
+        private final Map<String, Boolean> serializerSupported = new ConcurrentHashMap<>();
 
         private RemotingInvocationFilter(RemotingClient remotingClient, ConsumerInterfaceConfig interfaceConfig) {
             this.remotingClient = remotingClient;
             this.interfaceConfig = interfaceConfig;
+            this.methodTable = MethodTable.of(interfaceConfig.getInterfaceClass());
+            this.serializer = interfaceConfig.getSerializer() == null ? null
+                : RpcSerializers.getSerializer(interfaceConfig.getSerializer()).getCode();
         }
 
         @Override
@@ -122,13 +135,15 @@ public class DefaultRpcInvoker implements RpcInvoker {
             Url url = convert2Url(invocation.getProvider());
 
             try {
-                Future<RpcResponse> invokeFuture = remotingClient.invoke(url, invocation.getRequest(),
-                    invocation.getTimeout());
+                Future<RpcResponse> invokeFuture = remotingClient.invoke(url,
+                    toRemotingRequest(invocation.getRequest(), invocation.getProvider()), invocation.getTimeout(),
+                    null, selectSerializer(invocation.getProvider()));
 
                 invokeFuture.addListener((GenericFutureListener<Future<RpcResponse>>) future -> {
                     // TODO cancel?
                     if (future.isSuccess()) {
-                        invocation.getResponsePromise().complete(future.get());
+                        // 响应由获取结果的线程反序列化，不占用 IO 线程
+                        invocation.getResponsePromise().completeLazily(future);
                     } else {
                         invocation.getResponsePromise().completeExceptionally(future.cause());
                     }
@@ -140,6 +155,40 @@ public class DefaultRpcInvoker implements RpcInvoker {
             }
         }
 
+        /**
+         * 服务提供者发布的方法表摘要与本地一致时，请求只携带方法序号
+         */
+        private RpcRequest toRemotingRequest(RpcRequest request, Provider provider) {
+            if (request.getMethodId() < 0
+                && methodTable.getDigest().equals(provider.getAdditionalParameter(Provider.METHODS))) {
+                int methodId = methodTable.getId(request.getMethod());
+                if (methodId >= 0) {
+                    return request.withMethodId(methodId);
+                }
+            }
+
+            return request;
+        }
+
+        /**
+         * 服务提供者发布的序列化器列表包含配置的序列化器时使用该序列化器，否则（包括未发布序列化器列表的旧版本服务提供者）
+         * 使用客户端默认的序列化器
+         */
+        private Byte selectSerializer(Provider provider) {
+            if (serializer == null) {
+                return null;
+            }
+
+            String serializers = provider.getAdditionalParameter(Provider.SERIALIZERS);
+            if (serializers == null) {
+                return null;
+            }
+
+            boolean supported = serializerSupported.computeIfAbsent(serializers,
+                s -> Arrays.asList(s.split(",")).contains(interfaceConfig.getSerializer()));
+            return supported ? serializer : null;
+        }
+
         private Url convert2Url(Provider provider) {
             return new Url.Builder(new InetSocketAddress(provider.getIp(), provider.getPort()))
                 .maxConnectionNum(interfaceConfig.getMaxConnectionPerUrl())
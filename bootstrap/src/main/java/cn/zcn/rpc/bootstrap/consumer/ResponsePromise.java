@@ -14,6 +14,15 @@ public class ResponsePromise implements Future<RpcResponse> {
     private final AtomicReference<Object> outcome = new AtomicReference<>();
     private final CountDownLatch latch = new CountDownLatch(1);
 
+    /** 尚未反序列化的远程调用结果 */
+    private static final class LazyOutcome {
+        private final Future<RpcResponse> response;
+
+        private LazyOutcome(Future<RpcResponse> response) {
+            this.response = response;
+        }
+    }
+
     public void complete(RpcResponse response) {
         if (isDone()) {
             throw new IllegalStateException("ResponsePromise is completed. ResponsePromise:" + this);
@@ -24,6 +33,21 @@ public class ResponsePromise implements Future<RpcResponse> {
         }
     }
 
+    /**
+     * 使用已完成的远程调用结果完成，响应在 {@link #get()} 时由调用者所在的线程反序列化
+     *
+     * @param response 已完成的远程调用结果
+     */
+    public void completeLazily(Future<RpcResponse> response) {
+        if (isDone()) {
+            throw new IllegalStateException("ResponsePromise is completed. ResponsePromise:" + this);
+        }
+
+        if (outcome.compareAndSet(null, new LazyOutcome(response))) {
+            latch.countDown();
+        }
+    }
+
     public void completeExceptionally(Throwable cause) {
         if (isDone()) {
             throw new IllegalStateException("ResponsePromise is completed. ResponsePromise:" + this, cause);
@@ -99,6 +123,14 @@ public class ResponsePromise implements Future<RpcResponse> {
             throw ((CancellationException) o);
         } else if (o instanceof Throwable) {
             throw new ExecutionException((Throwable) o);
+        } else if (o instanceof LazyOutcome) {
+            try {
+                return ((LazyOutcome) o).response.get();
+            } catch (InterruptedException e) {
+                // 远程调用已完成，不会阻塞
+                Thread.currentThread().interrupt();
+                throw new ExecutionException(e);
+            }
         }
 
         return (RpcResponse) o;
@@ -3,6 +3,7 @@ package cn.zcn.rpc.bootstrap.provider;
 import cn.zcn.rpc.bootstrap.registry.Registry;
 import cn.zcn.rpc.bootstrap.registry.RegistryConfig;
 import cn.zcn.rpc.bootstrap.registry.RegistryFactory;
+import cn.zcn.rpc.bootstrap.serialization.RpcEnvelopeSerializer;
 import cn.zcn.rpc.bootstrap.utils.NetUtils;
 import cn.zcn.rpc.bootstrap.utils.StringUtils;
 import cn.zcn.rpc.remoting.RemotingServer;
@@ -42,6 +43,9 @@ public class ProviderBootstrap extends AbstractLifecycle {
     protected void doStart() throws LifecycleException {
         checkConfig();
 
+        // 注册 RpcRequest、RpcResponse 的序列化器，客户端可以选择使用
+        RpcEnvelopeSerializer.register();
+
         // init request handler
         this.providerRequestHandler = new ProviderRequestHandler(providerConfig,
             ProviderBootstrap.this::isStarted);
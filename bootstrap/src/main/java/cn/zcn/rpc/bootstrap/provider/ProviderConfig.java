@@ -29,6 +29,9 @@ public class ProviderConfig {
 
     private boolean ignoreTimeoutRequest = RpcConfigs.getBool(RpcConfigs.IGNORE_TIMEOUT_REQUEST, false);
 
+    /** 返回的异常保留的堆栈深度，小于 0 时返回完整的异常 */
+    private int exceptionStackDepth = RpcConfigs.getInteger(RpcConfigs.EXCEPTION_STACK_DEPTH, -1);
+
     private final Set<RegistryConfig> registryConfigs = new HashSet<>();
 
     public String getName() {
@@ -97,6 +100,19 @@ public class ProviderConfig {
         return this;
     }
 
+    public int getExceptionStackDepth() {
+        return exceptionStackDepth;
+    }
+
+    /**
+     * 设置返回的异常保留的堆栈深度。大于等于 0 时，服务抛出的异常转换为 {@code RemoteServiceException}，
+     * 只包含类名、消息与截断后的堆栈
+     */
+    public ProviderConfig setExceptionStackDepth(int exceptionStackDepth) {
+        this.exceptionStackDepth = exceptionStackDepth;
+        return this;
+    }
+
     public ProviderConfig addRegistryConfig(RegistryConfig registry) {
         registryConfigs.add(registry);
         return this;
@@ -2,7 +2,9 @@ package cn.zcn.rpc.bootstrap.provider;
 
 import cn.zcn.rpc.bootstrap.InterfaceConfig;
 import cn.zcn.rpc.bootstrap.RpcConfigs;
+import cn.zcn.rpc.bootstrap.serialization.RpcSerializers;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -18,6 +20,9 @@ public class ProviderInterfaceConfig extends InterfaceConfig {
     /** 过滤器 */
     private List<String> filters = RpcConfigs.getList(RpcConfigs.FILTERS);
 
+    /** 支持的序列化器，发布到注册中心，服务消费者只会使用其中的序列化器 */
+    private List<String> serializers = defaultSerializers();
+
     public Object getImpl() {
         return impl;
     }
@@ -34,6 +39,19 @@ public class ProviderInterfaceConfig extends InterfaceConfig {
         this.filters = filters;
     }
 
+    public List<String> getSerializers() {
+        return serializers;
+    }
+
+    public void setSerializers(List<String> serializers) {
+        this.serializers = serializers;
+    }
+
+    private static List<String> defaultSerializers() {
+        List<String> serializers = RpcConfigs.getList(RpcConfigs.SERIALIZERS);
+        return serializers.isEmpty() ? Arrays.asList(RpcSerializers.HESSIAN, RpcSerializers.ENVELOPE) : serializers;
+    }
+
     @Override
     public Class<?> getInterfaceClass() {
         Class<?> klass = super.getInterfaceClass();
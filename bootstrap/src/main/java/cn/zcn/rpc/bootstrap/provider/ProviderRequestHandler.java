@@ -1,16 +1,19 @@
 package cn.zcn.rpc.bootstrap.provider;
 
+import cn.zcn.rpc.bootstrap.MethodTable;
+import cn.zcn.rpc.bootstrap.RemoteServiceException;
 import cn.zcn.rpc.bootstrap.RpcException;
 import cn.zcn.rpc.bootstrap.RpcRequest;
 import cn.zcn.rpc.bootstrap.RpcResponse;
 import cn.zcn.rpc.bootstrap.filter.*;
+import cn.zcn.rpc.bootstrap.serialization.RpcSerializers;
 import cn.zcn.rpc.bootstrap.utils.MethodSignatureUtil;
 import cn.zcn.rpc.remoting.InvocationContext;
 import cn.zcn.rpc.remoting.RequestHandler;
+import cn.zcn.rpc.remoting.exception.SerializationException;
 import cn.zcn.rpc.remoting.protocol.RpcStatus;
 import io.netty.util.concurrent.Future;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -32,20 +35,25 @@ public class ProviderRequestHandler implements RequestHandler<RpcRequest> {
         private Object instance;
         private FilterChain<ProviderInvocation> filterChain;
         private final Map<String, RegisteredMethod> methods = new HashMap<>();
+
+        /** 按 {@link MethodTable} 序号索引的方法 */
+        private RegisteredMethod[] methodsById;
     }
 
     private static final class RegisteredMethod {
         private Method method;
+        private String[] parameterTypes;
     }
 
     private final ProviderConfig providerConfig;
     private final Supplier<Boolean> isServerStarted;
-    private final ReflectInvocationFilter reflectInvocationFilter = new ReflectInvocationFilter();
+    private final ReflectInvocationFilter reflectInvocationFilter;
     private final Map<String, RegisteredInterface> registeredInterfaces = new HashMap<>();
 
     public ProviderRequestHandler(ProviderConfig providerConfig, Supplier<Boolean> isServerStarted) {
         this.providerConfig = providerConfig;
         this.isServerStarted = isServerStarted;
+        this.reflectInvocationFilter = new ReflectInvocationFilter(providerConfig.getExceptionStackDepth());
     }
 
     /**
@@ -54,20 +62,24 @@ public class ProviderRequestHandler implements RequestHandler<RpcRequest> {
      * @param providerInterfaceConfig 服务提供者接口信息
      */
     public void addInterface(ProviderInterfaceConfig providerInterfaceConfig) {
+        // 加载并注册接口支持的序列化器
+        for (String serializer : providerInterfaceConfig.getSerializers()) {
+            RpcSerializers.getSerializer(serializer);
+        }
+
         RegisteredInterface registeredInterface = new RegisteredInterface();
         registeredInterface.instance = providerInterfaceConfig.getImpl();
 
-        Class<?> clazz = providerInterfaceConfig.getInterfaceClass();
-        for (Method method : clazz.getMethods()) {
-            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
-                // jdk1.8, default methods in interface, static methods in interface
-                continue;
-            }
-
+        MethodTable methodTable = MethodTable.of(providerInterfaceConfig.getInterfaceClass());
+        registeredInterface.methodsById = new RegisteredMethod[methodTable.size()];
+        for (int id = 0; id < methodTable.size(); id++) {
             RegisteredMethod registeredMethod = new RegisteredMethod();
-            registeredMethod.method = method;
+            registeredMethod.method = methodTable.getMethod(id);
+            registeredMethod.parameterTypes = methodTable.getParameterTypes(id);
 
-            registeredInterface.methods.put(MethodSignatureUtil.getMethodSignature(method), registeredMethod);
+            registeredInterface.methodsById[id] = registeredMethod;
+            registeredInterface.methods.put(MethodSignatureUtil.getMethodSignature(registeredMethod.method),
+                registeredMethod);
         }
 
         FilterChain<ProviderInvocation> filterChain = FilterChainBuilder
@@ -105,11 +117,38 @@ public class ProviderRequestHandler implements RequestHandler<RpcRequest> {
             return;
         }
 
-        String methodSignature = MethodSignatureUtil.getMethodSignature(request.getMethodName(),
-            request.getParameterTypes());
-        RegisteredMethod registeredMethod = registeredInterface.methods.get(methodSignature);
-        if (registeredMethod == null) {
-            response.setException(new RpcException("Method can not be found. Method:{}", methodSignature));
+        RegisteredMethod registeredMethod;
+        int methodId = request.getMethodId();
+        if (methodId >= 0) {
+            // 服务消费者的方法表与注册中心发布的一致，直接通过序号找到方法
+            if (methodId >= registeredInterface.methodsById.length) {
+                response.setException(new RpcException("Method can not be found. Interface:{}, MethodId:{}",
+                    clazz, methodId));
+                ctx.writeAndFlushResponse(response);
+                return;
+            }
+
+            registeredMethod = registeredInterface.methodsById[methodId];
+            request.setMethodName(registeredMethod.method.getName());
+            // 参数类型名由所有请求共享，交给过滤器之前拷贝一份
+            request.setParameterTypes(registeredMethod.parameterTypes.clone());
+        } else {
+            String methodSignature = MethodSignatureUtil.getMethodSignature(request.getMethodName(),
+                request.getParameterTypes());
+            registeredMethod = registeredInterface.methods.get(methodSignature);
+            if (registeredMethod == null) {
+                response.setException(new RpcException("Method can not be found. Method:{}", methodSignature));
+                ctx.writeAndFlushResponse(response);
+                return;
+            }
+        }
+
+        try {
+            // 路由与检查都已通过，再反序列化调用参数
+            request.getParameters();
+        } catch (SerializationException e) {
+            response.setException(new RpcException("Failed to deserialize parameters. Interface:{}, Method:{}",
+                clazz, registeredMethod.method.getName(), e));
             ctx.writeAndFlushResponse(response);
             return;
         }
@@ -124,6 +163,12 @@ public class ProviderRequestHandler implements RequestHandler<RpcRequest> {
 
     private static class ReflectInvocationFilter implements ProviderFilter {
 
+        private final int exceptionStackDepth;
+
+        private ReflectInvocationFilter(int exceptionStackDepth) {
+            this.exceptionStackDepth = exceptionStackDepth;
+        }
+
         @Override
         public void doFilter(ProviderInvocation invocation, FilterContext<ProviderInvocation> context)
             throws RpcException {
@@ -138,7 +183,9 @@ public class ProviderRequestHandler implements RequestHandler<RpcRequest> {
 
                 context.doFilter(invocation);
             } catch (Throwable t) {
-                response.setException(t.getCause());
+                Throwable cause = t.getCause() != null ? t.getCause() : t;
+                response.setException(exceptionStackDepth < 0 ? cause
+                    : RemoteServiceException.from(cause, exceptionStackDepth));
                 ctx.writeAndFlushResponse(response, RpcStatus.SERVICE_ERROR);
             }
         }
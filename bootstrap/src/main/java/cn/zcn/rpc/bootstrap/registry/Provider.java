@@ -16,6 +16,12 @@ public class Provider {
     private static final String WARMUP = "warmup";
     private static final String START_TIME = "start-time";
 
+    /** 附加参数，服务提供者接口的 {@link cn.zcn.rpc.bootstrap.MethodTable} 摘要 */
+    public static final String METHODS = "methods";
+
+    /** 附加参数，服务提供者接口支持的序列化器名称，以逗号分隔 */
+    public static final String SERIALIZERS = "serializers";
+
     /** ip */
     private String ip;
 
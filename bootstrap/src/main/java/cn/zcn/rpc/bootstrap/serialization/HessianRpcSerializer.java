@@ -0,0 +1,19 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import cn.zcn.rpc.bootstrap.extension.Extension;
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+
+/**
+ * Hessian 序列化器，默认使用的序列化器
+ *
+ * @author zicung
+ */
+@Extension(RpcSerializers.HESSIAN)
+public class HessianRpcSerializer extends HessianSerializer implements RpcSerializer {
+
+    @Override
+    public byte getCode() {
+        return SerializerManager.HESSIAN;
+    }
+}
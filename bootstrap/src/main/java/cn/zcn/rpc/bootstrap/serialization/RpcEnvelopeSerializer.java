@@ -0,0 +1,379 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import cn.zcn.rpc.bootstrap.RpcRequest;
+import cn.zcn.rpc.bootstrap.RpcResponse;
+import cn.zcn.rpc.bootstrap.extension.Extension;
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodecs;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RpcRequest}、{@link RpcResponse} 的紧凑二进制序列化器，注册为 {@link SerializerManager#RPC_ENVELOPE}。
+ *
+ * <p>
+ * 直接按顺序写入请求与响应的字段，不再通过反射写入信封的类名与字段名。常用的参数类型只写入 1 字节的序号，
+ * 基本类型、包装类型、{@link String} 与 {@code byte[]} 参数使用各自的定长或变长编码，注册了 {@code MessageCodec}
+ * 的对象使用编解码器，其他对象使用 Hessian 序列化：
+ *
+ * <pre>
+ * 请求：| clazz | methodId + 1 (varint) | methodName | 参数类型数量 | 参数类型... | 参数数量 | 参数长度 (4 bytes) | 参数... |
+ * 响应：| 成功 (1 byte) | 结果或异常 |
+ * </pre>
+ *
+ * 字符串为 {@code | 长度 + 1 (varint) | UTF-8 |}，长度为 0 表示 null；数组数量同样加 1。其他类型的对象整体使用 Hessian 序列化。
+ *
+ * <p>
+ * 作为 {@link RpcSerializer} 扩展时名称为 {@code envelope}。
+ *
+ * <p>
+ * 请求的参数之前为可以直接解码的请求头，参数整体带有长度。反序列化请求时只解码请求头，参数延迟到服务提供者完成路由、
+ * 检查后才反序列化（{@link RpcRequest#setLazyParameters}），被拒绝的请求不需要反序列化参数。
+ *
+ * @author zicung
+ */
+@Extension(RpcSerializers.ENVELOPE)
+public class RpcEnvelopeSerializer implements RpcSerializer {
+
+    private static final RpcEnvelopeSerializer INSTANCE = new RpcEnvelopeSerializer();
+
+    private static final String REQUEST_CLASS = RpcRequest.class.getName();
+    private static final String RESPONSE_CLASS = RpcResponse.class.getName();
+
+    private static final int NULL = 0;
+    private static final int TRUE = 1;
+    private static final int FALSE = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int STRING = 5;
+    private static final int BYTES = 6;
+    private static final int DOUBLE = 7;
+    private static final int FLOAT = 8;
+    private static final int SHORT = 9;
+    private static final int BYTE = 10;
+    private static final int CHAR = 11;
+    private static final int HESSIAN = 12;
+    private static final int CODEC = 13;
+
+    /**
+     * 常用的参数类型，序号从 1 开始，0 表示后面跟随完整的类型名。只能在末尾追加
+     */
+    private static final String[] KNOWN_TYPES = { "int", "long", "boolean", "double", "float", "short", "byte",
+                                                  "char", "java.lang.String", "java.lang.Integer", "java.lang.Long",
+                                                  "java.lang.Boolean", "java.lang.Double", "java.lang.Float",
+                                                  "java.lang.Short", "java.lang.Byte", "java.lang.Character",
+                                                  "[B", "java.lang.Object", "java.util.List", "java.util.Map",
+                                                  "java.util.Set", "java.util.Collection" };
+
+    private static final Map<String, Integer> KNOWN_TYPE_INDEXES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < KNOWN_TYPES.length; i++) {
+            KNOWN_TYPE_INDEXES.put(KNOWN_TYPES[i], i + 1);
+        }
+    }
+
+    /**
+     * 注册到 {@link SerializerManager}，可重复调用
+     */
+    public static void register() {
+        SerializerManager.registerSerializer(SerializerManager.RPC_ENVELOPE, INSTANCE);
+    }
+
+    @Override
+    public byte getCode() {
+        return SerializerManager.RPC_ENVELOPE;
+    }
+
+    @Override
+    public byte[] serialize(Object obj) throws SerializationException {
+        ByteBuf out = Unpooled.buffer();
+        serialize(obj, out);
+        return ByteBufUtil.getBytes(out);
+    }
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) throws SerializationException {
+        int startIndex = out.writerIndex();
+        try {
+            if (obj instanceof RpcRequest) {
+                writeRequest((RpcRequest) obj, out);
+            } else if (obj instanceof RpcResponse) {
+                writeResponse((RpcResponse) obj, out);
+            } else {
+                hessian().serialize(obj, out);
+            }
+        } catch (Throwable t) {
+            out.writerIndex(startIndex);
+            throw t;
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, String clazz) throws SerializationException {
+        return deserialize(Unpooled.wrappedBuffer(bytes), clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(ByteBuf byteBuf, String clazz) throws SerializationException {
+        if (!REQUEST_CLASS.equals(clazz) && !RESPONSE_CLASS.equals(clazz)) {
+            return hessian().deserialize(byteBuf, clazz);
+        }
+
+        try {
+            Object obj = REQUEST_CLASS.equals(clazz) ? readRequest(byteBuf) : readResponse(byteBuf);
+            if (byteBuf.isReadable()) {
+                throw new SerializationException("Unexpected {} trailing bytes of {}.", byteBuf.readableBytes(), clazz);
+            }
+
+            return (T) obj;
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated content of {}.", clazz, e);
+        }
+    }
+
+    private void writeRequest(RpcRequest request, ByteBuf out) {
+        writeString(request.getClazz(), out);
+        VarInts.writeVarint32(out, request.getMethodId() + 1);
+        writeString(request.getMethodName(), out);
+
+        String[] parameterTypes = request.getParameterTypes();
+        writeLength(parameterTypes == null ? -1 : parameterTypes.length, out);
+        if (parameterTypes != null) {
+            for (String type : parameterTypes) {
+                Integer index = type == null ? null : KNOWN_TYPE_INDEXES.get(type);
+                if (index != null) {
+                    out.writeByte(index);
+                } else {
+                    out.writeByte(0);
+                    writeString(type, out);
+                }
+            }
+        }
+
+        Object[] parameters = request.getParameters();
+        writeLength(parameters == null ? -1 : parameters.length, out);
+        if (parameters != null) {
+            // 长度在序列化后回填
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            for (Object parameter : parameters) {
+                writeValue(parameter, out);
+            }
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    private RpcRequest readRequest(ByteBuf in) {
+        RpcRequest request = new RpcRequest();
+        request.setClazz(readString(in));
+        request.setMethodId(VarInts.readVarint32(in) - 1);
+        request.setMethodName(readString(in));
+
+        int typeCount = readLength(in);
+        String[] parameterTypes = typeCount < 0 ? null : new String[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            int index = in.readUnsignedByte();
+            if (index > KNOWN_TYPES.length) {
+                throw new SerializationException("Unknown parameter type index {}.", index);
+            }
+
+            parameterTypes[i] = index == 0 ? readString(in) : KNOWN_TYPES[index - 1];
+        }
+        request.setParameterTypes(parameterTypes);
+
+        int parameterCount = readLength(in);
+        if (parameterCount < 0) {
+            request.setParameters(null);
+        } else {
+            // 入站缓冲区在反序列化后即被释放，需要拷贝参数
+            byte[] body = new byte[checkLength(in.readInt(), in)];
+            in.readBytes(body);
+            request.setLazyParameters(() -> readParameters(body, parameterCount));
+        }
+
+        return request;
+    }
+
+    private Object[] readParameters(byte[] body, int parameterCount) {
+        ByteBuf in = Unpooled.wrappedBuffer(body);
+        try {
+            Object[] parameters = new Object[parameterCount];
+            for (int i = 0; i < parameterCount; i++) {
+                parameters[i] = readValue(in);
+            }
+
+            if (in.isReadable()) {
+                throw new SerializationException("Unexpected {} trailing bytes of parameters.", in.readableBytes());
+            }
+
+            return parameters;
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated content of parameters.", e);
+        }
+    }
+
+    private void writeResponse(RpcResponse response, ByteBuf out) {
+        out.writeBoolean(response.isSuccess());
+        writeValue(response.getOutcome(), out);
+    }
+
+    private RpcResponse readResponse(ByteBuf in) {
+        boolean success = in.readBoolean();
+        Object outcome = readValue(in);
+
+        RpcResponse response = new RpcResponse();
+        if (success) {
+            response.set(outcome);
+        } else if (outcome != null) {
+            if (!(outcome instanceof Throwable)) {
+                throw new SerializationException("Exceptional outcome should be a Throwable, but was {}.",
+                    outcome.getClass().getName());
+            }
+
+            response.setException((Throwable) outcome);
+        }
+
+        return response;
+    }
+
+    private void writeValue(Object value, ByteBuf out) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString((String) value, out);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            VarInts.writeVarint32(out, VarInts.encodeZigZag32((Integer) value));
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            VarInts.writeVarint64(out, VarInts.encodeZigZag64((Long) value));
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            VarInts.writeVarint32(out, bytes.length);
+            out.writeBytes(bytes);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            VarInts.writeVarint32(out, VarInts.encodeZigZag32((Short) value));
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) value);
+        } else if (MessageCodecs.getCodec(value.getClass()) != null) {
+            // 注解处理器生成了编解码器的对象
+            out.writeByte(CODEC);
+            MessageCodecs.writeObject(out, value, null);
+        } else {
+            // 复杂对象使用 Hessian，长度在序列化后回填
+            out.writeByte(HESSIAN);
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            hessian().serialize(value, out);
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    private Object readValue(ByteBuf in) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return VarInts.decodeZigZag32(VarInts.readVarint32(in));
+            case LONG:
+                return VarInts.decodeZigZag64(VarInts.readVarint64(in));
+            case STRING:
+                return readString(in);
+            case BYTES:
+                byte[] bytes = new byte[checkLength(VarInts.readVarint32(in), in)];
+                in.readBytes(bytes);
+                return bytes;
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case SHORT:
+                return (short) VarInts.decodeZigZag32(VarInts.readVarint32(in));
+            case BYTE:
+                return in.readByte();
+            case CHAR:
+                return in.readChar();
+            case HESSIAN:
+                int length = checkLength(in.readInt(), in);
+                return hessian().deserialize(in.readSlice(length), null);
+            case CODEC:
+                return MessageCodecs.readObject(in, null);
+            default:
+                throw new SerializationException("Unknown value tag {}.", tag);
+        }
+    }
+
+    private void writeString(String value, ByteBuf out) {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+
+        VarInts.writeVarint32(out, ByteBufUtil.utf8Bytes(value) + 1);
+        ByteBufUtil.writeUtf8(out, value);
+    }
+
+    private String readString(ByteBuf in) {
+        int length = readLength(in);
+        if (length < 0) {
+            return null;
+        }
+
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    private void writeLength(int length, ByteBuf out) {
+        VarInts.writeVarint32(out, length + 1);
+    }
+
+    /**
+     * @return 长度，-1 表示 null
+     */
+    private int readLength(ByteBuf in) {
+        int length = VarInts.readVarint32(in) - 1;
+        return length == -1 ? -1 : checkLength(length, in);
+    }
+
+    private int checkLength(int length, ByteBuf in) {
+        if (length < 0 || length > in.readableBytes()) {
+            throw new SerializationException("Invalid length {}, readable bytes {}.", length, in.readableBytes());
+        }
+
+        return length;
+    }
+
+    private Serializer hessian() {
+        return SerializerManager.getSerializer(SerializerManager.HESSIAN);
+    }
+}
@@ -0,0 +1,24 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import cn.zcn.rpc.bootstrap.extension.ExtensionPoint;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+
+/**
+ * 可按接口选择的序列化器扩展点，扩展名即接口配置中的序列化器名称。
+ *
+ * <p>
+ * 序列化器通过 {@link RpcSerializers#getSerializer(String)} 加载并注册到 {@code SerializerManager}，
+ * 编号写入请求的协议头，服务提供者使用请求的序列化器反序列化请求并序列化响应。
+ *
+ * @author zicung
+ */
+@ExtensionPoint
+public interface RpcSerializer extends Serializer {
+
+    /**
+     * 获取序列化器编号，参考 {@code SerializerManager}
+     *
+     * @return 序列化器编号
+     */
+    byte getCode();
+}
@@ -0,0 +1,49 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import cn.zcn.rpc.bootstrap.extension.ExtensionException;
+import cn.zcn.rpc.bootstrap.extension.ExtensionLoader;
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+
+/**
+ * 加载 {@link RpcSerializer} 扩展，并将其注册到 {@link SerializerManager}。
+ * 
+ * @author zicung
+ */
+public class RpcSerializers {
+
+	/** 服务提供者默认支持的序列化器 */
+	public static final String HESSIAN = "hessian";
+	public static final String ENVELOPE = "envelope";
+
+	private RpcSerializers() {
+	}
+
+	/**
+	 * 获取序列化器。编号未被注册时注册该序列化器，编号已被其他类型的序列化器使用时抛出异常
+	 * 
+	 * @param name
+	 *            序列化器名称
+	 * @return 序列化器
+	 */
+	public static RpcSerializer getSerializer(String name) {
+		RpcSerializer serializer = ExtensionLoader.getExtensionLoader(
+				RpcSerializer.class).getExtension(name);
+
+		synchronized (RpcSerializers.class) {
+			Serializer registered = SerializerManager.getSerializer(serializer
+					.getCode());
+			if (registered == null) {
+				SerializerManager.registerSerializer(serializer.getCode(),
+						serializer);
+			} else if (!registered.getClass().isInstance(serializer)) {
+				throw new ExtensionException(
+						"Serializer code {} of {} is already used by {}.",
+						serializer.getCode(), name, registered.getClass()
+								.getName());
+			}
+		}
+
+		return serializer;
+	}
+}
@@ -0,0 +1,59 @@
+package cn.zcn.rpc.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import org.junit.Test;
+
+public class MethodTableTest {
+
+    public interface UserService {
+        String getUser(int id);
+
+        void addUser(String name, int age);
+
+        void addUser(String name);
+
+        default String hello() {
+            return "hello";
+        }
+
+        static void print() {
+        }
+    }
+
+    public interface OtherService {
+        String getUser(int id);
+    }
+
+    @Test
+    public void testMethodsSortedBySignature() throws Exception {
+        MethodTable table = MethodTable.of(UserService.class);
+
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.getMethod(0)).isEqualTo(UserService.class.getMethod("addUser", String.class));
+        assertThat(table.getMethod(1)).isEqualTo(UserService.class.getMethod("addUser", String.class, int.class));
+        assertThat(table.getMethod(2)).isEqualTo(UserService.class.getMethod("getUser", int.class));
+        assertThat(table.getParameterTypes(1)).containsExactly("java.lang.String", "int");
+        assertThat(table.getParameterTypes(0)).containsExactly("java.lang.String");
+    }
+
+    @Test
+    public void testGetId() throws Exception {
+        MethodTable table = MethodTable.of(UserService.class);
+
+        Method method = UserService.class.getMethod("getUser", int.class);
+        assertThat(table.getId(method)).isEqualTo(2);
+        assertThat(table.getId(UserService.class.getMethod("hello"))).isEqualTo(-1);
+        assertThat(table.getId(OtherService.class.getMethod("getUser", int.class))).isEqualTo(-1);
+        assertThat(table.getId(null)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testDigest() {
+        assertThat(MethodTable.of(UserService.class)).isSameAs(MethodTable.of(UserService.class));
+        assertThat(MethodTable.of(UserService.class).getDigest()).hasSize(32);
+        assertThat(MethodTable.of(UserService.class).getDigest())
+            .isNotEqualTo(MethodTable.of(OtherService.class).getDigest());
+    }
+}
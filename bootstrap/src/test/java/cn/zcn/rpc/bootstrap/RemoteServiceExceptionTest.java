@@ -0,0 +1,39 @@
+package cn.zcn.rpc.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+import org.junit.Test;
+
+public class RemoteServiceExceptionTest {
+
+    @Test
+    public void testFrom() {
+        IllegalStateException cause = new IllegalStateException("failed", new IllegalArgumentException("inner"));
+
+        RemoteServiceException exception = RemoteServiceException.from(cause, 2);
+        assertThat(exception.getRemoteType()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(exception.getMessage()).isEqualTo("failed");
+        assertThat(exception.getCause()).isNull();
+        assertThat(exception.getStackTrace()).containsExactly(cause.getStackTrace()[0], cause.getStackTrace()[1]);
+        assertThat(exception.toString()).isEqualTo("java.lang.IllegalStateException: failed");
+
+        assertThat(RemoteServiceException.from(cause, 0).getStackTrace()).isEmpty();
+        assertThat(RemoteServiceException.from(exception, 0)).isSameAs(exception);
+    }
+
+    @Test
+    public void testSmallerThanOriginal() {
+        Serializer hessian = SerializerManager.getSerializer(SerializerManager.HESSIAN);
+        IllegalStateException cause = new IllegalStateException("failed", new IllegalArgumentException("inner"));
+
+        byte[] bytes = hessian.serialize(RemoteServiceException.from(cause, 0));
+        assertThat(bytes.length).isLessThan(hessian.serialize(cause).length / 4);
+
+        RemoteServiceException decoded = hessian.deserialize(bytes, RemoteServiceException.class.getName());
+        assertThat(decoded.getRemoteType()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(decoded.getMessage()).isEqualTo("failed");
+        assertThat(decoded.getStackTrace()).isEmpty();
+    }
+}
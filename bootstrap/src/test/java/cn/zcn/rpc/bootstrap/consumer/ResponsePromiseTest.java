@@ -1,6 +1,7 @@
 package cn.zcn.rpc.bootstrap.consumer;
 
 import cn.zcn.rpc.bootstrap.RpcResponse;
+import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.assertj.core.data.Offset;
 import org.junit.Test;
 
@@ -32,6 +33,20 @@ public class ResponsePromiseTest {
         }
     }
 
+    @Test
+    public void testCompleteLazily() throws Exception {
+        RpcResponse response = new RpcResponse();
+        ResponsePromise promise = new ResponsePromise();
+        promise.completeLazily(ImmediateEventExecutor.INSTANCE.newSucceededFuture(response));
+        assertThat(promise.isDone()).isTrue();
+        assertThat(promise.get()).isSameAs(response);
+
+        ResponsePromise failed = new ResponsePromise();
+        failed.completeLazily(ImmediateEventExecutor.INSTANCE.newFailedFuture(new IllegalStateException()));
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(failed::get)
+            .withCauseInstanceOf(IllegalStateException.class);
+    }
+
     @Test
     public void testCompleteExceptionally() {
         ResponsePromise promise = new ResponsePromise();
@@ -0,0 +1,161 @@
+package cn.zcn.rpc.bootstrap.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import cn.zcn.rpc.bootstrap.MethodTable;
+import cn.zcn.rpc.bootstrap.RemoteServiceException;
+import cn.zcn.rpc.bootstrap.RpcException;
+import cn.zcn.rpc.bootstrap.RpcRequest;
+import cn.zcn.rpc.bootstrap.RpcResponse;
+import cn.zcn.rpc.remoting.InvocationContext;
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.protocol.RpcStatus;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ProviderRequestHandlerTest {
+
+    public interface EchoService {
+        String echo(String value);
+
+        int add(int a, int b);
+    }
+
+    private ProviderRequestHandler handler;
+
+    @Before
+    public void setUp() {
+        ProviderInterfaceConfig interfaceConfig = new ProviderInterfaceConfig();
+        interfaceConfig.setInterfaceName(EchoService.class.getName());
+        interfaceConfig.setFilters(Collections.emptyList());
+        interfaceConfig.setImpl(new EchoService() {
+            @Override
+            public String echo(String value) {
+                return value;
+            }
+
+            @Override
+            public int add(int a, int b) {
+                return a + b;
+            }
+        });
+
+        handler = new ProviderRequestHandler(new ProviderConfig(), () -> true);
+        handler.addInterface(interfaceConfig);
+    }
+
+    @Test
+    public void testHandleByMethodId() throws Exception {
+        RpcRequest request = RpcRequest.from(EchoService.class.getMethod("add", int.class, int.class),
+            new Object[] { 1, 2 });
+        int methodId = MethodTable.of(EchoService.class).getId(request.getMethod());
+        RpcRequest compact = request.withMethodId(methodId);
+        assertThat(compact.getMethodName()).isNull();
+        assertThat(compact.getParameterTypes()).isNull();
+
+        assertThat(handle(compact).get()).isEqualTo(3);
+        assertThat(compact.getMethodName()).isEqualTo("add");
+        assertThat(compact.getParameterTypes()).containsExactly("int", "int");
+
+        // 修改某个请求的参数类型不影响之后的请求
+        compact.getParameterTypes()[0] = "long";
+        RpcRequest next = request.withMethodId(methodId);
+        assertThat(handle(next).get()).isEqualTo(3);
+        assertThat(next.getParameterTypes()).containsExactly("int", "int");
+    }
+
+    @Test
+    public void testHandleBySignature() throws Exception {
+        RpcRequest request = RpcRequest.from(EchoService.class.getMethod("echo", String.class),
+            new Object[] { "hello" });
+
+        assertThat(handle(request).get()).isEqualTo("hello");
+    }
+
+    @Test
+    public void testHandleUnknownMethodId() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz(EchoService.class.getName());
+        request.setMethodId(MethodTable.of(EchoService.class).size());
+
+        RpcResponse response = handle(request);
+        assertThat(response.isSuccess()).isFalse();
+        assertThat(response.getOutcome()).isInstanceOf(RpcException.class);
+    }
+
+    @Test
+    public void testParametersNotDeserializedForUnknownMethod() {
+        AtomicBoolean deserialized = new AtomicBoolean();
+        RpcRequest request = new RpcRequest();
+        request.setClazz(EchoService.class.getName());
+        request.setMethodName("unknown");
+        request.setLazyParameters(() -> {
+            deserialized.set(true);
+            return new Object[0];
+        });
+
+        assertThat(handle(request).isSuccess()).isFalse();
+        assertThat(deserialized).isFalse();
+    }
+
+    @Test
+    public void testParametersDeserializationFailed() throws Exception {
+        RpcRequest request = RpcRequest.from(EchoService.class.getMethod("echo", String.class), null);
+        request.setLazyParameters(() -> {
+            throw new SerializationException("failed");
+        });
+
+        RpcResponse response = handle(request);
+        assertThat(response.isSuccess()).isFalse();
+        assertThat((Throwable) response.getOutcome()).isInstanceOf(RpcException.class)
+            .hasCauseInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    public void testCompactException() throws Exception {
+        handler = new ProviderRequestHandler(new ProviderConfig().setExceptionStackDepth(1), () -> true);
+        ProviderInterfaceConfig interfaceConfig = new ProviderInterfaceConfig();
+        interfaceConfig.setInterfaceName(EchoService.class.getName());
+        interfaceConfig.setFilters(Collections.emptyList());
+        interfaceConfig.setImpl(new EchoService() {
+            @Override
+            public String echo(String value) {
+                throw new IllegalArgumentException(value, new IllegalStateException());
+            }
+
+            @Override
+            public int add(int a, int b) {
+                return a + b;
+            }
+        });
+        handler.addInterface(interfaceConfig);
+
+        InvocationContext ctx = mock(InvocationContext.class);
+        handler.handle(ctx, RpcRequest.from(EchoService.class.getMethod("echo", String.class),
+            new Object[] { "failed" }));
+
+        ArgumentCaptor<RpcResponse> captor = ArgumentCaptor.forClass(RpcResponse.class);
+        verify(ctx).writeAndFlushResponse(captor.capture(), eq(RpcStatus.SERVICE_ERROR));
+        RpcResponse response = captor.getValue();
+        assertThat(response.getOutcome()).isInstanceOf(RemoteServiceException.class);
+
+        RemoteServiceException exception = (RemoteServiceException) response.getOutcome();
+        assertThat(exception.getRemoteType()).isEqualTo(IllegalArgumentException.class.getName());
+        assertThat(exception.getMessage()).isEqualTo("failed");
+        assertThat(exception.getCause()).isNull();
+        assertThat(exception.getStackTrace()).hasSize(1);
+    }
+
+    private RpcResponse handle(RpcRequest request) {
+        InvocationContext ctx = mock(InvocationContext.class);
+        handler.handle(ctx, request);
+
+        ArgumentCaptor<RpcResponse> captor = ArgumentCaptor.forClass(RpcResponse.class);
+        verify(ctx).writeAndFlushResponse(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,156 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.bootstrap.RpcRequest;
+import cn.zcn.rpc.bootstrap.RpcResponse;
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class RpcEnvelopeSerializerTest {
+
+    private static Serializer serializer;
+
+    @BeforeClass
+    public static void register() {
+        RpcEnvelopeSerializer.register();
+        serializer = SerializerManager.getSerializer(SerializerManager.RPC_ENVELOPE);
+    }
+
+    @Test
+    public void testRequest() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+        request.setParameterTypes(new String[] { "int", "long", "java.lang.String", "[B", "boolean", "double",
+                                                 "java.lang.Float", "short", "byte", "char", "java.lang.Object",
+                                                 Dto.class.getName() });
+        request.setParameters(new Object[] { -1, Long.MIN_VALUE, "中文", new byte[] { 1, 2 }, true, 1.5d, 2.5f,
+                                             (short) -3, (byte) 4, 'c', null, new Dto("dto") });
+
+        RpcRequest decoded = serializer.deserialize(serializer.serialize(request), RpcRequest.class.getName());
+
+        assertThat(decoded.getClazz()).isEqualTo(request.getClazz());
+        assertThat(decoded.getMethodName()).isEqualTo(request.getMethodName());
+        assertThat(decoded.getParameterTypes()).containsExactly(request.getParameterTypes());
+        assertThat(decoded.getParameters()).hasSize(12);
+        assertThat(Arrays.copyOf(decoded.getParameters(), 11)).containsExactly(-1, Long.MIN_VALUE, "中文",
+            new byte[] { 1, 2 }, true, 1.5d, 2.5f, (short) -3, (byte) 4, 'c', null);
+        assertThat(((Dto) decoded.getParameters()[11]).name).isEqualTo("dto");
+    }
+
+    @Test
+    public void testRequestWithoutParameters() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+        request.setParameters(null);
+
+        RpcRequest decoded = serializer.deserialize(serializer.serialize(request), RpcRequest.class.getName());
+        assertThat(decoded.getParameterTypes()).isEmpty();
+        assertThat(decoded.getParameters()).isNull();
+    }
+
+    @Test
+    public void testRequestWithMethodId() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+        request.setParameterTypes(new String[] { "int" });
+        request.setParameters(new Object[] { 1 });
+
+        RpcRequest compact = request.withMethodId(3);
+        RpcRequest decoded = serializer.deserialize(serializer.serialize(compact), RpcRequest.class.getName());
+        assertThat(decoded.getMethodId()).isEqualTo(3);
+        assertThat(decoded.getMethodName()).isNull();
+        assertThat(decoded.getParameters()).containsExactly(1);
+        assertThat(serializer.serialize(compact).length).isLessThan(serializer.serialize(request).length);
+
+        decoded = serializer.deserialize(serializer.serialize(request), RpcRequest.class.getName());
+        assertThat(decoded.getMethodId()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testLazyParameters() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+        request.setParameterTypes(new String[] { "java.lang.String" });
+        request.setParameters(new Object[] { "a" });
+
+        // 破坏参数的类型标记，只有在读取参数时才失败
+        byte[] bytes = serializer.serialize(request);
+        bytes[bytes.length - 3] = 99;
+
+        RpcRequest decoded = serializer.deserialize(bytes, RpcRequest.class.getName());
+        assertThat(decoded.getClazz()).isEqualTo("cn.zcn.rpc.Example");
+        assertThat(decoded.getMethodName()).isEqualTo("method");
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(decoded::getParameters);
+    }
+
+    @Test
+    public void testSmallerThanHessian() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+        request.setParameterTypes(new String[] { "int", "java.lang.String" });
+        request.setParameters(new Object[] { 1, "a" });
+
+        Serializer hessian = SerializerManager.getSerializer(SerializerManager.HESSIAN);
+        assertThat(serializer.serialize(request).length).isLessThan(hessian.serialize(request).length / 2);
+    }
+
+    @Test
+    public void testResponse() throws Exception {
+        RpcResponse response = new RpcResponse();
+        response.set(Collections.singletonMap("key", 1L));
+
+        RpcResponse decoded = serializer.deserialize(serializer.serialize(response), RpcResponse.class.getName());
+        assertThat(decoded.isSuccess()).isTrue();
+        assertThat(decoded.get()).isEqualTo(Collections.singletonMap("key", 1L));
+
+        response = new RpcResponse();
+        response.setException(new IllegalStateException("failed"));
+
+        ByteBuf byteBuf = Unpooled.buffer();
+        serializer.serialize(response, byteBuf);
+        RpcResponse exceptional = serializer.deserialize(byteBuf, RpcResponse.class.getName());
+        assertThat(exceptional.isSuccess()).isFalse();
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(exceptional::get)
+            .withCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testOtherObject() {
+        Dto decoded = serializer.deserialize(serializer.serialize(new Dto("dto")), Dto.class.getName());
+        assertThat(decoded.name).isEqualTo("dto");
+    }
+
+    @Test
+    public void testTruncated() {
+        RpcRequest request = new RpcRequest();
+        request.setClazz("cn.zcn.rpc.Example");
+        request.setMethodName("method");
+
+        byte[] bytes = serializer.serialize(request);
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(
+            () -> serializer.deserialize(Arrays.copyOf(bytes, bytes.length - 1), RpcRequest.class.getName()));
+    }
+
+    private static class Dto implements Serializable {
+        private String name;
+
+        Dto(String name) {
+            this.name = name;
+        }
+    }
+}
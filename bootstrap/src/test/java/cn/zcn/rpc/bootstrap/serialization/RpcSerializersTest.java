@@ -0,0 +1,32 @@
+package cn.zcn.rpc.bootstrap.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import cn.zcn.rpc.bootstrap.extension.ExtensionException;
+import cn.zcn.rpc.remoting.SerializerManager;
+import org.junit.Test;
+
+public class RpcSerializersTest {
+
+    @Test
+    public void testGetSerializer() {
+        RpcSerializer hessian = RpcSerializers.getSerializer(RpcSerializers.HESSIAN);
+        assertThat(hessian.getCode()).isEqualTo(SerializerManager.HESSIAN);
+        assertThat(hessian.<String> deserialize(hessian.serialize("hello"), String.class.getName()))
+            .isEqualTo("hello");
+
+        RpcSerializer envelope = RpcSerializers.getSerializer(RpcSerializers.ENVELOPE);
+        assertThat(envelope).isInstanceOf(RpcEnvelopeSerializer.class);
+        assertThat(envelope.getCode()).isEqualTo(SerializerManager.RPC_ENVELOPE);
+        assertThat(SerializerManager.getSerializer(SerializerManager.RPC_ENVELOPE))
+            .isInstanceOf(RpcEnvelopeSerializer.class);
+
+        assertThat(RpcSerializers.getSerializer(RpcSerializers.ENVELOPE)).isSameAs(envelope);
+    }
+
+    @Test
+    public void testUnknownSerializer() {
+        assertThatThrownBy(() -> RpcSerializers.getSerializer("unknown")).isInstanceOf(ExtensionException.class);
+    }
+}
@@ -0,0 +1,574 @@
+package cn.zcn.rpc.codegen;
+
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodec;
+import cn.zcn.rpc.remoting.serialization.codec.RpcMessage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * 为 {@link RpcMessage} 标记的类生成 {@link MessageCodec}，并写入 {@code META-INF/services} 注册文件。
+ *
+ * <p>
+ * 编解码器生成在消息类所在的包中，类名为消息类的 binary name 加上 {@link #CODEC_SUFFIX}，例如
+ * {@code Outer$Inner$$MessageCodec}。字段按照父类到子类、声明的顺序读写：基本类型、String、byte[] 直接读写；
+ * List、Collection 逐个读写元素；同样被 {@link RpcMessage} 标记的类型使用其编解码器；其他类型使用
+ * {@code MessageCodecs#writeObject} 的通用编码。
+ *
+ * @author zicung
+ */
+@SupportedAnnotationTypes("cn.zcn.rpc.remoting.serialization.codec.RpcMessage")
+public class RpcMessageProcessor extends AbstractProcessor {
+
+    /**
+     * 生成的编解码器类名后缀
+     */
+    public static final String CODEC_SUFFIX = "$$MessageCodec";
+
+    private static final String SERVICE_FILE = "META-INF/services/" + MessageCodec.class.getName();
+    private static final String CODECS = "cn.zcn.rpc.remoting.serialization.codec.MessageCodecs";
+
+    private final Set<String> generatedCodecs = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RpcMessage.class)) {
+            try {
+                TypeElement type = (TypeElement) element;
+                generatedCodecs.add(new CodecWriter(type).write());
+            } catch (CodegenException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write message codec: " + e.getMessage(), element);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generatedCodecs.isEmpty()) {
+            writeServiceFile();
+        }
+
+        return true;
+    }
+
+    /**
+     * 写入注册文件，保留增量编译时此前生成的编解码器
+     */
+    private void writeServiceFile() {
+        Set<String> codecs = new TreeSet<>(generatedCodecs);
+        try {
+            FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        codecs.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 注册文件不存在
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : codecs) {
+                    writer.write(codec);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Failed to write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取消息类的编解码器的类名
+     *
+     * @param elements Elements
+     * @param type 消息类
+     * @return 编解码器的全限定类名
+     */
+    static String codecName(Elements elements, TypeElement type) {
+        return elements.getBinaryName(type) + CODEC_SUFFIX;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 消息类的一个字段
+     */
+    private static class Property {
+        private final VariableElement field;
+        private final String name;
+        private final TypeMirror type;
+        private String reader;
+        private String writer;
+
+        Property(VariableElement field) {
+            this.field = field;
+            this.name = field.getSimpleName().toString();
+            this.type = field.asType();
+        }
+    }
+
+    private class CodecWriter {
+        private final Elements elements = processingEnv.getElementUtils();
+        private final Types types = processingEnv.getTypeUtils();
+
+        private final TypeElement type;
+        private final PackageElement pkg;
+        private final String typeName;
+        private final String codecName;
+
+        /**
+         * 引用的其他编解码器，key 为编解码器类名，value 为常量名
+         */
+        private final Map<String, String> codecConstants = new LinkedHashMap<>();
+        private final Map<String, String> codecTypes = new LinkedHashMap<>();
+
+        CodecWriter(TypeElement type) {
+            this.type = type;
+            this.pkg = elements.getPackageOf(type);
+            this.typeName = type.getQualifiedName().toString();
+            this.codecName = codecName(elements, type);
+        }
+
+        String write() throws IOException {
+            checkType();
+
+            List<Property> properties = collectProperties();
+            for (Property property : properties) {
+                property.reader = resolveReader(property);
+            }
+
+            ExecutableElement constructor = findConstructor(properties);
+            if (constructor == null) {
+                if (findDefaultConstructor() == null) {
+                    throw new CodegenException(type, "@RpcMessage class " + typeName
+                                                     + " needs an accessible constructor taking all fields by name, "
+                                                     + "or an accessible no-arg constructor.");
+                }
+
+                for (Property property : properties) {
+                    property.writer = resolveWriter(property);
+                }
+            }
+
+            StringBuilder encode = new StringBuilder();
+            for (Property property : properties) {
+                encode.append("        ").append(writeStatement(property.type, property.reader)).append('\n');
+            }
+
+            StringBuilder decode = new StringBuilder();
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                decode.append("        ").append(property.type).append(" v").append(i).append(" = ")
+                    .append(readExpression(property.type)).append(";\n");
+            }
+
+            if (constructor != null) {
+                List<String> args = new ArrayList<>();
+                for (VariableElement parameter : constructor.getParameters()) {
+                    args.add("v" + indexOf(properties, parameter.getSimpleName().toString()));
+                }
+
+                decode.append("        return new ").append(typeName).append('(').append(String.join(", ", args))
+                    .append(");\n");
+            } else {
+                decode.append("        ").append(typeName).append(" message = new ").append(typeName).append("();\n");
+                for (int i = 0; i < properties.size(); i++) {
+                    decode.append("        ").append(String.format(properties.get(i).writer, "v" + i)).append('\n');
+                }
+                decode.append("        return message;\n");
+            }
+
+            writeSource(encode, decode);
+            return codecName;
+        }
+
+        private void checkType() {
+            if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+                throw new CodegenException(type, "@RpcMessage can only be used on concrete classes.");
+            }
+
+            if (!type.getTypeParameters().isEmpty()) {
+                throw new CodegenException(type, "@RpcMessage class " + typeName + " should not be generic.");
+            }
+
+            for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+                if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                    throw new CodegenException(type, "@RpcMessage class " + typeName + " should not be private.");
+                }
+
+                if (e.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                    && !e.getModifiers().contains(Modifier.STATIC)) {
+                    throw new CodegenException(type, "Nested @RpcMessage class " + typeName + " should be static.");
+                }
+            }
+        }
+
+        private List<Property> collectProperties() {
+            List<TypeElement> hierarchy = new ArrayList<>();
+            for (TypeElement t = type; t != null; t = superclass(t)) {
+                hierarchy.add(0, t);
+            }
+
+            List<Property> properties = new ArrayList<>();
+            for (TypeElement t : hierarchy) {
+                for (VariableElement field : ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                    Set<Modifier> modifiers = field.getModifiers();
+                    if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                        continue;
+                    }
+
+                    Property property = new Property(field);
+                    if (indexOf(properties, property.name) >= 0) {
+                        throw new CodegenException(field, "Field " + property.name + " of @RpcMessage class "
+                                                          + typeName + " hides a field of its superclass.");
+                    }
+
+                    properties.add(property);
+                }
+            }
+
+            return properties;
+        }
+
+        private TypeElement superclass(TypeElement t) {
+            TypeMirror superclass = t.getSuperclass();
+            if (superclass.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+
+            TypeElement element = (TypeElement) types.asElement(superclass);
+            return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+        }
+
+        private String resolveReader(Property property) {
+            if (isAccessible(property.field)) {
+                return "message." + property.name;
+            }
+
+            String suffix = capitalize(property.name);
+            for (ExecutableElement method : methods()) {
+                String name = method.getSimpleName().toString();
+                boolean getter = name.equals("get" + suffix)
+                                 || (property.type.getKind() == TypeKind.BOOLEAN && name.equals("is" + suffix));
+                if (getter && method.getParameters().isEmpty() && isAccessible(method)
+                    && types.isSameType(method.getReturnType(), property.type)) {
+                    return "message." + name + "()";
+                }
+            }
+
+            throw new CodegenException(property.field, "Field " + property.name + " of @RpcMessage class " + typeName
+                                                       + " is neither accessible nor has an accessible getter.");
+        }
+
+        private String resolveWriter(Property property) {
+            if (isAccessible(property.field) && !property.field.getModifiers().contains(Modifier.FINAL)) {
+                return "message." + property.name + " = %s;";
+            }
+
+            String name = "set" + capitalize(property.name);
+            for (ExecutableElement method : methods()) {
+                if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+                    && isAccessible(method)
+                    && types.isSameType(method.getParameters().get(0).asType(), property.type)) {
+                    return "message." + name + "(%s);";
+                }
+            }
+
+            throw new CodegenException(property.field, "Field " + property.name + " of @RpcMessage class " + typeName
+                                                       + " is neither assignable nor has an accessible setter.");
+        }
+
+        private List<ExecutableElement> methods() {
+            List<ExecutableElement> methods = new ArrayList<>();
+            for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                if (!method.getModifiers().contains(Modifier.STATIC)) {
+                    methods.add(method);
+                }
+            }
+
+            return methods;
+        }
+
+        /**
+         * 查找参数名与类型覆盖全部字段的构造方法
+         */
+        private ExecutableElement findConstructor(List<Property> properties) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (!isAccessible(constructor) || constructor.getParameters().size() != properties.size()
+                    || properties.isEmpty()) {
+                    continue;
+                }
+
+                boolean matched = true;
+                for (VariableElement parameter : constructor.getParameters()) {
+                    int index = indexOf(properties, parameter.getSimpleName().toString());
+                    if (index < 0 || !types.isSameType(parameter.asType(), properties.get(index).type)) {
+                        matched = false;
+                        break;
+                    }
+                }
+
+                if (matched) {
+                    return constructor;
+                }
+            }
+
+            return null;
+        }
+
+        private ExecutableElement findDefaultConstructor() {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty() && isAccessible(constructor)) {
+                    return constructor;
+                }
+            }
+
+            return null;
+        }
+
+        private boolean isAccessible(Element element) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+
+            return modifiers.contains(Modifier.PUBLIC) || elements.getPackageOf(element).equals(pkg);
+        }
+
+        private String writeStatement(TypeMirror t, String value) {
+            switch (t.getKind()) {
+                case BOOLEAN:
+                    return "out.writeBoolean(" + value + ");";
+                case BYTE:
+                    return "out.writeByte(" + value + ");";
+                case CHAR:
+                    return "out.writeChar(" + value + ");";
+                case SHORT:
+                case INT:
+                    return CODECS + ".writeInt(out, " + value + ");";
+                case LONG:
+                    return CODECS + ".writeLong(out, " + value + ");";
+                case FLOAT:
+                    return "out.writeFloat(" + value + ");";
+                case DOUBLE:
+                    return "out.writeDouble(" + value + ");";
+                default:
+                    break;
+            }
+
+            if (isBoxed(t)) {
+                return "if (" + value + " == null) {\n            out.writeBoolean(false);\n        } else {\n"
+                       + "            out.writeBoolean(true);\n            "
+                       + writeStatement(types.unboxedType(t), value) + "\n        }";
+            } else if (isByteArray(t)) {
+                return CODECS + ".writeBytes(out, " + value + ");";
+            } else if (isType(t, String.class)) {
+                return CODECS + ".writeString(out, " + value + ");";
+            } else if (isCollection(t)) {
+                return CODECS + ".writeCollection(out, " + value + ", " + elementCodec(t) + ");";
+            }
+
+            return CODECS + ".writeObject(out, " + value + ", " + codecOf(t) + ");";
+        }
+
+        private String readExpression(TypeMirror t) {
+            switch (t.getKind()) {
+                case BOOLEAN:
+                    return "in.readBoolean()";
+                case BYTE:
+                    return "in.readByte()";
+                case CHAR:
+                    return "in.readChar()";
+                case SHORT:
+                    return "(short) " + CODECS + ".readInt(in)";
+                case INT:
+                    return CODECS + ".readInt(in)";
+                case LONG:
+                    return CODECS + ".readLong(in)";
+                case FLOAT:
+                    return "in.readFloat()";
+                case DOUBLE:
+                    return "in.readDouble()";
+                default:
+                    break;
+            }
+
+            if (isBoxed(t)) {
+                return "in.readBoolean() ? " + t + ".valueOf(" + readExpression(types.unboxedType(t)) + ") : null";
+            } else if (isByteArray(t)) {
+                return CODECS + ".readBytes(in)";
+            } else if (isType(t, String.class)) {
+                return CODECS + ".readString(in)";
+            } else if (isCollection(t)) {
+                return CODECS + ".readList(in, " + elementCodec(t) + ")";
+            }
+
+            return CODECS + ".readObject(in, " + codecOf(t) + ")";
+        }
+
+        private boolean isBoxed(TypeMirror t) {
+            if (t.getKind() != TypeKind.DECLARED) {
+                return false;
+            }
+
+            try {
+                types.unboxedType(t);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private boolean isByteArray(TypeMirror t) {
+            return t.getKind() == TypeKind.ARRAY && ((ArrayType) t).getComponentType().getKind() == TypeKind.BYTE;
+        }
+
+        private boolean isType(TypeMirror t, Class<?> clazz) {
+            return t.getKind() == TypeKind.DECLARED
+                   && ((TypeElement) types.asElement(t)).getQualifiedName().contentEquals(clazz.getName());
+        }
+
+        private boolean isCollection(TypeMirror t) {
+            return isType(t, List.class) || isType(t, Collection.class);
+        }
+
+        private String elementCodec(TypeMirror collection) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) collection).getTypeArguments();
+            return arguments.size() == 1 ? codecOf(arguments.get(0)) : "null";
+        }
+
+        /**
+         * 获取声明类型的编解码器，声明类型没有被 {@link RpcMessage} 标记时返回 null
+         */
+        private String codecOf(TypeMirror t) {
+            if (t.getKind() != TypeKind.DECLARED) {
+                return "null";
+            }
+
+            TypeElement element = (TypeElement) types.asElement(t);
+            if (element.getAnnotation(RpcMessage.class) == null) {
+                return "null";
+            }
+
+            if (element.equals(type)) {
+                return "this";
+            }
+
+            String name = codecName(elements, element);
+            String constant = codecConstants.get(name);
+            if (constant == null) {
+                constant = "CODEC_" + codecConstants.size();
+                codecConstants.put(name, constant);
+                codecTypes.put(name, element.getQualifiedName().toString());
+            }
+
+            return constant;
+        }
+
+        private void writeSource(StringBuilder encode, StringBuilder decode) throws IOException {
+            String packageName = pkg.getQualifiedName().toString();
+            String simpleName = packageName.isEmpty() ? codecName : codecName.substring(packageName.length() + 1);
+            String codecInterface = MessageCodec.class.getName();
+
+            StringBuilder source = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                source.append("package ").append(packageName).append(";\n\n");
+            }
+
+            source.append("/**\n * Generated by ").append(RpcMessageProcessor.class.getName()).append(" for {@link ")
+                .append(typeName).append("}, do not edit.\n */\n");
+            source.append("public final class ").append(simpleName).append(" implements ").append(codecInterface)
+                .append('<').append(typeName).append("> {\n\n");
+
+            for (Map.Entry<String, String> entry : codecConstants.entrySet()) {
+                source.append("    private static final ").append(codecInterface).append('<')
+                    .append(codecTypes.get(entry.getKey())).append("> ").append(entry.getValue()).append(" = new ")
+                    .append(entry.getKey()).append("();\n");
+            }
+
+            if (!codecConstants.isEmpty()) {
+                source.append('\n');
+            }
+
+            source.append("    @Override\n    public Class<").append(typeName).append("> getType() {\n")
+                .append("        return ").append(typeName).append(".class;\n    }\n\n");
+            source.append("    @Override\n    public void encode(").append(typeName)
+                .append(" message, io.netty.buffer.ByteBuf out) {\n").append(encode).append("    }\n\n");
+            source.append("    @Override\n    public ").append(typeName)
+                .append(" decode(io.netty.buffer.ByteBuf in) {\n").append(decode).append("    }\n}\n");
+
+            try (Writer writer = processingEnv.getFiler().createSourceFile(codecName, type).openWriter()) {
+                writer.write(source.toString());
+            }
+        }
+    }
+
+    private static int indexOf(List<Property> properties, String name) {
+        for (int i = 0; i < properties.size(); i++) {
+            if (properties.get(i).name.equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * 消息类不满足生成编解码器的要求
+     */
+    private static class CodegenException extends RuntimeException {
+        private final transient Element element;
+
+        CodegenException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
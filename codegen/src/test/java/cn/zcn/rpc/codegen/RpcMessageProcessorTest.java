@@ -0,0 +1,287 @@
+package cn.zcn.rpc.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodec;
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodecs;
+import cn.zcn.rpc.remoting.serialization.codec.RpcMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class RpcMessageProcessorTest {
+
+    private final Serializer serializer = SerializerManager.getSerializer(SerializerManager.MESSAGE_CODEC);
+
+    @Test
+    public void testCodecsRegistered() {
+        assertThat(MessageCodecs.getCodec(Student.class)).isInstanceOf(RpcMessageProcessorTest$Student$$MessageCodec.class);
+        assertThat(MessageCodecs.getCodec(Order.class)).isInstanceOf(RpcMessageProcessorTest$Order$$MessageCodec.class);
+        assertThat(MessageCodecs.getCodec(Item.class)).isNotNull();
+        assertThat(MessageCodecs.getCodec(Student.class.getName())).isSameAs(MessageCodecs.getCodec(Student.class));
+    }
+
+    @Test
+    public void testConstructor() {
+        Student student = serializer.deserialize(serializer.serialize(new Student("Tom", 18)),
+            Student.class.getName());
+
+        assertThat(student.getName()).isEqualTo("Tom");
+        assertThat(student.getAge()).isEqualTo(18);
+    }
+
+    @Test
+    public void testSettersAndNestedMessages() {
+        Order order = newOrder();
+        order.setParent(newOrder());
+
+        Order decoded = serializer.deserialize(serializer.serialize(order), Order.class.getName());
+        assertOrder(decoded);
+        assertOrder(decoded.getParent());
+        assertThat(decoded.getParent().getParent()).isNull();
+        assertThat(decoded.cache).isNull();
+    }
+
+    @Test
+    public void testNullFields() {
+        Order decoded = serializer.deserialize(serializer.serialize(new Order()), Order.class.getName());
+
+        assertThat(decoded.getId()).isZero();
+        assertThat(decoded.getCount()).isNull();
+        assertThat(decoded.getItems()).isNull();
+        assertThat(decoded.getData()).isNull();
+        assertThat(decoded.getAttributes()).isNull();
+    }
+
+    @Test
+    public void testSmallerThanHessian() {
+        Serializer hessian = SerializerManager.getSerializer(SerializerManager.HESSIAN);
+        assertThat(serializer.serialize(newOrder()).length).isLessThan(hessian.serialize(newOrder()).length / 2);
+    }
+
+    @Test
+    public void testCodecWithoutSerializer() {
+        MessageCodec<Item> codec = MessageCodecs.getCodec(Item.class);
+        ByteBuf byteBuf = Unpooled.buffer();
+        codec.encode(new Item("apple", 1.5f), byteBuf);
+
+        Item item = codec.decode(byteBuf);
+        assertThat(item.name).isEqualTo("apple");
+        assertThat(item.price).isEqualTo(1.5f);
+        assertThat(byteBuf.isReadable()).isFalse();
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setCreator("admin");
+        order.setId(Long.MAX_VALUE);
+        order.setCount(-1);
+        order.setFlag((short) 7);
+        order.setLevel('A');
+        order.setPaid(true);
+        order.setData(new byte[] { 1, 2, 3 });
+        order.setItems(new ArrayList<>(Arrays.asList(new Item("apple", 1.5f), null, new Item("pear", 2f))));
+        order.setTags(Arrays.asList("a", "b"));
+        order.setAttributes(Collections.singletonMap("key", 1));
+        order.setUnit(TimeUnit.SECONDS);
+        order.setExtra(new Extra("extra"));
+        order.cache = "cache";
+        return order;
+    }
+
+    private void assertOrder(Order order) {
+        assertThat(order.getCreator()).isEqualTo("admin");
+        assertThat(order.getId()).isEqualTo(Long.MAX_VALUE);
+        assertThat(order.getCount()).isEqualTo(-1);
+        assertThat(order.getFlag()).isEqualTo((short) 7);
+        assertThat(order.getLevel()).isEqualTo('A');
+        assertThat(order.isPaid()).isTrue();
+        assertThat(order.getData()).containsExactly(1, 2, 3);
+        assertThat(order.getItems()).hasSize(3);
+        assertThat(order.getItems().get(0).name).isEqualTo("apple");
+        assertThat(order.getItems().get(1)).isNull();
+        assertThat(order.getItems().get(2).price).isEqualTo(2f);
+        assertThat(order.getTags()).containsExactly("a", "b");
+        assertThat(order.getAttributes()).containsEntry("key", 1);
+        assertThat(order.getUnit()).isEqualTo(TimeUnit.SECONDS);
+        assertThat(order.getExtra().value).isEqualTo("extra");
+    }
+
+    @RpcMessage
+    public static class Student {
+        private final String name;
+        private final int age;
+
+        public Student(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    public static class BaseMessage implements Serializable {
+        private String creator;
+
+        public String getCreator() {
+            return creator;
+        }
+
+        public void setCreator(String creator) {
+            this.creator = creator;
+        }
+    }
+
+    @RpcMessage
+    public static class Order extends BaseMessage {
+        private long id;
+        private Integer count;
+        private Short flag;
+        private Character level;
+        private boolean paid;
+        private byte[] data;
+        private List<Item> items;
+        private List<String> tags;
+        private Map<String, Integer> attributes;
+        private TimeUnit unit;
+        private Extra extra;
+        private Order parent;
+        transient String cache;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public Short getFlag() {
+            return flag;
+        }
+
+        public void setFlag(Short flag) {
+            this.flag = flag;
+        }
+
+        public Character getLevel() {
+            return level;
+        }
+
+        public void setLevel(Character level) {
+            this.level = level;
+        }
+
+        public boolean isPaid() {
+            return paid;
+        }
+
+        public void setPaid(boolean paid) {
+            this.paid = paid;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public void setData(byte[] data) {
+            this.data = data;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Map<String, Integer> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, Integer> attributes) {
+            this.attributes = attributes;
+        }
+
+        public TimeUnit getUnit() {
+            return unit;
+        }
+
+        public void setUnit(TimeUnit unit) {
+            this.unit = unit;
+        }
+
+        public Extra getExtra() {
+            return extra;
+        }
+
+        public void setExtra(Extra extra) {
+            this.extra = extra;
+        }
+
+        public Order getParent() {
+            return parent;
+        }
+
+        public void setParent(Order parent) {
+            this.parent = parent;
+        }
+    }
+
+    @RpcMessage
+    static class Item implements Serializable {
+        String name;
+        float price;
+
+        Item() {
+        }
+
+        Item(String name, float price) {
+            this.name = name;
+            this.price = price;
+        }
+    }
+
+    /**
+     * 没有编解码器，使用 Hessian 序列化
+     */
+    public static class Extra implements Serializable {
+        private String value;
+
+        public Extra(String value) {
+            this.value = value;
+        }
+    }
+}
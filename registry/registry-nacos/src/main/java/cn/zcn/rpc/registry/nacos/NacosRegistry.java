@@ -171,6 +171,16 @@ public class NacosRegistry extends Registry {
                 provider.setIp(instance.getIp());
                 provider.setPort(instance.getPort());
 
+                String methods = instance.getMetadata().get(Provider.METHODS);
+                if (methods != null) {
+                    provider.putAdditionalParameter(Provider.METHODS, methods);
+                }
+
+                String serializers = instance.getMetadata().get(Provider.SERIALIZERS);
+                if (serializers != null) {
+                    provider.putAdditionalParameter(Provider.SERIALIZERS, serializers);
+                }
+
                 providers.add(provider);
             }
             return providers;
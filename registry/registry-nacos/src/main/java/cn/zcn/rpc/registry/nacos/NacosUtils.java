@@ -1,5 +1,6 @@
 package cn.zcn.rpc.registry.nacos;
 
+import cn.zcn.rpc.bootstrap.MethodTable;
 import cn.zcn.rpc.bootstrap.provider.ProviderConfig;
 import cn.zcn.rpc.bootstrap.provider.ProviderInterfaceConfig;
 import cn.zcn.rpc.bootstrap.registry.Provider;
@@ -30,6 +31,11 @@ public class NacosUtils {
         metadata.put(WARMUP, String.valueOf(providerConfig.getWarmup()));
         metadata.put(
             START_TIME, String.valueOf(ManagementFactory.getRuntimeMXBean().getStartTime()));
+        String methods = MethodTable.getDigest(interfaceConfig.getInterfaceName());
+        if (methods != null) {
+            metadata.put(Provider.METHODS, methods);
+        }
+        metadata.put(Provider.SERIALIZERS, String.join(",", interfaceConfig.getSerializers()));
         instance.setMetadata(metadata);
 
         return instance;
@@ -43,6 +49,12 @@ public class NacosUtils {
         provider.setWeight(Integer.parseInt(metadata.get(WEIGHT)));
         provider.setWarmup(Integer.parseInt(metadata.get(WARMUP)));
         provider.setStartTime(Long.parseLong(metadata.get(START_TIME)));
+        if (metadata.containsKey(Provider.METHODS)) {
+            provider.putAdditionalParameter(Provider.METHODS, metadata.get(Provider.METHODS));
+        }
+        if (metadata.containsKey(Provider.SERIALIZERS)) {
+            provider.putAdditionalParameter(Provider.SERIALIZERS, metadata.get(Provider.SERIALIZERS));
+        }
 
         return provider;
     }
@@ -1,5 +1,6 @@
 package cn.zcn.rpc.registry.zookeeper;
 
+import cn.zcn.rpc.bootstrap.MethodTable;
 import cn.zcn.rpc.bootstrap.consumer.ConsumerInterfaceConfig;
 import cn.zcn.rpc.bootstrap.extension.Extension;
 import cn.zcn.rpc.bootstrap.provider.ProviderConfig;
@@ -218,6 +219,11 @@ public class ZookeeperRegistry extends Registry {
         provider.setWarmup(providerConfig.getWarmup());
         provider.setWeight(providerConfig.getWeight());
         provider.setService(interfaceConfig.getInterfaceName());
+        String methods = MethodTable.getDigest(interfaceConfig.getInterfaceName());
+        if (methods != null) {
+            provider.putAdditionalParameter(Provider.METHODS, methods);
+        }
+        provider.putAdditionalParameter(Provider.SERIALIZERS, String.join(",", interfaceConfig.getSerializers()));
         return provider.toUrl();
     }
 
@@ -0,0 +1,92 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.protocol.BatchItem;
+import cn.zcn.rpc.remoting.protocol.CommandHeaders;
+import cn.zcn.rpc.remoting.protocol.RpcStatus;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+
+/**
+ * 批量请求中某一项的调用上下文。连接、超时等信息与整个批量请求相同，
+ * 响应不直接写回，而是交给 {@link BatchResponseCollector} 合并。
+ *
+ * @author zicung
+ */
+class BatchInvocationContext implements InvocationContext {
+
+    private final DefaultInvocationContext batchContext;
+    private final BatchResponseCollector collector;
+    private final Serializer serializer;
+    private final int index;
+
+    BatchInvocationContext(DefaultInvocationContext batchContext, BatchResponseCollector collector,
+                           Serializer serializer, int index) {
+        this.batchContext = batchContext;
+        this.collector = collector;
+        this.serializer = serializer;
+        this.index = index;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return batchContext.getRemoteHost();
+    }
+
+    @Override
+    public int getRemotePort() {
+        return batchContext.getRemotePort();
+    }
+
+    @Override
+    public int getRequestId() {
+        return batchContext.getRequestId();
+    }
+
+    @Override
+    public CommandHeaders getHeaders() {
+        return batchContext.getHeaders();
+    }
+
+    @Override
+    public long getReadyTimeMillis() {
+        return batchContext.getReadyTimeMillis();
+    }
+
+    @Override
+    public long getStartTimeMillis() {
+        return batchContext.getStartTimeMillis();
+    }
+
+    @Override
+    public boolean isTimeout() {
+        return batchContext.isTimeout();
+    }
+
+    @Override
+    public int getRemainingTime() {
+        return batchContext.getRemainingTime();
+    }
+
+    @Override
+    public void writeAndFlushResponse(Object obj) {
+        writeAndFlushResponse(obj, RpcStatus.OK);
+    }
+
+    /**
+     * 设置该项的响应。与单个请求不同，obj 为 null 或已超时时同样需要设置响应，否则整个批量响应无法完成
+     */
+    @Override
+    public void writeAndFlushResponse(Object obj, RpcStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("RpcStatus should not be null.");
+        }
+
+        BatchItem item;
+        try {
+            item = new BatchItem(status, null, obj == null ? null : serializer.serialize(obj));
+        } catch (Throwable t) {
+            item = new BatchItem(RpcStatus.SERIALIZATION_ERROR, null, null);
+        }
+
+        collector.complete(index, item);
+    }
+}
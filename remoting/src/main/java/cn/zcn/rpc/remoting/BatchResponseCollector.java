@@ -0,0 +1,82 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.protocol.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 收集批量请求中每一项的响应，所有项都完成后合并为一个 {@link CommandCode#BATCH_RESPONSE} 写回。
+ * 各项可能在不同的线程中完成，每一项只接受第一次设置的响应。
+ *
+ * @author zicung
+ */
+class BatchResponseCollector {
+
+    private final CommandContext commandContext;
+    private final RequestCommand request;
+    private final Charset charset;
+    private final AtomicReferenceArray<BatchItem> items;
+    private final AtomicInteger remaining;
+
+    BatchResponseCollector(CommandContext commandContext, RequestCommand request, int size, Charset charset) {
+        this.commandContext = commandContext;
+        this.request = request;
+        this.charset = charset;
+        this.items = new AtomicReferenceArray<>(size);
+        this.remaining = new AtomicInteger(size);
+
+        if (size == 0) {
+            writeAndFlush();
+        }
+    }
+
+    /**
+     * 设置某一项的错误响应
+     *
+     * @param index 项的位置
+     * @param status 响应状态
+     * @return {@code true}，设置成功；{@code false}，该项已有响应
+     */
+    boolean complete(int index, RpcStatus status) {
+        return complete(index, new BatchItem(status, null, null));
+    }
+
+    /**
+     * 设置某一项的响应，最后一项完成时写回批量响应
+     *
+     * @param index 项的位置
+     * @param item 响应项
+     * @return {@code true}，设置成功；{@code false}，该项已有响应
+     */
+    boolean complete(int index, BatchItem item) {
+        if (!items.compareAndSet(index, null, item)) {
+            return false;
+        }
+
+        if (remaining.decrementAndGet() == 0) {
+            writeAndFlush();
+        }
+
+        return true;
+    }
+
+    private void writeAndFlush() {
+        ResponseCommand response = commandContext.getProtocol().getCommandFactory()
+            .createResponseCommand(request, RpcStatus.OK);
+        if (response == null) {
+            return;
+        }
+
+        List<BatchItem> list = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            list.add(items.get(i));
+        }
+
+        response.setCommandCode(CommandCode.BATCH_RESPONSE);
+        response.setContent(BatchCommandCodec.encodeResponse(list, charset));
+        commandContext.writeAndFlush(response);
+    }
+}
@@ -11,6 +11,7 @@ import cn.zcn.rpc.remoting.protocol.RpcStatus;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
 
 import java.util.List;
 
@@ -39,6 +40,7 @@ class CommandInboundHandler extends ChannelInboundHandlerAdapter {
         try {
             CommandHandler<ICommand> commandHandler = protocol.getCommandHandler(request.getCommandCode());
             if (commandHandler == null) {
+                ReferenceCountUtil.release(msg);
                 writeAndFlushWithRpcStatus(commandContext, protocol, request, RpcStatus.UNSUPPORTED_COMMAND);
                 return;
             }
@@ -0,0 +1,82 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.compression.Compressor;
+import cn.zcn.rpc.remoting.compression.DeflateCompressor;
+import cn.zcn.rpc.remoting.compression.Lz4Compressor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manage all compressors. 压缩后的协议内容以压缩器的编码开头，对端据此选择解压使用的压缩器。
+ * 
+ * @author zicung
+ */
+public class CompressorManager {
+
+	public static final byte DEFLATE = 1;
+	public static final byte LZ4 = 2;
+
+	private static Compressor[] COMPRESSORS = new Compressor[5];
+	private static final Map<String, Byte> CODES = new ConcurrentHashMap<>();
+
+	static {
+		registerCompressor(DEFLATE, "deflate", new DeflateCompressor());
+
+		if (isLz4Present()) {
+			registerCompressor(LZ4, "lz4", new Lz4Compressor());
+		}
+	}
+
+	private static boolean isLz4Present() {
+		try {
+			Class.forName("net.jpountz.lz4.LZ4Factory", false,
+					CompressorManager.class.getClassLoader());
+			return true;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	public static synchronized void registerCompressor(int code, String name,
+			Compressor compressor) {
+		if (compressor == null || name == null) {
+			throw new IllegalArgumentException(
+					"Both name and compressor must not be null.");
+		}
+
+		if (code <= 0 || code > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Compressor code must between 1 and 127.");
+		}
+
+		if (COMPRESSORS.length <= code) {
+			Compressor[] newCompressors = new Compressor[code + 5];
+			System.arraycopy(COMPRESSORS, 0, newCompressors, 0,
+					COMPRESSORS.length);
+			COMPRESSORS = newCompressors;
+		}
+
+		COMPRESSORS[code] = compressor;
+		CODES.put(name, (byte) code);
+	}
+
+	public static Compressor getCompressor(int code) {
+		if (code < 0 || code >= COMPRESSORS.length) {
+			return null;
+		}
+
+		return COMPRESSORS[code];
+	}
+
+	/**
+	 * 根据名称获取压缩器编码
+	 * 
+	 * @param name
+	 *            压缩器名称
+	 * @return 压缩器编码，未注册时返回 -1
+	 */
+	public static byte getCode(String name) {
+		Byte code = CODES.get(name);
+		return code == null ? -1 : code;
+	}
+}
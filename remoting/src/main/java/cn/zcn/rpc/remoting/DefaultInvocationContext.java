@@ -1,5 +1,6 @@
 package cn.zcn.rpc.remoting;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +42,11 @@ public class DefaultInvocationContext implements InvocationContext {
         return request.getId();
     }
 
+    @Override
+    public CommandHeaders getHeaders() {
+        return request.getHeaders();
+    }
+
     @Override
     public String getRemoteHost() {
         return NetUtil.getRemoteHost(channelContext.channel());
@@ -122,13 +128,27 @@ public class DefaultInvocationContext implements InvocationContext {
             return;
         }
 
+        if (ConnectionSerialization.isApplicable(response)) {
+            // 由编码器通过连接级别的序列化器序列化
+            response.setPayload(obj);
+            writeAndFlush(channel, response);
+            return;
+        }
+
+        // 直接序列化到池化的缓冲区，缓冲区由响应持有，编码后随响应一起释放
+        ByteBuf content = channelContext.alloc().buffer();
         try {
-            byte[] content = serializer.serialize(obj);
-            response.setContent(content);
+            serializer.serialize(obj, content);
+            response.setContentBuf(content);
         } catch (Throwable t) {
+            content.release();
             response = commandFactory.createResponseCommand(request, RpcStatus.SERIALIZATION_ERROR);
         }
 
+        writeAndFlush(channel, response);
+    }
+
+    private void writeAndFlush(Channel channel, BaseCommand response) {
         channelContext.writeAndFlush(response).addListener((ChannelFutureListener) future -> {
             if (!future.isSuccess()) {
                 LOGGER.error(
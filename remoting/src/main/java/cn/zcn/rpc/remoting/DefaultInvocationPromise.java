@@ -14,7 +14,7 @@ import java.util.concurrent.TimeoutException;
  *
  * @author zicung
  */
-public class DefaultInvocationPromise implements InvocationPromise<ResponseCommand> {
+public class DefaultInvocationPromise implements InvocationPromise<ResponseCommand>, PendingCall {
     private final Promise<ResponseCommand> promise;
     private Timeout timeout;
 
@@ -34,6 +34,16 @@ public class DefaultInvocationPromise implements InvocationPromise<ResponseComma
         this.timeout = timeout;
     }
 
+    @Override
+    public boolean complete(ResponseCommand response) {
+        return promise.trySuccess(response);
+    }
+
+    @Override
+    public boolean fail(Throwable cause) {
+        return promise.tryFailure(cause);
+    }
+
     @Override
     public InvocationPromise<ResponseCommand> setSuccess(ResponseCommand result) {
         promise.setSuccess(result);
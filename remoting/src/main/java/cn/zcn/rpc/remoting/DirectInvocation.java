@@ -0,0 +1,127 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.connection.Connection;
+import cn.zcn.rpc.remoting.exception.RemotingException;
+import cn.zcn.rpc.remoting.exception.TimeoutException;
+import cn.zcn.rpc.remoting.exception.TransportException;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import cn.zcn.rpc.remoting.protocol.RpcStatus;
+import cn.zcn.rpc.remoting.utils.NetUtil;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 直接写入已建立连接的调用，参考 {@link RemotingInvoker#invoke}。
+ *
+ * <p>
+ * 作为 {@link PendingCall} 登记在连接上，直接将响应、异常转交给调用者持有的 {@link LazyResponsePromise}，
+ * 不再创建内部的 {@code Promise} 与监听器。同时作为响应超时的 {@link TimerTask} 与写入结果的监听器，
+ * 每次调用只创建这一个对象与一个 {@code Promise}。
+ *
+ * @author zicung
+ */
+class DirectInvocation implements PendingCall, TimerTask, ChannelFutureListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectInvocation.class);
+
+    private final LazyResponsePromise<?> promise;
+    private final Connection connection;
+    private final int requestId;
+    private volatile Timeout timeout;
+
+    DirectInvocation(LazyResponsePromise<?> promise, Connection connection, int requestId) {
+        this.promise = promise;
+        this.connection = connection;
+        this.requestId = requestId;
+    }
+
+    /**
+     * 响应超时
+     */
+    @Override
+    public void run(Timeout timeout) {
+        if (connection.removePromise(requestId) != null) {
+            fail(TimeoutException.stackless(
+                "Wait for response timeout. Request id:{}, To:{}",
+                requestId, NetUtil.getRemoteAddress(connection.getChannel())));
+        }
+    }
+
+    /**
+     * 写入完成
+     */
+    @Override
+    public void operationComplete(ChannelFuture future) {
+        if (future.isSuccess()) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Sent request. Request Id:{}, To:{}.", requestId,
+                    NetUtil.getRemoteAddress(connection.getChannel()));
+            }
+            return;
+        }
+
+        // 发送失败。移除 promise，并取消响应超时监听
+        if (connection.removePromise(requestId) != null) {
+            cancelTimeout();
+            fail(new TransportException(future.cause().getMessage(), future.cause()));
+        }
+
+        LOGGER.error(
+            "Unexpected exception when write request. Request id:{}, To:{}",
+            requestId,
+            NetUtil.getRemoteAddress(connection.getChannel()),
+            future.cause());
+    }
+
+    @Override
+    public void cancelTimeout() {
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+    }
+
+    /**
+     * 设置响应超时定时器
+     *
+     * @param timeout 超时定时器
+     */
+    void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * 转交响应，响应总是由调用者的 {@code Promise} 负责释放
+     */
+    @Override
+    public boolean complete(ResponseCommand response) {
+        if (response.hasPayload() || response.getContentLength() > 0) {
+            promise.setResponse(response);
+            return true;
+        }
+
+        response.release();
+        if (response.getStatus() == RpcStatus.OK) {
+            promise.trySuccess(null);
+        } else {
+            promise.tryFailure(new RemotingException(
+                "Remoting server error. ResponseStatus: {}",
+                response.getStatus().name()));
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean fail(Throwable cause) {
+        if (promise.isDone()) {
+            return false;
+        }
+
+        RemotingInvoker.reportException(promise, cause);
+        return true;
+    }
+}
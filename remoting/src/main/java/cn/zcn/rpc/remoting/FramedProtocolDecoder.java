@@ -0,0 +1,30 @@
+package cn.zcn.rpc.remoting;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.List;
+
+/**
+ * 能够在不消费字节的情况下计算帧长度的协议解码器，配合 {@code ProtocolFrameDecoder} 使用
+ *
+ * @author zicung
+ */
+public interface FramedProtocolDecoder extends ProtocolDecoder {
+    /**
+     * 在不修改读索引的情况下解析协议头，计算完整帧的长度
+     *
+     * @param byteBuf ByteBuf
+     * @return 帧长度；协议头不完整时返回 -1
+     */
+    long frameLength(ByteBuf byteBuf);
+
+    /**
+     * 解码一个完整的帧，调用前需确保缓冲区中至少包含 {@link #frameLength(ByteBuf)} 个字节
+     *
+     * @param context ChannelHandlerContext
+     * @param byteBuf ByteBuf
+     * @param out out
+     * @throws Exception 解码失败
+     */
+    void decodeFrame(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) throws Exception;
+}
@@ -1,5 +1,6 @@
 package cn.zcn.rpc.remoting;
 
+import cn.zcn.rpc.remoting.protocol.CommandHeaders;
 import cn.zcn.rpc.remoting.protocol.RpcStatus;
 
 /**
@@ -29,6 +30,13 @@ public interface InvocationContext {
 	 */
 	int getRequestId();
 
+	/**
+	 * 请求头部，只有支持头部的协议才会携带
+	 * 
+	 * @return 请求头部，可能为 null
+	 */
+	CommandHeaders getHeaders();
+
 	/**
 	 * 请求进入等待队列的时间
 	 * 
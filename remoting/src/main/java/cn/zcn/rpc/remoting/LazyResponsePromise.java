@@ -0,0 +1,159 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.exception.TransportException;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * 延迟反序列化响应的 {@code Promise}。
+ *
+ * <p>
+ * IO 线程收到响应后只通过 {@link #setResponse(ResponseCommand)} 移交未反序列化的响应，响应内容在第一次通过
+ * {@link #get()}、{@link #getNow()} 获取结果时，由调用者所在的线程反序列化。指定了回调线程池时，响应在回调线程池中反序列化后
+ * 再通知监听器。
+ *
+ * <p>
+ * {@link #isSuccess()}、{@link #cause()} 只反映是否收到响应，反序列化失败由 {@link #get()} 抛出
+ * {@code ExecutionException}，由 {@link #getNow()} 抛出 {@link TransportException}。
+ *
+ * <p>
+ * 响应内容引用入站缓冲区时（参考 {@code RpcOptions#RETAINED_SLICE_DECODE}），移交前先拷贝为字节数组并释放缓冲区，
+ * 调用者不读取结果或结果被丢弃时，不会一直占用池化的直接内存。
+ *
+ * @author zicung
+ */
+class LazyResponsePromise<T> extends RebindablePromise<T> {
+
+    private final Function<ResponseCommand, Object> deserializer;
+    private final boolean resolveOnExecutor;
+    private final Object lock = new Object();
+
+    private ResponseCommand response;
+    private Object value;
+    private TransportException failure;
+
+    /**
+     * @param executor 通知监听器的线程
+     * @param deserializer 反序列化响应
+     * @param resolveOnExecutor 是否在 {@code executor} 中反序列化响应后再通知监听器
+     */
+    LazyResponsePromise(EventExecutor executor, Function<ResponseCommand, Object> deserializer,
+                        boolean resolveOnExecutor) {
+        super(executor);
+        this.deserializer = deserializer;
+        this.resolveOnExecutor = resolveOnExecutor;
+    }
+
+    /**
+     * 设置未反序列化的响应，由该 {@code Promise} 负责释放
+     *
+     * @param response 响应
+     */
+    void setResponse(ResponseCommand response) {
+        detach(response);
+
+        synchronized (lock) {
+            this.response = response;
+        }
+
+        if (resolveOnExecutor) {
+            try {
+                executor().execute(() -> {
+                    resolve();
+                    if (!trySuccess(null)) {
+                        release();
+                    }
+                });
+            } catch (Throwable t) {
+                release();
+                tryFailure(new TransportException("Failed to resolve response on callback executor.", t));
+            }
+        } else if (!trySuccess(null)) {
+            // 已超时或被取消
+            release();
+        }
+    }
+
+    /**
+     * 将引用入站缓冲区的响应内容拷贝为字节数组，并释放缓冲区
+     *
+     * @param response 响应
+     */
+    private static void detach(ResponseCommand response) {
+        ByteBuf contentBuf = response.getContentBuf();
+        if (contentBuf != null) {
+            response.setContent(ByteBufUtil.getBytes(contentBuf));
+            response.setContentBuf(null);
+            contentBuf.release();
+        }
+    }
+
+    @Override
+    public T getNow() {
+        if (!isSuccess()) {
+            return null;
+        }
+
+        T result = resolve();
+        if (failure != null) {
+            throw failure;
+        }
+
+        return result;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        super.get();
+        return report();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        super.get(timeout, unit);
+        return report();
+    }
+
+    private T report() throws ExecutionException {
+        T result = resolve();
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T resolve() {
+        synchronized (lock) {
+            if (response != null) {
+                try {
+                    value = deserializer.apply(response);
+                } catch (Throwable t) {
+                    failure = t instanceof TransportException ? (TransportException) t
+                        : new TransportException(t.getMessage(), t);
+                } finally {
+                    response.release();
+                    response = null;
+                }
+            }
+
+            return (T) value;
+        }
+    }
+
+    private void release() {
+        synchronized (lock) {
+            if (response != null) {
+                response.release();
+                response = null;
+            }
+        }
+    }
+}
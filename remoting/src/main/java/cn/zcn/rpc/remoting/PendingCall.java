@@ -0,0 +1,34 @@
+package cn.zcn.rpc.remoting;
+
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+
+/**
+ * 登记在连接上等待响应的调用，参考 {@code Connection#addPromise(int, PendingCall)}。
+ * 
+ * <p>
+ * 连接只需要完成、结束调用以及取消超时定时器，调用的结果通过调用者持有的 {@code Promise} 获取。
+ * 
+ * @author zicung
+ */
+public interface PendingCall {
+	/**
+	 * 收到响应，完成调用
+	 * 
+	 * @param response
+	 *            响应
+	 * @return 调用已结束时返回 false，此时由调用者释放响应
+	 */
+	boolean complete(ResponseCommand response);
+
+	/**
+	 * 以异常结束调用
+	 * 
+	 * @param cause
+	 *            异常
+	 * @return 调用已结束时返回 false
+	 */
+	boolean fail(Throwable cause);
+
+	/** 取消超时定时器 */
+	void cancelTimeout();
+}
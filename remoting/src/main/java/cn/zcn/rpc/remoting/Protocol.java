@@ -1,6 +1,8 @@
 package cn.zcn.rpc.remoting;
 
+import cn.zcn.rpc.remoting.config.Options;
 import cn.zcn.rpc.remoting.protocol.*;
+import io.netty.channel.ChannelHandler;
 import io.netty.util.AttributeKey;
 
 /**
@@ -59,4 +61,15 @@ public interface Protocol {
      * @param handler 命令处理器
      */
     void registerCommandHandler(CommandCode cmd, CommandHandler<ICommand> handler);
+
+    /**
+     * 创建固定为当前协议的帧解码器。连接收到第一个帧并确定协议后，使用该解码器替换通用的 {@link MessageDecoder}，
+     * 后续的帧不再需要解析协议码
+     *
+     * @param options 连接的选项，可能为 null
+     * @return 帧解码器，返回 null 时继续使用 {@link MessageDecoder}
+     */
+    default ChannelHandler newFrameDecoder(Options options) {
+        return null;
+    }
 }
@@ -23,4 +23,29 @@ public interface ProtocolEncoder {
 	 */
 	void encode(ChannelHandlerContext context, Object msg, ByteBuf byteBuf)
 			throws Exception;
+
+	/**
+	 * 编码为一个独立的 ByteBuf，用于零拷贝编码模式。默认实现分配一个 ioBuffer 并调用
+	 * {@link #encode(ChannelHandlerContext, Object, ByteBuf)}，协议可覆盖该方法，以
+	 * {@link io.netty.buffer.CompositeByteBuf} 直接引用消息体，避免将消息体拷贝进输出缓冲区。
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext
+	 * @param msg
+	 *            message
+	 * @return 编码后的 ByteBuf，所有权转移给调用方
+	 * @throws Exception
+	 *             编码失败
+	 */
+	default ByteBuf encodeComposite(ChannelHandlerContext context, Object msg)
+			throws Exception {
+		ByteBuf out = context.alloc().ioBuffer();
+		try {
+			encode(context, msg, out);
+		} catch (Throwable t) {
+			out.release();
+			throw t;
+		}
+		return out;
+	}
 }
@@ -2,6 +2,7 @@ package cn.zcn.rpc.remoting;
 
 import cn.zcn.rpc.remoting.protocol.ProtocolCode;
 import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import cn.zcn.rpc.remoting.protocol.v2.RpcProtocolV2;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
@@ -26,6 +27,7 @@ public class ProtocolManager {
 
     private ProtocolManager() {
         registerProtocol(RpcProtocolV1.PROTOCOL_CODE, new RpcProtocolV1());
+        registerProtocol(RpcProtocolV2.PROTOCOL_CODE, new RpcProtocolV2());
         setDefaultProtocol(RpcProtocolV1.PROTOCOL_CODE);
     }
 
@@ -0,0 +1,38 @@
+package cn.zcn.rpc.remoting;
+
+import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * 可在完成前更换通知线程的 {@code Promise}。
+ *
+ * <p>
+ * 发起调用时连接尚未获取，{@code Promise} 先绑定到 EventLoopGroup 中轮询选出的 EventLoop；获取连接后通过
+ * {@link #rebind(EventExecutor)} 绑定到连接所在的 EventLoop。响应由该 EventLoop 读取并完成 {@code Promise}，
+ * 监听器直接在当前线程中执行，不需要再切换到其他线程，不同连接的响应由各自的 EventLoop 处理。
+ *
+ * @author zicung
+ */
+class RebindablePromise<T> extends DefaultPromise<T> {
+
+    private volatile EventExecutor executor;
+
+    RebindablePromise(EventExecutor executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    /**
+     * 更换通知监听器的线程，需要在 {@code Promise} 完成前调用
+     *
+     * @param executor 通知监听器的线程
+     */
+    void rebind(EventExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected EventExecutor executor() {
+        return executor;
+    }
+}
@@ -7,6 +7,8 @@ import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.LifecycleException;
 import cn.zcn.rpc.remoting.exception.RemotingException;
 import cn.zcn.rpc.remoting.lifecycle.AbstractLifecycle;
+import cn.zcn.rpc.remoting.protocol.ClassNameDictionary;
+import cn.zcn.rpc.remoting.protocol.CommandHeaders;
 import cn.zcn.rpc.remoting.protocol.MessageDecoder;
 import cn.zcn.rpc.remoting.protocol.MessageEncoder;
 import cn.zcn.rpc.remoting.utils.NamedThreadFactory;
@@ -19,9 +21,12 @@ import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.NettyRuntime;
 import io.netty.util.concurrent.Future;
+import java.nio.charset.Charset;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -87,9 +92,17 @@ public class RemotingClient extends AbstractLifecycle {
                 @Override
                 protected void initChannel(SocketChannel socketChannel) throws Exception {
                     socketChannel.attr(AttributeKeys.OPTIONS).set(options);
+                    if (options.getOption(ClientOptions.CLASS_NAME_DICTIONARY)) {
+                        socketChannel.attr(AttributeKeys.CLASS_NAME_DICTIONARY).set(
+                            new ClassNameDictionary(Charset.forName(options.getOption(RpcOptions.CHARSET))));
+                    }
 
                     ChannelPipeline pipeline = socketChannel.pipeline();
-                    pipeline.addLast(new MessageEncoder());
+                    if (options.getOption(RpcOptions.FLUSH_CONSOLIDATION)) {
+                        pipeline.addLast(new FlushConsolidationHandler(
+                            options.getOption(RpcOptions.FLUSH_CONSOLIDATION_LIMIT), true));
+                    }
+                    pipeline.addLast(new MessageEncoder(options.getOption(RpcOptions.COMPOSITE_ENCODE)));
                     pipeline.addLast(new MessageDecoder());
 
                     if (options.getOption(ClientOptions.CHECK_IDLE_STATE)) {
@@ -154,6 +167,24 @@ public class RemotingClient extends AbstractLifecycle {
         return remotingInvoker.invoke(url, obj, timeoutMillis);
     }
 
+    public <T> Future<T> invoke(Url url, Object obj, int timeoutMillis, CommandHeaders headers)
+        throws IllegalStateException, RemotingException {
+        checkState();
+        return remotingInvoker.invoke(url, obj, timeoutMillis, headers);
+    }
+
+    public <T> Future<T> invoke(Url url, Object obj, int timeoutMillis, CommandHeaders headers, Byte serializer)
+        throws IllegalStateException, RemotingException {
+        checkState();
+        return remotingInvoker.invoke(url, obj, timeoutMillis, headers, serializer);
+    }
+
+    public <T> List<Future<T>> invokeBatch(Url url, List<?> objs, int timeoutMillis)
+        throws IllegalStateException, RemotingException {
+        checkState();
+        return remotingInvoker.invokeBatch(url, objs, timeoutMillis);
+    }
+
     public <T> void option(Option<T> option, T value) {
         options.setOption(option, value);
     }
@@ -10,14 +10,21 @@ import cn.zcn.rpc.remoting.lifecycle.AbstractLifecycle;
 import cn.zcn.rpc.remoting.protocol.*;
 import cn.zcn.rpc.remoting.serialization.Serializer;
 import cn.zcn.rpc.remoting.utils.NetUtil;
-import cn.zcn.rpc.remoting.utils.TimerHolder;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.netty.util.concurrent.Promise;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,9 +38,10 @@ public class RemotingInvoker extends AbstractLifecycle {
     private static final Logger LOGGER = LoggerFactory.getLogger(RemotingInvoker.class);
 
     private final Options options;
-    private final EventExecutor eventExecutor;
+    private final EventExecutorGroup eventLoopGroup;
     private final Bootstrap bootstrap;
     private final Charset charset;
+    private final ByteBufAllocator allocator;
 
     private ConnectionGroupManager connectionGroupManager;
 
@@ -41,7 +49,10 @@ public class RemotingInvoker extends AbstractLifecycle {
         this.options = options;
         this.charset = Charset.forName(options.getOption(ClientOptions.CHARSET));
         this.bootstrap = bootstrap;
-        this.eventExecutor = bootstrap.config().group().next();
+        this.eventLoopGroup = bootstrap.config().group();
+
+        ByteBufAllocator allocator = (ByteBufAllocator) bootstrap.config().options().get(ChannelOption.ALLOCATOR);
+        this.allocator = allocator != null ? allocator : ByteBufAllocator.DEFAULT;
     }
 
     @Override
@@ -74,42 +85,113 @@ public class RemotingInvoker extends AbstractLifecycle {
      * @param payload payload
      * @param timeoutMillis 请求超时时间
      * @param commandType 请求类型
+     * @param headers 请求头部，可能为 null
+     * @param serializer 序列化器编号，为 null 时使用客户端配置的序列化器
      * @return ICommand
      */
-    private ICommand createRequestCommand(Object payload, int timeoutMillis, CommandType commandType) {
-        Protocol protocol = ProtocolManager.getInstance().getDefaultProtocol();
-        CommandFactory commandFactory = protocol.getCommandFactory();
-        RequestCommand req = commandFactory.createRequestCommand(commandType, CommandCode.REQUEST);
+    private RequestCommand createRequestCommand(Object payload, int timeoutMillis, CommandType commandType,
+                                          CommandHeaders headers, Byte serializer) {
+        RequestCommand req = newRequestCommand(commandType, CommandCode.REQUEST, timeoutMillis);
 
-        byte[] clazz = payload.getClass().getName().getBytes(charset);
-        req.setClazz(clazz);
+        if (options.getOption(ClientOptions.CLASS_NAME_DICTIONARY)) {
+            // 由编码器通过连接的类名字典生成 clazz 字段
+            req.setClazzName(payload.getClass().getName());
+        } else {
+            req.setClazz(payload.getClass().getName().getBytes(charset));
+        }
 
-        byte serializerCode = SerializerManager.DEFAULT_SERIALIZER;
-        Serializer serializer = SerializerManager.getSerializer(SerializerManager.DEFAULT_SERIALIZER);
-        if (serializer == null) {
-            throw new SerializationException("Unknown serializer with " + serializerCode);
+        req.setHeaders(headers);
+
+        if (serializer != null) {
+            req.setSerializer(serializer);
+        } else if (options.getOption(ClientOptions.STATEFUL_HESSIAN)) {
+            // 由编码器通过连接级别的序列化器序列化
+            req.setSerializer(SerializerManager.STATEFUL_HESSIAN);
+            req.setPayload(payload);
+            return req;
+        }
+
+        // 直接序列化到池化的缓冲区，缓冲区由请求持有，编码后随请求一起释放
+        ByteBuf content = allocator.buffer();
+        try {
+            getSerializer(req.getSerializer()).serialize(payload, content);
+        } catch (Throwable t) {
+            content.release();
+            throw t;
         }
 
-        req.setSerializer(serializerCode);
-        req.setContent(serializer.serialize(payload));
+        req.setContentBuf(content);
+        return req;
+    }
+
+    /**
+     * 创建批量请求，每个 payload 作为批量请求中的一项
+     *
+     * @param payloads payloads
+     * @param timeoutMillis 请求超时时间
+     * @return ICommand
+     */
+    private RequestCommand createBatchRequestCommand(List<?> payloads, int timeoutMillis) {
+        RequestCommand req = newRequestCommand(CommandType.REQUEST, CommandCode.BATCH_REQUEST, timeoutMillis);
+        Serializer serializer = getSerializer(req.getSerializer());
+
+        List<BatchItem> items = new ArrayList<>(payloads.size());
+        for (Object payload : payloads) {
+            items.add(new BatchItem(null, payload.getClass().getName(), serializer.serialize(payload)));
+        }
 
-        ProtocolSwitch protocolSwitch = ProtocolSwitch.parse((byte) 0);
+        req.setContent(BatchCommandCodec.encodeRequest(items, charset));
+        return req;
+    }
+
+    private RequestCommand newRequestCommand(CommandType commandType, CommandCode commandCode, int timeoutMillis) {
+        Protocol protocol = ProtocolManager.getInstance().getDefaultProtocol();
+        CommandFactory commandFactory = protocol.getCommandFactory();
+        RequestCommand req = commandFactory.createRequestCommand(commandType, commandCode);
+
+        Integer serializer = options.getOption(ClientOptions.SERIALIZER);
+        req.setSerializer(serializer == null ? SerializerManager.DEFAULT_SERIALIZER : serializer.byteValue());
+
+        byte protocolSwitch = 0;
         if (options.getOption(ClientOptions.USE_CRC32)) {
-            protocolSwitch.turnOn(0);
+            protocolSwitch = ProtocolSwitch.turnOn(protocolSwitch, ProtocolSwitch.CRC32_INDEX);
+            if (options.getOption(ClientOptions.USE_CRC32C)) {
+                protocolSwitch = ProtocolSwitch.turnOn(protocolSwitch, ProtocolSwitch.CRC32C_INDEX);
+            }
         }
-        req.setProtocolSwitch(protocolSwitch);
+        req.setProtocolSwitchValue(protocolSwitch);
 
         req.setTimeout(timeoutMillis);
         return req;
     }
 
-    private Object deserialize(ResponseCommand responseCommand) throws SerializationException {
-        Serializer serializer = SerializerManager.getSerializer(responseCommand.getSerializer());
+    private Serializer getSerializer(byte serializerCode) throws SerializationException {
+        Serializer serializer = SerializerManager.getSerializer(serializerCode);
         if (serializer == null) {
-            throw new SerializationException("Unknown serializer with " + responseCommand.getSerializer());
+            throw new SerializationException("Unknown serializer with " + serializerCode);
         }
 
-        String clazz = new String(responseCommand.getClazz(), charset);
+        return serializer;
+    }
+
+    private boolean hasContent(ResponseCommand responseCommand) {
+        return responseCommand.hasPayload() || responseCommand.getContentLength() > 0;
+    }
+
+    private Object deserialize(ResponseCommand responseCommand) throws SerializationException {
+        if (responseCommand.hasPayload()) {
+            // 已由解码器通过连接级别的序列化器反序列化
+            return responseCommand.getPayload();
+        }
+
+        Serializer serializer = getSerializer(responseCommand.getSerializer());
+
+        String clazz = responseCommand.getClazzName() != null ? responseCommand.getClazzName()
+            : new String(responseCommand.getClazz(), charset);
+
+        if (responseCommand.getContentBuf() != null) {
+            return serializer.deserialize(responseCommand.getContentBuf(), clazz);
+        }
 
         return serializer.deserialize(responseCommand.getContent(), clazz);
     }
@@ -123,14 +205,14 @@ public class RemotingInvoker extends AbstractLifecycle {
      */
     public Future<Void> oneWayInvoke(Url url, Object obj) {
         if (!isStarted()) {
-            return eventExecutor.newFailedFuture(new TransportException("RemotingInvoker is closed."));
+            return eventLoopGroup.next().newFailedFuture(new TransportException("RemotingInvoker is closed."));
         }
 
-        Promise<Void> promise = eventExecutor.newPromise();
+        RebindablePromise<Void> promise = new RebindablePromise<>(eventLoopGroup.next());
 
         try {
             // 创建请求
-            ICommand req = createRequestCommand(obj, -1, CommandType.REQUEST_ONEWAY);
+            RequestCommand req = createRequestCommand(obj, -1, CommandType.REQUEST_ONEWAY, null, null);
 
             // 获取连接组
             ConnectionGroup connectionGroup = connectionGroupManager.getConnectionGroup(url);
@@ -141,9 +223,14 @@ public class RemotingInvoker extends AbstractLifecycle {
                     Connection conn = connFuture.get();
 
                     if (checkInvalidOrNot(promise, conn)) {
+                        ReferenceCountUtil.release(req);
                         return;
                     }
 
+                    // 写入结果由连接的 EventLoop 通知
+                    promise.rebind(conn.getChannel().eventLoop());
+                    req.setId(conn.nextRequestId());
+
                     try {
                         conn.getChannel().writeAndFlush(req).addListener(future -> {
                             if (!future.isSuccess()) {
@@ -162,9 +249,9 @@ public class RemotingInvoker extends AbstractLifecycle {
                     }
                 } else {
                     // 获取连接失败
+                    ReferenceCountUtil.release(req);
                     promise.setFailure(new TransportException(
-                        "Failed to acquire connection. " + "Request id:{}, To:{}",
-                        req.getId(),
+                        "Failed to acquire connection. To:{}",
                         NetUtil.getRemoteAddress(url.getAddress()),
                         connFuture.cause()));
                 }
@@ -183,152 +270,351 @@ public class RemotingInvoker extends AbstractLifecycle {
      * @param obj 请求体
      * @param timeoutMillis 响应超时时间
      */
-    @SuppressWarnings({ "unchecked" })
     public <T> Future<T> invoke(Url url, Object obj, int timeoutMillis) {
+        return invoke(url, obj, timeoutMillis, null);
+    }
+
+    /**
+     * 发送携带头部的请求。头部只在连接协商使用 {@code RpcProtocolV2} 时传输，其他协议会忽略头部。
+     *
+     * <p>
+     * 响应在获取结果时反序列化，参考 {@link ClientOptions#CALLBACK_EXECUTOR}。未设置回调线程池时，监听器在发送请求的连接所在的
+     * EventLoop 中执行，参考 {@link RebindablePromise}
+     *
+     * <p>
+     * 连接组中已有可直接使用的连接时（{@link ConnectionGroup#tryAcquireConnection()}），请求在当前线程中直接写入该连接，
+     * 不经过连接组线程获取、释放连接，参考 {@link DirectInvocation}
+     *
+     * @param url 请求路径
+     * @param obj 请求体
+     * @param timeoutMillis 响应超时时间
+     * @param headers 请求头部，可能为 null
+     */
+    public <T> Future<T> invoke(Url url, Object obj, int timeoutMillis, CommandHeaders headers) {
+        return invoke(url, obj, timeoutMillis, headers, null);
+    }
+
+    /**
+     * 使用指定的序列化器发送请求，服务端使用相同的序列化器响应，需要对端注册该序列化器。
+     *
+     * @param url 请求路径
+     * @param obj 请求体
+     * @param timeoutMillis 响应超时时间
+     * @param headers 请求头部，可能为 null
+     * @param serializer 序列化器编号，参考 {@link SerializerManager}，为 null 时使用 {@link ClientOptions#SERIALIZER}
+     */
+    public <T> Future<T> invoke(Url url, Object obj, int timeoutMillis, CommandHeaders headers, Byte serializer) {
         if (!isStarted()) {
-            return eventExecutor.newFailedFuture(new TransportException("RemotingInvoker is closed."));
+            return eventLoopGroup.next().newFailedFuture(new TransportException("RemotingInvoker is closed."));
         }
 
         long startMillis = System.currentTimeMillis();
-        Promise<T> promise = eventExecutor.newPromise();
+        EventExecutorGroup callbackExecutor = options.getOption(ClientOptions.CALLBACK_EXECUTOR);
+        LazyResponsePromise<T> promise = callbackExecutor != null
+            ? new LazyResponsePromise<>(callbackExecutor.next(), this::deserialize, true)
+            : new LazyResponsePromise<>(eventLoopGroup.next(), this::deserialize, false);
 
         try {
             // 创建请求体
-            ICommand req = createRequestCommand(obj, timeoutMillis, CommandType.REQUEST);
-
-            // 获取连接组
-            ConnectionGroup connectionGroup = connectionGroupManager.getConnectionGroup(url);
+            RequestCommand req = createRequestCommand(obj, timeoutMillis, CommandType.REQUEST, headers, serializer);
 
-            InvocationPromise<ResponseCommand> invocationPromise = new DefaultInvocationPromise(
-                eventExecutor.newPromise());
+            Connection conn = connectionGroupManager.getConnectionGroup(url).tryAcquireConnection();
+            if (conn != null && conn.getChannel().isWritable()) {
+                if (callbackExecutor == null) {
+                    promise.rebind(conn.getChannel().eventLoop());
+                }
 
-            // 判断请求是否已超时
-            if (getRemainingTime(startMillis, timeoutMillis) <= 0) {
-                invocationPromise.setFailure(new TimeoutException(
-                    "Send request timeout. Request id:{}, To:{}",
-                    req.getId(), NetUtil.getRemoteAddress(url.getAddress())));
+                writeDirectly(conn, req, promise, timeoutMillis);
                 return promise;
             }
 
-            //获取连接
-            connectionGroup.acquireConnection().addListener((GenericFutureListener<Future<Connection>>) connFuture -> {
-                long remainingTime = getRemainingTime(startMillis, timeoutMillis);
-                if (remainingTime <= 0) {
-                    // 请求已超时，返回超时异常
-                    invocationPromise.setFailure(new TimeoutException(
-                        "Send request timeout. Request id:{}, To:{}",
-                        req.getId(), NetUtil.getRemoteAddress(url.getAddress())));
-
-                    // 释放连接
-                    if (connFuture.isSuccess()) {
-                        connectionGroup.releaseConnection(connFuture.get());
-                    }
-                    return;
-                }
+            // 使用回调线程池时，promise 保持绑定在回调线程池上
+            InvocationPromise<ResponseCommand> invocationPromise = callbackExecutor != null
+                ? sendRequest(url, req, startMillis, timeoutMillis)
+                : sendRequest(url, req, startMillis, timeoutMillis, promise);
 
-                if (connFuture.isSuccess()) {
-                    // 获取连接成功
-                    Connection conn = connFuture.get();
-
-                    if (checkInvalidOrNot(invocationPromise, conn)) {
+            //处理请求响应，IO 线程只移交响应，不反序列化
+            invocationPromise.addListener((GenericFutureListener<Future<ResponseCommand>>) future -> {
+                if (future.isSuccess()) {
+                    ResponseCommand response = future.getNow();
+                    if (hasContent(response)) {
+                        promise.setResponse(response);
                         return;
                     }
 
-                    try {
-                        // 设置超时定时器
-                        invocationPromise.setTimeout(TimerHolder.getTimer()
-                            .newTimeout(
-                                timeout -> {
-                                    // 请求已超时，移除
-                                    // promise，返回超时异常
-                                    InvocationPromise<?> p = conn.removePromise(req.getId());
-                                    if (p != null) {
-                                        p.setFailure(new TimeoutException(
-                                            "Wait for response timeout. Request id:{}, To:{}",
-                                            req.getId(), NetUtil.getRemoteAddress(conn.getChannel())));
-                                    }
-                                },
-                                timeoutMillis,
-                                TimeUnit.MILLISECONDS));
-
-                        // 发送请求
-                        conn.getChannel().writeAndFlush(req).addListener(future -> {
-                            if (!future.isSuccess()) {
-                                // 发送失败。移除 promise，并取消响应超时监听
-                                InvocationPromise<?> p = conn.removePromise(req.getId());
-                                if (p != null) {
-                                    p.cancelTimeout();
-                                    promise.setFailure(
-                                        new TransportException(future.cause().getMessage(), future.cause()));
-                                }
-
-                                LOGGER.error(
-                                    "Unexpected exception when write request. Request id:{}, To:{}",
-                                    req.getId(),
-                                    NetUtil.getRemoteAddress(conn.getChannel()),
-                                    future.cause());
-                            } else {
-                                if (LOGGER.isDebugEnabled()) {
-                                    LOGGER.debug(
-                                        "Sent request. Request Id:{}, To:{}.",
-                                        req.getId(),
-                                        NetUtil.getRemoteAddress(conn.getChannel()));
-                                }
-                            }
-                        });
-
-                        // 添加 promise
-                        conn.addPromise(req.getId(), invocationPromise);
-                    } finally {
-                        connectionGroup.releaseConnection(conn);
+                    response.release();
+                    if (response.getStatus() == RpcStatus.OK) {
+                        promise.trySuccess(null);
+                    } else {
+                        promise.tryFailure(new RemotingException(
+                            "Remoting server error. ResponseStatus: {}",
+                            response.getStatus().name()));
                     }
                 } else {
-                    // 获取连接失败
-                    invocationPromise.setFailure(new TransportException(
-                        "Failed to acquire connection. Request id:{}, To:{}",
-                        req.getId(),
-                        NetUtil.getRemoteAddress(url.getAddress()),
-                        connFuture.cause()));
+                    reportException(promise, future.cause());
                 }
             });
+        } catch (Throwable t) {
+            reportException(promise, t);
+        }
+
+        return promise;
+    }
+
+    /**
+     * 将请求直接写入已建立的连接，响应由连接的 EventLoop 直接转交给 {@code promise}
+     *
+     * @param conn 连接
+     * @param req 请求
+     * @param promise 调用者持有的 promise
+     * @param timeoutMillis 响应超时时间
+     */
+    private void writeDirectly(Connection conn, RequestCommand req, LazyResponsePromise<?> promise,
+                               int timeoutMillis) {
+        req.setId(conn.nextRequestId());
+
+        DirectInvocation invocation = new DirectInvocation(promise, conn, req.getId());
+        invocation.setTimeout(conn.getTimer().newTimeout(invocation, timeoutMillis, TimeUnit.MILLISECONDS));
+
+        // 添加 promise，必须先于发送请求，否则响应可能在 promise 添加之前到达
+        conn.addPromise(req.getId(), invocation);
+        conn.getChannel().writeAndFlush(req).addListener(invocation);
+    }
 
-            //处理请求响应
+    /**
+     * 在一个帧中发送多个独立的请求，服务端将各请求分发给对应的 {@link RequestHandler}，并在一个帧中返回所有响应。
+     * 适用于向同一节点发起大量小请求的场景，分摊协议头、promise 与系统调用的开销。
+     *
+     * <p>
+     * 所有请求共用一个超时时间；某一项的处理失败只影响该项对应的 Future。
+     *
+     * @param url 请求路径
+     * @param objs 请求体
+     * @param timeoutMillis 整个批量请求的响应超时时间
+     * @return 与请求体按位置一一对应的 Future
+     */
+    public <T> List<Future<T>> invokeBatch(Url url, List<?> objs, int timeoutMillis) {
+        EventExecutor executor = eventLoopGroup.next();
+        List<RebindablePromise<T>> promises = new ArrayList<>(objs.size());
+        for (int i = 0; i < objs.size(); i++) {
+            promises.add(new RebindablePromise<>(executor));
+        }
+
+        List<Future<T>> futures = Collections.unmodifiableList(promises);
+        if (!isStarted()) {
+            reportException(promises, new TransportException("RemotingInvoker is closed."));
+            return futures;
+        }
+
+        if (objs.isEmpty()) {
+            return futures;
+        }
+
+        long startMillis = System.currentTimeMillis();
+
+        try {
+            RequestCommand req = createBatchRequestCommand(objs, timeoutMillis);
+
+            InvocationPromise<ResponseCommand> invocationPromise = sendRequest(url, req, startMillis, timeoutMillis,
+                promises.toArray(new RebindablePromise<?>[0]));
+
+            //处理批量响应
             invocationPromise.addListener((GenericFutureListener<Future<ResponseCommand>>) future -> {
                 if (future.isSuccess()) {
+                    ResponseCommand response = future.getNow();
                     try {
-                        ResponseCommand response = future.get();
-                        if (response.getStatus() == RpcStatus.OK) {
-                            if (response.getContent() != null && response.getContent().length > 0) {
-                                promise.setSuccess((T) deserialize(response));
-                            } else {
-                                promise.setSuccess(null);
-                            }
-                        } else {
-                            if (response.getContent() != null && response.getContent().length > 0) {
-                                promise.setSuccess((T) deserialize(response));
-                            } else {
-                                promise.setFailure(new RemotingException(
-                                    "Remoting server error. ResponseStatus: {}",
-                                    response.getStatus().name()));
-                            }
-                        }
+                        completeBatch(promises, response);
                     } catch (Throwable t) {
-                        reportException(promise, t);
+                        reportException(promises, t);
+                    } finally {
+                        response.release();
                     }
                 } else {
-                    reportException(promise, future.cause());
+                    reportException(promises, future.cause());
                 }
             });
         } catch (Throwable t) {
-            reportException(promise, t);
+            reportException(promises, t);
         }
 
-        return promise;
+        return futures;
+    }
+
+    @SuppressWarnings({ "unchecked" })
+    private <T> void completeBatch(List<? extends Promise<T>> promises, ResponseCommand response) {
+        if (response.getCommandCode() != CommandCode.BATCH_RESPONSE) {
+            // 整个批量请求处理失败时，服务端返回普通的错误响应
+            reportException(promises, new RemotingException(
+                "Remoting server error. ResponseStatus: {}",
+                response.getStatus().name()));
+            return;
+        }
+
+        List<BatchItem> items = BatchCommandCodec.decode(response, charset);
+        Serializer serializer = getSerializer(response.getSerializer());
+
+        for (int i = 0; i < promises.size(); i++) {
+            Promise<T> promise = promises.get(i);
+            if (i >= items.size()) {
+                promise.setFailure(new RemotingException(
+                    "Missing response of batch item {}, response size {}.", i, items.size()));
+                continue;
+            }
+
+            BatchItem item = items.get(i);
+            try {
+                if (item.getContentLength() > 0) {
+                    promise.setSuccess((T) serializer.deserialize(item.getContent(), item.getClazzName()));
+                } else if (item.getStatus() == RpcStatus.OK) {
+                    promise.setSuccess(null);
+                } else {
+                    promise.setFailure(new RemotingException(
+                        "Remoting server error. ResponseStatus: {}",
+                        item.getStatus().name()));
+                }
+            } catch (Throwable t) {
+                reportException(promise, t);
+            }
+        }
+    }
+
+    /**
+     * 获取连接并发送请求，返回等待响应的 {@code InvocationPromise}。获取连接失败、发送失败或等待响应超时时，
+     * {@code InvocationPromise} 以异常结束
+     *
+     * @param url 请求路径
+     * @param req 请求
+     * @param startMillis 调用开始时间
+     * @param timeoutMillis 响应超时时间
+     * @param boundPromises 获取连接后与 {@code InvocationPromise} 一起绑定到连接的 EventLoop 的 promise
+     * @return InvocationPromise
+     */
+    private InvocationPromise<ResponseCommand> sendRequest(Url url, RequestCommand req, long startMillis,
+                                                           int timeoutMillis, RebindablePromise<?>... boundPromises) {
+        // 获取连接组
+        ConnectionGroup connectionGroup = connectionGroupManager.getConnectionGroup(url);
+
+        RebindablePromise<ResponseCommand> responsePromise = new RebindablePromise<>(eventLoopGroup.next());
+        DefaultInvocationPromise invocationPromise = new DefaultInvocationPromise(responsePromise);
+
+        // 判断请求是否已超时
+        if (getRemainingTime(startMillis, timeoutMillis) <= 0) {
+            ReferenceCountUtil.release(req);
+            invocationPromise.setFailure(TimeoutException.stackless(
+                "Send request timeout. To:{}", NetUtil.getRemoteAddress(url.getAddress())));
+            return invocationPromise;
+        }
+
+        //获取连接
+        connectionGroup.acquireConnection().addListener((GenericFutureListener<Future<Connection>>) connFuture -> {
+            long remainingTime = getRemainingTime(startMillis, timeoutMillis);
+            if (remainingTime <= 0) {
+                // 请求已超时，返回超时异常
+                ReferenceCountUtil.release(req);
+                invocationPromise.setFailure(TimeoutException.stackless(
+                    "Send request timeout. To:{}", NetUtil.getRemoteAddress(url.getAddress())));
+
+                // 释放连接
+                if (connFuture.isSuccess()) {
+                    connectionGroup.releaseConnection(connFuture.get());
+                }
+                return;
+            }
+
+            if (connFuture.isSuccess()) {
+                // 获取连接成功
+                Connection conn = connFuture.get();
+
+                if (checkInvalidOrNot(invocationPromise, conn)) {
+                    ReferenceCountUtil.release(req);
+                    return;
+                }
+
+                // 响应由连接的 EventLoop 读取，在该 EventLoop 中通知监听器，不再切换线程
+                EventExecutor eventLoop = conn.getChannel().eventLoop();
+                responsePromise.rebind(eventLoop);
+                for (RebindablePromise<?> boundPromise : boundPromises) {
+                    boundPromise.rebind(eventLoop);
+                }
+
+                // 请求 id 由连接分配，参考 Connection#nextRequestId()
+                req.setId(conn.nextRequestId());
+
+                try {
+                    // 设置超时定时器
+                    invocationPromise.setTimeout(conn.getTimer()
+                        .newTimeout(
+                            timeout -> {
+                                // 请求已超时，移除
+                                // promise，返回超时异常
+                                PendingCall p = conn.removePromise(req.getId());
+                                if (p != null) {
+                                    p.fail(TimeoutException.stackless(
+                                        "Wait for response timeout. Request id:{}, To:{}",
+                                        req.getId(), NetUtil.getRemoteAddress(conn.getChannel())));
+                                }
+                            },
+                            timeoutMillis,
+                            TimeUnit.MILLISECONDS));
+
+                    // 添加 promise，必须先于发送请求，否则响应可能在 promise 添加之前到达
+                    conn.addPromise(req.getId(), invocationPromise);
+
+                    // 发送请求
+                    conn.getChannel().writeAndFlush(req).addListener(future -> {
+                        if (!future.isSuccess()) {
+                            // 发送失败。移除 promise，并取消响应超时监听
+                            PendingCall p = conn.removePromise(req.getId());
+                            if (p != null) {
+                                p.cancelTimeout();
+                                p.fail(
+                                    new TransportException(future.cause().getMessage(), future.cause()));
+                            }
+
+                            LOGGER.error(
+                                "Unexpected exception when write request. Request id:{}, To:{}",
+                                req.getId(),
+                                NetUtil.getRemoteAddress(conn.getChannel()),
+                                future.cause());
+                        } else {
+                            if (LOGGER.isDebugEnabled()) {
+                                LOGGER.debug(
+                                    "Sent request. Request Id:{}, To:{}.",
+                                    req.getId(),
+                                    NetUtil.getRemoteAddress(conn.getChannel()));
+                            }
+                        }
+                    });
+                } finally {
+                    connectionGroup.releaseConnection(conn);
+                }
+            } else {
+                // 获取连接失败
+                ReferenceCountUtil.release(req);
+                invocationPromise.setFailure(TransportException.stackless(
+                    "Failed to acquire connection. To:{}",
+                    NetUtil.getRemoteAddress(url.getAddress()),
+                    connFuture.cause()));
+            }
+        });
+
+        return invocationPromise;
+    }
+
+    private void reportException(List<? extends Promise<?>> promises, Throwable t) {
+        for (Promise<?> promise : promises) {
+            if (!promise.isDone()) {
+                reportException(promise, t);
+            }
+        }
     }
 
-    private void reportException(Promise<?> promise, Throwable t) {
+    static void reportException(Promise<?> promise, Throwable t) {
         if (t instanceof TransportException) {
             promise.setFailure(t);
+        } else if (t instanceof TimeoutException) {
+            // 超时是高频的失败场景，包装时同样不捕获堆栈
+            promise.setFailure(TransportException.stackless("{}", t.getMessage(), t));
         } else {
             promise.setFailure(new TransportException(t.getMessage(), t));
         }
@@ -342,12 +628,12 @@ public class RemotingInvoker extends AbstractLifecycle {
      */
     private boolean checkInvalidOrNot(Promise<?> promise, Connection connection) {
         if (!connection.isActive()) {
-            promise.setFailure(new TransportException("Connection is not active."));
+            promise.setFailure(TransportException.stackless("Connection is not active."));
             return true;
         }
 
         if (!connection.getChannel().isWritable()) {
-            promise.setFailure(new TransportException("Channel has reached high water mark."));
+            promise.setFailure(TransportException.stackless("Channel has reached high water mark."));
             return true;
         }
 
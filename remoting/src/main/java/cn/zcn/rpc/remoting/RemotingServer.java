@@ -19,6 +19,7 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.ServerSocketChannel;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.util.NettyRuntime;
 import java.net.InetSocketAddress;
 import org.slf4j.Logger;
@@ -105,8 +106,13 @@ public class RemotingServer extends AbstractLifecycle {
                     socketChannel.attr(AttributeKeys.OPTIONS).set(options);
 
                     ChannelPipeline pipeline = socketChannel.pipeline();
+                    if (options.getOption(RpcOptions.FLUSH_CONSOLIDATION)) {
+                        // 同一次读取或同一轮任务中产生的多个响应只需要一次 flush
+                        pipeline.addLast(new FlushConsolidationHandler(
+                            options.getOption(RpcOptions.FLUSH_CONSOLIDATION_LIMIT), true));
+                    }
                     pipeline.addLast(new MessageDecoder());
-                    pipeline.addLast(new MessageEncoder());
+                    pipeline.addLast(new MessageEncoder(options.getOption(RpcOptions.COMPOSITE_ENCODE)));
                     pipeline.addLast(connectionEventHandler);
                     pipeline.addLast(commandInboundHandler);
                 }
@@ -1,5 +1,7 @@
 package cn.zcn.rpc.remoting;
 
+import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
 
@@ -62,64 +64,185 @@ public class RequestCommandDispatcher extends AbstractLifecycle {
         Serializer serializer = SerializerManager.getSerializer(requestCommand.getSerializer());
         if (serializer != null) {
             invocationContext.setSerializer(serializer);
-        } else {
+        } else if (!ConnectionSerialization.isApplicable(requestCommand)) {
+            requestCommand.release();
             writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.DESERIALIZATION_ERROR);
             return;
         }
 
-        executor.execute(() -> {
-            invocationContext.setStartTimeMillis(System.currentTimeMillis());
-            doDispatch(commandContext, invocationContext, serializer, requestCommand);
-        });
+        try {
+            executor.execute(() -> {
+                invocationContext.setStartTimeMillis(System.currentTimeMillis());
+                if (requestCommand.getCommandCode() == CommandCode.BATCH_REQUEST) {
+                    doDispatchBatch(commandContext, invocationContext, serializer, requestCommand);
+                } else {
+                    doDispatch(commandContext, invocationContext, serializer, requestCommand);
+                }
+            });
+        } catch (Throwable t) {
+            requestCommand.release();
+            throw t;
+        }
     }
 
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     private void doDispatch(CommandContext commandContext, InvocationContext invocationContext, Serializer serializer,
                             RequestCommand requestCommand) {
         try {
-            // deserialize class
-            String clazz = new String(requestCommand.getClazz(), options.getOption(RpcOptions.CHARSET));
-
-            // deserialize content
+            RequestHandler<?> handler;
             Object obj;
             try {
-                obj = serializer.deserialize(requestCommand.getContent(), clazz);
+                // deserialize class
+                String clazz = requestCommand.getClazzName();
+                if (clazz == null) {
+                    clazz = new String(requestCommand.getClazz(), options.getOption(RpcOptions.CHARSET));
+                }
+
+                // 先根据类名找到处理器并检查是否超时，被拒绝的请求不需要反序列化内容
+                handler = findHandler(invocationContext, clazz, requestCommand);
+                if (handler == null) {
+                    writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.NO_REQUEST_PROCESSOR);
+                    return;
+                }
+
+                if (isDiscarded(invocationContext, handler, requestCommand)) {
+                    return;
+                }
+
+                // deserialize content
+                if (requestCommand.hasPayload()) {
+                    // 已由解码器通过连接级别的序列化器反序列化
+                    obj = requestCommand.getPayload();
+                } else if (requestCommand.getContentBuf() != null) {
+                    obj = serializer.deserialize(requestCommand.getContentBuf(), clazz);
+                } else {
+                    obj = serializer.deserialize(requestCommand.getContent(), clazz);
+                }
             } catch (SerializationException e) {
                 writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.DESERIALIZATION_ERROR);
                 return;
+            } finally {
+                // 协议内容已反序列化，尽早释放入站缓冲区
+                requestCommand.release();
             }
 
-            RequestHandler handler = requestHandlers.get(clazz);
-            if (handler == null) {
-                LOGGER.debug(
-                    "RequestHandler can not be found by {}. Request id:{}, From:{}, Request class: {}",
-                    clazz,
-                    requestCommand.getId(),
-                    invocationContext.getRemoteHost(),
-                    clazz);
-
-                writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.NO_REQUEST_PROCESSOR);
-                return;
+            RpcStatus status = handle(invocationContext, handler, obj);
+            if (status != null) {
+                writeAndFlushWithRpcStatus(commandContext, requestCommand, status);
             }
+        } catch (Throwable t) {
+            writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 将批量请求的每一项依次交给对应的 {@link RequestHandler}，各项的响应由 {@link BatchResponseCollector}
+     * 收集，全部完成后合并为一个批量响应写回。
+     */
+    private void doDispatchBatch(CommandContext commandContext, DefaultInvocationContext invocationContext,
+                                 Serializer serializer, RequestCommand requestCommand) {
+        Charset charset = Charset.forName(options.getOption(RpcOptions.CHARSET));
+        List<BatchItem> items;
+        try {
+            items = BatchCommandCodec.decode(requestCommand, charset);
+        } catch (Throwable t) {
+            LOGGER.warn("Failed to decode batch request. Request id:{}, From:{}", requestCommand.getId(),
+                invocationContext.getRemoteHost(), t);
+            writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.DESERIALIZATION_ERROR);
+            return;
+        } finally {
+            // 各项的协议内容已拷贝，尽早释放入站缓冲区
+            requestCommand.release();
+        }
+
+        BatchResponseCollector collector = new BatchResponseCollector(commandContext, requestCommand, items.size(),
+            charset);
 
-            if (invocationContext.isTimeout() && handler.ignoredTimeoutRequest()) {
-                // discard timeout request
-                LOGGER.warn(
-                    "Request is discarded. Request id[{}]. From:{}, Request waiting time: {}ms, Request timeout time:{}ms",
-                    requestCommand.getId(),
-                    invocationContext.getRemoteHost(),
-                    System.currentTimeMillis() - invocationContext.getReadyTimeMillis(),
-                    requestCommand.getTimeout());
-            } else {
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            try {
+                if (item.getClazzName() == null) {
+                    collector.complete(i, RpcStatus.DESERIALIZATION_ERROR);
+                    continue;
+                }
+
+                RequestHandler<?> handler = findHandler(invocationContext, item.getClazzName(), requestCommand);
+                if (handler == null) {
+                    collector.complete(i, RpcStatus.NO_REQUEST_PROCESSOR);
+                    continue;
+                }
+
+                if (isDiscarded(invocationContext, handler, requestCommand)) {
+                    collector.complete(i, RpcStatus.HANDLE_TIMEOUT);
+                    continue;
+                }
+
+                Object obj;
                 try {
-                    handler.handle(invocationContext, obj);
-                } catch (Throwable t) {
-                    writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.SERVICE_ERROR);
+                    obj = serializer.deserialize(item.getContent(), item.getClazzName());
+                } catch (SerializationException e) {
+                    collector.complete(i, RpcStatus.DESERIALIZATION_ERROR);
+                    continue;
+                }
+
+                InvocationContext itemContext = new BatchInvocationContext(invocationContext, collector, serializer, i);
+                RpcStatus status = handle(itemContext, handler, obj);
+                if (status != null) {
+                    collector.complete(i, status);
                 }
+            } catch (Throwable t) {
+                collector.complete(i, RpcStatus.INTERNAL_SERVER_ERROR);
             }
+        }
+    }
+
+    private RequestHandler<?> findHandler(InvocationContext invocationContext, String clazz,
+                                          RequestCommand requestCommand) {
+        RequestHandler<?> handler = requestHandlers.get(clazz);
+        if (handler == null) {
+            LOGGER.debug(
+                "RequestHandler can not be found by {}. Request id:{}, From:{}, Request class: {}",
+                clazz,
+                requestCommand.getId(),
+                invocationContext.getRemoteHost(),
+                clazz);
+        }
+
+        return handler;
+    }
+
+    /**
+     * @return {@code true}，请求已超时且处理器丢弃超时请求
+     */
+    private boolean isDiscarded(InvocationContext invocationContext, RequestHandler<?> handler,
+                                RequestCommand requestCommand) {
+        if (invocationContext.isTimeout() && handler.ignoredTimeoutRequest()) {
+            // discard timeout request
+            LOGGER.warn(
+                "Request is discarded. Request id[{}]. From:{}, Request waiting time: {}ms, Request timeout time:{}ms",
+                requestCommand.getId(),
+                invocationContext.getRemoteHost(),
+                System.currentTimeMillis() - invocationContext.getReadyTimeMillis(),
+                requestCommand.getTimeout());
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * 将请求交给 {@link RequestHandler} 处理
+     *
+     * @return 需要返回的错误状态；已交由处理器处理时返回 null
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private RpcStatus handle(InvocationContext invocationContext, RequestHandler handler, Object obj) {
+        try {
+            handler.handle(invocationContext, obj);
         } catch (Throwable t) {
-            writeAndFlushWithRpcStatus(commandContext, requestCommand, RpcStatus.INTERNAL_SERVER_ERROR);
+            return RpcStatus.SERVICE_ERROR;
         }
+
+        return null;
     }
 
     private void writeAndFlushWithRpcStatus(CommandContext commandContext, RequestCommand req, RpcStatus rpcStatus) {
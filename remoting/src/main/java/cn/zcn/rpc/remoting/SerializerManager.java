@@ -1,6 +1,7 @@
 package cn.zcn.rpc.remoting;
 
 import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+import cn.zcn.rpc.remoting.serialization.MessageCodecSerializer;
 import cn.zcn.rpc.remoting.serialization.Serializer;
 
 /**
@@ -11,12 +12,30 @@ import cn.zcn.rpc.remoting.serialization.Serializer;
 public class SerializerManager {
 
 	public static final byte HESSIAN = 1;
+
+	/**
+	 * 连接级别的有状态 Hessian，类定义在连接上只发送一次。由编解码器在 EventLoop 中序列化，不注册序列化器， 参考
+	 * {@link cn.zcn.rpc.remoting.protocol.ConnectionSerialization}
+	 */
+	public static final byte STATEFUL_HESSIAN = 2;
+
+	/**
+	 * RpcRequest、RpcResponse 的紧凑二进制序列化，由 bootstrap 模块注册
+	 */
+	public static final byte RPC_ENVELOPE = 3;
+
+	/**
+	 * 优先使用注解处理器生成的 MessageCodec，参考
+	 * {@link cn.zcn.rpc.remoting.serialization.MessageCodecSerializer}
+	 */
+	public static final byte MESSAGE_CODEC = 4;
 	public static byte DEFAULT_SERIALIZER = HESSIAN;
 
 	private static Serializer[] SERIALIZERS = new Serializer[5];
 
 	static {
 		registerSerializer(HESSIAN, new HessianSerializer());
+		registerSerializer(MESSAGE_CODEC, new MessageCodecSerializer());
 	}
 
 	public static void registerSerializer(int code, Serializer serializer) {
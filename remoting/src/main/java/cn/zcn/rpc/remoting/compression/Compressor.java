@@ -0,0 +1,32 @@
+package cn.zcn.rpc.remoting.compression;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 压缩器，用于压缩协议内容。实现需要是线程安全的。
+ * 
+ * @author zicung
+ */
+public interface Compressor {
+	/**
+	 * 压缩 in 中可读的字节并写入 out，out 为堆内存缓冲区
+	 * 
+	 * @param in
+	 *            原始内容
+	 * @param out
+	 *            压缩后的内容
+	 */
+	void compress(ByteBuf in, ByteBuf out);
+
+	/**
+	 * 解压 in 中可读的字节并写入 out，out 为堆内存缓冲区
+	 * 
+	 * @param in
+	 *            压缩后的内容
+	 * @param out
+	 *            原始内容
+	 * @param originalLength
+	 *            原始内容的长度
+	 */
+	void decompress(ByteBuf in, ByteBuf out, int originalLength);
+}
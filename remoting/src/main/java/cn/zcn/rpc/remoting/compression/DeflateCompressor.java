@@ -0,0 +1,85 @@
+package cn.zcn.rpc.remoting.compression;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.concurrent.FastThreadLocal;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 基于 {@link Deflater} 的压缩器。{@code Deflater} 与 {@code Inflater} 持有本地内存，按线程复用。
+ *
+ * @author zicung
+ */
+public class DeflateCompressor implements Compressor {
+
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    private final FastThreadLocal<Deflater> deflaters = new FastThreadLocal<Deflater>() {
+        @Override
+        protected Deflater initialValue() {
+            return new Deflater(Deflater.BEST_SPEED, true);
+        }
+    };
+
+    private final FastThreadLocal<Inflater> inflaters = new FastThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater(true);
+        }
+    };
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        setInput(in, deflater::setInput);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            out.ensureWritable(Math.max(MIN_CHUNK_SIZE, in.readableBytes() >>> 1));
+            int written = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+            out.writerIndex(out.writerIndex() + written);
+        }
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out, int originalLength) {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        setInput(in, inflater::setInput);
+
+        out.ensureWritable(originalLength);
+        try {
+            while (!inflater.finished() && out.writerIndex() < originalLength) {
+                int written = inflater.inflate(out.array(), out.arrayOffset() + out.writerIndex(),
+                    originalLength - out.writerIndex());
+                if (written == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.writerIndex(out.writerIndex() + written);
+            }
+        } catch (DataFormatException e) {
+            throw new ProtocolException("Invalid deflate content.", e);
+        }
+
+        if (!inflater.finished()) {
+            throw new ProtocolException("Invalid deflate content, excepted length {}.", originalLength);
+        }
+    }
+
+    private void setInput(ByteBuf in, InputSetter setter) {
+        if (in.hasArray()) {
+            setter.setInput(in.array(), in.arrayOffset() + in.readerIndex(), in.readableBytes());
+        } else {
+            byte[] bytes = ByteBufUtil.getBytes(in);
+            setter.setInput(bytes, 0, bytes.length);
+        }
+    }
+
+    private interface InputSetter {
+        void setInput(byte[] bytes, int offset, int length);
+    }
+}
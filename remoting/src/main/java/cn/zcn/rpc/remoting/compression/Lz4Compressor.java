@@ -0,0 +1,56 @@
+package cn.zcn.rpc.remoting.compression;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * 基于 lz4-java 的压缩器，压缩率低于 {@link DeflateCompressor}，但压缩与解压的速度快得多。
+ * lz4-java 为可选依赖，不存在时不会注册该压缩器。
+ *
+ * @author zicung
+ */
+public class Lz4Compressor implements Compressor {
+
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public Lz4Compressor() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        int length = in.readableBytes();
+        int maxLength = compressor.maxCompressedLength(length);
+        out.ensureWritable(maxLength);
+
+        int written = compressor.compress(in.nioBuffer(), 0, length,
+            out.nioBuffer(out.writerIndex(), maxLength), 0, maxLength);
+        out.writerIndex(out.writerIndex() + written);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out, int originalLength) {
+        out.ensureWritable(originalLength);
+
+        int written;
+        try {
+            written = decompressor.decompress(in.nioBuffer(), 0, in.readableBytes(),
+                out.nioBuffer(out.writerIndex(), originalLength), 0, originalLength);
+        } catch (LZ4Exception e) {
+            throw new ProtocolException("Invalid lz4 content.", e);
+        }
+
+        if (written != originalLength) {
+            throw new ProtocolException("Invalid lz4 content, excepted length {}, but got {}.",
+                originalLength, written);
+        }
+        out.writerIndex(out.writerIndex() + written);
+    }
+}
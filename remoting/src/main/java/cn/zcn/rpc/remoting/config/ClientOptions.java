@@ -2,6 +2,8 @@ package cn.zcn.rpc.remoting.config;
 
 import static cn.zcn.rpc.remoting.config.EnvConfigs.*;
 
+import io.netty.util.concurrent.EventExecutorGroup;
+
 /**
  * {@code ClientOptions} 包含客户端可配置的所有选项。
  *
@@ -11,6 +13,42 @@ public class ClientOptions extends RpcOptions {
     public static final Option<Boolean> USE_CRC32 = Option.valueOf("rpc.use.crc32",
         getBool("rpc.use.crc32", true));
 
+    /** 校验码使用 CRC32C 算法，服务端按请求使用的算法响应。需要对端支持，仅在开启 {@link #USE_CRC32} 时有效 */
+    public static final Option<Boolean> USE_CRC32C = Option.valueOf("rpc.use.crc32c",
+        getBool("rpc.use.crc32c", false));
+
+    /** 使用连接级别的类名字典，请求只在首次使用某个类名时携带完整类名，之后只携带 id。需要对端支持 */
+    public static final Option<Boolean> CLASS_NAME_DICTIONARY = Option.valueOf("rpc.class.name.dictionary",
+        getBool("rpc.class.name.dictionary", false));
+
+    /** 使用连接级别的有状态 Hessian 序列化，DTO 的类定义在每个连接上只发送一次，之后的消息通过序号引用。需要对端支持 */
+    public static final Option<Boolean> STATEFUL_HESSIAN = Option.valueOf("rpc.hessian.stateful",
+        getBool("rpc.hessian.stateful", false));
+
+    /**
+     * 请求使用的序列化器编号，参考 {@code SerializerManager}，未设置时使用 {@code SerializerManager.DEFAULT_SERIALIZER}。
+     * 服务端使用请求的序列化器响应，需要对端注册该序列化器
+     */
+    public static final Option<Integer> SERIALIZER = Option.valueOf("rpc.serializer",
+        getInteger("rpc.serializer"));
+
+    /**
+     * 响应的回调线程池，只能通过 {@code RemotingClient#option} 设置。未设置时由获取结果的线程反序列化响应，
+     * 监听器在 IO 线程中执行；设置后响应在回调线程池中反序列化，监听器也在回调线程池中执行
+     */
+    public static final Option<EventExecutorGroup> CALLBACK_EXECUTOR = Option.valueOf("rpc.callback.executor", null);
+
+    /** 连接建立后协商使用 {@code RpcProtocolV2}，对端不支持时继续使用 {@code RpcProtocolV1}。只有 V2 会传输请求头部 */
+    public static final Option<Boolean> PROTOCOL_V2 = Option.valueOf("rpc.protocol.v2",
+        getBool("rpc.protocol.v2", false));
+
+    /**
+     * 响应超时的调度策略，参考 {@code TimerHolder}：wheel 为全局共享的时间轮；sharded 为按调用线程分片的多个时间轮；
+     * eventloop 为连接所在 EventLoop 的定时任务队列，不需要额外的线程，适用于调用量很大且大部分超时任务会被取消的场景
+     */
+    public static final Option<String> TIMER = Option.valueOf("rpc.timer",
+        getString("rpc.timer", "wheel"));
+
     public static final Option<Integer> CONNECT_TIMEOUT_MILLIS = Option.valueOf("rpc.connect.timeout",
         getInteger("rpc.connect.timeout", 10000));
 
@@ -57,6 +57,43 @@ public class RpcOptions implements Options {
     public static final Option<Integer> PROCESSOR_WORKER_QUEEN_SIZE = Option.valueOf("rpc.processor.worker.queen.size",
         getInteger("rpc.processor.worker.queen.size", 1024));
 
+    /** 编码时将协议头与内容缓冲区组合为 CompositeByteBuf 写出，而不是将内容拷贝到帧中，适用于请求、响应内容较大的场景 */
+    public static final Option<Boolean> COMPOSITE_ENCODE = Option.valueOf("rpc.encode.composite",
+        getBool("rpc.encode.composite", false));
+
+    /** 解码时协议内容直接引用入站缓冲区的切片，而不是拷贝为字节数组，命令处理完成后释放 */
+    public static final Option<Boolean> RETAINED_SLICE_DECODE = Option.valueOf("rpc.decode.retained.slice",
+        getBool("rpc.decode.retained.slice", false));
+
+    /** 单个协议帧的最大长度，超过该值时关闭连接 */
+    public static final Option<Integer> MAX_FRAME_LENGTH = Option.valueOf("rpc.max.frame.length",
+        getInteger("rpc.max.frame.length", 16 * 1024 * 1024));
+
+    /**
+     * 协议内容的压缩算法，可选 deflate、lz4（需要引入 lz4-java），为空时不压缩。客户端用于压缩请求，服务端用于压缩响应，需要对端支持
+     */
+    public static final Option<String> COMPRESSOR = Option.valueOf("rpc.compressor",
+        getString("rpc.compressor", ""));
+
+    /** 协议内容达到该长度时才压缩，较小的内容压缩收益低于 CPU 开销 */
+    public static final Option<Integer> COMPRESS_THRESHOLD = Option.valueOf("rpc.compress.threshold",
+        getInteger("rpc.compress.threshold", 16 * 1024));
+
+    /**
+     * 合并 flush。读取过程中的多次 flush 在读取结束时合并为一次；不在读取过程中时（如业务线程写出的请求、响应），flush
+     * 作为任务提交到 EventLoop 延后执行，同一轮任务中的多次 flush 合并为一次系统调用，代价是消息写出最多延迟一轮 EventLoop 任务
+     */
+    public static final Option<Boolean> FLUSH_CONSOLIDATION = Option.valueOf("rpc.flush.consolidation",
+        getBool("rpc.flush.consolidation", false));
+
+    /** 合并 flush 时，累计的 flush 次数达到该值后立即 flush，避免消息在缓冲区中等待过久 */
+    public static final Option<Integer> FLUSH_CONSOLIDATION_LIMIT = Option.valueOf("rpc.flush.consolidation.limit",
+        getInteger("rpc.flush.consolidation.limit", 256));
+
+    /** 每个 Hessian 序列化器缓存的输入、输出流对象的数量上限，为 0 时不缓存 */
+    public static final Option<Integer> HESSIAN_POOL_SIZE = Option.valueOf("rpc.hessian.pool.size",
+        getInteger("rpc.hessian.pool.size", 2 * Runtime.getRuntime().availableProcessors()));
+
     private final ConcurrentMap<Option<?>, Object> options = new ConcurrentHashMap<>();
 
     @Override
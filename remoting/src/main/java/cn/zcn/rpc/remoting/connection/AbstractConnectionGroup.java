@@ -1,7 +1,11 @@
 package cn.zcn.rpc.remoting.connection;
 
 import cn.zcn.rpc.remoting.Url;
+import cn.zcn.rpc.remoting.config.ClientOptions;
+import cn.zcn.rpc.remoting.config.Options;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.protocol.ProtocolHandshake;
+import cn.zcn.rpc.remoting.protocol.v2.RpcProtocolV2;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -58,6 +62,20 @@ public abstract class AbstractConnectionGroup implements ConnectionGroup {
         return newPromise;
     }
 
+    @Override
+    public Connection tryAcquireConnection() {
+        if (isClosed.get()) {
+            return null;
+        }
+
+        Connection connection = doTryAcquireConnection();
+        if (connection != null) {
+            lastAcquiredTimeMillis = System.currentTimeMillis();
+        }
+
+        return connection;
+    }
+
     @Override
     public Future<Void> releaseConnection(Connection connection) {
         Promise<Void> newPromise = executor.newPromise();
@@ -102,14 +120,33 @@ public abstract class AbstractConnectionGroup implements ConnectionGroup {
 
             Connection connection = new Connection(channel);
             channel.attr(AttributeKeys.CONNECTION).set(connection);
-            if (!promise.trySuccess(connection)) {
-                connection.close();
+
+            Options options = channel.attr(AttributeKeys.OPTIONS).get();
+            if (options != null && options.getOption(ClientOptions.PROTOCOL_V2)) {
+                // 协商完成后才交付连接，保证连接上的请求都使用协商后的协议
+                ProtocolHandshake.negotiate(connection, RpcProtocolV2.PROTOCOL_CODE,
+                    options.getOption(ClientOptions.CONNECT_TIMEOUT_MILLIS)).addListener(f -> {
+                        if (f.isSuccess()) {
+                            completeConnection(connection, promise);
+                        } else {
+                            connection.close();
+                            promise.tryFailure(f.cause());
+                        }
+                    });
+            } else {
+                completeConnection(connection, promise);
             }
         } else {
             promise.setFailure(channelFuture.cause());
         }
     }
 
+    private void completeConnection(Connection connection, Promise<Connection> promise) {
+        if (!promise.trySuccess(connection)) {
+            connection.close();
+        }
+    }
+
     @Override
     public Url getUrl() {
         return url;
@@ -122,6 +159,15 @@ public abstract class AbstractConnectionGroup implements ConnectionGroup {
      */
     protected abstract void doAcquireConnection(Promise<Connection> newPromise);
 
+    /**
+     * 子类可以重写该方法，在调用者线程中返回不需要释放的可用连接。默认返回 null
+     *
+     * @return 可用连接，不存在时返回 null
+     */
+    protected Connection doTryAcquireConnection() {
+        return null;
+    }
+
     /**
      * 子类应该重写该方法执行释放连接的逻辑
      *
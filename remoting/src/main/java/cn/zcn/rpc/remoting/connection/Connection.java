@@ -1,20 +1,20 @@
 package cn.zcn.rpc.remoting.connection;
 
-import cn.zcn.rpc.remoting.InvocationPromise;
+import cn.zcn.rpc.remoting.PendingCall;
+import cn.zcn.rpc.remoting.config.ClientOptions;
 import cn.zcn.rpc.remoting.config.Option;
+import cn.zcn.rpc.remoting.config.Options;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.TransportException;
-import cn.zcn.rpc.remoting.protocol.ResponseCommand;
 import cn.zcn.rpc.remoting.utils.NetUtil;
+import cn.zcn.rpc.remoting.utils.TimerHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,28 +27,43 @@ public class Connection {
     /** 心跳失败次数 */
     private int heartbeatFailures = 0;
 
-    private final ConcurrentMap<Integer, InvocationPromise<ResponseCommand>> promises = new ConcurrentHashMap<>();
+    private final PendingInvocations promises = new PendingInvocations();
+
+    /** 请求 id 序列，每个连接独立递增 */
+    private final AtomicInteger requestIds;
+
+    /** 调度连接上的请求超时，参考 {@link ClientOptions#TIMER} */
+    private final Timer timer;
 
     public Connection(Channel channel) {
+        this(channel, 0);
+    }
+
+    /**
+     * @param channel 连接的 Channel
+     * @param lastRequestId 请求 id 序列的初始值，下一个请求 id 从它之后开始分配
+     */
+    Connection(Channel channel, int lastRequestId) {
         this.channel = channel;
+        this.requestIds = new AtomicInteger(lastRequestId);
+
+        Options options = channel.attr(AttributeKeys.OPTIONS).get();
+        String timerStrategy = options != null ? options.getOption(ClientOptions.TIMER)
+            : ClientOptions.TIMER.getDefaultValue();
+        this.timer = TimerHolder.getTimer(timerStrategy, channel.eventLoop());
+
         init();
     }
 
     private void init() {
         channel.closeFuture().addListener((GenericFutureListener<Future<Void>>) future -> {
             // if connection closed, notify uncompleted promise.
-            Iterator<Map.Entry<Integer, InvocationPromise<ResponseCommand>>> iterator = promises.entrySet().iterator();
-
-            while (iterator.hasNext()) {
-                Map.Entry<Integer, InvocationPromise<ResponseCommand>> entry = iterator.next();
-                iterator.remove();
-
-                InvocationPromise<ResponseCommand> promise = entry.getValue();
-                promise.cancelTimeout();
-                promise.setFailure(new TransportException(
+            promises.removeAll((id, call) -> {
+                call.cancelTimeout();
+                call.fail(TransportException.stackless(
                     "Connection was closed. Request id:{}, Remoting address:{}",
-                    entry.getKey(), NetUtil.getRemoteAddress(channel)));
-            }
+                    id, NetUtil.getRemoteAddress(channel)));
+            });
         });
     }
 
@@ -60,18 +75,65 @@ public class Connection {
         heartbeatFailures = failures;
     }
 
-    public InvocationPromise<ResponseCommand> removePromise(Integer id) {
+    /**
+     * 分配请求 id。
+     *
+     * <p>
+     * 请求 id 只需在连接内唯一，每个连接使用独立的序列，不同连接上的请求不会竞争同一个计数器；id 较小时，
+     * {@code RpcProtocolV2} 的变长编码也更短。序列超过 {@link Integer#MAX_VALUE} 后从 1 开始回绕，跳过仍在等待响应的 id，
+     * 回绕后的请求不会与超时时间较长、尚未完成的请求冲突。
+     *
+     * @return 请求 id，总是大于 0
+     */
+    public int nextRequestId() {
+        for (;;) {
+            int id = requestIds.incrementAndGet() & Integer.MAX_VALUE;
+            if (id == 0) {
+                continue;
+            }
+
+            if (!promises.contains(id)) {
+                return id;
+            }
+
+            LOGGER.warn("Request id is still in use after wraparound, skip it. Request id:{}, Remoting address:{}",
+                id, NetUtil.getRemoteAddress(channel));
+        }
+    }
+
+    public PendingCall removePromise(int id) {
         return promises.remove(id);
     }
 
-    public void addPromise(int id, InvocationPromise<ResponseCommand> promise) {
-        promises.put(id, promise);
+    public void addPromise(int id, PendingCall call) {
+        promises.put(id, call);
+    }
+
+    /**
+     * @return 是否还有等待响应的请求
+     */
+    public boolean hasPendingPromises() {
+        return !promises.isEmpty();
+    }
+
+    /**
+     * @return 等待响应的请求数量
+     */
+    public int getPendingPromiseCount() {
+        return promises.size();
     }
 
     public boolean isActive() {
         return channel.isActive();
     }
 
+    /**
+     * @return 调度连接上的请求超时的 {@code Timer}
+     */
+    public Timer getTimer() {
+        return timer;
+    }
+
     public Channel getChannel() {
         return channel;
     }
@@ -80,10 +142,6 @@ public class Connection {
         return channel.attr(AttributeKeys.OPTIONS).get().getOption(option);
     }
 
-    public Map<Integer, InvocationPromise<ResponseCommand>> getInvokeFutures() {
-        return promises;
-    }
-
     public ChannelFuture close() {
         if (channel.isActive()) {
             return channel.close().addListener((ChannelFutureListener) f -> {
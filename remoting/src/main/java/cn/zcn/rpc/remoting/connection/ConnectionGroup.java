@@ -26,6 +26,14 @@ public interface ConnectionGroup {
      */
     Future<Connection> acquireConnection();
 
+    /**
+     * 在当前线程中获取已经建立且存活的 {@code Connection}，不创建连接，也不切换线程。通过该方法获取的 {@code Connection}
+     * 不需要释放。
+     *
+     * @return 可直接使用的 {@code Connection}，不存在时返回 null，此时应通过 {@link #acquireConnection()} 获取
+     */
+    Connection tryAcquireConnection();
+
     /**
      * 释放 {@code Connection}。当 {@code Connection} 不属于此连接组时会关闭 {@code Connection}。
      *
@@ -136,7 +136,7 @@ public class MultiConnectionGroup extends AbstractConnectionGroup {
         }
 
         for (Connection conn : connections) {
-            if (conn.isActive() && !conn.getInvokeFutures().isEmpty()) {
+            if (conn.isActive() && conn.hasPendingPromises()) {
                 return false;
             }
         }
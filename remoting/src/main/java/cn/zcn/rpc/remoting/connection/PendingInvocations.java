@@ -0,0 +1,133 @@
+package cn.zcn.rpc.remoting.connection;
+
+import cn.zcn.rpc.remoting.PendingCall;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+
+/**
+ * 连接上等待响应的调用，以请求 id 为键。
+ *
+ * <p>
+ * 登记、收到响应与超时分别发生在调用线程、IO 线程与定时器线程。表按请求 id 的低位分为若干段，每段是一个以 {@code int}
+ * 为键的开放寻址哈希表，由各自的锁保护。请求 id 是递增的，相邻的请求落在不同的段上，不会装箱请求 id，也不会为每次调用创建
+ * 哈希表节点。
+ *
+ * @author zicung
+ */
+class PendingInvocations {
+
+    private static final int SEGMENTS = 16;
+    private static final int MASK = SEGMENTS - 1;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    PendingInvocations() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * 登记等待响应的调用
+     *
+     * @param id 请求 id
+     * @param call 调用
+     */
+    void put(int id, PendingCall call) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            segment.map.put(id, call);
+        }
+    }
+
+    /**
+     * 移除等待响应的调用
+     *
+     * @param id 请求 id
+     * @return 调用，不存在时返回 null
+     */
+    PendingCall remove(int id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            return segment.map.remove(id);
+        }
+    }
+
+    /**
+     * @param id 请求 id
+     * @return 是否存在等待该请求 id 响应的调用
+     */
+    boolean contains(int id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            return segment.map.containsKey(id);
+        }
+    }
+
+    /**
+     * @return 是否没有等待响应的调用
+     */
+    boolean isEmpty() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                if (!segment.map.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return 等待响应的调用数量
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * 移除所有等待响应的调用，在锁外逐个交给 {@code consumer}
+     *
+     * @param consumer 处理被移除的调用
+     */
+    void removeAll(Consumer consumer) {
+        for (Segment segment : segments) {
+            IntObjectHashMap<PendingCall> removed;
+            synchronized (segment) {
+                if (segment.map.isEmpty()) {
+                    continue;
+                }
+
+                removed = segment.map;
+                segment.map = new IntObjectHashMap<>();
+            }
+
+            for (IntObjectMap.PrimitiveEntry<PendingCall> entry : removed.entries()) {
+                consumer.accept(entry.key(), entry.value());
+            }
+        }
+    }
+
+    private Segment segmentFor(int id) {
+        return segments[id & MASK];
+    }
+
+    private static final class Segment {
+        private IntObjectHashMap<PendingCall> map = new IntObjectHashMap<>();
+    }
+
+    /**
+     * 处理被移除的调用
+     */
+    interface Consumer {
+        void accept(int id, PendingCall call);
+    }
+}
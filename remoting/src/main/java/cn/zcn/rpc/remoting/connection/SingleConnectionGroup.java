@@ -39,6 +39,15 @@ public class SingleConnectionGroup extends AbstractConnectionGroup {
         return conn != null && conn.isActive() ? 1 : 0;
     }
 
+    /**
+     * 唯一的连接已建立且存活时直接返回，释放该连接不需要任何操作
+     */
+    @Override
+    protected Connection doTryAcquireConnection() {
+        Connection connection = getConnectionIfPresent();
+        return connection != null && connection.isActive() ? connection : null;
+    }
+
     /**
      * 获取 {@code Connection}。
      *
@@ -103,7 +112,7 @@ public class SingleConnectionGroup extends AbstractConnectionGroup {
                 Connection connection = connectionPromise.getNow();
 
                 // 存在可用的连接且还有未完成的请求,不能关闭
-                return (connection.getInvokeFutures().isEmpty() || !connection.isActive());
+                return (!connection.hasPendingPromises() || !connection.isActive());
             }
         }
         return true;
@@ -3,7 +3,9 @@ package cn.zcn.rpc.remoting.constants;
 import cn.zcn.rpc.remoting.Url;
 import cn.zcn.rpc.remoting.config.Options;
 import cn.zcn.rpc.remoting.connection.Connection;
+import cn.zcn.rpc.remoting.protocol.ClassNameDictionary;
 import cn.zcn.rpc.remoting.protocol.ProtocolCode;
+import cn.zcn.rpc.remoting.serialization.StatefulHessianSerializer;
 import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import java.nio.channels.Channel;
@@ -25,4 +27,12 @@ public class AttributeKeys {
 
     /** 用于访问 {@code Channel} 中的 {@link Options} 实例的键*/
     public static final AttributeKey<Options> OPTIONS = AttributeKey.valueOf("options");
+
+    /** 用于访问 {@code Channel} 中的 {@link ClassNameDictionary} 实例的键*/
+    public static final AttributeKey<ClassNameDictionary> CLASS_NAME_DICTIONARY = AttributeKey.valueOf(
+        "class-name-dictionary");
+
+    /** 用于访问 {@code Channel} 中的 {@link StatefulHessianSerializer} 实例的键*/
+    public static final AttributeKey<StatefulHessianSerializer> STATEFUL_HESSIAN = AttributeKey.valueOf(
+        "stateful-hessian");
 }
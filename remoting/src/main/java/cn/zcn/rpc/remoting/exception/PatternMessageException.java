@@ -5,6 +5,11 @@ import org.slf4j.helpers.MessageFormatter;
 /** @author zicung */
 public abstract class PatternMessageException extends RuntimeException {
 
+    /** 延迟格式化的消息模式与参数，只在本地使用，不参与序列化 */
+    private transient String pattern;
+    private transient Object[] args;
+    private transient volatile String formattedMessage;
+
     private static Throwable getCause(Object[] argArray) {
         if (argArray == null || argArray.length == 0) {
             return null;
@@ -29,4 +34,44 @@ public abstract class PatternMessageException extends RuntimeException {
     public PatternMessageException(String pattern, Object... args) {
         super(MessageFormatter.arrayFormat(pattern, args).getMessage(), getCause(args));
     }
+
+    /**
+     * 创建不捕获堆栈、延迟格式化消息的异常，用于超时、连接关闭、过载等高频的失败场景。消息在第一次调用
+     * {@link #getMessage()} 时格式化，序列化时由子类替换为携带已格式化消息的异常
+     *
+     * @param writableStackTrace 是否捕获堆栈
+     * @param pattern 消息模式
+     * @param args 参数，最后一个参数为 {@code Throwable} 时作为 cause
+     */
+    protected PatternMessageException(boolean writableStackTrace, String pattern, Object... args) {
+        super(null, getCause(args), false, writableStackTrace);
+        this.pattern = pattern;
+        this.args = args;
+    }
+
+    /**
+     * 创建不捕获堆栈、消息已格式化的异常，用于替换序列化的延迟格式化消息的异常
+     *
+     * @param msg 消息
+     * @param t cause
+     * @param writableStackTrace 是否捕获堆栈
+     */
+    protected PatternMessageException(String msg, Throwable t, boolean writableStackTrace) {
+        super(msg, t, false, writableStackTrace);
+    }
+
+    @Override
+    public String getMessage() {
+        if (pattern == null) {
+            return super.getMessage();
+        }
+
+        String message = formattedMessage;
+        if (message == null) {
+            message = MessageFormatter.arrayFormat(pattern, args).getMessage();
+            formattedMessage = message;
+        }
+
+        return message;
+    }
 }
@@ -14,4 +14,37 @@ public class TimeoutException extends PatternMessageException {
     public TimeoutException(String pattern, Object... args) {
         super(pattern, args);
     }
+
+    private TimeoutException(boolean writableStackTrace, String pattern, Object... args) {
+        super(writableStackTrace, pattern, args);
+    }
+
+    private TimeoutException(String msg, Throwable t, boolean writableStackTrace) {
+        super(msg, t, writableStackTrace);
+    }
+
+    /**
+     * 创建不捕获堆栈、延迟格式化消息的异常
+     *
+     * @param pattern 消息模式
+     * @param args 参数，最后一个参数为 {@code Throwable} 时作为 cause
+     * @return 异常
+     */
+    public static TimeoutException stackless(String pattern, Object... args) {
+        return new Stackless(pattern, args);
+    }
+
+    /**
+     * 延迟格式化消息的异常。消息模式与参数不参与序列化，序列化时替换为携带已格式化消息的 {@link TimeoutException}
+     */
+    private static final class Stackless extends TimeoutException {
+
+        private Stackless(String pattern, Object... args) {
+            super(false, pattern, args);
+        }
+
+        private Object writeReplace() {
+            return new TimeoutException(getMessage(), getCause(), false);
+        }
+    }
 }
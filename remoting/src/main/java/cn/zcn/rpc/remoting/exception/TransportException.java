@@ -14,4 +14,37 @@ public class TransportException extends PatternMessageException {
     public TransportException(String pattern, Object... args) {
         super(pattern, args);
     }
+
+    private TransportException(boolean writableStackTrace, String pattern, Object... args) {
+        super(writableStackTrace, pattern, args);
+    }
+
+    private TransportException(String msg, Throwable t, boolean writableStackTrace) {
+        super(msg, t, writableStackTrace);
+    }
+
+    /**
+     * 创建不捕获堆栈、延迟格式化消息的异常
+     *
+     * @param pattern 消息模式
+     * @param args 参数，最后一个参数为 {@code Throwable} 时作为 cause
+     * @return 异常
+     */
+    public static TransportException stackless(String pattern, Object... args) {
+        return new Stackless(pattern, args);
+    }
+
+    /**
+     * 延迟格式化消息的异常。消息模式与参数不参与序列化，序列化时替换为携带已格式化消息的 {@link TransportException}
+     */
+    private static final class Stackless extends TransportException {
+
+        private Stackless(String pattern, Object... args) {
+            super(false, pattern, args);
+        }
+
+        private Object writeReplace() {
+            return new TransportException(getMessage(), getCause(), false);
+        }
+    }
 }
@@ -1,17 +1,31 @@
 package cn.zcn.rpc.remoting.protocol;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
 import java.io.Serializable;
 
-/** @author zicung */
-public abstract class BaseCommand implements ICommand, Serializable {
+/**
+ * 命令基类。
+ *
+ * <p>命令是引用计数的：当协议内容以 {@link ByteBuf} 的形式引用入站缓冲区时，处理完成后需要调用 {@link #release()} 释放。
+ *
+ * @author zicung
+ */
+public abstract class BaseCommand extends AbstractReferenceCounted implements ICommand, Serializable {
     private ProtocolCode protocolCode;
     private CommandType commandType;
     private CommandCode commandCode;
     private int id;
     private byte serializer;
-    private ProtocolSwitch protocolSwitch;
+    private byte protocolSwitch;
     private byte[] clazz;
+    private String clazzName;
     private byte[] content;
+    private ByteBuf contentBuf;
+    private CommandHeaders headers;
+    private transient Object payload;
+    private transient boolean hasPayload;
 
     public BaseCommand(ProtocolCode protocolCode, CommandType commandType) {
         this.protocolCode = protocolCode;
@@ -65,11 +79,25 @@ public abstract class BaseCommand implements ICommand, Serializable {
 
     @Override
     public ProtocolSwitch getProtocolSwitch() {
-        return protocolSwitch;
+        return ProtocolSwitch.parse(protocolSwitch);
     }
 
     public void setProtocolSwitch(ProtocolSwitch protocolSwitch) {
-        this.protocolSwitch = protocolSwitch;
+        this.protocolSwitch = protocolSwitch == null ? 0 : protocolSwitch.toByte();
+    }
+
+    @Override
+    public byte getProtocolSwitchValue() {
+        return protocolSwitch;
+    }
+
+    public void setProtocolSwitchValue(byte protocolSwitch) {
+        this.protocolSwitch = ProtocolSwitch.check(protocolSwitch);
+    }
+
+    @Override
+    public boolean isProtocolSwitchOn(int index) {
+        return ProtocolSwitch.isOn(protocolSwitch, index);
     }
 
     @Override
@@ -81,6 +109,20 @@ public abstract class BaseCommand implements ICommand, Serializable {
         this.clazz = clazz;
     }
 
+    @Override
+    public String getClazzName() {
+        return clazzName;
+    }
+
+    /**
+     * 设置协议内容的 Java 类型名称。出站命令设置类型名称而不设置 clazz 时，由编码器通过类名字典生成 clazz 字段
+     *
+     * @param clazzName 类型名称
+     */
+    public void setClazzName(String clazzName) {
+        this.clazzName = clazzName;
+    }
+
     @Override
     public byte[] getContent() {
         return content;
@@ -89,4 +131,84 @@ public abstract class BaseCommand implements ICommand, Serializable {
     public void setContent(byte[] content) {
         this.content = content;
     }
+
+    @Override
+    public ByteBuf getContentBuf() {
+        return contentBuf;
+    }
+
+    /**
+     * 设置协议内容，命令持有 {@code contentBuf} 的所有权，并在引用计数归零时释放
+     *
+     * @param contentBuf 协议内容
+     */
+    public void setContentBuf(ByteBuf contentBuf) {
+        this.contentBuf = contentBuf;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    /**
+     * 设置协议内容对应的对象。使用连接级别的序列化器时，出站命令只携带对象，由编码器在 EventLoop 中序列化；
+     * 入站命令由解码器反序列化后设置对象
+     *
+     * @param payload 对象
+     */
+    public void setPayload(Object payload) {
+        this.payload = payload;
+        this.hasPayload = true;
+    }
+
+    public boolean hasPayload() {
+        return hasPayload;
+    }
+
+    /**
+     * 移除命令携带的对象
+     *
+     * @return 对象
+     */
+    public Object removePayload() {
+        Object obj = payload;
+        this.payload = null;
+        this.hasPayload = false;
+        return obj;
+    }
+
+    @Override
+    public CommandHeaders getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(CommandHeaders headers) {
+        this.headers = headers;
+    }
+
+    @Override
+    public int getContentLength() {
+        if (contentBuf != null) {
+            return contentBuf.readableBytes();
+        }
+
+        return content == null ? 0 : content.length;
+    }
+
+    @Override
+    public ReferenceCounted touch(Object hint) {
+        if (contentBuf != null) {
+            contentBuf.touch(hint);
+        }
+
+        return this;
+    }
+
+    @Override
+    protected void deallocate() {
+        if (contentBuf != null) {
+            contentBuf.release();
+            contentBuf = null;
+        }
+    }
 }
@@ -0,0 +1,172 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量命令协议内容的编解码。{@link CommandCode#BATCH_REQUEST} 与 {@link CommandCode#BATCH_RESPONSE}
+ * 的协议头与普通命令相同，clazz 字段为空，协议内容为：
+ *
+ * <pre>
+ * | count (varint) | item 1 | item 2 | ... | item N |
+ *
+ * 请求项：| class length (varint) | class | content length (varint) | content |
+ * 响应项：| status (varint) | class length (varint) | class | content length (varint) | content |
+ * </pre>
+ *
+ * 响应项与请求项按位置一一对应，不再携带各自的 id。所有项共用协议头中的序列化器、超时时间与协议开关，
+ * 因此 CRC 校验与压缩作用于整个批量命令。
+ *
+ * @author zicung
+ */
+public class BatchCommandCodec {
+
+    private BatchCommandCodec() {
+    }
+
+    /**
+     * 编码批量请求的协议内容
+     *
+     * @param items 请求项
+     * @param charset 类名字符集
+     * @return 协议内容
+     */
+    public static byte[] encodeRequest(List<BatchItem> items, Charset charset) {
+        return encode(items, charset, false);
+    }
+
+    /**
+     * 编码批量响应的协议内容
+     *
+     * @param items 响应项，每一项都必须包含响应状态
+     * @param charset 类名字符集
+     * @return 协议内容
+     */
+    public static byte[] encodeResponse(List<BatchItem> items, Charset charset) {
+        return encode(items, charset, true);
+    }
+
+    public static List<BatchItem> decodeRequest(ByteBuf in, Charset charset) {
+        return decode(in, charset, false);
+    }
+
+    public static List<BatchItem> decodeResponse(ByteBuf in, Charset charset) {
+        return decode(in, charset, true);
+    }
+
+    /**
+     * 读取命令中的批量协议内容
+     *
+     * @param command 命令
+     * @param charset 类名字符集
+     * @return 批量命令的各项
+     */
+    public static List<BatchItem> decode(BaseCommand command, Charset charset) {
+        boolean response = command.getCommandCode() == CommandCode.BATCH_RESPONSE;
+        if (!response && command.getCommandCode() != CommandCode.BATCH_REQUEST) {
+            throw new ProtocolException("Command {} is not a batch command.", command.getCommandCode());
+        }
+
+        ByteBuf in = command.getContentBuf();
+        if (in != null) {
+            return decode(in.duplicate(), charset, response);
+        }
+
+        byte[] content = command.getContent();
+        return decode(Unpooled.wrappedBuffer(content == null ? new byte[0] : content), charset, response);
+    }
+
+    private static byte[] encode(List<BatchItem> items, Charset charset, boolean response) {
+        int size = VarInts.varint32Size(items.size());
+        byte[][] clazzes = new byte[items.size()][];
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            if (response && item.getStatus() == null) {
+                throw new ProtocolException("Status of batch response item {} should not be null.", i);
+            }
+
+            byte[] clazz = item.getClazzName() == null ? null : item.getClazzName().getBytes(charset);
+            clazzes[i] = clazz;
+
+            int clazzLength = clazz == null ? 0 : clazz.length;
+            if (response) {
+                size += VarInts.varint32Size(item.getStatus().getValue());
+            }
+            size += VarInts.varint32Size(clazzLength) + clazzLength;
+            size += VarInts.varint32Size(item.getContentLength()) + item.getContentLength();
+        }
+
+        byte[] content = new byte[size];
+        ByteBuf out = Unpooled.wrappedBuffer(content).writerIndex(0);
+        VarInts.writeVarint32(out, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BatchItem item = items.get(i);
+            if (response) {
+                VarInts.writeVarint32(out, item.getStatus().getValue());
+            }
+
+            writeBytes(out, clazzes[i]);
+            writeBytes(out, item.getContent());
+        }
+
+        return content;
+    }
+
+    private static void writeBytes(ByteBuf out, byte[] bytes) {
+        if (bytes == null) {
+            VarInts.writeVarint32(out, 0);
+        } else {
+            VarInts.writeVarint32(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+    }
+
+    private static List<BatchItem> decode(ByteBuf in, Charset charset, boolean response) {
+        int count = VarInts.readVarint32(in);
+        // 每一项至少占用 2 个字节，避免畸形的数量导致分配过大的列表
+        if (count < 0 || count > in.readableBytes() / 2) {
+            throw new ProtocolException("Invalid batch item count {}, readable bytes {}.", count, in.readableBytes());
+        }
+
+        List<BatchItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RpcStatus status = null;
+            if (response) {
+                int value = VarInts.readVarint32(in);
+                status = RpcStatus.resolve(value);
+                if (status == null) {
+                    throw new ProtocolException("Unknown status {} of batch response item {}.", value, i);
+                }
+            }
+
+            int clazzLength = readLength(in);
+            String clazzName = clazzLength == 0 ? null : in.readCharSequence(clazzLength, charset).toString();
+
+            int contentLength = readLength(in);
+            byte[] content = new byte[contentLength];
+            in.readBytes(content);
+
+            items.add(new BatchItem(status, clazzName, content));
+        }
+
+        if (in.isReadable()) {
+            throw new ProtocolException("Unexpected {} bytes after {} batch items.", in.readableBytes(), count);
+        }
+
+        return items;
+    }
+
+    private static int readLength(ByteBuf in) {
+        int length = VarInts.readVarint32(in);
+        if (length < 0 || length > in.readableBytes()) {
+            throw new ProtocolException("Invalid batch item length {}, readable bytes {}.", length, in.readableBytes());
+        }
+
+        return length;
+    }
+}
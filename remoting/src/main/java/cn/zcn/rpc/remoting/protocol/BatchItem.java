@@ -0,0 +1,43 @@
+package cn.zcn.rpc.remoting.protocol;
+
+/**
+ * 批量命令中的一项。批量请求的每一项对应一个独立的请求，批量响应的每一项对应同一位置请求的响应
+ * 
+ * @author zicung
+ */
+public class BatchItem {
+
+	private final RpcStatus status;
+	private final String clazzName;
+	private final byte[] content;
+
+	/**
+	 * @param status
+	 *            响应状态，批量请求中的项为 null
+	 * @param clazzName
+	 *            类名，可能为 null
+	 * @param content
+	 *            协议内容，可能为 null
+	 */
+	public BatchItem(RpcStatus status, String clazzName, byte[] content) {
+		this.status = status;
+		this.clazzName = clazzName;
+		this.content = content;
+	}
+
+	public RpcStatus getStatus() {
+		return status;
+	}
+
+	public String getClazzName() {
+		return clazzName;
+	}
+
+	public byte[] getContent() {
+		return content;
+	}
+
+	public int getContentLength() {
+		return content == null ? 0 : content.length;
+	}
+}
@@ -0,0 +1,170 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Attribute;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 连接级别的类名字典，保存在 {@code Channel} 的属性中，只在连接所属的 EventLoop 中访问。
+ *
+ * <p>
+ * 开启 {@link ProtocolSwitch#CLAZZ_REF_INDEX} 时，clazz 字段不再是完整的类名：
+ *
+ * <pre>
+ * 定义：| id (2 bytes) | class name |，首次发送某个类名时使用，对端记录 id 与类名的对应关系
+ * 引用：| id (2 bytes) |，后续帧只携带 id
+ * </pre>
+ *
+ * 帧按编码顺序写入连接，定义总是先于引用到达对端。连接断开后字典随连接一起丢弃，重连后重新定义。
+ *
+ * @author zicung
+ */
+public class ClassNameDictionary {
+
+    /**
+     * 每个方向最多记录的类名数量，超过后直接发送完整的类名
+     */
+    public static final int MAX_SIZE = 4096;
+
+    private static final int ID_LENGTH = 2;
+
+    private final Charset charset;
+
+    private final Map<String, byte[]> outbound = new HashMap<>();
+    private String[] inbound = new String[16];
+
+    public ClassNameDictionary(Charset charset) {
+        this.charset = charset;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * 获取出站类名对应的 clazz 字段，首次使用返回定义，之后返回引用
+     *
+     * @param name 类名
+     * @return clazz 字段，字典已满时返回 null
+     */
+    public byte[] encode(String name) {
+        byte[] reference = outbound.get(name);
+        if (reference != null) {
+            return reference;
+        }
+
+        if (outbound.size() >= MAX_SIZE) {
+            return null;
+        }
+
+        int id = outbound.size();
+        reference = new byte[] { (byte) (id >>> 8), (byte) id };
+
+        byte[] nameBytes = name.getBytes(charset);
+        byte[] definition = Arrays.copyOf(reference, ID_LENGTH + nameBytes.length);
+        System.arraycopy(nameBytes, 0, definition, ID_LENGTH, nameBytes.length);
+
+        outbound.put(name, reference);
+        return definition;
+    }
+
+    /**
+     * 读取入站的 clazz 字段。读取定义时记录类名，读取引用时返回已缓存的类名
+     *
+     * @param byteBuf ByteBuf
+     * @param length clazz 字段长度
+     * @return 类名
+     */
+    public String decode(ByteBuf byteBuf, int length) {
+        if (length < ID_LENGTH) {
+            throw new ProtocolException("Invalid class name reference, length {}.", length);
+        }
+
+        int id = byteBuf.readUnsignedShort();
+        if (id >= MAX_SIZE) {
+            throw new ProtocolException("Class name id {} exceeds max dictionary size {}.", id, MAX_SIZE);
+        }
+
+        if (length == ID_LENGTH) {
+            String name = id < inbound.length ? inbound[id] : null;
+            if (name == null) {
+                throw new ProtocolException("Unknown class name id {}.", id);
+            }
+
+            return name;
+        }
+
+        String name = byteBuf.readCharSequence(length - ID_LENGTH, charset).toString();
+        if (id >= inbound.length) {
+            inbound = Arrays.copyOf(inbound, Math.min(MAX_SIZE, Math.max(id + 1, inbound.length * 2)));
+        }
+
+        inbound[id] = name;
+        return name;
+    }
+
+    /**
+     * 获取命令的 clazz 字段。命令只设置了类型名称时，通过连接的类名字典生成定义或引用，并开启
+     * {@link ProtocolSwitch#CLAZZ_REF_INDEX}；连接没有类名字典或字典已满时，使用完整的类名。
+     * 生成的 clazz 字段会设置到命令中，同一命令再次编码时不会重复访问字典
+     *
+     * @param context ChannelHandlerContext，可能为 null
+     * @param command 命令
+     * @return clazz 字段
+     */
+    public static byte[] resolveClazz(ChannelHandlerContext context, BaseCommand command) {
+        String clazzName = command.getClazzName();
+        if (command.getClazz() != null || clazzName == null) {
+            return command.getClazz();
+        }
+
+        ClassNameDictionary dictionary = context == null ? null
+            : context.channel().attr(AttributeKeys.CLASS_NAME_DICTIONARY).get();
+
+        byte[] clazz = dictionary == null ? null : dictionary.encode(clazzName);
+        if (clazz != null) {
+            command.setProtocolSwitchValue(
+                ProtocolSwitch.turnOn(command.getProtocolSwitchValue(), ProtocolSwitch.CLAZZ_REF_INDEX));
+        } else {
+            clazz = clazzName.getBytes(dictionary == null ? charset(context) : dictionary.getCharset());
+        }
+
+        command.setClazz(clazz);
+        return clazz;
+    }
+
+    /**
+     * 获取连接的类名字典，对端首次使用类名字典时创建
+     *
+     * @param context ChannelHandlerContext
+     * @return 类名字典
+     */
+    public static ClassNameDictionary inbound(ChannelHandlerContext context) {
+        if (context == null) {
+            throw new ProtocolException("Class name reference requires a channel.");
+        }
+
+        Attribute<ClassNameDictionary> attr = context.channel().attr(AttributeKeys.CLASS_NAME_DICTIONARY);
+        ClassNameDictionary dictionary = attr.get();
+        if (dictionary == null) {
+            dictionary = new ClassNameDictionary(charset(context));
+            attr.set(dictionary);
+        }
+
+        return dictionary;
+    }
+
+    private static Charset charset(ChannelHandlerContext context) {
+        Options options = context == null ? null : context.channel().attr(AttributeKeys.OPTIONS).get();
+        return Charset.forName(options == null ? RpcOptions.CHARSET.getDefaultValue()
+            : options.getOption(RpcOptions.CHARSET));
+    }
+}
@@ -9,7 +9,13 @@ public enum CommandCode {
     REQUEST((short) 2),
 
     /** 响应命令 */
-    RESPONSE((short) 3);
+    RESPONSE((short) 3),
+
+    /** 批量请求命令，一个帧携带多个独立的请求 */
+    BATCH_REQUEST((short) 4),
+
+    /** 批量响应命令，按请求顺序携带批量请求中每个请求的响应 */
+    BATCH_RESPONSE((short) 5);
 
     private final short value;
 
@@ -29,6 +35,10 @@ public enum CommandCode {
                 return REQUEST;
             case 3:
                 return RESPONSE;
+            case 4:
+                return BATCH_REQUEST;
+            case 5:
+                return BATCH_RESPONSE;
             default:
                 throw new IllegalArgumentException("Unknown command code : " + value);
         }
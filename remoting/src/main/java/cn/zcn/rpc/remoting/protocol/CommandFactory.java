@@ -7,7 +7,7 @@ package cn.zcn.rpc.remoting.protocol;
  */
 public interface CommandFactory {
     /**
-     * 创建心跳命令
+     * 创建心跳命令，id 由发送心跳的连接分配，参考 {@code Connection#nextRequestId()}
      *
      * @return {@code ICommand}
      */
@@ -22,7 +22,7 @@ public interface CommandFactory {
     <T extends ICommand> T createHeartbeatAckCommand(ICommand request);
 
     /**
-     * 创建请求
+     * 创建请求，id 由发送请求的连接分配，参考 {@code Connection#nextRequestId()}
      *
      * @param commandType 命令类型
      * @param commandCode 命令码
@@ -0,0 +1,96 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 命令的类型化键值对头部，用于携带链路追踪 id、截止时间、调用方身份等元数据。
+ *
+ * <p>
+ * 头部与协议内容分开编码，在 EventLoop 中无需反序列化协议内容即可读取。值的类型限定为 {@link String}、{@link Long} 与
+ * {@code byte[]}。只有支持头部的协议（如 {@code RpcProtocolV2}）会传输头部，{@code RpcProtocolV1} 会忽略头部。
+ *
+ * @author zicung
+ */
+public class CommandHeaders {
+
+    private final Map<String, Object> values = new LinkedHashMap<>();
+
+    public CommandHeaders putString(String key, String value) {
+        return put(key, value);
+    }
+
+    public CommandHeaders putLong(String key, long value) {
+        return put(key, value);
+    }
+
+    public CommandHeaders putBytes(String key, byte[] value) {
+        return put(key, value);
+    }
+
+    private CommandHeaders put(String key, Object value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Both key and value of header should not be null.");
+        }
+
+        values.put(key, value);
+        return this;
+    }
+
+    public Object get(String key) {
+        return values.get(key);
+    }
+
+    public String getString(String key) {
+        return get(key, String.class);
+    }
+
+    public Long getLong(String key) {
+        return get(key, Long.class);
+    }
+
+    public byte[] getBytes(String key) {
+        return get(key, byte[].class);
+    }
+
+    private <T> T get(String key, Class<T> type) {
+        Object value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException(
+                "Header " + key + " is a " + value.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+
+        return type.cast(value);
+    }
+
+    public Object remove(String key) {
+        return values.remove(key);
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public Set<Map.Entry<String, Object>> entries() {
+        return Collections.unmodifiableMap(values).entrySet();
+    }
+
+    @Override
+    public String toString() {
+        return "CommandHeaders" + values.keySet();
+    }
+}
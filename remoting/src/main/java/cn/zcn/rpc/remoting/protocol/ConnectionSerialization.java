@@ -0,0 +1,143 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.serialization.StatefulHessianSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Attribute;
+
+/**
+ * 连接级别的序列化，由编解码器在连接所属的 EventLoop 中调用，保证协议内容按照在连接上传输的顺序序列化与反序列化。
+ * 
+ * <p>
+ * 序列化器为 {@link SerializerManager#STATEFUL_HESSIAN} 的请求与响应，出站时只携带对象（
+ * {@link BaseCommand#getPayload()}）， 由编码器通过连接的
+ * {@link StatefulHessianSerializer} 序列化为协议内容；入站时由解码器反序列化，并释放协议内容。
+ * 解码失败后连接上的类定义不再一致，解码器抛出 {@link ProtocolException} 关闭连接。
+ * 
+ * @author zicung
+ */
+public class ConnectionSerialization {
+
+	private ConnectionSerialization() {
+	}
+
+	/**
+	 * 命令是否使用连接级别的序列化，批量命令与心跳不使用
+	 * 
+	 * @param command
+	 *            命令
+	 * @return {@code true}，使用连接级别的序列化
+	 */
+	public static boolean isApplicable(ICommand command) {
+		return command.getSerializer() == SerializerManager.STATEFUL_HESSIAN
+				&& (command.getCommandCode() == CommandCode.REQUEST || command
+						.getCommandCode() == CommandCode.RESPONSE);
+	}
+
+	/**
+	 * 将出站命令携带的对象序列化为协议内容。序列化后移除对象，同一命令再次编码时不会重复序列化
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext，可能为 null
+	 * @param command
+	 *            命令
+	 */
+	public static void serialize(ChannelHandlerContext context,
+			BaseCommand command) {
+		if (!command.hasPayload()) {
+			return;
+		}
+
+		if (!isApplicable(command)) {
+			throw new ProtocolException(
+					"Command with serializer {} can not carry a payload.",
+					command.getSerializer());
+		}
+
+		if (context == null) {
+			throw new ProtocolException(
+					"Stateful serialization requires a channel.");
+		}
+
+		ByteBuf content = context.alloc().buffer();
+		try {
+			serializer(context).serialize(command.getPayload(), content);
+		} catch (Throwable t) {
+			content.release();
+			throw t;
+		}
+
+		command.removePayload();
+		command.setContentBuf(content);
+	}
+
+	/**
+	 * 编码失败时调用，此前序列化的协议内容不会发出
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext
+	 */
+	public static void outboundFailed(ChannelHandlerContext context) {
+		StatefulHessianSerializer serializer = context.channel()
+				.attr(AttributeKeys.STATEFUL_HESSIAN).get();
+		if (serializer != null) {
+			serializer.outboundFailed();
+		}
+	}
+
+	/**
+	 * 反序列化入站命令的协议内容，设置到命令携带的对象中并释放协议内容
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext，可能为 null
+	 * @param command
+	 *            命令
+	 */
+	public static void deserialize(ChannelHandlerContext context,
+			BaseCommand command) {
+		if (!isApplicable(command) || command.getContentLength() == 0) {
+			return;
+		}
+
+		if (context == null) {
+			throw new ProtocolException(
+					"Stateful serialization requires a channel.");
+		}
+
+		ByteBuf content = command.getContentBuf() != null ? command
+				.getContentBuf().duplicate() : Unpooled.wrappedBuffer(command
+				.getContent());
+
+		Object obj;
+		try {
+			obj = serializer(context).deserialize(content);
+		} catch (Throwable t) {
+			throw new ProtocolException(
+					"Failed to deserialize command {} with connection state.",
+					command.getId(), t);
+		}
+
+		if (command.getContentBuf() != null) {
+			command.getContentBuf().release();
+			command.setContentBuf(null);
+		}
+
+		command.setContent(null);
+		command.setPayload(obj);
+	}
+
+	private static StatefulHessianSerializer serializer(ChannelHandlerContext context) {
+		Attribute<StatefulHessianSerializer> attr = context.channel().attr(AttributeKeys.STATEFUL_HESSIAN);
+		StatefulHessianSerializer serializer = attr.get();
+		if (serializer == null) {
+			serializer = new StatefulHessianSerializer();
+			attr.set(serializer);
+		}
+
+		return serializer;
+	}
+}
@@ -0,0 +1,143 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.CompressorManager;
+import cn.zcn.rpc.remoting.compression.Compressor;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * 协议内容的压缩与解压，由编解码器在写入与读取协议内容时调用。
+ * 
+ * <p>
+ * 协议内容达到 {@link RpcOptions#COMPRESS_THRESHOLD} 时，使用
+ * {@link RpcOptions#COMPRESSOR} 压缩，并开启 {@link ProtocolSwitch#COMPRESS_INDEX}
+ * 。压缩后的协议内容为：
+ * 
+ * <pre>
+ * | compressor code (1 byte) | original length (varint) | compressed content |
+ * </pre>
+ * 
+ * 压缩后长度没有减少时保持原样发送。每个帧单独决定是否压缩，解码后关闭 {@link ProtocolSwitch#COMPRESS_INDEX}，
+ * 因此按请求创建的响应不会继承该位。
+ * 
+ * @author zicung
+ */
+public class ContentCompression {
+
+	private ContentCompression() {
+	}
+
+	/**
+	 * 按连接的选项压缩命令的协议内容，压缩后的内容设置到命令中，同一命令再次编码时不会重复压缩
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext，可能为 null
+	 * @param command
+	 *            命令
+	 */
+	public static void compress(ChannelHandlerContext context,
+			BaseCommand command) {
+		Options options = context == null ? null : context.channel()
+				.attr(AttributeKeys.OPTIONS).get();
+		if (options == null
+				|| command.isProtocolSwitchOn(ProtocolSwitch.COMPRESS_INDEX)) {
+			return;
+		}
+
+		String name = options.getOption(RpcOptions.COMPRESSOR);
+		int length = command.getContentLength();
+		if (name == null || name.isEmpty() || length == 0
+				|| length < options.getOption(RpcOptions.COMPRESS_THRESHOLD)) {
+			return;
+		}
+
+		byte code = CompressorManager.getCode(name);
+		Compressor compressor = CompressorManager.getCompressor(code);
+		if (compressor == null) {
+			throw new ProtocolException("Unknown compressor {}.", name);
+		}
+
+		ByteBuf content = command.getContentBuf() != null ? command
+				.getContentBuf() : Unpooled.wrappedBuffer(command.getContent());
+
+		// 压缩器要求堆内存缓冲区，从连接的分配器中分配，命令释放时归还
+		ByteBuf compressed = context.alloc().heapBuffer(length >>> 1);
+		compressed.writeByte(code);
+		VarInts.writeVarint32(compressed, length);
+		compressor.compress(content.duplicate(), compressed);
+
+		if (compressed.readableBytes() >= length) {
+			compressed.release();
+			return;
+		}
+
+		if (command.getContentBuf() != null) {
+			command.getContentBuf().release();
+		}
+
+		command.setContentBuf(compressed);
+		command.setProtocolSwitchValue(ProtocolSwitch.turnOn(
+				command.getProtocolSwitchValue(), ProtocolSwitch.COMPRESS_INDEX));
+	}
+
+	/**
+	 * 解压命令的协议内容，并关闭 {@link ProtocolSwitch#COMPRESS_INDEX}。解压后的长度不能超过
+	 * {@link RpcOptions#MAX_FRAME_LENGTH}
+	 * 
+	 * @param context
+	 *            ChannelHandlerContext，可能为 null
+	 * @param command
+	 *            命令
+	 */
+	public static void decompress(ChannelHandlerContext context,
+			BaseCommand command) {
+		if (!command.isProtocolSwitchOn(ProtocolSwitch.COMPRESS_INDEX)) {
+			return;
+		}
+
+		ByteBuf content = command.getContentBuf() != null ? command
+				.getContentBuf().duplicate() : Unpooled.wrappedBuffer(command
+				.getContent());
+		if (!content.isReadable()) {
+			throw new ProtocolException(
+					"Compressed content should not be empty.");
+		}
+
+		byte code = content.readByte();
+		Compressor compressor = CompressorManager.getCompressor(code);
+		if (compressor == null) {
+			throw new ProtocolException("Unknown compressor code {}.", code);
+		}
+
+		int originalLength = VarInts.readVarint32(content);
+		Options options = context == null ? null : context.channel()
+				.attr(AttributeKeys.OPTIONS).get();
+		int maxLength = options == null ? RpcOptions.MAX_FRAME_LENGTH
+				.getDefaultValue() : options
+				.getOption(RpcOptions.MAX_FRAME_LENGTH);
+		if (originalLength < 0 || originalLength > maxLength) {
+			throw new ProtocolException(
+					"Decompressed length {} exceeds max frame length {}.",
+					originalLength, maxLength);
+		}
+
+		byte[] original = new byte[originalLength];
+		compressor.decompress(content,
+				Unpooled.wrappedBuffer(original).clear(), originalLength);
+
+		if (command.getContentBuf() != null) {
+			command.getContentBuf().release();
+			command.setContentBuf(null);
+		}
+
+		command.setContent(original);
+		command.setProtocolSwitchValue(ProtocolSwitch.turnOff(
+				command.getProtocolSwitchValue(), ProtocolSwitch.COMPRESS_INDEX));
+	}
+}
@@ -1,13 +1,12 @@
 package cn.zcn.rpc.remoting.protocol;
 
 import cn.zcn.rpc.remoting.DefaultInvocationPromise;
-import cn.zcn.rpc.remoting.InvocationPromise;
+import cn.zcn.rpc.remoting.PendingCall;
 import cn.zcn.rpc.remoting.config.ClientOptions;
 import cn.zcn.rpc.remoting.connection.Connection;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.TimeoutException;
 import cn.zcn.rpc.remoting.utils.NetUtil;
-import cn.zcn.rpc.remoting.utils.TimerHolder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.GenericFutureListener;
@@ -48,7 +47,8 @@ public class DefaultHeartbeatTrigger implements HeartbeatTrigger {
         }
 
         HeartbeatCommand heartbeatCommand = commandFactory.createHeartbeatCommand();
-        InvocationPromise<ResponseCommand> promise = new DefaultInvocationPromise(ctx.executor().newPromise());
+        heartbeatCommand.setId(conn.nextRequestId());
+        DefaultInvocationPromise promise = new DefaultInvocationPromise(ctx.executor().newPromise());
         promise.addListener((GenericFutureListener<Future<ResponseCommand>>) future -> {
             promise.cancelTimeout();
 
@@ -85,12 +85,12 @@ public class DefaultHeartbeatTrigger implements HeartbeatTrigger {
             }
         });
 
-        promise.setTimeout(TimerHolder.getTimer()
+        promise.setTimeout(conn.getTimer()
             .newTimeout(
                 timeout -> {
-                    InvocationPromise<ResponseCommand> p = conn.removePromise(heartbeatCommand.getId());
+                    PendingCall p = conn.removePromise(heartbeatCommand.getId());
                     if (p != null) {
-                        p.setFailure(new TimeoutException(
+                        p.fail(new TimeoutException(
                             "Wait for heartbeat ack timeout. Id:{}, To:{}",
                             heartbeatCommand.getId(), NetUtil.getRemoteAddress(ctx.channel())));
                     }
@@ -104,7 +104,7 @@ public class DefaultHeartbeatTrigger implements HeartbeatTrigger {
         ctx.writeAndFlush(heartbeatCommand).addListener((GenericFutureListener<Future<Void>>) future -> {
             if (!future.isSuccess()) {
                 // 发送失败，移除 promise、timeout
-                InvocationPromise<ResponseCommand> p = conn.removePromise(heartbeatCommand.getId());
+                PendingCall p = conn.removePromise(heartbeatCommand.getId());
                 p.cancelTimeout();
 
                 // 心跳失败次数加一
@@ -5,7 +5,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import cn.zcn.rpc.remoting.CommandHandler;
-import cn.zcn.rpc.remoting.InvocationPromise;
+import cn.zcn.rpc.remoting.PendingCall;
 import cn.zcn.rpc.remoting.CommandContext;
 import cn.zcn.rpc.remoting.connection.Connection;
 import cn.zcn.rpc.remoting.utils.NetUtil;
@@ -14,7 +14,7 @@ import cn.zcn.rpc.remoting.utils.NetUtil;
  * 处理 {@code HeartbeatCommand} 和 {@code HeartbeatAckCommand}。
  * <pre>
  * 1. 处理 {@code HeartbeatCommand}，并返回 {@code HeartbeatAckCommand}。
- * 2. 处理 {@code HeartbeatAckCommand}，给对应的 {@code InvocationPromise} 设置响应。
+ * 2. 处理 {@code HeartbeatAckCommand}，完成对应的 {@code PendingCall}。
  * </pre>
  *
  * @author zicung
@@ -62,10 +62,10 @@ public class HeartbeatCommandHandler implements CommandHandler<BaseCommand> {
                 .attr(AttributeKeys.CONNECTION)
                 .get();
 
-            InvocationPromise<ResponseCommand> future = connection.removePromise(heartbeatAckCommand.getId());
-            if (future != null) {
-                future.setSuccess(heartbeatAckCommand);
-                future.cancelTimeout();
+            PendingCall call = connection.removePromise(heartbeatAckCommand.getId());
+            if (call != null) {
+                call.complete(heartbeatAckCommand);
+                call.cancelTimeout();
             } else {
                 LOGGER.warn(
                     "Cannot find heartbeat invokeFuture. Id:{}, From:{}",
@@ -1,5 +1,6 @@
 package cn.zcn.rpc.remoting.protocol;
 
+import io.netty.buffer.ByteBuf;
 import java.io.Serializable;
 
 /** @author zicung */
@@ -40,12 +41,28 @@ public interface ICommand extends Serializable {
 	byte getSerializer();
 
 	/**
-	 * 获取协议选项
+	 * 获取协议选项，返回值是当前选项的副本，修改副本不会影响命令
 	 * 
 	 * @return {@link ProtocolSwitch}
 	 */
 	ProtocolSwitch getProtocolSwitch();
 
+	/**
+	 * 获取协议选项的字节值
+	 * 
+	 * @return 协议选项的字节值
+	 */
+	byte getProtocolSwitchValue();
+
+	/**
+	 * 判断协议选项的指定位是否开启
+	 * 
+	 * @param index
+	 *            位
+	 * @return 是否开启
+	 */
+	boolean isProtocolSwitchOn(int index);
+
 	/**
 	 * 获取协议内容的 Java 类型
 	 * 
@@ -53,10 +70,38 @@ public interface ICommand extends Serializable {
 	 */
 	byte[] getClazz();
 
+	/**
+	 * 获取协议内容的 Java 类型名称，入站命令通过类名字典解析 clazz 字段时不为 null
+	 * 
+	 * @return 类型名称
+	 */
+	String getClazzName();
+
 	/**
 	 * 获取协议内容
 	 * 
 	 * @return byte[]
 	 */
 	byte[] getContent();
+
+	/**
+	 * 获取引用入站缓冲区的协议内容，仅在开启切片解码时存在，否则返回 {@code null}
+	 * 
+	 * @return ByteBuf
+	 */
+	ByteBuf getContentBuf();
+
+	/**
+	 * 获取协议内容的长度
+	 * 
+	 * @return 协议内容的长度
+	 */
+	int getContentLength();
+
+	/**
+	 * 获取命令头部，没有头部时返回 null
+	 * 
+	 * @return {@link CommandHeaders}
+	 */
+	CommandHeaders getHeaders();
 }
@@ -5,6 +5,7 @@ import cn.zcn.rpc.remoting.ProtocolManager;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.ProtocolException;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import java.util.List;
@@ -12,6 +13,10 @@ import java.util.List;
 /**
  * 用于解码协议字节码。首先解析协议码，根据协议码获取指定协议的解码器，然后使用解码器解析字节数组。
  *
+ * <p>
+ * 若协议提供了帧解码器（{@link Protocol#newFrameDecoder}），收到第一个帧后使用该解码器替换自身，连接的协议随之固定，
+ * 未处理的字节会转交给新的解码器。
+ *
  * @author zicung
  */
 public class MessageDecoder extends ByteToMessageDecoder {
@@ -22,14 +27,8 @@ public class MessageDecoder extends ByteToMessageDecoder {
             return;
         }
 
-        byteBuf.markReaderIndex();
-        ProtocolCode protocolCode;
-        try {
-            protocolCode = ProtocolCode.from(byteBuf.readByte(), byteBuf.readByte());
-            context.channel().attr(AttributeKeys.PROTOCOL).set(protocolCode);
-        } finally {
-            byteBuf.resetReaderIndex();
-        }
+        int readerIndex = byteBuf.readerIndex();
+        ProtocolCode protocolCode = ProtocolCode.from(byteBuf.getByte(readerIndex), byteBuf.getByte(readerIndex + 1));
 
         Protocol protocol = ProtocolManager.getInstance().getProtocol(protocolCode);
 
@@ -37,6 +36,16 @@ public class MessageDecoder extends ByteToMessageDecoder {
             throw new ProtocolException("Unknown protocol : " + protocolCode);
         }
 
+        if (!protocolCode.equals(context.channel().attr(AttributeKeys.PROTOCOL).get())) {
+            context.channel().attr(AttributeKeys.PROTOCOL).set(protocolCode);
+        }
+
+        ChannelHandler frameDecoder = protocol.newFrameDecoder(context.channel().attr(AttributeKeys.OPTIONS).get());
+        if (frameDecoder != null) {
+            context.pipeline().replace(this, context.name(), frameDecoder);
+            return;
+        }
+
         protocol.getDecoder().decode(context, byteBuf, list);
     }
 }
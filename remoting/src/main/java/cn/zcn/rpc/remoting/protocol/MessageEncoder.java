@@ -1,25 +1,40 @@
 package cn.zcn.rpc.remoting.protocol;
 
 import cn.zcn.rpc.remoting.Protocol;
+import cn.zcn.rpc.remoting.ProtocolEncoder;
 import cn.zcn.rpc.remoting.ProtocolManager;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.ProtocolException;
 import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * 用于编码协议。根据协议码获取指定协议的编码器，然后使用编码器对协议进行编码。
  *
+ * <p>开启组合缓冲区编码后，使用 {@link ProtocolEncoder#encodeComposite(ChannelHandlerContext, Object)} 编码，
+ * 协议可以直接引用消息体，而不必将其拷贝进输出缓冲区。
+ *
  * @author zicung
  */
-public class MessageEncoder extends MessageToByteEncoder<Serializable> {
+public class MessageEncoder extends MessageToMessageEncoder<Serializable> {
     private static final ProtocolCode DEFAULT_PROTOCOL = RpcProtocolV1.PROTOCOL_CODE;
 
+    private final boolean compositeEncode;
+
+    public MessageEncoder() {
+        this(false);
+    }
+
+    public MessageEncoder(boolean compositeEncode) {
+        this.compositeEncode = compositeEncode;
+    }
+
     @Override
-    protected void encode(ChannelHandlerContext context, Serializable msg, ByteBuf byteBuf) throws Exception {
+    protected void encode(ChannelHandlerContext context, Serializable msg, List<Object> out) throws Exception {
         ProtocolCode protocolCode = context.channel().attr(AttributeKeys.PROTOCOL).get();
         if (protocolCode == null) {
             protocolCode = DEFAULT_PROTOCOL;
@@ -31,6 +46,25 @@ public class MessageEncoder extends MessageToByteEncoder<Serializable> {
             throw new ProtocolException("Unknown protocol : " + protocolCode);
         }
 
-        protocol.getEncoder().encode(context, msg, byteBuf);
+        if (compositeEncode) {
+            try {
+                out.add(protocol.getEncoder().encodeComposite(context, msg));
+            } catch (Throwable t) {
+                ConnectionSerialization.outboundFailed(context);
+                throw t;
+            }
+            return;
+        }
+
+        ByteBuf byteBuf = context.alloc().ioBuffer();
+        try {
+            protocol.getEncoder().encode(context, msg, byteBuf);
+        } catch (Throwable t) {
+            byteBuf.release();
+            ConnectionSerialization.outboundFailed(context);
+            throw t;
+        }
+
+        out.add(byteBuf);
     }
 }
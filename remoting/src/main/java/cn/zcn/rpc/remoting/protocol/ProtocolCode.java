@@ -8,6 +8,11 @@ package cn.zcn.rpc.remoting.protocol;
 public class ProtocolCode {
     public static final int LENGTH = 2;
 
+    /**
+     * 协议码缓存，按协议码分行、按版本号分列，行在首次使用时创建。ProtocolCode 不可变，并发创建时最多产生重复的实例
+     */
+    private static final ProtocolCode[][] CACHE = new ProtocolCode[256][];
+
     /** 协议码 */
     private final byte code;
 
@@ -58,7 +63,26 @@ public class ProtocolCode {
         return "Protocol{code=" + code + ",version=" + version + "}";
     }
 
+    /**
+     * 获取协议码，相同的协议码与版本号返回缓存的实例
+     *
+     * @param code 协议码
+     * @param version 协议版本
+     * @return ProtocolCode
+     */
     public static ProtocolCode from(byte code, byte version) {
-        return new ProtocolCode(code, version);
+        ProtocolCode[] row = CACHE[code & 0xFF];
+        if (row == null) {
+            row = new ProtocolCode[256];
+            CACHE[code & 0xFF] = row;
+        }
+
+        ProtocolCode protocolCode = row[version & 0xFF];
+        if (protocolCode == null) {
+            protocolCode = new ProtocolCode(code, version);
+            row[version & 0xFF] = protocolCode;
+        }
+
+        return protocolCode;
     }
 }
@@ -0,0 +1,84 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.FramedProtocolDecoder;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import java.util.List;
+
+/**
+ * 有状态的帧解码器，每个连接一个实例，帧的格式由 {@link FramedProtocolDecoder} 决定。
+ *
+ * <p>
+ * 协议头只解析一次并记录完整帧的长度，在帧的剩余部分到达之前，后续的数据段只需比较可读字节数；
+ * 对于较大的帧，预先扩容累积缓冲区，避免在大量数据段到达时反复扩容与拷贝。
+ *
+ * @author zicung
+ */
+public class ProtocolFrameDecoder extends ByteToMessageDecoder {
+
+    /**
+     * 帧长度不小于该值时，预先扩容累积缓冲区
+     */
+    private static final int PRE_SIZE_THRESHOLD = 64 * 1024;
+
+    private final FramedProtocolDecoder decoder;
+    private final int maxFrameLength;
+
+    /**
+     * 当前帧的长度，-1 表示尚未解析协议头
+     */
+    private long frameLength = -1;
+
+    public ProtocolFrameDecoder(FramedProtocolDecoder decoder, int maxFrameLength) {
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("Max frame length should be greater than 0.");
+        }
+
+        this.decoder = decoder;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) throws Exception {
+        if (frameLength < 0) {
+            long length = decoder.frameLength(byteBuf);
+            if (length < 0) {
+                return;
+            }
+
+            if (length > maxFrameLength) {
+                byteBuf.skipBytes(byteBuf.readableBytes());
+                throw new ProtocolException("Frame length {} exceeds max frame length {}.", length, maxFrameLength);
+            }
+
+            frameLength = length;
+
+            int missing = (int) length - byteBuf.readableBytes();
+            if (missing > 0 && length >= PRE_SIZE_THRESHOLD) {
+                preSize(byteBuf, missing);
+            }
+        }
+
+        if (byteBuf.readableBytes() < frameLength) {
+            return;
+        }
+
+        frameLength = -1;
+        decoder.decodeFrame(context, byteBuf, out);
+    }
+
+    /**
+     * 累积缓冲区被其他对象引用或只读时，累积器会重新分配缓冲区，此时扩容没有意义
+     */
+    private void preSize(ByteBuf byteBuf, int missing) {
+        if (byteBuf.refCnt() == 1 && !byteBuf.isReadOnly()) {
+            byteBuf.ensureWritable(missing, false);
+        }
+    }
+
+    long getFrameLength() {
+        return frameLength;
+    }
+}
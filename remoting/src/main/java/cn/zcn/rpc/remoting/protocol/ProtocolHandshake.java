@@ -0,0 +1,212 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import cn.zcn.rpc.remoting.CommandContext;
+import cn.zcn.rpc.remoting.DefaultInvocationPromise;
+import cn.zcn.rpc.remoting.PendingCall;
+import cn.zcn.rpc.remoting.Protocol;
+import cn.zcn.rpc.remoting.ProtocolManager;
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.connection.Connection;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.TimeoutException;
+import cn.zcn.rpc.remoting.exception.TransportException;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import cn.zcn.rpc.remoting.utils.NetUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelPipeline;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.Promise;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 连接建立后的协议协商。
+ *
+ * <p>
+ * 客户端使用 {@link RpcProtocolV1} 发送一个特殊的请求，clazz 为 {@link #CLAZZ}，content 为期望使用的协议码。
+ * 服务端支持该协议时，先以 {@code RpcProtocolV1} 响应 {@link RpcStatus#OK} 并携带协议码，随后切换连接的协议；
+ * 客户端收到响应后同样切换协议，之后双方使用新协议通信。
+ *
+ * <p>
+ * 不支持该协议的服务端响应 {@link RpcStatus#UNSUPPORTED_PROTOCOL}，不识别协商请求的旧版本服务端会因为找不到请求处理器
+ * 或反序列化失败而响应错误，这两种情况下客户端均继续使用 {@code RpcProtocolV1}。
+ *
+ * @author zicung
+ */
+public class ProtocolHandshake {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProtocolHandshake.class);
+
+    public static final String CLAZZ = "cn.zcn.rpc.remoting.protocol.ProtocolHandshake";
+
+    private static final byte[] CLAZZ_BYTES = CLAZZ.getBytes(StandardCharsets.UTF_8);
+
+    private ProtocolHandshake() {
+    }
+
+    /**
+     * 判断请求是否为协商请求
+     *
+     * @param request 请求
+     * @return {@code true}，协商请求
+     */
+    public static boolean isHandshake(RequestCommand request) {
+        if (request.getClazz() != null) {
+            return Arrays.equals(CLAZZ_BYTES, request.getClazz());
+        }
+
+        return CLAZZ.equals(request.getClazzName());
+    }
+
+    /**
+     * 服务端处理协商请求，必须在连接的 EventLoop 中调用。响应在切换协议之前完成编码，因此总是使用协商前的协议
+     *
+     * @param context CommandContext
+     * @param request 协商请求，处理完成后释放
+     */
+    public static void accept(CommandContext context, RequestCommand request) {
+        try {
+            Channel channel = context.getChannelContext().channel();
+
+            ProtocolCode protocolCode = readProtocolCode(request);
+            Protocol protocol = protocolCode == null ? null : ProtocolManager.getInstance().getProtocol(protocolCode);
+
+            ResponseCommand response = context.getProtocol().getCommandFactory()
+                .createResponseCommand(request, protocol == null ? RpcStatus.UNSUPPORTED_PROTOCOL : RpcStatus.OK);
+            if (response == null) {
+                return;
+            }
+
+            if (protocol != null) {
+                response.setContent(new byte[] { protocolCode.getCode(), protocolCode.getVersion() });
+            }
+
+            context.writeAndFlush(response);
+
+            if (protocol != null) {
+                switchProtocol(channel, protocol);
+
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Switched to protocol {}. From:{}", protocolCode, NetUtil.getRemoteAddress(channel));
+                }
+            }
+        } finally {
+            request.release();
+        }
+    }
+
+    /**
+     * 客户端发起协商。对端响应错误时继续使用 {@link RpcProtocolV1}，等待响应超时或发送失败时返回失败，此时无法确定对端使用的协议，
+     * 应该关闭连接
+     *
+     * @param connection 新建立的连接，尚未发送任何请求
+     * @param protocolCode 期望使用的协议码
+     * @param timeoutMillis 等待响应的超时时间
+     * @return 最终使用的协议码
+     */
+    public static Future<ProtocolCode> negotiate(Connection connection, ProtocolCode protocolCode, int timeoutMillis) {
+        Channel channel = connection.getChannel();
+        Promise<ProtocolCode> result = channel.eventLoop().newPromise();
+
+        Protocol protocol = ProtocolManager.getInstance().getProtocol(protocolCode);
+        if (protocol == null) {
+            return result.setFailure(new IllegalArgumentException("Unknown protocol, " + protocolCode));
+        }
+
+        RequestCommand request = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        request.setId(connection.nextRequestId());
+        request.setCommandCode(CommandCode.REQUEST);
+        request.setSerializer(SerializerManager.DEFAULT_SERIALIZER);
+        request.setProtocolSwitchValue((byte) 0);
+        request.setTimeout(timeoutMillis);
+        request.setClazz(CLAZZ_BYTES);
+        request.setContent(new byte[] { protocolCode.getCode(), protocolCode.getVersion() });
+
+        int id = request.getId();
+
+        DefaultInvocationPromise promise = new DefaultInvocationPromise(channel.eventLoop().newPromise());
+        promise.addListener((GenericFutureListener<Future<ResponseCommand>>) future -> {
+            if (!future.isSuccess()) {
+                result.tryFailure(future.cause());
+                return;
+            }
+
+            // 监听者运行在连接的 EventLoop 中，切换协议先于后续帧的读取与请求的发送
+            ResponseCommand response = future.getNow();
+            try {
+                if (response.getStatus() == RpcStatus.OK && protocolCode.equals(readProtocolCode(response))) {
+                    switchProtocol(channel, protocol);
+                    result.trySuccess(protocolCode);
+                } else {
+                    LOGGER.info("Remoting server does not support protocol {}, status:{}, To:{}",
+                        protocolCode, response.getStatus(), NetUtil.getRemoteAddress(channel));
+                    result.trySuccess(RpcProtocolV1.PROTOCOL_CODE);
+                }
+            } finally {
+                response.release();
+            }
+        });
+
+        promise.setTimeout(connection.getTimer().newTimeout(timeout -> {
+            PendingCall p = connection.removePromise(id);
+            if (p != null) {
+                p.fail(new TimeoutException(
+                    "Wait for handshake timeout. Request id:{}, To:{}", id, NetUtil.getRemoteAddress(channel)));
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS));
+
+        connection.addPromise(id, promise);
+
+        channel.writeAndFlush(request).addListener(future -> {
+            if (!future.isSuccess()) {
+                PendingCall p = connection.removePromise(id);
+                if (p != null) {
+                    p.cancelTimeout();
+                    p.fail(new TransportException(future.cause().getMessage(), future.cause()));
+                }
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * 切换连接的协议：更新连接的协议码，并将解码器替换为新协议的帧解码器。必须在连接的 EventLoop 中调用
+     *
+     * @param channel 连接
+     * @param protocol 新协议
+     */
+    public static void switchProtocol(Channel channel, Protocol protocol) {
+        channel.attr(AttributeKeys.PROTOCOL).set(protocol.getProtocolCode());
+
+        ChannelPipeline pipeline = channel.pipeline();
+        for (Map.Entry<String, ChannelHandler> entry : pipeline) {
+            ChannelHandler handler = entry.getValue();
+            if (handler instanceof MessageDecoder || handler instanceof ProtocolFrameDecoder) {
+                ChannelHandler frameDecoder = protocol.newFrameDecoder(channel.attr(AttributeKeys.OPTIONS).get());
+                pipeline.replace(handler, entry.getKey(), frameDecoder == null ? new MessageDecoder() : frameDecoder);
+                return;
+            }
+        }
+    }
+
+    private static ProtocolCode readProtocolCode(BaseCommand command) {
+        if (command.getContentLength() != ProtocolCode.LENGTH) {
+            return null;
+        }
+
+        ByteBuf contentBuf = command.getContentBuf();
+        if (contentBuf != null) {
+            return ProtocolCode.from(contentBuf.getByte(contentBuf.readerIndex()),
+                contentBuf.getByte(contentBuf.readerIndex() + 1));
+        }
+
+        return ProtocolCode.from(command.getContent()[0], command.getContent()[1]);
+    }
+}
@@ -1,51 +1,55 @@
 package cn.zcn.rpc.remoting.protocol;
 
-import java.util.BitSet;
-import java.util.Objects;
-
 /**
  * 协议选项，在协议中占一个字节的空间。
  *
+ * <p>编解码的热路径直接使用字节值以及 {@link #isOn(byte, int)}、{@link #turnOn(byte, int)}，不需要创建本类的实例。
+ *
  * @author zicung
  */
 public class ProtocolSwitch {
+
+    /** 报文末尾附带校验码 */
+    public static final int CRC32_INDEX = 0;
+
+    /** 校验码使用 CRC32C 算法，仅在 {@link #CRC32_INDEX} 开启时有效 */
+    public static final int CRC32C_INDEX = 1;
+
+    /** clazz 字段为连接级别类名字典的定义或引用，参见 {@link ClassNameDictionary} */
+    public static final int CLAZZ_REF_INDEX = 2;
+
+    /** content 经过压缩，参见 {@link ContentCompression} */
+    public static final int COMPRESS_INDEX = 3;
+
     private static final int MAX_INDEX = 6;
     private static final int MIN_INDEX = 0;
 
-    private final BitSet bits;
+    private byte value;
 
-    private ProtocolSwitch(BitSet bits) {
-        this.bits = bits;
+    private ProtocolSwitch(byte value) {
+        this.value = value;
     }
 
     public boolean isOn(int index) {
-        checkIndex(index);
-        return bits.get(index);
+        return isOn(value, index);
     }
 
     public void turnOn(int index) {
-        checkIndex(index);
-        bits.set(index, true);
+        value = turnOn(value, index);
     }
 
     public void turnOff(int index) {
-        checkIndex(index);
-        bits.set(index, false);
+        value = turnOff(value, index);
     }
 
-    private void checkIndex(int index) {
+    private static void checkIndex(int index) {
         if (index < MIN_INDEX || index > MAX_INDEX) {
             throw new IllegalArgumentException("ProtocolSwitch index must between 0 and 6.");
         }
     }
 
     public byte toByte() {
-        if (bits.size() == 0) {
-            return 0;
-        } else {
-            byte[] bytes = bits.toByteArray();
-            return bytes.length == 0 ? 0 : bytes[0];
-        }
+        return value;
     }
 
     @Override
@@ -60,19 +64,65 @@ public class ProtocolSwitch {
 
         ProtocolSwitch that = (ProtocolSwitch) o;
 
-        return Objects.equals(bits, that.bits);
+        return value == that.value;
     }
 
     @Override
     public int hashCode() {
-        return bits != null ? bits.hashCode() : 0;
+        return value;
     }
 
-    public static ProtocolSwitch parse(byte b) {
+    /**
+     * 直接在协议选项的字节值上判断指定位是否开启，无需创建 {@link ProtocolSwitch}
+     *
+     * @param b 协议选项的字节值
+     * @param index 位
+     * @return 是否开启
+     */
+    public static boolean isOn(byte b, int index) {
+        checkIndex(index);
+        return (b & (1 << index)) != 0;
+    }
+
+    /**
+     * 在协议选项的字节值上开启指定位，无需创建 {@link ProtocolSwitch}
+     *
+     * @param b 协议选项的字节值
+     * @param index 位
+     * @return 开启指定位后的字节值
+     */
+    public static byte turnOn(byte b, int index) {
+        checkIndex(index);
+        return (byte) (b | (1 << index));
+    }
+
+    /**
+     * 在协议选项的字节值上关闭指定位，无需创建 {@link ProtocolSwitch}
+     *
+     * @param b 协议选项的字节值
+     * @param index 位
+     * @return 关闭指定位后的字节值
+     */
+    public static byte turnOff(byte b, int index) {
+        checkIndex(index);
+        return (byte) (b & ~(1 << index));
+    }
+
+    /**
+     * 校验协议选项的字节值
+     *
+     * @param b 协议选项的字节值
+     * @return 协议选项的字节值
+     */
+    public static byte check(byte b) {
         if (b < 0) {
             throw new IllegalArgumentException("ProtocolSwitch value must between 0 and 127.");
         }
 
-        return new ProtocolSwitch(BitSet.valueOf(new byte[] { b }));
+        return b;
+    }
+
+    public static ProtocolSwitch parse(byte b) {
+        return new ProtocolSwitch(check(b));
     }
 }
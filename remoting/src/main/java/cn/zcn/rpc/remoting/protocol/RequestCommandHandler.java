@@ -7,7 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * 将 {@code RequestCommand} 交由 {@code RequestCommandDispatcher} 进行处理。
+ * 将 {@code RequestCommand} 交由 {@code RequestCommandDispatcher} 进行处理，协议协商请求由 {@link ProtocolHandshake} 处理。
  *
  * @author zicung
  */
@@ -23,6 +23,11 @@ public class RequestCommandHandler implements CommandHandler<RequestCommand> {
                 NetUtil.getRemoteAddress(context.getChannelContext().channel()));
         }
 
+        if (ProtocolHandshake.isHandshake(command)) {
+            ProtocolHandshake.accept(context, command);
+            return;
+        }
+
         context.getRequestCommandDispatcher().dispatch(context, command);
     }
 }
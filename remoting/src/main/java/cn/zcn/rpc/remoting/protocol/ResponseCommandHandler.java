@@ -1,8 +1,8 @@
 package cn.zcn.rpc.remoting.protocol;
 
 import cn.zcn.rpc.remoting.CommandHandler;
-import cn.zcn.rpc.remoting.InvocationPromise;
 import cn.zcn.rpc.remoting.CommandContext;
+import cn.zcn.rpc.remoting.PendingCall;
 import cn.zcn.rpc.remoting.connection.Connection;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.utils.NetUtil;
@@ -10,7 +10,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * 响应命令处理器，根据 {@code ResponseCommand} 的 id 查找对应的 {@code InvocationPromise} 并设置响应结果。
+ * 响应命令处理器，根据 {@code ResponseCommand} 的 id 查找对应的 {@code PendingCall} 并完成调用。
+ * 响应命令交由 {@code PendingCall} 释放，找不到 {@code PendingCall} 或调用已结束时直接释放。
  *
  * @author zicung
  */
@@ -31,15 +32,18 @@ public class ResponseCommandHandler implements CommandHandler<ResponseCommand> {
             .attr(AttributeKeys.CONNECTION)
             .get();
 
-        InvocationPromise<ResponseCommand> promise = conn.removePromise(command.getId());
-        if (promise != null) {
-            promise.cancelTimeout();
-            promise.setSuccess(command);
+        PendingCall call = conn.removePromise(command.getId());
+        if (call != null) {
+            call.cancelTimeout();
+            if (!call.complete(command)) {
+                command.release();
+            }
         } else {
             LOGGER.warn(
-                "Can not find InvocationPromise with id {} from connection {}, may be response timeout.",
+                "Can not find PendingCall with id {} from connection {}, may be response timeout.",
                 command.getId(),
                 NetUtil.getRemoteAddress(conn.getChannel()));
+            command.release();
         }
     }
 }
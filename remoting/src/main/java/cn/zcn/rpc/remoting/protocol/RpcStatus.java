@@ -36,6 +36,21 @@ public enum RpcStatus {
     /** 请求处理超时 */
     HANDLE_TIMEOUT((short) 0x0009, "Handle request timeout");
 
+    /** 以响应码为下标的查找表 */
+    private static final RpcStatus[] TABLE;
+
+    static {
+        int max = 0;
+        for (RpcStatus status : values()) {
+            max = Math.max(max, status.value);
+        }
+
+        TABLE = new RpcStatus[max + 1];
+        for (RpcStatus status : values()) {
+            TABLE[status.value] = status;
+        }
+    }
+
     /** 响应码 */
     private final short value;
 
@@ -70,14 +85,10 @@ public enum RpcStatus {
     }
 
     public static RpcStatus resolve(int statusCode) {
-        RpcStatus[] values = values();
-
-        for (RpcStatus status : values) {
-            if (status.value == statusCode) {
-                return status;
-            }
+        if (statusCode < 0 || statusCode >= TABLE.length) {
+            return null;
         }
 
-        return null;
+        return TABLE[statusCode];
     }
 }
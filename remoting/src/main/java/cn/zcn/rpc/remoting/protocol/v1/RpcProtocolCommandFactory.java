@@ -2,7 +2,6 @@ package cn.zcn.rpc.remoting.protocol.v1;
 
 import cn.zcn.rpc.remoting.SerializerManager;
 import cn.zcn.rpc.remoting.protocol.*;
-import cn.zcn.rpc.remoting.utils.CommandIdGenerator;
 
 /**
  * Rpc protocol CommandFactory
@@ -12,15 +11,14 @@ import cn.zcn.rpc.remoting.utils.CommandIdGenerator;
 public class RpcProtocolCommandFactory implements CommandFactory {
     private final ProtocolCode protocolCode;
 
-    protected RpcProtocolCommandFactory(ProtocolCode protocolCode) {
+    public RpcProtocolCommandFactory(ProtocolCode protocolCode) {
         this.protocolCode = protocolCode;
     }
 
     @Override
     public HeartbeatCommand createHeartbeatCommand() {
         HeartbeatCommand heartbeatCommand = new HeartbeatCommand(protocolCode);
-        heartbeatCommand.setId(CommandIdGenerator.getInstance().nextId());
-        heartbeatCommand.setProtocolSwitch(ProtocolSwitch.parse((byte) 0));
+        heartbeatCommand.setProtocolSwitchValue((byte) 0);
         heartbeatCommand.setSerializer(SerializerManager.DEFAULT_SERIALIZER);
         return heartbeatCommand;
     }
@@ -30,7 +28,7 @@ public class RpcProtocolCommandFactory implements CommandFactory {
         HeartbeatAckCommand heartbeatAckCommand = new HeartbeatAckCommand(protocolCode);
         heartbeatAckCommand.setId(request.getId());
         heartbeatAckCommand.setSerializer(request.getSerializer());
-        heartbeatAckCommand.setProtocolSwitch(request.getProtocolSwitch());
+        heartbeatAckCommand.setProtocolSwitchValue(request.getProtocolSwitchValue());
         heartbeatAckCommand.setStatus(RpcStatus.OK);
         return heartbeatAckCommand;
     }
@@ -38,7 +36,6 @@ public class RpcProtocolCommandFactory implements CommandFactory {
     @Override
     public RequestCommand createRequestCommand(CommandType commandType, CommandCode commandCode) {
         RequestCommand request = new RequestCommand(protocolCode, commandType);
-        request.setId(CommandIdGenerator.getInstance().nextId());
         request.setCommandCode(commandCode);
         return request;
     }
@@ -52,7 +49,7 @@ public class RpcProtocolCommandFactory implements CommandFactory {
         ResponseCommand response = new ResponseCommand(protocolCode);
         response.setId(request.getId());
         response.setCommandCode(CommandCode.RESPONSE);
-        response.setProtocolSwitch(request.getProtocolSwitch());
+        response.setProtocolSwitchValue(request.getProtocolSwitchValue());
         response.setSerializer(request.getSerializer());
         response.setStatus(status);
         return response;
@@ -1,6 +1,9 @@
 package cn.zcn.rpc.remoting.protocol.v1;
 
-import cn.zcn.rpc.remoting.ProtocolDecoder;
+import cn.zcn.rpc.remoting.FramedProtocolDecoder;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.ProtocolException;
 import cn.zcn.rpc.remoting.protocol.*;
 import cn.zcn.rpc.remoting.utils.Crc32Util;
@@ -13,147 +16,180 @@ import java.util.List;
  *
  * @author zicung
  */
-public class RpcProtocolDecoder implements ProtocolDecoder {
+public class RpcProtocolDecoder implements FramedProtocolDecoder {
+
+    /**
+     * 帧长度的偏移量，相对于协议头末尾
+     */
+    private static final int CLAZZ_LENGTH_OFFSET = 6;
+    private static final int CONTENT_LENGTH_OFFSET = 4;
+    private static final int SWITCH_OFFSET = 11;
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
 
     @Override
     public void decode(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) throws Exception {
-        if (byteBuf.readableBytes() < RpcProtocolV1.MIN_MESSAGE_LENGTH) {
+        long frameLength = frameLength(byteBuf);
+        if (frameLength < 0 || byteBuf.readableBytes() < frameLength) {
             return;
         }
 
+        decodeFrame(context, byteBuf, out);
+    }
+
+    /**
+     * 帧长度包含协议头、clazz、content 以及 CRC32
+     */
+    @Override
+    public long frameLength(ByteBuf byteBuf) {
+        if (byteBuf.readableBytes() < RpcProtocolV1.MIN_MESSAGE_LENGTH) {
+            return -1;
+        }
+
         int startIndex = byteBuf.readerIndex();
-        byteBuf.markReaderIndex();
 
-        ProtocolCode protocolCode = ProtocolCode.from(byteBuf.readByte(), byteBuf.readByte());
-        if (!RpcProtocolV1.PROTOCOL_CODE.equals(protocolCode)) {
+        byte code = byteBuf.getByte(startIndex);
+        byte version = byteBuf.getByte(startIndex + 1);
+        if (code != RpcProtocolV1.PROTOCOL_CODE.getCode() || version != RpcProtocolV1.PROTOCOL_CODE.getVersion()) {
             throw new ProtocolException(
-                "Excepted protocol {}, but got {}.", RpcProtocolV1.PROTOCOL_CODE, protocolCode);
+                "Excepted protocol {}, but got {}.", RpcProtocolV1.PROTOCOL_CODE, ProtocolCode.from(code, version));
         }
 
-        short type = byteBuf.readShort();
+        short type = byteBuf.getShort(startIndex + 2);
 
+        int headerLength;
         if (type == CommandType.REQUEST.getValue() || type == CommandType.REQUEST_ONEWAY.getValue()) {
-            if (byteBuf.readableBytes() < RpcProtocolV1.MIN_REQUEST_LENGTH - 4) {
-                byteBuf.resetReaderIndex();
-                return;
-            }
-
-            CommandCode commandCode = CommandCode.valueOf(byteBuf.readShort());
-
-            RequestCommand command;
-            if (commandCode == CommandCode.HEARTBEAT) {
-                command = new HeartbeatCommand(protocolCode);
-            } else {
-                command = new RequestCommand(protocolCode, CommandType.valueOf(type));
-            }
-
-            command.setCommandCode(commandCode);
-            command.setId(byteBuf.readInt());
-            command.setSerializer(byteBuf.readByte());
-            command.setProtocolSwitch(ProtocolSwitch.parse(byteBuf.readByte()));
-            command.setTimeout(byteBuf.readInt());
+            headerLength = RpcProtocolV1.MIN_REQUEST_LENGTH;
+        } else if (type == CommandType.RESPONSE.getValue()) {
+            headerLength = RpcProtocolV1.MIN_RESPONSE_LENGTH;
+        } else {
+            throw new ProtocolException("Unknown command type : " + type);
+        }
 
-            short clazzLength = byteBuf.readShort();
-            int contentLength = byteBuf.readInt();
+        if (byteBuf.readableBytes() < headerLength) {
+            return -1;
+        }
 
-            int requiredLength = clazzLength + contentLength;
+        int headerEnd = startIndex + headerLength;
+        int clazzLength = byteBuf.getUnsignedShort(headerEnd - CLAZZ_LENGTH_OFFSET);
+        int contentLength = byteBuf.getInt(headerEnd - CONTENT_LENGTH_OFFSET);
+        if (contentLength < 0) {
+            throw new ProtocolException("Invalid content length {}.", contentLength);
+        }
 
-            boolean hasCrc32 = command.getProtocolSwitch().isOn(0);
-            if (hasCrc32) {
-                requiredLength += 4;
-            }
+        long frameLength = (long) headerLength + clazzLength + contentLength;
+        if (ProtocolSwitch.isOn(byteBuf.getByte(startIndex + SWITCH_OFFSET), ProtocolSwitch.CRC32_INDEX)) {
+            frameLength += 4;
+        }
 
-            if (byteBuf.readableBytes() >= requiredLength) {
-                if (clazzLength > 0) {
-                    byte[] clazz = new byte[clazzLength];
-                    byteBuf.readBytes(clazz);
-                    command.setClazz(clazz);
-                }
+        return frameLength;
+    }
 
-                if (contentLength > 0) {
-                    byte[] content = new byte[contentLength];
-                    byteBuf.readBytes(content);
-                    command.setContent(content);
-                }
+    @Override
+    public void decodeFrame(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) {
+        int startIndex = byteBuf.readerIndex();
 
-                if (hasCrc32) {
-                    checkCrc32(byteBuf, startIndex);
-                }
+        ProtocolCode protocolCode = ProtocolCode.from(byteBuf.readByte(), byteBuf.readByte());
+        short type = byteBuf.readShort();
+        CommandCode commandCode = CommandCode.valueOf(byteBuf.readShort());
 
-                out.add(command);
+        BaseCommand command;
+        if (type == CommandType.RESPONSE.getValue()) {
+            if (commandCode == CommandCode.HEARTBEAT) {
+                command = new HeartbeatAckCommand(protocolCode);
             } else {
-                byteBuf.resetReaderIndex();
+                command = new ResponseCommand(protocolCode);
             }
-        } else if (type == CommandType.RESPONSE.getValue()) {
-            if (byteBuf.readableBytes() < RpcProtocolV1.MIN_RESPONSE_LENGTH - 4) {
-                byteBuf.resetReaderIndex();
-                return;
+        } else {
+            if (commandCode == CommandCode.HEARTBEAT) {
+                command = new HeartbeatCommand(protocolCode);
+            } else {
+                command = new RequestCommand(protocolCode, CommandType.valueOf(type));
             }
+        }
 
-            CommandCode commandCode = CommandCode.valueOf(byteBuf.readShort());
+        command.setCommandCode(commandCode);
+        command.setId(byteBuf.readInt());
+        command.setSerializer(byteBuf.readByte());
+        command.setProtocolSwitchValue(byteBuf.readByte());
 
-            ResponseCommand command;
+        if (command instanceof RequestCommand) {
+            ((RequestCommand) command).setTimeout(byteBuf.readInt());
+        } else {
+            ((ResponseCommand) command).setStatus(RpcStatus.valueOf(byteBuf.readShort()));
+        }
 
-            if (commandCode == CommandCode.HEARTBEAT) {
-                command = new HeartbeatAckCommand(protocolCode);
-            } else {
-                command = new ResponseCommand(protocolCode);
-            }
+        int clazzLength = byteBuf.readUnsignedShort();
+        int contentLength = byteBuf.readInt();
 
-            command.setCommandCode(commandCode);
-            command.setId(byteBuf.readInt());
-            command.setSerializer(byteBuf.readByte());
-            command.setProtocolSwitch(ProtocolSwitch.parse(byteBuf.readByte()));
-            command.setStatus(RpcStatus.valueOf(byteBuf.readShort()));
+        boolean hasCrc32 = command.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX);
+        if (hasCrc32) {
+            checkCrc32(byteBuf, startIndex, byteBuf.readerIndex() + clazzLength + contentLength,
+                command.isProtocolSwitchOn(ProtocolSwitch.CRC32C_INDEX));
+        }
 
-            short clazzLength = byteBuf.readShort();
-            int contentLength = byteBuf.readInt();
+        boolean response = command instanceof ResponseCommand;
 
-            int requiredLength = clazzLength + contentLength;
+        if (clazzLength > 0 && command.isProtocolSwitchOn(ProtocolSwitch.CLAZZ_REF_INDEX)) {
+            command.setClazzName(ClassNameDictionary.inbound(context).decode(byteBuf, clazzLength));
+        } else if (clazzLength > 0) {
+            byte[] clazz = new byte[clazzLength];
+            byteBuf.readBytes(clazz);
+            command.setClazz(clazz);
+        } else if (response) {
+            command.setClazz(EMPTY_BYTES);
+        }
 
-            boolean hasCrc32 = command.getProtocolSwitch().isOn(0);
-            if (hasCrc32) {
-                // CRC32
-                requiredLength += 4;
+        if (contentLength > 0) {
+            readContent(context, byteBuf, command, contentLength);
+            try {
+                ContentCompression.decompress(context, command);
+                ConnectionSerialization.deserialize(context, command);
+            } catch (Throwable t) {
+                command.release();
+                throw t;
             }
+        } else if (response) {
+            command.setContent(EMPTY_BYTES);
+        }
 
-            if (byteBuf.readableBytes() >= requiredLength) {
-                if (clazzLength > 0) {
-                    byte[] clazz = new byte[clazzLength];
-                    byteBuf.readBytes(clazz);
-                    command.setClazz(clazz);
-                } else {
-                    command.setClazz(new byte[0]);
-                }
-
-                if (contentLength > 0) {
-                    byte[] content = new byte[contentLength];
-                    byteBuf.readBytes(content);
-                    command.setContent(content);
-                } else {
-                    command.setContent(new byte[0]);
-                }
-
-                if (hasCrc32) {
-                    checkCrc32(byteBuf, startIndex);
-                }
-
-                out.add(command);
-            } else {
-                byteBuf.resetReaderIndex();
-            }
+        if (hasCrc32) {
+            byteBuf.skipBytes(4);
+        }
+
+        out.add(command);
+    }
+
+    /**
+     * 读取协议内容。开启 {@link RpcOptions#RETAINED_SLICE_DECODE} 时，协议内容为入站缓冲区的切片，不产生拷贝
+     */
+    private void readContent(ChannelHandlerContext context, ByteBuf byteBuf, BaseCommand command, int contentLength) {
+        if (isRetainedSliceDecode(context)) {
+            command.setContentBuf(byteBuf.readRetainedSlice(contentLength));
         } else {
-            throw new ProtocolException("Unknown command type : " + type);
+            byte[] content = new byte[contentLength];
+            byteBuf.readBytes(content);
+            command.setContent(content);
         }
     }
 
-    private void checkCrc32(ByteBuf byteBuf, int startIndex) {
-        int endIndex = byteBuf.readerIndex();
-        byte[] msg = new byte[endIndex - startIndex];
-        byteBuf.getBytes(startIndex, msg, 0, msg.length);
+    private boolean isRetainedSliceDecode(ChannelHandlerContext context) {
+        if (context == null) {
+            return false;
+        }
+
+        Options options = context.channel().attr(AttributeKeys.OPTIONS).get();
+        return options != null && options.getOption(RpcOptions.RETAINED_SLICE_DECODE);
+    }
+
+    /**
+     * 校验 [startIndex, endIndex) 区间的校验码，校验码位于 endIndex 处。在读取协议内容前校验，校验失败时不会产生需要释放的切片
+     */
+    private void checkCrc32(ByteBuf byteBuf, int startIndex, int endIndex, boolean crc32c) {
+        int crc32 = Crc32Util.calculate(byteBuf, startIndex, endIndex - startIndex, crc32c);
 
-        int exceptedCrc32 = byteBuf.readInt();
-        if (Crc32Util.calculate(msg) != exceptedCrc32) {
+        int exceptedCrc32 = byteBuf.getInt(endIndex);
+        if (crc32 != exceptedCrc32) {
             throw new ProtocolException("Invalid CRC32!");
         }
     }
@@ -3,11 +3,18 @@ package cn.zcn.rpc.remoting.protocol.v1;
 import cn.zcn.rpc.remoting.ProtocolEncoder;
 import cn.zcn.rpc.remoting.exception.ProtocolException;
 import cn.zcn.rpc.remoting.protocol.BaseCommand;
+import cn.zcn.rpc.remoting.protocol.ClassNameDictionary;
+import cn.zcn.rpc.remoting.protocol.ConnectionSerialization;
+import cn.zcn.rpc.remoting.protocol.ContentCompression;
+import cn.zcn.rpc.remoting.protocol.ProtocolSwitch;
 import cn.zcn.rpc.remoting.protocol.RequestCommand;
 import cn.zcn.rpc.remoting.protocol.ResponseCommand;
 import cn.zcn.rpc.remoting.utils.Crc32Util;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import java.util.zip.Checksum;
 
 /**
  * {@link RpcProtocolV1} 编码器
@@ -16,59 +23,138 @@ import io.netty.channel.ChannelHandlerContext;
  */
 public class RpcProtocolEncoder implements ProtocolEncoder {
 
+    /**
+     * 当 clazz 与 content 的总长度小于该值时，直接拷贝到协议头所在的缓冲区，避免小报文产生组合缓冲区的额外开销
+     */
+    private static final int COMPOSITE_THRESHOLD = 1024;
+
     @Override
     public void encode(ChannelHandlerContext context, Object msg, ByteBuf out) throws Exception {
+        BaseCommand command = checkCommand(msg);
+
+        ConnectionSerialization.serialize(context, command);
+        byte[] clazz = ClassNameDictionary.resolveClazz(context, command);
+        ContentCompression.compress(context, command);
+
+        int startIndex = out.writerIndex();
+
+        writeHeader(command, clazz, out);
+
+        if (clazz != null) {
+            out.writeBytes(clazz);
+        }
+
+        if (command.getContentBuf() != null) {
+            ByteBuf contentBuf = command.getContentBuf();
+            out.writeBytes(contentBuf, contentBuf.readerIndex(), contentBuf.readableBytes());
+        } else if (command.getContent() != null) {
+            out.writeBytes(command.getContent());
+        }
+
+        if (command.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX)) {
+            int crc32 = Crc32Util.calculate(out, startIndex, out.writerIndex() - startIndex,
+                command.isProtocolSwitchOn(ProtocolSwitch.CRC32C_INDEX));
+            out.writeInt(crc32);
+        }
+    }
+
+    /**
+     * 协议头写入一个小的池化缓冲区，clazz 与 content 以包装的方式作为 {@link CompositeByteBuf} 的组件直接引用，
+     * 不再拷贝进协议头所在的缓冲区；校验码在原始字节上增量计算，同样不产生额外拷贝。
+     */
+    @Override
+    public ByteBuf encodeComposite(ChannelHandlerContext context, Object msg) throws Exception {
+        BaseCommand command = checkCommand(msg);
+
+        ConnectionSerialization.serialize(context, command);
+        byte[] clazz = ClassNameDictionary.resolveClazz(context, command);
+        ContentCompression.compress(context, command);
+
+        int bodyLength = length(clazz) + command.getContentLength();
+        if (bodyLength < COMPOSITE_THRESHOLD) {
+            return ProtocolEncoder.super.encodeComposite(context, msg);
+        }
+
+        boolean crc32On = command.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX);
+
+        ByteBuf header = context.alloc().ioBuffer(
+            command instanceof RequestCommand ? RpcProtocolV1.MIN_REQUEST_LENGTH : RpcProtocolV1.MIN_RESPONSE_LENGTH);
+        CompositeByteBuf composite = context.alloc().compositeBuffer(4);
+        try {
+            writeHeader(command, clazz, header);
+            composite.addComponent(true, header);
+
+            Checksum crc = crc32On ? Crc32Util.newChecksum(command.isProtocolSwitchOn(ProtocolSwitch.CRC32C_INDEX)) : null;
+            if (crc != null) {
+                Crc32Util.update(crc, header, header.readerIndex(), header.readableBytes());
+            }
+
+            if (length(clazz) > 0) {
+                composite.addComponent(true, Unpooled.wrappedBuffer(clazz));
+                if (crc != null) {
+                    crc.update(clazz, 0, clazz.length);
+                }
+            }
+
+            ByteBuf contentBuf = command.getContentBuf();
+            if (contentBuf != null && contentBuf.isReadable()) {
+                // 命令在编码完成后会被释放，组合缓冲区需要持有自己的引用
+                composite.addComponent(true, contentBuf.retainedDuplicate());
+                if (crc != null) {
+                    Crc32Util.update(crc, contentBuf, contentBuf.readerIndex(), contentBuf.readableBytes());
+                }
+            } else if (length(command.getContent()) > 0) {
+                composite.addComponent(true, Unpooled.wrappedBuffer(command.getContent()));
+                if (crc != null) {
+                    crc.update(command.getContent(), 0, command.getContent().length);
+                }
+            }
+
+            if (crc != null) {
+                ByteBuf trailer = context.alloc().ioBuffer(4);
+                composite.addComponent(true, trailer.writeInt((int) crc.getValue()));
+            }
+        } catch (Throwable t) {
+            if (composite.numComponents() == 0) {
+                header.release();
+            }
+            composite.release();
+            throw t;
+        }
+
+        return composite;
+    }
+
+    private BaseCommand checkCommand(Object msg) {
         if (!(msg instanceof BaseCommand)) {
             throw new ProtocolException("Message is not a instance of BaseCommand!");
         }
 
-        int startIndex = out.writerIndex();
-
-        BaseCommand command = (BaseCommand) msg;
+        return (BaseCommand) msg;
+    }
 
+    private void writeHeader(BaseCommand command, byte[] clazz, ByteBuf out) {
         out.writeByte(command.getProtocolCode().getCode());
         out.writeByte(command.getProtocolCode().getVersion());
         out.writeShort(command.getCommandType().getValue());
         out.writeShort(command.getCommandCode().getValue());
         out.writeInt(command.getId());
         out.writeByte(command.getSerializer());
-        out.writeByte(command.getProtocolSwitch().toByte());
+        out.writeByte(command.getProtocolSwitchValue());
 
-        if (msg instanceof RequestCommand) {
+        if (command instanceof RequestCommand) {
             RequestCommand requestCommand = (RequestCommand) command;
             out.writeInt(requestCommand.getTimeout());
-        } else if (msg instanceof ResponseCommand) {
+        } else if (command instanceof ResponseCommand) {
             ResponseCommand responseCommand = (ResponseCommand) command;
             out.writeShort(responseCommand.getStatus().getValue());
         }
 
-        if (command.getClazz() != null) {
-            out.writeShort(command.getClazz().length);
-        } else {
-            out.writeShort(0);
-        }
-
-        if (command.getContent() != null) {
-            out.writeInt(command.getContent().length);
-        } else {
-            out.writeInt(0);
-        }
-
-        if (command.getClazz() != null) {
-            out.writeBytes(command.getClazz());
-        }
-
-        if (command.getContent() != null) {
-            out.writeBytes(command.getContent());
-        }
+        out.writeShort(length(clazz));
+        out.writeInt(command.getContentLength());
+    }
 
-        if (command.getProtocolSwitch().isOn(0)) {
-            // CRC32
-            int endIndex = out.writerIndex();
-            byte[] bytes = new byte[endIndex - startIndex];
-            out.getBytes(startIndex, bytes, 0, bytes.length);
-            int crc32 = Crc32Util.calculate(bytes);
-            out.writeInt(crc32);
-        }
+    private int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
     }
 }
@@ -3,7 +3,10 @@ package cn.zcn.rpc.remoting.protocol.v1;
 import cn.zcn.rpc.remoting.AbstractProtocol;
 import cn.zcn.rpc.remoting.ProtocolDecoder;
 import cn.zcn.rpc.remoting.ProtocolEncoder;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
 import cn.zcn.rpc.remoting.protocol.*;
+import io.netty.channel.ChannelHandler;
 
 /**
  * Rpc protocol v1.
@@ -38,11 +41,11 @@ import cn.zcn.rpc.remoting.protocol.*;
  */
 public class RpcProtocolV1 extends AbstractProtocol {
     public static final ProtocolCode PROTOCOL_CODE = ProtocolCode.from((byte) 1, (byte) 0);
-    public static final int MIN_MESSAGE_LENGTH = 19;
-    public static final int MIN_REQUEST_LENGTH = 21;
-    public static final int MIN_RESPONSE_LENGTH = 19;
+    public static final int MIN_MESSAGE_LENGTH = 20;
+    public static final int MIN_REQUEST_LENGTH = 22;
+    public static final int MIN_RESPONSE_LENGTH = 20;
 
-    private final ProtocolDecoder decoder = new RpcProtocolDecoder();
+    private final RpcProtocolDecoder decoder = new RpcProtocolDecoder();
     private final ProtocolEncoder encoder = new RpcProtocolEncoder();
     private final CommandFactory commandFactory = new RpcProtocolCommandFactory(PROTOCOL_CODE);
     private final HeartbeatTrigger heartbeatTrigger = new DefaultHeartbeatTrigger(commandFactory);
@@ -50,8 +53,14 @@ public class RpcProtocolV1 extends AbstractProtocol {
     public RpcProtocolV1() {
         super(PROTOCOL_CODE);
         registerCommandHandler(CommandCode.HEARTBEAT, new HeartbeatCommandHandler());
-        registerCommandHandler(CommandCode.REQUEST, new RequestCommandHandler());
-        registerCommandHandler(CommandCode.RESPONSE, new ResponseCommandHandler());
+
+        RequestCommandHandler requestCommandHandler = new RequestCommandHandler();
+        registerCommandHandler(CommandCode.REQUEST, requestCommandHandler);
+        registerCommandHandler(CommandCode.BATCH_REQUEST, requestCommandHandler);
+
+        ResponseCommandHandler responseCommandHandler = new ResponseCommandHandler();
+        registerCommandHandler(CommandCode.RESPONSE, responseCommandHandler);
+        registerCommandHandler(CommandCode.BATCH_RESPONSE, responseCommandHandler);
     }
 
     @Override
@@ -73,4 +82,11 @@ public class RpcProtocolV1 extends AbstractProtocol {
     public CommandFactory getCommandFactory() {
         return commandFactory;
     }
+
+    @Override
+    public ChannelHandler newFrameDecoder(Options options) {
+        int maxFrameLength = options == null ? RpcOptions.MAX_FRAME_LENGTH.getDefaultValue()
+            : options.getOption(RpcOptions.MAX_FRAME_LENGTH);
+        return new ProtocolFrameDecoder(decoder, maxFrameLength);
+    }
 }
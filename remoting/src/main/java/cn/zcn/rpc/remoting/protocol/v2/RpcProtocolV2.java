@@ -0,0 +1,100 @@
+package cn.zcn.rpc.remoting.protocol.v2;
+
+import cn.zcn.rpc.remoting.AbstractProtocol;
+import cn.zcn.rpc.remoting.ProtocolDecoder;
+import cn.zcn.rpc.remoting.ProtocolEncoder;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.protocol.*;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolCommandFactory;
+import io.netty.channel.ChannelHandler;
+
+/**
+ * Rpc protocol v2. 与 {@code RpcProtocolV1} 相比，id、超时时间、响应码以及各长度字段使用变长整数编码，
+ * 并在 clazz 之前增加类型化的头部（参见 {@link CommandHeaders}）。
+ *
+ * <pre>
+ * +-------------+------------+----------------+------+----------+------------+--------+
+ * | protoc code | protoc ver | body length(v) | type | cmd code | serializer | switch |
+ * +-------------+------------+----------------+------+----------+------------+--------+
+ * | id(v) | timeout / status(v) | headers length(v) | class length(v) |
+ * +-------+---------------------+-------------------+-----------------+
+ * | headers | class | content | crc32 |
+ * +---------+-------+---------+-------+
+ *
+ * (v) 表示变长整数。body length 为其后所有字节的长度（包含 crc32），content 的长度为帧体剩余的字节数。
+ *
+ * header: | key length(v) | key (UTF-8) | tag | value |
+ * tag 0: String，value 为 | length(v) | UTF-8 |
+ * tag 1: Long，value 为 ZigZag 编码的 64 位变长整数
+ * tag 2: byte[]，value 为 | length(v) | bytes |
+ * </pre>
+ *
+ * 连接建立后默认使用 {@code RpcProtocolV1}，客户端通过 {@link ProtocolHandshake} 协商切换到本协议。
+ *
+ * @author zicung
+ */
+public class RpcProtocolV2 extends AbstractProtocol {
+    public static final ProtocolCode PROTOCOL_CODE = ProtocolCode.from((byte) 1, (byte) 1);
+
+    static final int PROTOCOL_CODE_LENGTH = ProtocolCode.LENGTH;
+
+    /**
+     * 帧体中定长字段的长度：type、cmd code、serializer、switch
+     */
+    static final int FIXED_BODY_LENGTH = 4;
+
+    /**
+     * 帧体的最小长度：定长字段以及 id、timeout/status、headers length、class length 四个变长字段各一个字节
+     */
+    static final int MIN_BODY_LENGTH = FIXED_BODY_LENGTH + 4;
+
+    static final byte HEADER_STRING = 0;
+    static final byte HEADER_LONG = 1;
+    static final byte HEADER_BYTES = 2;
+
+    private final RpcProtocolV2Decoder decoder = new RpcProtocolV2Decoder();
+    private final ProtocolEncoder encoder = new RpcProtocolV2Encoder();
+    private final CommandFactory commandFactory = new RpcProtocolCommandFactory(PROTOCOL_CODE);
+    private final HeartbeatTrigger heartbeatTrigger = new DefaultHeartbeatTrigger(commandFactory);
+
+    public RpcProtocolV2() {
+        super(PROTOCOL_CODE);
+        registerCommandHandler(CommandCode.HEARTBEAT, new HeartbeatCommandHandler());
+
+        RequestCommandHandler requestCommandHandler = new RequestCommandHandler();
+        registerCommandHandler(CommandCode.REQUEST, requestCommandHandler);
+        registerCommandHandler(CommandCode.BATCH_REQUEST, requestCommandHandler);
+
+        ResponseCommandHandler responseCommandHandler = new ResponseCommandHandler();
+        registerCommandHandler(CommandCode.RESPONSE, responseCommandHandler);
+        registerCommandHandler(CommandCode.BATCH_RESPONSE, responseCommandHandler);
+    }
+
+    @Override
+    public HeartbeatTrigger getHeartbeatTrigger() {
+        return heartbeatTrigger;
+    }
+
+    @Override
+    public ProtocolEncoder getEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public ProtocolDecoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public CommandFactory getCommandFactory() {
+        return commandFactory;
+    }
+
+    @Override
+    public ChannelHandler newFrameDecoder(Options options) {
+        int maxFrameLength = options == null ? RpcOptions.MAX_FRAME_LENGTH.getDefaultValue()
+            : options.getOption(RpcOptions.MAX_FRAME_LENGTH);
+        return new ProtocolFrameDecoder(decoder, maxFrameLength);
+    }
+}
@@ -0,0 +1,216 @@
+package cn.zcn.rpc.remoting.protocol.v2;
+
+import cn.zcn.rpc.remoting.FramedProtocolDecoder;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.protocol.*;
+import cn.zcn.rpc.remoting.utils.Crc32Util;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * {@link RpcProtocolV2} 解码器
+ *
+ * @author zicung
+ */
+public class RpcProtocolV2Decoder implements FramedProtocolDecoder {
+
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    @Override
+    public void decode(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) throws Exception {
+        long frameLength = frameLength(byteBuf);
+        if (frameLength < 0 || byteBuf.readableBytes() < frameLength) {
+            return;
+        }
+
+        decodeFrame(context, byteBuf, out);
+    }
+
+    /**
+     * 帧长度包含协议码、帧体长度字段以及帧体
+     */
+    @Override
+    public long frameLength(ByteBuf byteBuf) {
+        if (byteBuf.readableBytes() <= RpcProtocolV2.PROTOCOL_CODE_LENGTH) {
+            return -1;
+        }
+
+        int startIndex = byteBuf.readerIndex();
+
+        byte code = byteBuf.getByte(startIndex);
+        byte version = byteBuf.getByte(startIndex + 1);
+        if (code != RpcProtocolV2.PROTOCOL_CODE.getCode() || version != RpcProtocolV2.PROTOCOL_CODE.getVersion()) {
+            throw new ProtocolException(
+                "Excepted protocol {}, but got {}.", RpcProtocolV2.PROTOCOL_CODE, ProtocolCode.from(code, version));
+        }
+
+        long varint = VarInts.peekVarint32(byteBuf, startIndex + RpcProtocolV2.PROTOCOL_CODE_LENGTH);
+        if (varint < 0) {
+            return -1;
+        }
+
+        int bodyLength = (int) varint;
+        if (bodyLength < RpcProtocolV2.MIN_BODY_LENGTH) {
+            throw new ProtocolException("Invalid body length {}.", bodyLength);
+        }
+
+        return RpcProtocolV2.PROTOCOL_CODE_LENGTH + (varint >>> 32) + bodyLength;
+    }
+
+    @Override
+    public void decodeFrame(ChannelHandlerContext context, ByteBuf byteBuf, List<Object> out) {
+        int startIndex = byteBuf.readerIndex();
+
+        byteBuf.skipBytes(RpcProtocolV2.PROTOCOL_CODE_LENGTH);
+        int bodyLength = VarInts.readVarint32(byteBuf);
+        int frameEnd = byteBuf.readerIndex() + bodyLength;
+
+        short type = byteBuf.readByte();
+        CommandCode commandCode = CommandCode.valueOf(byteBuf.readByte());
+
+        BaseCommand command;
+        if (type == CommandType.RESPONSE.getValue()) {
+            if (commandCode == CommandCode.HEARTBEAT) {
+                command = new HeartbeatAckCommand(RpcProtocolV2.PROTOCOL_CODE);
+            } else {
+                command = new ResponseCommand(RpcProtocolV2.PROTOCOL_CODE);
+            }
+        } else {
+            if (commandCode == CommandCode.HEARTBEAT) {
+                command = new HeartbeatCommand(RpcProtocolV2.PROTOCOL_CODE);
+            } else {
+                command = new RequestCommand(RpcProtocolV2.PROTOCOL_CODE, CommandType.valueOf(type));
+            }
+        }
+
+        command.setCommandCode(commandCode);
+        command.setSerializer(byteBuf.readByte());
+        command.setProtocolSwitchValue(byteBuf.readByte());
+
+        boolean hasCrc32 = command.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX);
+        int contentEnd = hasCrc32 ? frameEnd - 4 : frameEnd;
+        if (hasCrc32) {
+            checkCrc32(byteBuf, startIndex, contentEnd, command.isProtocolSwitchOn(ProtocolSwitch.CRC32C_INDEX));
+        }
+
+        command.setId(VarInts.readVarint32(byteBuf));
+
+        int statusOrTimeout = VarInts.readVarint32(byteBuf);
+        if (command instanceof RequestCommand) {
+            ((RequestCommand) command).setTimeout(statusOrTimeout);
+        } else {
+            ((ResponseCommand) command).setStatus(RpcStatus.valueOf(statusOrTimeout));
+        }
+
+        int headersLength = VarInts.readVarint32(byteBuf);
+        int clazzLength = VarInts.readVarint32(byteBuf);
+        int contentLength = contentEnd - byteBuf.readerIndex() - headersLength - clazzLength;
+        if (headersLength < 0 || clazzLength < 0 || contentLength < 0) {
+            throw new ProtocolException("Invalid frame, headers length {}, class length {}, body length {}.",
+                headersLength, clazzLength, bodyLength);
+        }
+
+        if (headersLength > 0) {
+            command.setHeaders(readHeaders(byteBuf, headersLength));
+        }
+
+        boolean response = command instanceof ResponseCommand;
+
+        if (clazzLength > 0 && command.isProtocolSwitchOn(ProtocolSwitch.CLAZZ_REF_INDEX)) {
+            command.setClazzName(ClassNameDictionary.inbound(context).decode(byteBuf, clazzLength));
+        } else if (clazzLength > 0) {
+            byte[] clazz = new byte[clazzLength];
+            byteBuf.readBytes(clazz);
+            command.setClazz(clazz);
+        } else if (response) {
+            command.setClazz(EMPTY_BYTES);
+        }
+
+        if (contentLength > 0) {
+            readContent(context, byteBuf, command, contentLength);
+            try {
+                ContentCompression.decompress(context, command);
+                ConnectionSerialization.deserialize(context, command);
+            } catch (Throwable t) {
+                command.release();
+                throw t;
+            }
+        } else if (response) {
+            command.setContent(EMPTY_BYTES);
+        }
+
+        byteBuf.readerIndex(frameEnd);
+
+        out.add(command);
+    }
+
+    /**
+     * 读取头部，头部位于协议内容之前，读取时不需要反序列化协议内容
+     */
+    private CommandHeaders readHeaders(ByteBuf byteBuf, int headersLength) {
+        int headersEnd = byteBuf.readerIndex() + headersLength;
+
+        CommandHeaders headers = new CommandHeaders();
+        while (byteBuf.readerIndex() < headersEnd) {
+            String key = readString(byteBuf);
+
+            byte tag = byteBuf.readByte();
+            switch (tag) {
+                case RpcProtocolV2.HEADER_STRING:
+                    headers.putString(key, readString(byteBuf));
+                    break;
+                case RpcProtocolV2.HEADER_LONG:
+                    headers.putLong(key, VarInts.decodeZigZag64(VarInts.readVarint64(byteBuf)));
+                    break;
+                case RpcProtocolV2.HEADER_BYTES:
+                    byte[] value = new byte[VarInts.readVarint32(byteBuf)];
+                    byteBuf.readBytes(value);
+                    headers.putBytes(key, value);
+                    break;
+                default:
+                    throw new ProtocolException("Unknown header type {} of {}.", tag, key);
+            }
+        }
+
+        if (byteBuf.readerIndex() != headersEnd) {
+            throw new ProtocolException("Invalid headers length {}.", headersLength);
+        }
+
+        return headers;
+    }
+
+    private String readString(ByteBuf byteBuf) {
+        int length = VarInts.readVarint32(byteBuf);
+        return byteBuf.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * 读取协议内容。开启 {@link RpcOptions#RETAINED_SLICE_DECODE} 时，协议内容为入站缓冲区的切片，不产生拷贝
+     */
+    private void readContent(ChannelHandlerContext context, ByteBuf byteBuf, BaseCommand command, int contentLength) {
+        Options options = context == null ? null : context.channel().attr(AttributeKeys.OPTIONS).get();
+        if (options != null && options.getOption(RpcOptions.RETAINED_SLICE_DECODE)) {
+            command.setContentBuf(byteBuf.readRetainedSlice(contentLength));
+        } else {
+            byte[] content = new byte[contentLength];
+            byteBuf.readBytes(content);
+            command.setContent(content);
+        }
+    }
+
+    /**
+     * 校验 [startIndex, endIndex) 区间的校验码，校验码位于 endIndex 处。在读取头部与协议内容前校验
+     */
+    private void checkCrc32(ByteBuf byteBuf, int startIndex, int endIndex, boolean crc32c) {
+        int crc32 = Crc32Util.calculate(byteBuf, startIndex, endIndex - startIndex, crc32c);
+        if (crc32 != byteBuf.getInt(endIndex)) {
+            throw new ProtocolException("Invalid CRC32!");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package cn.zcn.rpc.remoting.protocol.v2;
+
+import cn.zcn.rpc.remoting.ProtocolEncoder;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.protocol.BaseCommand;
+import cn.zcn.rpc.remoting.protocol.ClassNameDictionary;
+import cn.zcn.rpc.remoting.protocol.CommandHeaders;
+import cn.zcn.rpc.remoting.protocol.ConnectionSerialization;
+import cn.zcn.rpc.remoting.protocol.ContentCompression;
+import cn.zcn.rpc.remoting.protocol.ProtocolSwitch;
+import cn.zcn.rpc.remoting.protocol.RequestCommand;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import cn.zcn.rpc.remoting.utils.Crc32Util;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.Map;
+
+/**
+ * {@link RpcProtocolV2} 编码器。各字段的长度在写入前计算完成，编码过程中不需要临时缓冲区，也不需要回填长度
+ *
+ * @author zicung
+ */
+public class RpcProtocolV2Encoder implements ProtocolEncoder {
+
+    @Override
+    public void encode(ChannelHandlerContext context, Object msg, ByteBuf out) throws Exception {
+        if (!(msg instanceof BaseCommand)) {
+            throw new ProtocolException("Message is not a instance of BaseCommand!");
+        }
+
+        BaseCommand command = (BaseCommand) msg;
+
+        ConnectionSerialization.serialize(context, command);
+        byte[] clazz = ClassNameDictionary.resolveClazz(context, command);
+        ContentCompression.compress(context, command);
+        CommandHeaders headers = command.getHeaders();
+
+        int statusOrTimeout = statusOrTimeout(command);
+        int headersLength = headersLength(headers);
+        int clazzLength = clazz == null ? 0 : clazz.length;
+        int contentLength = command.getContentLength();
+        boolean crc32On = command.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX);
+
+        int bodyLength = RpcProtocolV2.FIXED_BODY_LENGTH
+            + VarInts.varint32Size(command.getId())
+            + VarInts.varint32Size(statusOrTimeout)
+            + VarInts.varint32Size(headersLength)
+            + VarInts.varint32Size(clazzLength)
+            + headersLength + clazzLength + contentLength
+            + (crc32On ? 4 : 0);
+
+        int startIndex = out.writerIndex();
+        out.ensureWritable(RpcProtocolV2.PROTOCOL_CODE_LENGTH + VarInts.varint32Size(bodyLength) + bodyLength);
+
+        out.writeByte(RpcProtocolV2.PROTOCOL_CODE.getCode());
+        out.writeByte(RpcProtocolV2.PROTOCOL_CODE.getVersion());
+        VarInts.writeVarint32(out, bodyLength);
+
+        out.writeByte(command.getCommandType().getValue());
+        out.writeByte(command.getCommandCode().getValue());
+        out.writeByte(command.getSerializer());
+        out.writeByte(command.getProtocolSwitchValue());
+
+        VarInts.writeVarint32(out, command.getId());
+        VarInts.writeVarint32(out, statusOrTimeout);
+        VarInts.writeVarint32(out, headersLength);
+        VarInts.writeVarint32(out, clazzLength);
+
+        if (headersLength > 0) {
+            writeHeaders(headers, out);
+        }
+
+        if (clazzLength > 0) {
+            out.writeBytes(clazz);
+        }
+
+        if (command.getContentBuf() != null) {
+            ByteBuf contentBuf = command.getContentBuf();
+            out.writeBytes(contentBuf, contentBuf.readerIndex(), contentBuf.readableBytes());
+        } else if (command.getContent() != null) {
+            out.writeBytes(command.getContent());
+        }
+
+        if (crc32On) {
+            int crc32 = Crc32Util.calculate(out, startIndex, out.writerIndex() - startIndex,
+                command.isProtocolSwitchOn(ProtocolSwitch.CRC32C_INDEX));
+            out.writeInt(crc32);
+        }
+    }
+
+    /**
+     * 请求写入超时时间，响应写入响应码，均为非负数
+     */
+    private int statusOrTimeout(BaseCommand command) {
+        if (command instanceof RequestCommand) {
+            return Math.max(((RequestCommand) command).getTimeout(), 0);
+        } else if (command instanceof ResponseCommand) {
+            return ((ResponseCommand) command).getStatus().getValue();
+        }
+
+        throw new ProtocolException("Unknown command {}.", command.getClass().getName());
+    }
+
+    private int headersLength(CommandHeaders headers) {
+        if (headers == null || headers.isEmpty()) {
+            return 0;
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Object> entry : headers.entries()) {
+            length += lengthDelimitedSize(ByteBufUtil.utf8Bytes(entry.getKey())) + 1;
+
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                length += lengthDelimitedSize(ByteBufUtil.utf8Bytes((String) value));
+            } else if (value instanceof Long) {
+                length += VarInts.varint64Size(VarInts.encodeZigZag64((Long) value));
+            } else {
+                length += lengthDelimitedSize(((byte[]) value).length);
+            }
+        }
+
+        return length;
+    }
+
+    private int lengthDelimitedSize(int length) {
+        return VarInts.varint32Size(length) + length;
+    }
+
+    private void writeHeaders(CommandHeaders headers, ByteBuf out) {
+        for (Map.Entry<String, Object> entry : headers.entries()) {
+            writeString(entry.getKey(), out);
+
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                out.writeByte(RpcProtocolV2.HEADER_STRING);
+                writeString((String) value, out);
+            } else if (value instanceof Long) {
+                out.writeByte(RpcProtocolV2.HEADER_LONG);
+                VarInts.writeVarint64(out, VarInts.encodeZigZag64((Long) value));
+            } else {
+                byte[] bytes = (byte[]) value;
+                out.writeByte(RpcProtocolV2.HEADER_BYTES);
+                VarInts.writeVarint32(out, bytes.length);
+                out.writeBytes(bytes);
+            }
+        }
+    }
+
+    private void writeString(String value, ByteBuf out) {
+        VarInts.writeVarint32(out, ByteBufUtil.utf8Bytes(value));
+        ByteBufUtil.writeUtf8(out, value);
+    }
+}
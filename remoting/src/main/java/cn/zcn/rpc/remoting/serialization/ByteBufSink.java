@@ -0,0 +1,23 @@
+package cn.zcn.rpc.remoting.serialization;
+
+import io.netty.buffer.ByteBuf;
+import java.io.OutputStream;
+
+/**
+ * 写入 ByteBuf 的输出流，可重复设置目标 ByteBuf
+ *
+ * @author zicung
+ */
+class ByteBufSink extends OutputStream {
+    ByteBuf byteBuf;
+
+    @Override
+    public void write(int b) {
+        byteBuf.writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        byteBuf.writeBytes(b, off, len);
+    }
+}
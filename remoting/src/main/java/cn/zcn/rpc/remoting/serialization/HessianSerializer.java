@@ -1,49 +1,165 @@
 package cn.zcn.rpc.remoting.serialization;
 
+import cn.zcn.rpc.remoting.config.RpcOptions;
 import cn.zcn.rpc.remoting.exception.SerializationException;
 import com.caucho.hessian.io.Hessian2Input;
 import com.caucho.hessian.io.Hessian2Output;
 import com.caucho.hessian.io.SerializerFactory;
-import java.io.ByteArrayInputStream;
+import io.netty.buffer.ByteBuf;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * hessian serializer
  *
+ * <p>
+ * {@link Hessian2Output}、{@link Hessian2Input} 及其缓冲区在每次使用后重置并归还到有界的对象池中复用，
+ * 对象池不依赖线程本地变量，大量线程（包括虚拟线程）同时使用时占用的内存同样有上限。对象池为空时创建新的对象，
+ * 对象池已满或对象在本次使用中读写了过多的字节时直接丢弃。
+ *
  * @author zicung
  */
 public class HessianSerializer implements Serializer {
+
+    /**
+     * 一次读写超过该字节数的对象不再归还对象池，避免偶发的大对象使缓冲区与引用表长期占用内存
+     */
+    static final int MAX_RETAINED_BYTES = 64 * 1024;
+
     private final SerializerFactory serializerFactory = new SerializerFactory();
+    private final BlockingQueue<PooledOutput> outputs;
+    private final BlockingQueue<PooledInput> inputs;
+
+    public HessianSerializer() {
+        this(RpcOptions.HESSIAN_POOL_SIZE.getDefaultValue());
+    }
+
+    /**
+     * @param poolSize 缓存的输入、输出流对象的数量上限，为 0 时不缓存
+     */
+    public HessianSerializer(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("Pool size should not be negative, but was " + poolSize);
+        }
+
+        this.outputs = poolSize == 0 ? null : new ArrayBlockingQueue<>(poolSize);
+        this.inputs = poolSize == 0 ? null : new ArrayBlockingQueue<>(poolSize);
+    }
 
     @Override
     public byte[] serialize(Object obj) throws SerializationException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Hessian2Output hessian = new Hessian2Output(out);
-        hessian.setSerializerFactory(serializerFactory);
+        PooledOutput output = acquireOutput();
+        boolean reusable = false;
+        try {
+            output.bytes.reset();
+            output.write(obj, output.bytes);
+            reusable = output.bytes.size() <= MAX_RETAINED_BYTES;
+            return output.bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Exception occurred when hessian serializer object.", e);
+        } finally {
+            releaseOutput(output, reusable);
+        }
+    }
 
+    @Override
+    public void serialize(Object obj, ByteBuf out) throws SerializationException {
+        PooledOutput output = acquireOutput();
+        boolean reusable = false;
         try {
-            hessian.writeObject(obj);
-            hessian.close();
-            return out.toByteArray();
+            int startIndex = out.writerIndex();
+            output.sink.byteBuf = out;
+            output.write(obj, output.sink);
+            reusable = out.writerIndex() - startIndex <= MAX_RETAINED_BYTES;
         } catch (IOException e) {
             throw new SerializationException("Exception occurred when hessian serializer object.", e);
+        } finally {
+            output.sink.byteBuf = null;
+            releaseOutput(output, reusable);
         }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T deserialize(byte[] bytes, String clazz) throws SerializationException {
-        ByteArrayInputStream out = new ByteArrayInputStream(bytes);
-        Hessian2Input hessian = new Hessian2Input(out);
-        hessian.setSerializerFactory(serializerFactory);
+        PooledInput input = acquireInput();
+        input.source.reset(bytes, null);
+        return input.read();
+    }
 
-        try {
-            Object obj = hessian.readObject();
-            hessian.close();
-            return (T) obj;
-        } catch (IOException e) {
-            throw new SerializationException("Exception occurred when hessian deserialize bytes.", e);
+    @Override
+    public <T> T deserialize(ByteBuf byteBuf, String clazz) throws SerializationException {
+        PooledInput input = acquireInput();
+        input.source.reset(null, byteBuf);
+        return input.read();
+    }
+
+    private PooledOutput acquireOutput() {
+        PooledOutput output = outputs == null ? null : outputs.poll();
+        return output != null ? output : new PooledOutput();
+    }
+
+    private void releaseOutput(PooledOutput output, boolean reusable) {
+        // 释放对输出流的引用，并清空引用表
+        output.hessian.free();
+        if (reusable && outputs != null) {
+            outputs.offer(output);
+        }
+    }
+
+    private PooledInput acquireInput() {
+        PooledInput input = inputs == null ? null : inputs.poll();
+        return input != null ? input : new PooledInput();
+    }
+
+    private class PooledOutput {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final ByteBufSink sink = new ByteBufSink();
+        private final Hessian2Output hessian = new Hessian2Output(null);
+
+        PooledOutput() {
+            hessian.setSerializerFactory(serializerFactory);
+        }
+
+        void write(Object obj, OutputStream out) throws IOException {
+            hessian.init(out);
+            hessian.writeObject(obj);
+            hessian.flush();
+        }
+    }
+
+    private class PooledInput {
+        private final ReusableSource source = new ReusableSource();
+        private final Hessian2Input hessian = new Hessian2Input(source);
+
+        PooledInput() {
+            hessian.setSerializerFactory(serializerFactory);
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T read() throws SerializationException {
+            boolean reusable = false;
+            try {
+                T obj = (T) hessian.readObject();
+                reusable = source.readBytes <= MAX_RETAINED_BYTES;
+                return obj;
+            } catch (IOException e) {
+                throw new SerializationException("Exception occurred when hessian deserialize bytes.", e);
+            } finally {
+                source.reset(null, null);
+                hessian.reset();
+                try {
+                    hessian.resetBuffer();
+                } catch (IllegalStateException e) {
+                    // 协议内容中还有未读取的字节，读取位置已经重置，可以继续使用
+                }
+
+                if (reusable && inputs != null) {
+                    inputs.offer(this);
+                }
+            }
         }
     }
 }
@@ -0,0 +1,54 @@
+package cn.zcn.rpc.remoting.serialization;
+
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodec;
+import cn.zcn.rpc.remoting.serialization.codec.MessageCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * 优先使用 {@link MessageCodec} 的序列化器。对象的类型注册了编解码器时逐字段读写，不使用反射；否则使用 Hessian 序列化。
+ * 对象编码参考 {@link MessageCodecs#writeObject(ByteBuf, Object, MessageCodec)}，声明类型为协议中的类名。
+ *
+ * @author zicung
+ */
+public class MessageCodecSerializer implements Serializer {
+
+    @Override
+    public byte[] serialize(Object obj) throws SerializationException {
+        ByteBuf out = Unpooled.buffer();
+        serialize(obj, out);
+        return ByteBufUtil.getBytes(out);
+    }
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) throws SerializationException {
+        int startIndex = out.writerIndex();
+        try {
+            MessageCodecs.writeObject(out, obj, obj == null ? null : MessageCodecs.getCodec(obj.getClass()));
+        } catch (SerializationException e) {
+            out.writerIndex(startIndex);
+            throw e;
+        } catch (RuntimeException e) {
+            out.writerIndex(startIndex);
+            throw new SerializationException("Exception occurred when serialize {}.", obj.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, String clazz) throws SerializationException {
+        return deserialize(Unpooled.wrappedBuffer(bytes), clazz);
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf byteBuf, String clazz) throws SerializationException {
+        try {
+            return MessageCodecs.readObject(byteBuf, MessageCodecs.getCodec(clazz));
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("Exception occurred when deserialize {}.", clazz, e);
+        }
+    }
+}
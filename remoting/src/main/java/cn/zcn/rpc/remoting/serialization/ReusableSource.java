@@ -0,0 +1,73 @@
+package cn.zcn.rpc.remoting.serialization;
+
+import io.netty.buffer.ByteBuf;
+import java.io.InputStream;
+
+/**
+ * 读取字节数组或 ByteBuf 的输入流，可重复设置数据源。读取 ByteBuf 时移动其读索引
+ *
+ * @author zicung
+ */
+class ReusableSource extends InputStream {
+    private byte[] bytes;
+    private int position;
+    private ByteBuf byteBuf;
+    int readBytes;
+
+    void reset(byte[] bytes, ByteBuf byteBuf) {
+        this.bytes = bytes;
+        this.byteBuf = byteBuf;
+        this.position = 0;
+        this.readBytes = 0;
+    }
+
+    @Override
+    public int read() {
+        if (byteBuf != null && byteBuf.isReadable()) {
+            readBytes++;
+            return byteBuf.readUnsignedByte();
+        }
+
+        if (byteBuf == null && bytes != null && position < bytes.length) {
+            readBytes++;
+            return bytes[position++] & 0xFF;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+
+        int n;
+        if (byteBuf != null) {
+            n = Math.min(len, byteBuf.readableBytes());
+            byteBuf.readBytes(b, off, n);
+        } else if (bytes != null) {
+            n = Math.min(len, bytes.length - position);
+            System.arraycopy(bytes, position, b, off, n);
+            position += n;
+        } else {
+            n = 0;
+        }
+
+        if (n == 0) {
+            return -1;
+        }
+
+        readBytes += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        if (byteBuf != null) {
+            return byteBuf.readableBytes();
+        }
+
+        return bytes == null ? 0 : bytes.length - position;
+    }
+}
@@ -1,6 +1,8 @@
 package cn.zcn.rpc.remoting.serialization;
 
 import cn.zcn.rpc.remoting.exception.SerializationException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 
 /**
  * 序列化器，提供序列化对象和反序列化字节数组的功能。
@@ -17,6 +19,18 @@ public interface Serializer {
      */
     byte[] serialize(Object obj) throws SerializationException;
 
+    /**
+     * 将对象序列化后写入 ByteBuf。默认实现先序列化为字节数组再写入，序列化器可覆盖该方法直接写入 ByteBuf，
+     * 避免中间字节数组的分配与拷贝。
+     *
+     * @param obj 待序列化对象
+     * @param out 输出的 ByteBuf
+     * @throws SerializationException 序列化异常
+     */
+    default void serialize(Object obj, ByteBuf out) throws SerializationException {
+        out.writeBytes(serialize(obj));
+    }
+
     /**
      * 将字节数组反序列化为对象
      *
@@ -27,4 +41,17 @@ public interface Serializer {
      * @throws SerializationException 反序列化异常
      */
     <T> T deserialize(byte[] bytes, String clazz) throws SerializationException;
+
+    /**
+     * 将 ByteBuf 中可读的字节反序列化为对象。默认实现先拷贝为字节数组，序列化器可覆盖该方法直接从 ByteBuf 读取。
+     *
+     * @param byteBuf ByteBuf
+     * @param clazz 类名
+     * @param <T> 对象类型
+     * @return 反序列化后的对象实例
+     * @throws SerializationException 反序列化异常
+     */
+    default <T> T deserialize(ByteBuf byteBuf, String clazz) throws SerializationException {
+        return deserialize(ByteBufUtil.getBytes(byteBuf), clazz);
+    }
 }
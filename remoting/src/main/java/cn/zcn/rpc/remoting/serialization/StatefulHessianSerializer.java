@@ -0,0 +1,114 @@
+package cn.zcn.rpc.remoting.serialization;
+
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+
+/**
+ * 连接级别的有状态 Hessian 序列化器，保存在 {@code Channel} 的属性中，只在连接所属的 EventLoop 中访问。
+ *
+ * <p>
+ * {@link HessianSerializer} 为每条消息使用新的流，每条消息都会重复发送其中每个类型的类定义（类名与全部字段名）。
+ * 该序列化器在连接上的所有消息之间共用一对 {@link Hessian2Output}、{@link Hessian2Input}，消息之间只重置对象引用，
+ * 保留类定义，某个类型的类定义只在连接上首次出现时发送，之后的消息通过序号引用。协议内容为：
+ *
+ * <pre>
+ * | flags (1 byte) | hessian |
+ * </pre>
+ *
+ * flags 的 {@link #RESET} 位表示发送方已清空类定义，接收方需要在解码前同样清空。序列化失败或已序列化的消息未能发出时，
+ * 发送方记录了对端没有收到的类定义，因此清空类定义并在下一条消息中设置该位。
+ *
+ * <p>
+ * 消息必须按照编码的顺序解码，因此只能由编解码器调用。连接断开后随连接一起丢弃，重连后重新发送类定义。
+ *
+ * @author zicung
+ */
+public class StatefulHessianSerializer {
+
+    /**
+     * 解码前清空类定义
+     */
+    static final int RESET = 0x01;
+
+    private static final SerializerFactory SERIALIZER_FACTORY = new SerializerFactory();
+
+    private final ByteBufSink sink = new ByteBufSink();
+    private final Hessian2Output output = new Hessian2Output(sink);
+    private final ReusableSource source = new ReusableSource();
+    private final Hessian2Input input = new Hessian2Input(source);
+
+    private boolean resetPending;
+
+    public StatefulHessianSerializer() {
+        output.setSerializerFactory(SERIALIZER_FACTORY);
+        input.setSerializerFactory(SERIALIZER_FACTORY);
+    }
+
+    /**
+     * 序列化对象并写入 ByteBuf，失败时 ByteBuf 的写索引恢复到写入前的位置
+     *
+     * @param obj 待序列化对象
+     * @param out 输出的 ByteBuf
+     * @throws SerializationException 序列化异常
+     */
+    public void serialize(Object obj, ByteBuf out) throws SerializationException {
+        int startIndex = out.writerIndex();
+        out.writeByte(resetPending ? RESET : 0);
+
+        sink.byteBuf = out;
+        try {
+            output.writeObject(obj);
+            output.flush();
+            resetPending = false;
+        } catch (Throwable t) {
+            out.writerIndex(startIndex);
+            outboundFailed();
+            throw new SerializationException("Exception occurred when hessian serializer object.", t);
+        } finally {
+            sink.byteBuf = null;
+            output.resetReferences();
+        }
+    }
+
+    /**
+     * 已序列化的消息未能发出时调用。清空类定义，并通知对端在解码下一条消息前同样清空
+     */
+    public void outboundFailed() {
+        output.reset();
+        resetPending = true;
+    }
+
+    /**
+     * 读取 ByteBuf 中的一条消息
+     *
+     * @param in ByteBuf
+     * @param <T> 对象类型
+     * @return 反序列化后的对象实例
+     * @throws SerializationException 反序列化异常，此后连接上的消息都无法正确解码
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(ByteBuf in) throws SerializationException {
+        if ((in.readUnsignedByte() & RESET) != 0) {
+            input.reset();
+        }
+
+        source.reset(null, in);
+        try {
+            return (T) input.readObject();
+        } catch (IOException e) {
+            throw new SerializationException("Exception occurred when hessian deserialize bytes.", e);
+        } finally {
+            source.reset(null, null);
+            input.resetReferences();
+            try {
+                input.resetBuffer();
+            } catch (IllegalStateException e) {
+                // 协议内容中还有未读取的字节，读取位置已经重置
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package cn.zcn.rpc.remoting.serialization.codec;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 消息类的编解码器，通常由注解处理器为 {@link RpcMessage} 标记的类生成，并通过 {@code META-INF/services} 注册到
+ * {@link MessageCodecs}。
+ *
+ * @param <T> 消息类型
+ * @author zicung
+ */
+public interface MessageCodec<T> {
+
+    /**
+     * 获取编解码的消息类型
+     *
+     * @return 消息类型
+     */
+    Class<T> getType();
+
+    /**
+     * 将消息的字段写入 ByteBuf
+     *
+     * @param message 消息，不为 null
+     * @param out 输出的 ByteBuf
+     */
+    void encode(T message, ByteBuf out);
+
+    /**
+     * 从 ByteBuf 读取消息的字段并创建消息
+     *
+     * @param in ByteBuf
+     * @return 消息
+     */
+    T decode(ByteBuf in);
+}
@@ -0,0 +1,308 @@
+package cn.zcn.rpc.remoting.serialization.codec;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.utils.VarInts;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 管理 {@link MessageCodec}，并提供生成的编解码器使用的字段读写方法。
+ *
+ * <p>
+ * 类加载时通过 {@link ServiceLoader} 加载 {@code META-INF/services} 中注册的编解码器。字段的编码为：
+ *
+ * <ul>
+ * <li>int、short、long：ZigZag 变长整数；其他基本类型为定长编码</li>
+ * <li>String、byte[]：| 长度 + 1 (varint) | 内容 |，长度为 0 表示 null</li>
+ * <li>集合：| 数量 + 1 (varint) | 元素... |，元素使用对象编码</li>
+ * <li>对象：| 标记 (1 byte) | 内容 |。与声明类型相同且有编解码器时不写入类名，其他有编解码器的类型写入类名，
+ * 常用的包装类型与 String 使用各自的编码，其余对象使用带长度的 Hessian 编码</li>
+ * </ul>
+ *
+ * @author zicung
+ */
+public class MessageCodecs {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageCodecs.class);
+
+    private static final int NULL = 0;
+    private static final int DECLARED = 1;
+    private static final int CODEC = 2;
+    private static final int HESSIAN = 3;
+    private static final int STRING = 4;
+    private static final int INT = 5;
+    private static final int LONG = 6;
+    private static final int TRUE = 7;
+    private static final int FALSE = 8;
+    private static final int DOUBLE = 9;
+
+    private static final ConcurrentMap<Class<?>, MessageCodec<?>> CODECS_BY_TYPE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, MessageCodec<?>> CODECS_BY_NAME = new ConcurrentHashMap<>();
+
+    static {
+        load(MessageCodecs.class.getClassLoader());
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null && contextClassLoader != MessageCodecs.class.getClassLoader()) {
+            load(contextClassLoader);
+        }
+    }
+
+    private MessageCodecs() {
+    }
+
+    /**
+     * 加载类加载器中注册的编解码器，已注册的类型不会被覆盖
+     *
+     * @param classLoader 类加载器
+     */
+    public static void load(ClassLoader classLoader) {
+        try {
+            for (MessageCodec<?> codec : ServiceLoader.load(MessageCodec.class, classLoader)) {
+                CODECS_BY_NAME.putIfAbsent(codec.getType().getName(), codec);
+                CODECS_BY_TYPE.putIfAbsent(codec.getType(), codec);
+            }
+        } catch (ServiceConfigurationError e) {
+            LOGGER.warn("Failed to load message codecs from {}.", classLoader, e);
+        }
+    }
+
+    /**
+     * 注册编解码器，覆盖同一类型已注册的编解码器
+     *
+     * @param codec 编解码器
+     */
+    public static void register(MessageCodec<?> codec) {
+        CODECS_BY_NAME.put(codec.getType().getName(), codec);
+        CODECS_BY_TYPE.put(codec.getType(), codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> MessageCodec<T> getCodec(Class<T> type) {
+        return (MessageCodec<T>) CODECS_BY_TYPE.get(type);
+    }
+
+    public static MessageCodec<?> getCodec(String className) {
+        return className == null ? null : CODECS_BY_NAME.get(className);
+    }
+
+    public static void writeInt(ByteBuf out, int value) {
+        VarInts.writeVarint32(out, VarInts.encodeZigZag32(value));
+    }
+
+    public static int readInt(ByteBuf in) {
+        return VarInts.decodeZigZag32(VarInts.readVarint32(in));
+    }
+
+    public static void writeLong(ByteBuf out, long value) {
+        VarInts.writeVarint64(out, VarInts.encodeZigZag64(value));
+    }
+
+    public static long readLong(ByteBuf in) {
+        return VarInts.decodeZigZag64(VarInts.readVarint64(in));
+    }
+
+    public static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+
+        VarInts.writeVarint32(out, ByteBufUtil.utf8Bytes(value) + 1);
+        ByteBufUtil.writeUtf8(out, value);
+    }
+
+    public static String readString(ByteBuf in) {
+        int length = readLength(in);
+        if (length < 0) {
+            return null;
+        }
+
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    public static void writeBytes(ByteBuf out, byte[] value) {
+        if (value == null) {
+            out.writeByte(0);
+            return;
+        }
+
+        VarInts.writeVarint32(out, value.length + 1);
+        out.writeBytes(value);
+    }
+
+    public static byte[] readBytes(ByteBuf in) {
+        int length = readLength(in);
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] value = new byte[length];
+        in.readBytes(value);
+        return value;
+    }
+
+    /**
+     * 写入集合
+     *
+     * @param out 输出的 ByteBuf
+     * @param values 集合，可能为 null
+     * @param elementCodec 元素声明类型的编解码器，可能为 null
+     */
+    public static void writeCollection(ByteBuf out, Collection<?> values, MessageCodec<?> elementCodec) {
+        if (values == null) {
+            out.writeByte(0);
+            return;
+        }
+
+        VarInts.writeVarint32(out, values.size() + 1);
+        for (Object value : values) {
+            writeObject(out, value, elementCodec);
+        }
+    }
+
+    /**
+     * 读取集合
+     *
+     * @param in ByteBuf
+     * @param elementCodec 元素声明类型的编解码器，可能为 null
+     * @return {@link ArrayList}，可能为 null
+     */
+    public static <T> List<T> readList(ByteBuf in, MessageCodec<?> elementCodec) {
+        int size = readLength(in);
+        if (size < 0) {
+            return null;
+        }
+
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readObject(in, elementCodec));
+        }
+
+        return values;
+    }
+
+    /**
+     * 写入对象
+     *
+     * @param out 输出的 ByteBuf
+     * @param value 对象，可能为 null
+     * @param declaredCodec 声明类型的编解码器，可能为 null。对象的类型与声明类型相同时不写入类名
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeObject(ByteBuf out, Object value, MessageCodec<?> declaredCodec) {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (declaredCodec != null && declaredCodec.getType() == value.getClass()) {
+            out.writeByte(DECLARED);
+            ((MessageCodec<Object>) declaredCodec).encode(value, out);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            writeInt(out, (Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            writeLong(out, (Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else {
+            MessageCodec<Object> codec = (MessageCodec<Object>) CODECS_BY_TYPE.get(value.getClass());
+            if (codec != null) {
+                out.writeByte(CODEC);
+                writeString(out, value.getClass().getName());
+                codec.encode(value, out);
+                return;
+            }
+
+            // 长度在序列化后回填
+            out.writeByte(HESSIAN);
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            SerializerManager.getSerializer(SerializerManager.HESSIAN).serialize(value, out);
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    /**
+     * 读取对象
+     *
+     * @param in ByteBuf
+     * @param declaredCodec 声明类型的编解码器，可能为 null
+     * @return 对象，可能为 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T readObject(ByteBuf in, MessageCodec<?> declaredCodec) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case DECLARED:
+                if (declaredCodec == null) {
+                    throw new SerializationException("No declared codec to decode value.");
+                }
+
+                return (T) declaredCodec.decode(in);
+            case STRING:
+                return (T) readString(in);
+            case INT:
+                return (T) Integer.valueOf(readInt(in));
+            case LONG:
+                return (T) Long.valueOf(readLong(in));
+            case TRUE:
+                return (T) Boolean.TRUE;
+            case FALSE:
+                return (T) Boolean.FALSE;
+            case DOUBLE:
+                return (T) Double.valueOf(in.readDouble());
+            case CODEC:
+                String className = readString(in);
+                MessageCodec<?> codec = getCodec(className);
+                if (codec == null) {
+                    throw new SerializationException("No message codec for {}.", className);
+                }
+
+                return (T) codec.decode(in);
+            case HESSIAN:
+                int length = in.readInt();
+                if (length < 0 || length > in.readableBytes()) {
+                    throw new SerializationException("Invalid hessian length {}, readable bytes {}.", length,
+                        in.readableBytes());
+                }
+
+                return SerializerManager.getSerializer(SerializerManager.HESSIAN).deserialize(in.readSlice(length),
+                    null);
+            default:
+                throw new SerializationException("Unknown value tag {}.", tag);
+        }
+    }
+
+    /**
+     * @return 长度，-1 表示 null
+     */
+    private static int readLength(ByteBuf in) {
+        int length = VarInts.readVarint32(in) - 1;
+        if (length < -1 || length > in.readableBytes()) {
+            throw new SerializationException("Invalid length {}, readable bytes {}.", length, in.readableBytes());
+        }
+
+        return length;
+    }
+}
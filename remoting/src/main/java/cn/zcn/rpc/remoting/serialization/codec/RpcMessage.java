@@ -0,0 +1,29 @@
+package cn.zcn.rpc.remoting.serialization.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记 RPC 消息类。编译时引入 {@code z-rpc-codegen} 注解处理器后，为被标记的类生成逐字段读写的 {@link MessageCodec}，
+ * 运行时不使用反射。
+ *
+ * <p>
+ * 被标记的类需要满足：
+ * <ul>
+ * <li>非抽象、非泛型的类，嵌套类需要是非 private 的静态类</li>
+ * <li>每个实例字段（包括父类的字段，transient 字段除外）可以直接读取，或者有对应的 getter</li>
+ * <li>有参数名与类型覆盖全部字段的构造方法；或者有无参构造方法，且每个字段可以直接赋值，或者有对应的 setter</li>
+ * </ul>
+ *
+ * 生成的编解码器不记录对象引用，共享的对象会被重复写入，因此不支持循环引用。
+ *
+ * @author zicung
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RpcMessage {
+}
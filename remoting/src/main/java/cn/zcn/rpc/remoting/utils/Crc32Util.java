@@ -1,14 +1,48 @@
 package cn.zcn.rpc.remoting.utils;
 
+import io.netty.buffer.ByteBuf;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 
 /**
  * CRC32 工具
  * 
+ * <p>
+ * 除了对 byte[] 计算外，还支持直接在 {@link ByteBuf} 的 NIO 缓冲区上流式计算，无需将报文拷贝到临时数组。 CRC32C 在
+ * JDK 9+ 上使用硬件加速的 {@code java.util.zip.CRC32C}，在 JDK 8 上退化为 {@link Crc32c}。
+ * 
  * @author zicung
  */
 public class Crc32Util {
 
+	private static final MethodHandle JDK_CRC32C_CONSTRUCTOR;
+	private static final MethodHandle JDK_CRC32C_UPDATE;
+
+	static {
+		MethodHandle constructor = null;
+		MethodHandle update = null;
+		try {
+			Class<?> clazz = Class.forName("java.util.zip.CRC32C");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			constructor = lookup.findConstructor(clazz,
+					MethodType.methodType(void.class)).asType(
+					MethodType.methodType(Checksum.class));
+			update = lookup.findVirtual(clazz, "update",
+					MethodType.methodType(void.class, ByteBuffer.class))
+					.asType(MethodType.methodType(void.class, Checksum.class,
+							ByteBuffer.class));
+		} catch (Throwable ignored) {
+			// JDK 8 不存在 CRC32C，使用纯 Java 实现
+		}
+
+		JDK_CRC32C_CONSTRUCTOR = constructor;
+		JDK_CRC32C_UPDATE = update;
+	}
+
 	/**
 	 * 计算 CRC32 校验码
 	 * 
@@ -21,4 +55,103 @@ public class Crc32Util {
 		crc.update(content);
 		return (int) crc.getValue();
 	}
+
+	/**
+	 * 在 ByteBuf 的指定区间上计算校验码，不会修改 ByteBuf 的读写索引
+	 * 
+	 * @param byteBuf
+	 *            待计算内容
+	 * @param index
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 * @param crc32c
+	 *            是否使用 CRC32C 算法
+	 * @return CRC32 或 CRC32C
+	 */
+	public static int calculate(ByteBuf byteBuf, int index, int length,
+			boolean crc32c) {
+		Checksum checksum = newChecksum(crc32c);
+		update(checksum, byteBuf, index, length);
+		return (int) checksum.getValue();
+	}
+
+	/**
+	 * 创建校验器
+	 * 
+	 * @param crc32c
+	 *            是否使用 CRC32C 算法
+	 * @return CRC32 或 CRC32C 校验器
+	 */
+	public static Checksum newChecksum(boolean crc32c) {
+		if (!crc32c) {
+			return new CRC32();
+		}
+
+		if (JDK_CRC32C_CONSTRUCTOR != null) {
+			try {
+				return (Checksum) JDK_CRC32C_CONSTRUCTOR.invokeExact();
+			} catch (Throwable ignored) {
+				// 退化为纯 Java 实现
+			}
+		}
+
+		return new Crc32c();
+	}
+
+	/**
+	 * 使用 ByteBuf 的指定区间更新校验器，不会修改 ByteBuf 的读写索引
+	 * 
+	 * @param checksum
+	 *            校验器
+	 * @param byteBuf
+	 *            待计算内容
+	 * @param index
+	 *            起始位置
+	 * @param length
+	 *            长度
+	 */
+	public static void update(Checksum checksum, ByteBuf byteBuf, int index,
+			int length) {
+		if (length <= 0) {
+			return;
+		}
+
+		if (byteBuf.hasArray()) {
+			checksum.update(byteBuf.array(), byteBuf.arrayOffset() + index,
+					length);
+		} else if (byteBuf.nioBufferCount() == 1) {
+			update(checksum, byteBuf.nioBuffer(index, length));
+		} else if (byteBuf.nioBufferCount() > 1) {
+			for (ByteBuffer buffer : byteBuf.nioBuffers(index, length)) {
+				update(checksum, buffer);
+			}
+		} else {
+			for (int i = index; i < index + length; i++) {
+				checksum.update(byteBuf.getByte(i));
+			}
+		}
+	}
+	private static void update(Checksum checksum, ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			checksum.update(buffer.array(),
+					buffer.arrayOffset() + buffer.position(),
+					buffer.remaining());
+		} else if (checksum instanceof CRC32) {
+			((CRC32) checksum).update(buffer);
+		} else if (checksum instanceof Crc32c) {
+			((Crc32c) checksum).update(buffer);
+		} else if (JDK_CRC32C_UPDATE != null) {
+			try {
+				JDK_CRC32C_UPDATE.invokeExact(checksum, buffer);
+			} catch (Throwable t) {
+				throw new IllegalStateException(
+						"Failed to update CRC32C checksum.", t);
+			}
+		} else {
+			while (buffer.hasRemaining()) {
+				checksum.update(buffer.get());
+			}
+		}
+	}
 }
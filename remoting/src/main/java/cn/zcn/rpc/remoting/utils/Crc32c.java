@@ -0,0 +1,68 @@
+package cn.zcn.rpc.remoting.utils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Checksum;
+
+/**
+ * CRC32C (Castagnoli) 的纯 Java 实现，仅在 JDK 不提供 {@code java.util.zip.CRC32C} 时使用。
+ *
+ * @author zicung
+ */
+class Crc32c implements Checksum {
+
+	private static final int POLY = 0x82F63B78;
+
+	private static final int[] TABLE = new int[256];
+
+	static {
+		for (int i = 0; i < TABLE.length; i++) {
+			int crc = i;
+			for (int j = 0; j < 8; j++) {
+				crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLY : crc >>> 1;
+			}
+			TABLE[i] = crc;
+		}
+	}
+
+	private int crc = 0xFFFFFFFF;
+
+	@Override
+	public void update(int b) {
+		crc = (crc >>> 8) ^ TABLE[(crc ^ b) & 0xFF];
+	}
+
+	@Override
+	public void update(byte[] b, int off, int len) {
+		int localCrc = crc;
+		for (int i = off; i < off + len; i++) {
+			localCrc = (localCrc >>> 8) ^ TABLE[(localCrc ^ b[i]) & 0xFF];
+		}
+		crc = localCrc;
+	}
+
+	/**
+	 * 使用 ByteBuffer 中剩余的字节更新校验码，完成后 position 等于 limit
+	 *
+	 * @param buffer
+	 *            ByteBuffer
+	 */
+	public void update(ByteBuffer buffer) {
+		int localCrc = crc;
+		int limit = buffer.limit();
+		for (int i = buffer.position(); i < limit; i++) {
+			localCrc = (localCrc >>> 8) ^ TABLE[(localCrc ^ buffer.get(i)) & 0xFF];
+		}
+		buffer.position(limit);
+		crc = localCrc;
+	}
+
+	@Override
+	public long getValue() {
+		return (~crc) & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public void reset() {
+		crc = 0xFFFFFFFF;
+	}
+}
@@ -0,0 +1,98 @@
+package cn.zcn.rpc.remoting.utils;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 将定时任务提交到 EventLoop 的定时任务队列的 {@link Timer}。
+ *
+ * <p>
+ * 每个 EventLoop 在每次循环时检查自己的定时任务队列，不需要额外的线程。定时任务按连接分散到各个 EventLoop，
+ * 响应由连接的 EventLoop 读取，在同一线程中取消定时任务，直接从队列中移除。
+ *
+ * <p>
+ * 该 Timer 不拥有 EventLoop，{@link #stop()} 不做任何事情，EventLoop 关闭后未执行的任务随之丢弃。
+ *
+ * @author zicung
+ */
+class EventLoopTimer implements Timer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopTimer.class);
+
+    private final EventExecutor executor;
+
+    EventLoopTimer(EventExecutor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+        EventLoopTimeout timeout = new EventLoopTimeout(task);
+        timeout.future = executor.schedule(timeout, delay, unit);
+        return timeout;
+    }
+
+    @Override
+    public Set<Timeout> stop() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * {@code future} 在提交到 EventLoop 之后才赋值，在 EventLoop 之外以很短的延迟提交时，任务可能先于赋值执行，
+     * 此时任务内调用的 {@link Timeout} 方法不能依赖 {@code future}
+     */
+    private final class EventLoopTimeout implements Timeout, Runnable {
+        private final TimerTask task;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean expired;
+
+        EventLoopTimeout(TimerTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            expired = true;
+            try {
+                task.run(this);
+            } catch (Throwable t) {
+                LOGGER.warn("An exception was thrown by {}.", TimerTask.class.getSimpleName(), t);
+            }
+        }
+
+        @Override
+        public Timer timer() {
+            return EventLoopTimer.this;
+        }
+
+        @Override
+        public TimerTask task() {
+            return task;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return expired;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            ScheduledFuture<?> f = future;
+            return f != null && f.isCancelled();
+        }
+
+        @Override
+        public boolean cancel() {
+            // future 为 null 时任务已经开始执行
+            ScheduledFuture<?> f = future;
+            return f != null && f.cancel(false);
+        }
+    }
+}
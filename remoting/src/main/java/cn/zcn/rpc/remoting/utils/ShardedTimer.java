@@ -0,0 +1,49 @@
+package cn.zcn.rpc.remoting.utils;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 由多个 {@link HashedWheelTimer} 组成的 {@link Timer}，按提交任务的线程选择时间轮。
+ *
+ * <p>
+ * 每个时间轮有独立的工作线程与任务队列，提交、取消任务的线程分散到不同的时间轮上，不再竞争同一个队列。
+ *
+ * @author zicung
+ */
+class ShardedTimer implements Timer {
+
+    private final Timer[] shards;
+
+    /**
+     * @param shardCount 时间轮数量
+     * @param tickMillis 时间轮的刻度
+     */
+    ShardedTimer(int shardCount, long tickMillis) {
+        this.shards = new Timer[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new HashedWheelTimer(new NamedThreadFactory("rpc-timer-" + i, true),
+                tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+        return shards[(int) (Thread.currentThread().getId() % shards.length)].newTimeout(task, delay, unit);
+    }
+
+    @Override
+    public Set<Timeout> stop() {
+        Set<Timeout> unprocessed = new HashSet<>();
+        for (Timer shard : shards) {
+            unprocessed.addAll(shard.stop());
+        }
+
+        return unprocessed;
+    }
+}
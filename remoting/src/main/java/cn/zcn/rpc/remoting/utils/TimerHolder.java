@@ -2,21 +2,40 @@ package cn.zcn.rpc.remoting.utils;
 
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
+import io.netty.util.concurrent.EventExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 定时任务调度器
  * 
+ * <p>
+ * 支持以下调度策略，参考 {@code ClientOptions#TIMER}：
+ * <ul>
+ * <li>{@link #WHEEL}：全局共享一个 {@link HashedWheelTimer}</li>
+ * <li>{@link #SHARDED_WHEEL}：多个 {@code HashedWheelTimer}，按提交任务的线程选择，参考
+ * {@link ShardedTimer}</li>
+ * <li>{@link #EVENT_LOOP}：提交到连接所在 EventLoop 的定时任务队列，参考 {@link EventLoopTimer}</li>
+ * </ul>
+ * 
  * @author zicung
  */
 public class TimerHolder {
+	public static final String WHEEL = "wheel";
+	public static final String SHARDED_WHEEL = "sharded";
+	public static final String EVENT_LOOP = "eventloop";
+
+	private static final long TICK_MILLIS = 10;
+
+	/** 分片时间轮的数量上限。每个时间轮独占一个线程，且 Netty 在 HashedWheelTimer 实例超过 64 个时输出错误日志 */
+	private static final int MAX_SHARDS = 8;
+
 	private static volatile TimerHolder instance;
 
 	private final Timer timer;
 
 	private TimerHolder() {
 		this.timer = new HashedWheelTimer(new NamedThreadFactory("rpc-timer",
-				true), 10, TimeUnit.MILLISECONDS);
+				true), TICK_MILLIS, TimeUnit.MILLISECONDS);
 	}
 
 	/**
@@ -35,4 +54,31 @@ public class TimerHolder {
 
 		return instance.timer;
 	}
+
+	/**
+	 * 按调度策略获取定时任务调度器
+	 * 
+	 * @param strategy
+	 *            调度策略
+	 * @param eventLoop
+	 *            连接所在的 EventLoop，调度策略为 {@link #EVENT_LOOP} 时使用
+	 * @return {@code Timer}, 定时任务调度器
+	 */
+	public static Timer getTimer(String strategy, EventExecutor eventLoop) {
+		if (strategy == null || WHEEL.equals(strategy)) {
+			return getTimer();
+		} else if (SHARDED_WHEEL.equals(strategy)) {
+			return ShardedTimerHolder.TIMER;
+		} else if (EVENT_LOOP.equals(strategy)) {
+			return new EventLoopTimer(eventLoop);
+		}
+
+		throw new IllegalArgumentException("Unknown timer strategy, "
+				+ strategy);
+	}
+
+	private static class ShardedTimerHolder {
+		private static final Timer TIMER = new ShardedTimer(Math.min(Runtime
+				.getRuntime().availableProcessors(), MAX_SHARDS), TICK_MILLIS);
+	}
 }
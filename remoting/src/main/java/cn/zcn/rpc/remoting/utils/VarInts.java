@@ -0,0 +1,146 @@
+package cn.zcn.rpc.remoting.utils;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 变长整数编解码工具，格式与 Protobuf 的 varint 相同：每个字节的低 7 位为数据，最高位表示后面是否还有字节。 有符号的值使用
+ * ZigZag 编码，使绝对值较小的负数同样只占用较少的字节。
+ * 
+ * @author zicung
+ */
+public class VarInts {
+
+	/**
+	 * 32 位变长整数的最大字节数
+	 */
+	public static final int MAX_VARINT32_SIZE = 5;
+
+	private VarInts() {
+	}
+
+	/**
+	 * 计算 32 位变长整数编码后的字节数，value 视为无符号整数
+	 * 
+	 * @param value
+	 *            值
+	 * @return 字节数
+	 */
+	public static int varint32Size(int value) {
+		if ((value & (0xFFFFFFFF << 7)) == 0) {
+			return 1;
+		} else if ((value & (0xFFFFFFFF << 14)) == 0) {
+			return 2;
+		} else if ((value & (0xFFFFFFFF << 21)) == 0) {
+			return 3;
+		} else if ((value & (0xFFFFFFFF << 28)) == 0) {
+			return 4;
+		}
+
+		return 5;
+	}
+
+	/**
+	 * 计算 64 位变长整数编码后的字节数，value 视为无符号整数
+	 * 
+	 * @param value
+	 *            值
+	 * @return 字节数
+	 */
+	public static int varint64Size(long value) {
+		int size = 1;
+		while ((value & ~0x7FL) != 0) {
+			value >>>= 7;
+			size++;
+		}
+
+		return size;
+	}
+
+	public static void writeVarint32(ByteBuf out, int value) {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		out.writeByte(value);
+	}
+
+	public static void writeVarint64(ByteBuf out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.writeByte((int) value);
+	}
+
+	public static int readVarint32(ByteBuf in) {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new ProtocolException("Malformed varint32.");
+	}
+
+	public static long readVarint64(ByteBuf in) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = in.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new ProtocolException("Malformed varint64.");
+	}
+
+	/**
+	 * 在不修改读索引的情况下读取 32 位变长整数
+	 * 
+	 * @param in
+	 *            ByteBuf
+	 * @param index
+	 *            起始位置
+	 * @return 低 32 位为值，高 32 位为字节数；可读字节不足时返回 -1
+	 */
+	public static long peekVarint32(ByteBuf in, int index) {
+		int value = 0;
+		int limit = in.writerIndex();
+		for (int i = 0; i < MAX_VARINT32_SIZE; i++) {
+			if (index + i >= limit) {
+				return -1;
+			}
+
+			byte b = in.getByte(index + i);
+			value |= (b & 0x7F) << (7 * i);
+			if (b >= 0) {
+				return ((long) (i + 1) << 32) | (value & 0xFFFFFFFFL);
+			}
+		}
+
+		throw new ProtocolException("Malformed varint32.");
+	}
+
+	public static int encodeZigZag32(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	public static int decodeZigZag32(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public static long encodeZigZag64(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public static long decodeZigZag64(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,137 @@
+package cn.zcn.rpc.remoting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.connection.AbstractEventLoopGroupTest;
+import cn.zcn.rpc.remoting.exception.RemotingException;
+import cn.zcn.rpc.remoting.protocol.MessageDecoder;
+import cn.zcn.rpc.remoting.protocol.MessageEncoder;
+import cn.zcn.rpc.remoting.test.TestUtils;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.local.LocalAddress;
+import io.netty.channel.local.LocalChannel;
+import io.netty.channel.local.LocalServerChannel;
+import io.netty.util.concurrent.Future;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchInvocationTest extends AbstractEventLoopGroupTest {
+    private Url url;
+    private Channel serverChannel;
+    private RequestCommandDispatcher dispatcher;
+    private RemotingInvoker remotingInvoker;
+
+    @Before
+    public void before() {
+        this.url = new Url.Builder(new LocalAddress(TestUtils.getLocalAddressId())).build();
+
+        this.dispatcher = new RequestCommandDispatcher(new RpcOptions());
+        this.dispatcher.registerRequestHandler(new StringRequestHandler());
+        this.dispatcher.registerRequestHandler(new IntegerRequestHandler());
+        this.dispatcher.start();
+
+        CommandInboundHandler serverHandler = new CommandInboundHandler(dispatcher);
+        this.serverChannel = new ServerBootstrap()
+            .channel(LocalServerChannel.class)
+            .group(eventLoopGroup)
+            .childHandler(new ChannelInitializer<LocalChannel>() {
+
+                @Override
+                protected void initChannel(LocalChannel channel) {
+                    channel.pipeline().addLast(new MessageDecoder(), new MessageEncoder(), serverHandler);
+                }
+            })
+            .bind(url.getAddress())
+            .syncUninterruptibly()
+            .channel();
+
+        CommandInboundHandler clientHandler = new CommandInboundHandler(null);
+        Bootstrap bootstrap = new Bootstrap()
+            .channel(LocalChannel.class)
+            .group(eventLoopGroup)
+            .handler(new ChannelInitializer<LocalChannel>() {
+
+                @Override
+                protected void initChannel(LocalChannel channel) {
+                    channel.pipeline().addLast(new MessageDecoder(), new MessageEncoder(), clientHandler);
+                }
+            });
+
+        this.remotingInvoker = new RemotingInvoker(new RpcOptions(), bootstrap);
+        this.remotingInvoker.start();
+    }
+
+    @After
+    public void after() {
+        remotingInvoker.stop();
+        serverChannel.close().awaitUninterruptibly();
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testInvokeBatch() throws InterruptedException {
+        List<Future<Object>> futures = remotingInvoker.invokeBatch(url, Arrays.asList("a", 1, "b", 2L), 3000);
+        assertThat(futures).hasSize(4);
+
+        for (Future<Object> future : futures) {
+            assertThat(future.await(3000, TimeUnit.MILLISECONDS)).isTrue();
+        }
+
+        assertThat(futures.get(0).getNow()).isEqualTo("A");
+        assertThat(futures.get(1).cause()).isInstanceOf(RemotingException.class)
+            .hasMessageContaining("SERVICE_ERROR");
+        assertThat(futures.get(2).getNow()).isEqualTo("B");
+        assertThat(futures.get(3).cause()).isInstanceOf(RemotingException.class)
+            .hasMessageContaining("NO_REQUEST_PROCESSOR");
+    }
+
+    @Test
+    public void testInvokeEmptyBatch() {
+        assertThat(remotingInvoker.invokeBatch(url, Arrays.asList(), 3000)).isEmpty();
+    }
+
+    private static class StringRequestHandler implements RequestHandler<String> {
+
+        @Override
+        public String acceptableClass() {
+            return String.class.getName();
+        }
+
+        @Override
+        public boolean ignoredTimeoutRequest() {
+            return false;
+        }
+
+        @Override
+        public void handle(InvocationContext ctx, String obj) {
+            // 异步返回响应，批量响应应在最后一项完成后写回
+            new Thread(() -> ctx.writeAndFlushResponse(obj.toUpperCase())).start();
+        }
+    }
+
+    private static class IntegerRequestHandler implements RequestHandler<Integer> {
+
+        @Override
+        public String acceptableClass() {
+            return Integer.class.getName();
+        }
+
+        @Override
+        public boolean ignoredTimeoutRequest() {
+            return false;
+        }
+
+        @Override
+        public void handle(InvocationContext ctx, Integer obj) {
+            throw new IllegalStateException("Unexpected request " + obj);
+        }
+    }
+}
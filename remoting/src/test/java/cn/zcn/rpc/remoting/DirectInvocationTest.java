@@ -0,0 +1,53 @@
+package cn.zcn.rpc.remoting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.connection.Connection;
+import cn.zcn.rpc.remoting.exception.TransportException;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import cn.zcn.rpc.remoting.protocol.RpcStatus;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DirectInvocationTest {
+    private EmbeddedChannel channel;
+    private Connection connection;
+    private LazyResponsePromise<Object> promise;
+    private DirectInvocation invocation;
+
+    @Before
+    public void before() {
+        channel = new EmbeddedChannel();
+        connection = new Connection(channel);
+        promise = new LazyResponsePromise<>(channel.eventLoop(), ResponseCommand::getPayload, false);
+        invocation = new DirectInvocation(promise, connection, 1);
+        connection.addPromise(1, invocation);
+    }
+
+    @Test
+    public void testComplete() {
+        ResponseCommand response = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        response.setStatus(RpcStatus.OK);
+        response.setPayload("result");
+
+        PendingCall call = connection.removePromise(1);
+        assertThat(call).isSameAs(invocation);
+        assertThat(call.complete(response)).isTrue();
+
+        assertThat(promise.isSuccess()).isTrue();
+        assertThat(promise.getNow()).isEqualTo("result");
+        assertThat(call.fail(new TransportException("late"))).isFalse();
+    }
+
+    @Test
+    public void testFailOnConnectionClosed() {
+        channel.close().syncUninterruptibly();
+
+        assertThat(connection.hasPendingPromises()).isFalse();
+        assertThat(promise.isDone()).isTrue();
+        assertThat(promise.cause()).isInstanceOf(TransportException.class)
+            .hasMessageStartingWith("Connection was closed.");
+    }
+}
@@ -0,0 +1,116 @@
+package cn.zcn.rpc.remoting;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import cn.zcn.rpc.remoting.exception.TransportException;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+public class LazyResponsePromiseTest {
+
+    private final EventExecutor executor = new DefaultEventExecutor();
+    private final AtomicInteger deserialized = new AtomicInteger();
+    private final AtomicReference<Thread> deserializeThread = new AtomicReference<>();
+
+    @After
+    public void after() {
+        executor.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    private Object deserialize(ResponseCommand response) {
+        deserialized.incrementAndGet();
+        deserializeThread.set(Thread.currentThread());
+        return "result";
+    }
+
+    @Test
+    public void testDeserializeOnCallerThread() throws Exception {
+        LazyResponsePromise<String> promise = new LazyResponsePromise<>(executor, this::deserialize, false);
+        ResponseCommand response = mock(ResponseCommand.class);
+
+        executor.submit(() -> promise.setResponse(response)).sync();
+        assertThat(promise.isSuccess()).isTrue();
+        assertThat(deserialized.get()).isZero();
+
+        assertThat(promise.get()).isEqualTo("result");
+        assertThat(promise.getNow()).isEqualTo("result");
+        assertThat(deserialized.get()).isEqualTo(1);
+        assertThat(deserializeThread.get()).isSameAs(Thread.currentThread());
+        verify(response, times(1)).release();
+    }
+
+    @Test
+    public void testDeserializeOnCallbackExecutor() throws Exception {
+        LazyResponsePromise<String> promise = new LazyResponsePromise<>(executor, this::deserialize, true);
+        ResponseCommand response = mock(ResponseCommand.class);
+
+        CountDownLatch notified = new CountDownLatch(1);
+        AtomicInteger deserializedBeforeNotified = new AtomicInteger();
+        promise.addListener(future -> {
+            deserializedBeforeNotified.set(deserialized.get());
+            notified.countDown();
+        });
+
+        promise.setResponse(response);
+        assertThat(notified.await(3, TimeUnit.SECONDS)).isTrue();
+        assertThat(deserializedBeforeNotified.get()).isEqualTo(1);
+        assertThat(deserializeThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(promise.get()).isEqualTo("result");
+        verify(response, times(1)).release();
+    }
+
+    @Test
+    public void testDeserializeFailed() {
+        LazyResponsePromise<String> promise = new LazyResponsePromise<>(executor, r -> {
+            throw new SerializationException("failed");
+        }, false);
+        promise.setResponse(mock(ResponseCommand.class));
+
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(promise::get)
+            .withCauseInstanceOf(TransportException.class);
+        assertThatExceptionOfType(TransportException.class).isThrownBy(promise::getNow)
+            .withCauseInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    public void testReleaseResponseIfCancelled() {
+        LazyResponsePromise<String> promise = new LazyResponsePromise<>(executor, this::deserialize, false);
+        promise.cancel(false);
+
+        ResponseCommand response = mock(ResponseCommand.class);
+        promise.setResponse(response);
+
+        verify(response, times(1)).release();
+        assertThat(deserialized.get()).isZero();
+    }
+
+    @Test
+    public void testReleaseRetainedSliceIfNotRead() {
+        ByteBuf cumulation = PooledByteBufAllocator.DEFAULT.directBuffer();
+        cumulation.writeBytes(new byte[] { 1, 2, 3, 4 });
+        ResponseCommand response = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        response.setContentBuf(cumulation.retainedSlice(1, 2));
+        cumulation.release();
+
+        LazyResponsePromise<byte[]> promise = new LazyResponsePromise<>(executor, ResponseCommand::getContent, false);
+        promise.setResponse(response);
+
+        // 结果未被读取，入站缓冲区已经释放
+        assertThat(promise.isSuccess()).isTrue();
+        assertThat(cumulation.refCnt()).isZero();
+        assertThat(promise.getNow()).containsExactly((byte) 2, (byte) 3);
+    }
+}
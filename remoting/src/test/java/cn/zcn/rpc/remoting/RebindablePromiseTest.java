@@ -0,0 +1,64 @@
+package cn.zcn.rpc.remoting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+
+public class RebindablePromiseTest {
+
+    private final EventExecutor initial = new DefaultEventExecutor();
+    private final EventExecutor eventLoop = new DefaultEventExecutor();
+
+    @After
+    public void after() {
+        initial.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        eventLoop.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testNotifyOnReboundExecutor() throws Exception {
+        RebindablePromise<String> promise = new RebindablePromise<>(initial);
+        AtomicReference<Thread> completeThread = new AtomicReference<>();
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.addListener(future -> {
+            listenerThread.set(Thread.currentThread());
+            latch.countDown();
+        });
+
+        promise.rebind(eventLoop);
+        eventLoop.execute(() -> {
+            completeThread.set(Thread.currentThread());
+            promise.setSuccess("result");
+        });
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(listenerThread.get()).isSameAs(completeThread.get());
+        assertThat(eventLoop.inEventLoop(listenerThread.get())).isTrue();
+        assertThat(promise.get()).isEqualTo("result");
+    }
+
+    @Test
+    public void testCompleteFromOtherThread() throws Exception {
+        RebindablePromise<String> promise = new RebindablePromise<>(initial);
+        promise.rebind(eventLoop);
+
+        AtomicReference<Thread> listenerThread = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        promise.addListener(future -> {
+            listenerThread.set(Thread.currentThread());
+            latch.countDown();
+        });
+
+        initial.execute(() -> promise.setSuccess("result"));
+
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(eventLoop.inEventLoop(listenerThread.get())).isTrue();
+    }
+}
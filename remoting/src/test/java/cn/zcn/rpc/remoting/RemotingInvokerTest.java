@@ -9,6 +9,7 @@ import cn.zcn.rpc.remoting.connection.Connection;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.exception.RemotingException;
 import cn.zcn.rpc.remoting.exception.ServiceException;
+import cn.zcn.rpc.remoting.exception.TimeoutException;
 import cn.zcn.rpc.remoting.exception.TransportException;
 import cn.zcn.rpc.remoting.protocol.*;
 import cn.zcn.rpc.remoting.serialization.Serializer;
@@ -34,6 +35,7 @@ public class RemotingInvokerTest extends AbstractEventLoopGroupTest {
     private RemotingInvoker remotingInvoker;
     private boolean testTimeoutCase = false;
     private boolean testServiceExceptionCase = false;
+    private volatile byte requestSerializer;
 
     @Before
     public void before() {
@@ -57,6 +59,7 @@ public class RemotingInvokerTest extends AbstractEventLoopGroupTest {
                             }
 
                             RequestCommand req = (RequestCommand) msg;
+                            requestSerializer = req.getSerializer();
 
                             ResponseCommand resp = new ResponseCommand(req.getProtocolCode());
                             resp.setCommandCode(CommandCode.RESPONSE);
@@ -94,13 +97,15 @@ public class RemotingInvokerTest extends AbstractEventLoopGroupTest {
                         public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
                             ResponseCommand resp = (ResponseCommand) msg;
 
-                            InvocationPromise<ResponseCommand> promise = ctx.channel()
+                            PendingCall call = ctx.channel()
                                 .attr(AttributeKeys.CONNECTION)
                                 .get()
                                 .removePromise(resp.getId());
-                            if (promise != null) {
-                                promise.cancelTimeout();
-                                promise.setSuccess(resp);
+                            if (call != null) {
+                                call.cancelTimeout();
+                                if (!call.complete(resp)) {
+                                    resp.release();
+                                }
                             }
                         }
                     });
@@ -161,6 +166,23 @@ public class RemotingInvokerTest extends AbstractEventLoopGroupTest {
         sc.close().awaitUninterruptibly();
     }
 
+    @Test
+    public void testInvokeWithSerializer() {
+        Channel sc = this.server.bind(url.getAddress()).syncUninterruptibly().channel();
+        remotingInvoker.start();
+
+        Future<Void> future = remotingInvoker.invoke(url, "request", 3000, null, SerializerManager.MESSAGE_CODEC);
+        assertThat(future.awaitUninterruptibly(3000)).isTrue();
+        assertThat(requestSerializer).isEqualTo(SerializerManager.MESSAGE_CODEC);
+
+        future = remotingInvoker.invoke(url, "request", 3000);
+        assertThat(future.awaitUninterruptibly(3000)).isTrue();
+        assertThat(requestSerializer).isEqualTo(SerializerManager.DEFAULT_SERIALIZER);
+
+        remotingInvoker.stop();
+        sc.close().awaitUninterruptibly();
+    }
+
     @Test
     public void testInvokeThenConnectFailed() {
         remotingInvoker.start();
@@ -197,6 +219,28 @@ public class RemotingInvokerTest extends AbstractEventLoopGroupTest {
         sc.close().awaitUninterruptibly();
     }
 
+    @Test
+    public void testInvokeOnEstablishedConnection() {
+        Channel sc = this.server.bind(url.getAddress()).syncUninterruptibly().channel();
+        remotingInvoker.start();
+
+        // establish connection
+        assertThat(remotingInvoker.invoke(url, new Object(), 3000).awaitUninterruptibly(3000)).isTrue();
+
+        Future<Void> future = remotingInvoker.invoke(url, new Object(), 3000);
+        assertThat(future.awaitUninterruptibly(3000)).isTrue();
+        assertThat(future.isSuccess()).isTrue();
+
+        testTimeoutCase = true;
+        future = remotingInvoker.invoke(url, new Object(), 200);
+        assertThat(future.awaitUninterruptibly(3000)).isTrue();
+        assertThat(future.cause()).isInstanceOf(TransportException.class)
+            .hasCauseInstanceOf(TimeoutException.class);
+
+        remotingInvoker.stop();
+        sc.close().awaitUninterruptibly();
+    }
+
     @Test
     public void testInvokeThrowServiceException() {
         testServiceExceptionCase = true;
@@ -0,0 +1,171 @@
+package cn.zcn.rpc.remoting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import cn.zcn.rpc.remoting.config.Option;
+import cn.zcn.rpc.remoting.config.Options;
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.protocol.CommandFactory;
+import cn.zcn.rpc.remoting.protocol.CommandType;
+import cn.zcn.rpc.remoting.protocol.ProtocolCode;
+import cn.zcn.rpc.remoting.protocol.RequestCommand;
+import cn.zcn.rpc.remoting.protocol.ResponseCommand;
+import cn.zcn.rpc.remoting.protocol.RpcStatus;
+import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RequestCommandDispatcherTest {
+
+    private static final byte SERIALIZER = 100;
+
+    private final AtomicInteger deserialized = new AtomicInteger();
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch handled = new CountDownLatch(1);
+
+    private RequestCommandDispatcher dispatcher;
+    private CommandContext commandContext;
+    private CommandFactory commandFactory;
+
+    @Before
+    public void before() {
+        SerializerManager.registerSerializer(SERIALIZER, new HessianSerializer() {
+            @Override
+            public <T> T deserialize(byte[] bytes, String clazz) {
+                deserialized.incrementAndGet();
+                return super.deserialize(bytes, clazz);
+            }
+
+            @Override
+            public <T> T deserialize(ByteBuf byteBuf, String clazz) {
+                deserialized.incrementAndGet();
+                return super.deserialize(byteBuf, clazz);
+            }
+        });
+
+        RpcOptions rpcOptions = new RpcOptions();
+        dispatcher = new RequestCommandDispatcher(new Options() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T getOption(Option<T> option) {
+                if (option == RpcOptions.PROCESSOR_CORE_SIZE || option == RpcOptions.PROCESSOR_MAX_SIZE) {
+                    // 单个线程，按顺序处理请求
+                    return (T) Integer.valueOf(1);
+                }
+
+                return rpcOptions.getOption(option);
+            }
+        });
+        dispatcher.registerRequestHandler(new BlockingHandler());
+        dispatcher.registerRequestHandler(new IntegerHandler());
+        dispatcher.start();
+
+        EmbeddedChannel channel = new EmbeddedChannel();
+        ChannelHandlerContext channelContext = mock(ChannelHandlerContext.class);
+        when(channelContext.channel()).thenReturn(channel);
+        when(channelContext.writeAndFlush(any())).thenReturn(channel.newSucceededFuture());
+
+        commandFactory = mock(CommandFactory.class);
+        when(commandFactory.createResponseCommand(any(), any())).thenReturn(mock(ResponseCommand.class));
+        Protocol protocol = mock(Protocol.class);
+        when(protocol.getCommandFactory()).thenReturn(commandFactory);
+
+        commandContext = new CommandContext(channelContext, protocol, dispatcher);
+    }
+
+    @After
+    public void after() {
+        dispatcher.stop();
+    }
+
+    @Test
+    public void testNoHandlerWithoutDeserialization() throws InterruptedException {
+        RequestCommand request = newRequest(Long.class.getName(), 1L, 1000);
+        dispatcher.dispatch(commandContext, request);
+        dispatcher.dispatch(commandContext, newRequest(Integer.class.getName(), 2, 1000));
+        assertThat(handled.await(3, TimeUnit.SECONDS)).isTrue();
+
+        verify(commandFactory).createResponseCommand(request, RpcStatus.NO_REQUEST_PROCESSOR);
+        assertThat(deserialized.get()).isEqualTo(1);
+        assertThat(request.refCnt()).isZero();
+    }
+
+    @Test
+    public void testDiscardTimeoutRequestWithoutDeserialization() throws InterruptedException {
+        // 第一个请求阻塞处理线程，第二个请求在队列中超时
+        dispatcher.dispatch(commandContext, newRequest(String.class.getName(), "block", 1000));
+        RequestCommand timeoutRequest = newRequest(Integer.class.getName(), 1, 1);
+        dispatcher.dispatch(commandContext, timeoutRequest);
+        Thread.sleep(20);
+
+        blocked.countDown();
+        dispatcher.dispatch(commandContext, newRequest(Integer.class.getName(), 2, 1000));
+        assertThat(handled.await(3, TimeUnit.SECONDS)).isTrue();
+
+        verify(commandFactory, never()).createResponseCommand(eq(timeoutRequest), any());
+        assertThat(deserialized.get()).isEqualTo(2);
+        assertThat(timeoutRequest.refCnt()).isZero();
+    }
+
+    private RequestCommand newRequest(String clazz, Object content, int timeout) {
+        RequestCommand request = new RequestCommand(ProtocolCode.from((byte) 1, (byte) 1), CommandType.REQUEST);
+        request.setClazz(clazz.getBytes(StandardCharsets.UTF_8));
+        request.setContent(SerializerManager.getSerializer(SerializerManager.HESSIAN).serialize(content));
+        request.setSerializer(SERIALIZER);
+        request.setTimeout(timeout);
+        return request;
+    }
+
+    private class BlockingHandler implements RequestHandler<String> {
+
+        @Override
+        public String acceptableClass() {
+            return String.class.getName();
+        }
+
+        @Override
+        public boolean ignoredTimeoutRequest() {
+            return true;
+        }
+
+        @Override
+        public void handle(InvocationContext ctx, String obj) {
+            try {
+                blocked.await(3, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private class IntegerHandler implements RequestHandler<Integer> {
+
+        @Override
+        public String acceptableClass() {
+            return Integer.class.getName();
+        }
+
+        @Override
+        public boolean ignoredTimeoutRequest() {
+            return true;
+        }
+
+        @Override
+        public void handle(InvocationContext ctx, Integer obj) {
+            if (obj == 2) {
+                handled.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package cn.zcn.rpc.remoting.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.DefaultInvocationPromise;
+import cn.zcn.rpc.remoting.config.ClientOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.utils.TimerHolder;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.Test;
+
+public class ConnectionTest {
+
+    @Test
+    public void testRequestIdsPerConnection() {
+        Connection c1 = new Connection(new EmbeddedChannel());
+        Connection c2 = new Connection(new EmbeddedChannel());
+
+        assertThat(c1.nextRequestId()).isEqualTo(1);
+        assertThat(c1.nextRequestId()).isEqualTo(2);
+        assertThat(c2.nextRequestId()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRequestIdWraparound() {
+        Connection connection = new Connection(new EmbeddedChannel(), Integer.MAX_VALUE - 1);
+
+        assertThat(connection.nextRequestId()).isEqualTo(Integer.MAX_VALUE);
+        // 回绕后跳过 0 与负数
+        assertThat(connection.nextRequestId()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSkipPendingRequestIdAfterWraparound() {
+        Connection connection = new Connection(new EmbeddedChannel(), Integer.MAX_VALUE);
+        connection.addPromise(1, new DefaultInvocationPromise(ImmediateEventExecutor.INSTANCE.newPromise()));
+        connection.addPromise(2, new DefaultInvocationPromise(ImmediateEventExecutor.INSTANCE.newPromise()));
+
+        assertThat(connection.nextRequestId()).isEqualTo(3);
+
+        connection.removePromise(1);
+        assertThat(connection.nextRequestId()).isEqualTo(4);
+    }
+
+    @Test
+    public void testTimerStrategy() {
+        assertThat(new Connection(new EmbeddedChannel()).getTimer()).isSameAs(TimerHolder.getTimer());
+
+        ClientOptions options = new ClientOptions();
+        options.setOption(ClientOptions.TIMER, TimerHolder.EVENT_LOOP);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.attr(AttributeKeys.OPTIONS).set(options);
+
+        assertThat(new Connection(channel).getTimer()).isNotSameAs(TimerHolder.getTimer());
+    }
+}
@@ -0,0 +1,114 @@
+package cn.zcn.rpc.remoting.connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.DefaultInvocationPromise;
+import cn.zcn.rpc.remoting.PendingCall;
+import cn.zcn.rpc.remoting.exception.TransportException;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PendingInvocationsTest {
+
+    @Test
+    public void testPutAndRemove() {
+        PendingInvocations invocations = new PendingInvocations();
+        assertThat(invocations.isEmpty()).isTrue();
+
+        DefaultInvocationPromise p1 = newPromise();
+        DefaultInvocationPromise p2 = newPromise();
+        invocations.put(1, p1);
+        invocations.put(17, p2);
+        assertThat(invocations.isEmpty()).isFalse();
+        assertThat(invocations.size()).isEqualTo(2);
+
+        assertThat(invocations.remove(1)).isSameAs(p1);
+        assertThat(invocations.remove(1)).isNull();
+        assertThat(invocations.remove(17)).isSameAs(p2);
+        assertThat(invocations.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testNegativeId() {
+        PendingInvocations invocations = new PendingInvocations();
+        DefaultInvocationPromise p = newPromise();
+        invocations.put(Integer.MIN_VALUE, p);
+
+        assertThat(invocations.remove(Integer.MIN_VALUE)).isSameAs(p);
+    }
+
+    @Test
+    public void testRemoveAll() {
+        PendingInvocations invocations = new PendingInvocations();
+        Map<Integer, PendingCall> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            DefaultInvocationPromise p = newPromise();
+            invocations.put(i, p);
+            expected.put(i, p);
+        }
+
+        Map<Integer, PendingCall> removed = new HashMap<>();
+        invocations.removeAll(removed::put);
+
+        assertThat(removed).isEqualTo(expected);
+        assertThat(invocations.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testConcurrentPutAndRemove() throws InterruptedException {
+        PendingInvocations invocations = new PendingInvocations();
+        int threads = 4;
+        int count = 10000;
+        AtomicInteger removed = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * count;
+            workers.add(new Thread(() -> {
+                for (int i = offset; i < offset + count; i++) {
+                    invocations.put(i, newPromise());
+                }
+                for (int i = offset; i < offset + count; i++) {
+                    if (invocations.remove(i) != null) {
+                        removed.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }));
+        }
+        workers.forEach(Thread::start);
+        latch.await();
+
+        assertThat(removed.get()).isEqualTo(threads * count);
+        assertThat(invocations.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testFailPendingPromisesOnClose() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        Connection connection = new Connection(channel);
+
+        DefaultInvocationPromise promise = newPromise();
+        connection.addPromise(1, promise);
+        assertThat(connection.hasPendingPromises()).isTrue();
+        assertThat(connection.getPendingPromiseCount()).isEqualTo(1);
+
+        channel.close().syncUninterruptibly();
+
+        assertThat(connection.hasPendingPromises()).isFalse();
+        assertThat(promise.isDone()).isTrue();
+        assertThat(promise.cause()).isInstanceOf(TransportException.class);
+    }
+
+    private DefaultInvocationPromise newPromise() {
+        return new DefaultInvocationPromise(ImmediateEventExecutor.INSTANCE.newPromise());
+    }
+}
@@ -84,6 +84,33 @@ public class SingleConnectionGroupTest extends AbstractEventLoopGroupTest {
         connectionGroup.close();
     }
 
+    @Test
+    public void testTryAcquireConnection() {
+        Channel sc = this.server.bind(url.getAddress()).syncUninterruptibly().channel();
+        ConnectionGroup connectionGroup = new SingleConnectionGroup(url, client);
+
+        // no connection yet
+        assertThat(connectionGroup.tryAcquireConnection()).isNull();
+
+        Future<Connection> future = connectionGroup.acquireConnection();
+        assertThat(future.awaitUninterruptibly(2000)).isTrue();
+        assertThat(connectionGroup.tryAcquireConnection()).isSameAs(future.getNow());
+
+        // inactive connection
+        future.getNow().close().awaitUninterruptibly();
+        assertThat(connectionGroup.tryAcquireConnection()).isNull();
+
+        future = connectionGroup.acquireConnection();
+        assertThat(future.awaitUninterruptibly(2000)).isTrue();
+        assertThat(connectionGroup.tryAcquireConnection()).isSameAs(future.getNow());
+
+        // closed group
+        connectionGroup.close().awaitUninterruptibly();
+        assertThat(connectionGroup.tryAcquireConnection()).isNull();
+
+        sc.close().awaitUninterruptibly();
+    }
+
     @Test
     public void testAcquireConnectionFromClosedGroup() {
         ConnectionGroup connectionGroup = new SingleConnectionGroup(url, client);
@@ -0,0 +1,90 @@
+package cn.zcn.rpc.remoting.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class PatternMessageExceptionTest {
+
+    @Test
+    public void testPatternMessage() {
+        IllegalStateException cause = new IllegalStateException();
+        TransportException exception = new TransportException("Request id:{}, To:{}", 1, "127.0.0.1:80", cause);
+
+        assertThat(exception.getMessage()).isEqualTo("Request id:1, To:127.0.0.1:80");
+        assertThat(exception.getCause()).isSameAs(cause);
+        assertThat(exception.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    public void testStackless() {
+        AtomicInteger formatted = new AtomicInteger();
+        Object arg = new Object() {
+            @Override
+            public String toString() {
+                formatted.incrementAndGet();
+                return "arg";
+            }
+        };
+
+        TimeoutException exception = TimeoutException.stackless("Timeout. Request id:{}, To:{}", 1, arg);
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getCause()).isNull();
+        assertThat(formatted.get()).isZero();
+
+        assertThat(exception.getMessage()).isEqualTo("Timeout. Request id:1, To:arg");
+        assertThat(exception.getMessage()).isEqualTo("Timeout. Request id:1, To:arg");
+        assertThat(exception.toString()).endsWith("Timeout. Request id:1, To:arg");
+        assertThat(formatted.get()).isEqualTo(1);
+
+        exception.addSuppressed(new IllegalStateException());
+        assertThat(exception.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    public void testStacklessWithCause() {
+        TimeoutException cause = TimeoutException.stackless("timeout");
+        TransportException exception = TransportException.stackless("{}", cause.getMessage(), cause);
+
+        assertThat(exception.getMessage()).isEqualTo("timeout");
+        assertThat(exception.getCause()).isSameAs(cause);
+        assertThat(exception.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void testStacklessHessianRoundTrip() {
+        HessianSerializer serializer = new HessianSerializer();
+        TimeoutException cause = TimeoutException.stackless("Timeout. Request id:{}, To:{}", 1, "127.0.0.1:80");
+        IllegalStateException wrapper = new IllegalStateException("nested", cause);
+
+        TimeoutException result = serializer.deserialize(serializer.serialize(cause), null);
+        assertThat(result.getClass()).isEqualTo(TimeoutException.class);
+        assertThat(result.getMessage()).isEqualTo("Timeout. Request id:1, To:127.0.0.1:80");
+
+        IllegalStateException wrapped = serializer.deserialize(serializer.serialize(wrapper), null);
+        assertThat(wrapped.getCause()).isInstanceOf(TimeoutException.class)
+            .hasMessage("Timeout. Request id:1, To:127.0.0.1:80");
+    }
+
+    @Test
+    public void testStacklessJavaSerialization() throws Exception {
+        TransportException exception = TransportException.stackless("Connection was closed. Request id:{}", 1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(exception);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            TransportException result = (TransportException) in.readObject();
+            assertThat(result.getClass()).isEqualTo(TransportException.class);
+            assertThat(result.getMessage()).isEqualTo("Connection was closed. Request id:1");
+        }
+    }
+}
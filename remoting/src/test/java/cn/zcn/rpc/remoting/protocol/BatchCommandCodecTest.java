@@ -0,0 +1,82 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class BatchCommandCodecTest {
+
+    @Test
+    public void testEncodeThenDecodeRequest() {
+        byte[] content = BatchCommandCodec.encodeRequest(Arrays.asList(
+            new BatchItem(null, "java.lang.String", new byte[] { 1, 2 }),
+            new BatchItem(null, "java.lang.Long", null)), StandardCharsets.UTF_8);
+
+        List<BatchItem> items = BatchCommandCodec.decodeRequest(Unpooled.wrappedBuffer(content),
+            StandardCharsets.UTF_8);
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getStatus()).isNull();
+        assertThat(items.get(0).getClazzName()).isEqualTo("java.lang.String");
+        assertThat(items.get(0).getContent()).containsExactly(1, 2);
+        assertThat(items.get(1).getClazzName()).isEqualTo("java.lang.Long");
+        assertThat(items.get(1).getContent()).isEmpty();
+    }
+
+    @Test
+    public void testEncodeThenDecodeResponseFrame() {
+        EmbeddedChannel client = new EmbeddedChannel(new MessageEncoder());
+        client.attr(AttributeKeys.PROTOCOL).set(RpcProtocolV1.PROTOCOL_CODE);
+        EmbeddedChannel server = new EmbeddedChannel(new MessageDecoder());
+
+        ResponseCommand response = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        response.setCommandCode(CommandCode.BATCH_RESPONSE);
+        response.setId(7);
+        response.setStatus(RpcStatus.OK);
+        response.setContent(BatchCommandCodec.encodeResponse(Arrays.asList(
+            new BatchItem(RpcStatus.OK, null, new byte[] { 3 }),
+            new BatchItem(RpcStatus.NO_REQUEST_PROCESSOR, null, null)), StandardCharsets.UTF_8));
+
+        assertThat(client.writeOutbound(response)).isTrue();
+        server.writeInbound((ByteBuf) client.readOutbound());
+
+        ResponseCommand decoded = server.readInbound();
+        assertThat(decoded.getCommandCode()).isEqualTo(CommandCode.BATCH_RESPONSE);
+
+        List<BatchItem> items = BatchCommandCodec.decode(decoded, StandardCharsets.UTF_8);
+        decoded.release();
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getStatus()).isEqualTo(RpcStatus.OK);
+        assertThat(items.get(0).getContent()).containsExactly(3);
+        assertThat(items.get(1).getStatus()).isEqualTo(RpcStatus.NO_REQUEST_PROCESSOR);
+        assertThat(items.get(1).getContentLength()).isZero();
+    }
+
+    @Test
+    public void testDecodeMalformed() {
+        // 数量超过可读字节
+        assertThatExceptionOfType(ProtocolException.class)
+            .isThrownBy(() -> BatchCommandCodec.decodeRequest(Unpooled.wrappedBuffer(new byte[] { 100, 0, 0 }),
+                StandardCharsets.UTF_8));
+
+        // 长度超过可读字节
+        assertThatExceptionOfType(ProtocolException.class)
+            .isThrownBy(() -> BatchCommandCodec.decodeRequest(Unpooled.wrappedBuffer(new byte[] { 1, 9, 0 }),
+                StandardCharsets.UTF_8));
+
+        // 响应项缺少状态
+        assertThatExceptionOfType(ProtocolException.class)
+            .isThrownBy(() -> BatchCommandCodec.encodeResponse(
+                Arrays.asList(new BatchItem(null, null, null)), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,88 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ClassNameDictionaryTest {
+
+    @Test
+    public void testEncodeThenDecode() {
+        ClassNameDictionary sender = new ClassNameDictionary(StandardCharsets.UTF_8);
+        ClassNameDictionary receiver = new ClassNameDictionary(StandardCharsets.UTF_8);
+
+        byte[] definition = sender.encode("java.lang.String");
+        assertThat(definition).hasSize(2 + "java.lang.String".length());
+
+        byte[] reference = sender.encode("java.lang.String");
+        assertThat(reference).containsExactly(0, 0);
+        assertThat(sender.encode("java.lang.String")).isSameAs(reference);
+        assertThat(sender.encode("java.lang.Integer")).startsWith(0, 1);
+
+        assertThat(receiver.decode(Unpooled.wrappedBuffer(definition), definition.length))
+            .isEqualTo("java.lang.String");
+
+        String first = receiver.decode(Unpooled.wrappedBuffer(reference), reference.length);
+        String second = receiver.decode(Unpooled.wrappedBuffer(reference), reference.length);
+        assertThat(first).isEqualTo("java.lang.String").isSameAs(second);
+    }
+
+    @Test
+    public void testDecodeWithUnknownId() {
+        ClassNameDictionary receiver = new ClassNameDictionary(StandardCharsets.UTF_8);
+
+        assertThatExceptionOfType(ProtocolException.class)
+            .isThrownBy(() -> receiver.decode(Unpooled.wrappedBuffer(new byte[] { 0, 5 }), 2))
+            .withMessageContaining("Unknown class name id 5");
+    }
+
+    @Test
+    public void testEncodeWhenFull() {
+        ClassNameDictionary sender = new ClassNameDictionary(StandardCharsets.UTF_8);
+        for (int i = 0; i < ClassNameDictionary.MAX_SIZE; i++) {
+            assertThat(sender.encode("Class" + i)).isNotNull();
+        }
+
+        assertThat(sender.encode("Other")).isNull();
+        assertThat(sender.encode("Class0")).containsExactly(0, 0);
+    }
+
+    @Test
+    public void testCodecWithDictionary() {
+        EmbeddedChannel client = new EmbeddedChannel(new MessageEncoder());
+        client.attr(AttributeKeys.PROTOCOL).set(RpcProtocolV1.PROTOCOL_CODE);
+        client.attr(AttributeKeys.CLASS_NAME_DICTIONARY).set(new ClassNameDictionary(StandardCharsets.UTF_8));
+
+        EmbeddedChannel server = new EmbeddedChannel(new MessageDecoder());
+
+        for (int id = 1; id <= 2; id++) {
+            RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+            req.setCommandCode(CommandCode.REQUEST);
+            req.setId(id);
+            req.setClazzName("java.lang.String");
+            req.setContent(new byte[] { 1, 2, 3 });
+            assertThat(client.writeOutbound(req)).isTrue();
+        }
+
+        ByteBuf first = client.readOutbound();
+        ByteBuf second = client.readOutbound();
+        assertThat(second.readableBytes()).isEqualTo(RpcProtocolV1.MIN_REQUEST_LENGTH + 2 + 3);
+
+        server.writeInbound(first, second);
+
+        for (int id = 1; id <= 2; id++) {
+            RequestCommand req = server.readInbound();
+            assertThat(req.getId()).isEqualTo(id);
+            assertThat(req.getClazz()).isNull();
+            assertThat(req.getClazzName()).isEqualTo("java.lang.String");
+            assertThat(req.getContent()).containsExactly(1, 2, 3);
+        }
+    }
+}
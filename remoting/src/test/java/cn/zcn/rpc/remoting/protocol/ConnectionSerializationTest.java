@@ -0,0 +1,98 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.io.Serializable;
+import org.junit.Test;
+
+public class ConnectionSerializationTest {
+
+    @Test
+    public void testClassDefinitionSentOncePerConnection() {
+        EmbeddedChannel client = new EmbeddedChannel(new MessageEncoder());
+        EmbeddedChannel server = new EmbeddedChannel(new MessageDecoder());
+
+        ByteBuf first = encode(client, 1, new Dto("first", 1));
+        ByteBuf second = encode(client, 2, new Dto("second", 2));
+        int secondLength = second.readableBytes();
+
+        // 第二个帧只引用类定义，不再携带类名与字段名
+        assertThat(secondLength).isLessThan(first.readableBytes() - Dto.class.getName().length());
+
+        server.writeInbound(first, second);
+        assertDecoded(server.readInbound(), "first", 1);
+        assertDecoded(server.readInbound(), "second", 2);
+
+        // 新的连接重新发送类定义
+        EmbeddedChannel reconnected = new EmbeddedChannel(new MessageEncoder());
+        ByteBuf third = encode(reconnected, 3, new Dto("third", 3));
+        assertThat(third.readableBytes()).isGreaterThan(secondLength);
+        third.release();
+    }
+
+    @Test
+    public void testResetAfterSerializationFailed() {
+        EmbeddedChannel client = new EmbeddedChannel(new MessageEncoder());
+        EmbeddedChannel server = new EmbeddedChannel(new MessageDecoder());
+
+        server.writeInbound(encode(client, 1, new Dto("first", 1)));
+        assertDecoded(server.readInbound(), "first", 1);
+
+        ChannelFuture future = client.writeAndFlush(newRequest(2, new Object[] { new Item(), new NotSerializable() }));
+        assertThat(future.isSuccess()).isFalse();
+
+        // 失败的帧中定义的 Item 没有发出，发送方清空类定义，下一个帧携带完整的类定义并通知对端清空
+        server.writeInbound(encode(client, 3, new Item()), encode(client, 4, new Dto("fourth", 4)));
+
+        RequestCommand req = server.readInbound();
+        assertThat(req.getPayload()).isInstanceOf(Item.class);
+        req.release();
+        assertDecoded(server.readInbound(), "fourth", 4);
+    }
+
+    private ByteBuf encode(EmbeddedChannel channel, int id, Object payload) {
+        assertThat(channel.writeOutbound(newRequest(id, payload))).isTrue();
+        return channel.readOutbound();
+    }
+
+    private RequestCommand newRequest(int id, Object payload) {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setId(id);
+        req.setSerializer(SerializerManager.STATEFUL_HESSIAN);
+        req.setClazz(payload.getClass().getName().getBytes());
+        req.setPayload(payload);
+        return req;
+    }
+
+    private void assertDecoded(RequestCommand req, String name, int value) {
+        assertThat(req.getContentLength()).isZero();
+        assertThat(req.hasPayload()).isTrue();
+
+        Dto dto = (Dto) req.getPayload();
+        assertThat(dto.name).isEqualTo(name);
+        assertThat(dto.value).isEqualTo(value);
+        req.release();
+    }
+
+    private static class Dto implements Serializable {
+        private String name;
+        private int value;
+
+        Dto(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private static class Item implements Serializable {
+        private long count = 1;
+    }
+
+    private static class NotSerializable {
+    }
+}
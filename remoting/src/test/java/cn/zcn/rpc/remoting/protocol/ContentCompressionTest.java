@@ -0,0 +1,120 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import cn.zcn.rpc.remoting.protocol.v2.RpcProtocolV2;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import java.util.Random;
+import org.junit.Test;
+
+public class ContentCompressionTest {
+
+    private static byte[] repetitive(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ("student-" + (i % 64)).charAt(i % 8);
+        }
+        return content;
+    }
+
+    private EmbeddedChannel newChannel(ProtocolCode protocolCode, String compressor, int threshold) {
+        RpcOptions options = new RpcOptions();
+        options.setOption(RpcOptions.COMPRESSOR, compressor);
+        options.setOption(RpcOptions.COMPRESS_THRESHOLD, threshold);
+
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageEncoder(), new MessageDecoder());
+        channel.attr(AttributeKeys.OPTIONS).set(options);
+        channel.attr(AttributeKeys.PROTOCOL).set(protocolCode);
+        return channel;
+    }
+
+    private RequestCommand newRequest(byte[] content) {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(1);
+        req.setProtocolSwitchValue(ProtocolSwitch.turnOn((byte) 0, ProtocolSwitch.CRC32_INDEX));
+        req.setTimeout(1000);
+        req.setClazz("java.util.List".getBytes());
+        req.setContent(content);
+        return req;
+    }
+
+    private RequestCommand roundTrip(EmbeddedChannel channel, RequestCommand req, int maxFrameLength) {
+        assertThat(channel.writeOutbound(req)).isTrue();
+        ByteBuf frame = channel.readOutbound();
+
+        RpcOptions options = new RpcOptions();
+        options.setOption(RpcOptions.MAX_FRAME_LENGTH, maxFrameLength);
+        EmbeddedChannel receiver = new EmbeddedChannel(new MessageDecoder());
+        receiver.attr(AttributeKeys.OPTIONS).set(options);
+        receiver.writeInbound(frame);
+        return receiver.readInbound();
+    }
+
+    @Test
+    public void testCompressAboveThreshold() {
+        byte[] content = repetitive(64 * 1024);
+
+        for (ProtocolCode protocolCode : new ProtocolCode[] { RpcProtocolV1.PROTOCOL_CODE,
+            RpcProtocolV2.PROTOCOL_CODE }) {
+            for (String compressor : new String[] { "deflate", "lz4" }) {
+                EmbeddedChannel channel = newChannel(protocolCode, compressor, 1024);
+                RequestCommand req = newRequest(content);
+                channel.writeOutbound(req);
+                ByteBuf frame = channel.readOutbound();
+                assertThat(frame.readableBytes()).isLessThan(content.length / 4);
+
+                EmbeddedChannel receiver = new EmbeddedChannel(new MessageDecoder());
+                receiver.writeInbound(frame);
+                RequestCommand decoded = receiver.readInbound();
+                assertThat(decoded.getContent()).isEqualTo(content);
+                assertThat(decoded.isProtocolSwitchOn(ProtocolSwitch.COMPRESS_INDEX)).isFalse();
+                assertThat(decoded.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void testSkipBelowThresholdOrIncompressible() {
+        EmbeddedChannel channel = newChannel(RpcProtocolV1.PROTOCOL_CODE, "deflate", 1024);
+
+        RequestCommand small = newRequest(repetitive(512));
+        channel.writeOutbound(small);
+        assertThat(small.isProtocolSwitchOn(ProtocolSwitch.COMPRESS_INDEX)).isFalse();
+        ((ByteBuf) channel.readOutbound()).release();
+
+        byte[] random = new byte[4096];
+        new Random(7).nextBytes(random);
+        RequestCommand incompressible = newRequest(random);
+        assertThat(roundTrip(channel, incompressible, 1 << 20).getContent()).isEqualTo(random);
+        assertThat(incompressible.isProtocolSwitchOn(ProtocolSwitch.COMPRESS_INDEX)).isFalse();
+    }
+
+    @Test
+    public void testRejectDecompressedLengthAboveMaxFrameLength() {
+        EmbeddedChannel channel = newChannel(RpcProtocolV1.PROTOCOL_CODE, "deflate", 1024);
+
+        assertThatExceptionOfType(DecoderException.class)
+            .isThrownBy(() -> roundTrip(channel, newRequest(repetitive(1 << 20)), 64 * 1024))
+            .withMessageContaining("exceeds max frame length");
+    }
+
+    @Test
+    public void testAllocateCompressedContentFromChannel() {
+        EmbeddedChannel channel = newChannel(RpcProtocolV1.PROTOCOL_CODE, "deflate", 1024);
+        RequestCommand req = newRequest(repetitive(64 * 1024));
+
+        ContentCompression.compress(channel.pipeline().firstContext(), req);
+        ByteBuf compressed = req.getContentBuf();
+        assertThat(compressed.alloc()).isSameAs(channel.alloc());
+        assertThat(compressed.hasArray()).isTrue();
+
+        req.release();
+        assertThat(compressed.refCnt()).isZero();
+    }
+}
@@ -5,7 +5,6 @@ import cn.zcn.rpc.remoting.config.ClientOptions;
 import cn.zcn.rpc.remoting.connection.Connection;
 import cn.zcn.rpc.remoting.constants.AttributeKeys;
 import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
-import cn.zcn.rpc.remoting.utils.CommandIdGenerator;
 import io.netty.channel.*;
 import io.netty.channel.embedded.EmbeddedChannel;
 import java.util.concurrent.TimeUnit;
@@ -26,9 +25,7 @@ public class DefaultHeartbeatTriggerTest {
         Mockito.when(commandFactory.createHeartbeatCommand()).thenAnswer(new Answer<HeartbeatCommand>() {
             @Override
             public HeartbeatCommand answer(InvocationOnMock invocationOnMock) throws Throwable {
-                HeartbeatCommand heartbeatCommand = new HeartbeatCommand(RpcProtocolV1.PROTOCOL_CODE);
-                heartbeatCommand.setId(CommandIdGenerator.getInstance().nextId());
-                return heartbeatCommand;
+                return new HeartbeatCommand(RpcProtocolV1.PROTOCOL_CODE);
             }
         });
 
@@ -1,10 +1,14 @@
 package cn.zcn.rpc.remoting.protocol;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import cn.zcn.rpc.remoting.Protocol;
 import cn.zcn.rpc.remoting.ProtocolDecoder;
 import cn.zcn.rpc.remoting.ProtocolManager;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolEncoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
@@ -59,4 +63,25 @@ public class MessageDecoderTest {
 
         ProtocolManager.getInstance().unregisterProtocol(protocol.getProtocolCode());
     }
+
+    @Test
+    public void testReplaceWithFrameDecoderOfPinnedProtocol() throws Exception {
+        ByteBuf in = Unpooled.buffer();
+        for (int id = 1; id <= 2; id++) {
+            RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+            req.setCommandCode(CommandCode.REQUEST);
+            req.setId(id);
+            req.setProtocolSwitch(ProtocolSwitch.parse((byte) 0));
+            req.setContent(new byte[] { 1, 2, 3 });
+            new RpcProtocolEncoder().encode(null, req, in);
+        }
+
+        channel.writeInbound(in);
+
+        assertThat(channel.pipeline().get(MessageDecoder.class)).isNull();
+        assertThat(channel.pipeline().get(ProtocolFrameDecoder.class)).isNotNull();
+        assertThat(channel.attr(AttributeKeys.PROTOCOL).get()).isEqualTo(RpcProtocolV1.PROTOCOL_CODE);
+        assertThat(((RequestCommand) channel.readInbound()).getId()).isEqualTo(1);
+        assertThat(((RequestCommand) channel.readInbound()).getId()).isEqualTo(2);
+    }
 }
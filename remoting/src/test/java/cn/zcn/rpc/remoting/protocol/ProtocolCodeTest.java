@@ -14,4 +14,11 @@ public class ProtocolCodeTest {
         assertThat(protocolCode.getVersion()).isEqualTo((byte) 2);
         assertThat(protocolCode.toString()).isEqualTo("Protocol{code=3,version=2}");
     }
+
+    @Test
+    public void testFromReturnsCachedInstance() {
+        assertThat(ProtocolCode.from((byte) 3, (byte) 2)).isSameAs(ProtocolCode.from((byte) 3, (byte) 2));
+        assertThat(ProtocolCode.from((byte) -1, (byte) -128)).isSameAs(ProtocolCode.from((byte) -1, (byte) -128));
+        assertThat(ProtocolCode.from((byte) 3, (byte) 2)).isNotEqualTo(ProtocolCode.from((byte) 2, (byte) 3));
+    }
 }
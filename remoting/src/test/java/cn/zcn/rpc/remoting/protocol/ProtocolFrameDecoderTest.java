@@ -0,0 +1,93 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolDecoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolEncoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class ProtocolFrameDecoderTest {
+
+    private ByteBuf newRequestFrame(int contentLength) throws Exception {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(7);
+        req.setSerializer((byte) 1);
+
+        ProtocolSwitch protocolSwitch = ProtocolSwitch.parse((byte) 0);
+        protocolSwitch.turnOn(ProtocolSwitch.CRC32_INDEX);
+        req.setProtocolSwitch(protocolSwitch);
+        req.setTimeout(3000);
+        req.setClazz("java.lang.String".getBytes());
+
+        byte[] content = new byte[contentLength];
+        Arrays.fill(content, (byte) 3);
+        req.setContent(content);
+
+        ByteBuf out = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, req, out);
+        return out;
+    }
+
+    @Test
+    public void testDecodeFrameInSegments() throws Exception {
+        ProtocolFrameDecoder decoder = new ProtocolFrameDecoder(new RpcProtocolDecoder(), 1024 * 1024);
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+
+        ByteBuf frame = newRequestFrame(100 * 1024);
+        int frameLength = frame.readableBytes();
+
+        channel.writeInbound(frame.readRetainedSlice(10));
+        assertThat(decoder.getFrameLength()).isEqualTo(-1);
+
+        channel.writeInbound(frame.readRetainedSlice(100));
+        assertThat(decoder.getFrameLength()).isEqualTo(frameLength);
+
+        while (frame.readableBytes() > 1000) {
+            channel.writeInbound(frame.readRetainedSlice(1000));
+            assertThat((Object) channel.readInbound()).isNull();
+        }
+
+        channel.writeInbound(frame.readRetainedSlice(frame.readableBytes()));
+        frame.release();
+
+        RequestCommand command = channel.readInbound();
+        assertThat(command.getId()).isEqualTo(7);
+        assertThat(command.getTimeout()).isEqualTo(3000);
+        assertThat(command.getContent()).hasSize(100 * 1024);
+        assertThat(decoder.getFrameLength()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testDecodeMultipleFrames() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ProtocolFrameDecoder(new RpcProtocolDecoder(), 1024));
+
+        ByteBuf in = Unpooled.buffer();
+        in.writeBytes(newRequestFrame(10));
+        in.writeBytes(newRequestFrame(20));
+        in.writeBytes(newRequestFrame(30), 0, 5);
+        channel.writeInbound(in);
+
+        assertThat(((RequestCommand) channel.readInbound()).getContent()).hasSize(10);
+        assertThat(((RequestCommand) channel.readInbound()).getContent()).hasSize(20);
+        assertThat((Object) channel.readInbound()).isNull();
+    }
+
+    @Test
+    public void testDecodeWhenFrameTooLong() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new ProtocolFrameDecoder(new RpcProtocolDecoder(), 1024));
+
+        ByteBuf frame = newRequestFrame(2048);
+
+        assertThatExceptionOfType(DecoderException.class)
+            .isThrownBy(() -> channel.writeInbound(frame.readRetainedSlice(30)))
+            .havingCause().withMessageContaining("exceeds max frame length");
+        frame.release();
+    }
+}
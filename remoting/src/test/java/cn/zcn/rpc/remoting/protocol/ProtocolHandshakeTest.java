@@ -0,0 +1,126 @@
+package cn.zcn.rpc.remoting.protocol;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.CommandContext;
+import cn.zcn.rpc.remoting.Protocol;
+import cn.zcn.rpc.remoting.ProtocolManager;
+import cn.zcn.rpc.remoting.connection.Connection;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import cn.zcn.rpc.remoting.protocol.v2.RpcProtocolV2;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.Future;
+import org.junit.Test;
+
+public class ProtocolHandshakeTest {
+
+    /**
+     * 按连接的协议将命令交给对应的命令处理器
+     */
+    private static class CommandDispatcher extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            Protocol protocol = ProtocolManager.getInstance().getProtocol(ctx.channel().attr(AttributeKeys.PROTOCOL).get());
+            ICommand command = (ICommand) msg;
+            protocol.getCommandHandler(command.getCommandCode()).handle(new CommandContext(ctx, protocol, null), command);
+        }
+    }
+
+    private EmbeddedChannel newChannel() {
+        return new EmbeddedChannel(new MessageEncoder(), new MessageDecoder(), new CommandDispatcher());
+    }
+
+    private void transfer(EmbeddedChannel from, EmbeddedChannel to) {
+        ByteBuf buf;
+        while ((buf = from.readOutbound()) != null) {
+            to.writeInbound(buf);
+        }
+    }
+
+    @Test
+    public void testNegotiateV2() {
+        EmbeddedChannel server = newChannel();
+        EmbeddedChannel client = newChannel();
+        Connection connection = new Connection(client);
+        client.attr(AttributeKeys.CONNECTION).set(connection);
+
+        Future<ProtocolCode> future = ProtocolHandshake.negotiate(connection, RpcProtocolV2.PROTOCOL_CODE, 3000);
+
+        transfer(client, server);
+        assertThat(server.attr(AttributeKeys.PROTOCOL).get()).isEqualTo(RpcProtocolV2.PROTOCOL_CODE);
+
+        transfer(server, client);
+        assertThat(future.isSuccess()).isTrue();
+        assertThat(future.getNow()).isEqualTo(RpcProtocolV2.PROTOCOL_CODE);
+        assertThat(client.attr(AttributeKeys.PROTOCOL).get()).isEqualTo(RpcProtocolV2.PROTOCOL_CODE);
+        assertThat(connection.hasPendingPromises()).isFalse();
+
+        // 协商后的请求使用 V2 编码，头部随请求到达服务端
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST_ONEWAY);
+        req.setCommandCode(CommandCode.HEARTBEAT);
+        req.setId(10);
+        req.setProtocolSwitchValue((byte) 0);
+        req.setHeaders(new CommandHeaders().putString("trace-id", "t1"));
+
+        EmbeddedChannel peer = new EmbeddedChannel(new MessageEncoder(), new MessageDecoder());
+        peer.attr(AttributeKeys.PROTOCOL).set(client.attr(AttributeKeys.PROTOCOL).get());
+        peer.writeOutbound(req);
+
+        ByteBuf frame = peer.readOutbound();
+        assertThat(frame.getByte(1)).isEqualTo(RpcProtocolV2.PROTOCOL_CODE.getVersion());
+
+        EmbeddedChannel receiver = new EmbeddedChannel(new MessageDecoder());
+        receiver.writeInbound(frame);
+        RequestCommand received = receiver.readInbound();
+        assertThat(received.getProtocolCode()).isEqualTo(RpcProtocolV2.PROTOCOL_CODE);
+        assertThat(received.getHeaders().getString("trace-id")).isEqualTo("t1");
+    }
+
+    @Test
+    public void testFallbackToV1() {
+        EmbeddedChannel client = newChannel();
+        Connection connection = new Connection(client);
+        client.attr(AttributeKeys.CONNECTION).set(connection);
+
+        Future<ProtocolCode> future = ProtocolHandshake.negotiate(connection, RpcProtocolV2.PROTOCOL_CODE, 3000);
+
+        EmbeddedChannel server = new EmbeddedChannel(new MessageEncoder(), new MessageDecoder());
+        transfer(client, server);
+        RequestCommand handshake = server.readInbound();
+        assertThat(ProtocolHandshake.isHandshake(handshake)).isTrue();
+
+        // 旧版本服务端无法反序列化协商请求
+        server.writeOutbound(new RpcProtocolV1().getCommandFactory()
+            .createResponseCommand(handshake, RpcStatus.DESERIALIZATION_ERROR));
+        transfer(server, client);
+
+        assertThat(future.isSuccess()).isTrue();
+        assertThat(future.getNow()).isEqualTo(RpcProtocolV1.PROTOCOL_CODE);
+        assertThat(client.attr(AttributeKeys.PROTOCOL).get()).isEqualTo(RpcProtocolV1.PROTOCOL_CODE);
+    }
+
+    @Test
+    public void testRejectUnknownProtocol() {
+        EmbeddedChannel server = newChannel();
+
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(1);
+        req.setProtocolSwitchValue((byte) 0);
+        req.setClazz(ProtocolHandshake.CLAZZ.getBytes());
+        req.setContent(new byte[] { 1, 9 });
+
+        EmbeddedChannel client = new EmbeddedChannel(new MessageEncoder(), new MessageDecoder());
+        client.writeOutbound(req);
+        transfer(client, server);
+        transfer(server, client);
+
+        ResponseCommand response = client.readInbound();
+        assertThat(response.getStatus()).isEqualTo(RpcStatus.UNSUPPORTED_PROTOCOL);
+        assertThat(server.attr(AttributeKeys.PROTOCOL).get()).isEqualTo(RpcProtocolV1.PROTOCOL_CODE);
+    }
+}
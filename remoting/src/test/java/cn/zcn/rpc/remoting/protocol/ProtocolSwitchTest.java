@@ -174,4 +174,18 @@ public class ProtocolSwitchTest {
         protocolSwitch = ProtocolSwitch.parse((byte) 127);
         assertThat(protocolSwitch.toByte()).isEqualTo((byte) 127);
     }
+
+    @Test
+    public void testStaticByteOperations() {
+        byte b = ProtocolSwitch.turnOn((byte) 0, ProtocolSwitch.CRC32_INDEX);
+        b = ProtocolSwitch.turnOn(b, 6);
+
+        assertThat(b).isEqualTo((byte) 65);
+        assertThat(ProtocolSwitch.isOn(b, ProtocolSwitch.CRC32_INDEX)).isTrue();
+        assertThat(ProtocolSwitch.isOn(b, ProtocolSwitch.CRC32C_INDEX)).isFalse();
+        assertThat(ProtocolSwitch.parse(b).isOn(6)).isTrue();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> ProtocolSwitch.isOn((byte) 0, 7));
+        assertThatIllegalArgumentException().isThrownBy(() -> ProtocolSwitch.check((byte) -1));
+    }
 }
@@ -2,9 +2,13 @@ package cn.zcn.rpc.remoting.protocol.v1;
 
 import static org.assertj.core.api.Assertions.*;
 
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.exception.ProtocolException;
 import cn.zcn.rpc.remoting.protocol.*;
 import cn.zcn.rpc.remoting.utils.Crc32Util;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.embedded.EmbeddedChannel;
@@ -217,4 +221,75 @@ public class RpcProtocolDecoderTest {
 
         assertThatExceptionOfType(DecoderException.class).isThrownBy(() -> channel.writeInbound(in));
     }
+
+    @Test
+    public void testDecodeWithCrc32c() throws Exception {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(5);
+        req.setSerializer((byte) 1);
+        req.setTimeout(100);
+        req.setClazz(new byte[] { 1, 2, 3 });
+        req.setContent(new byte[] { 4, 5, 6 });
+
+        ProtocolSwitch protocolSwitch = ProtocolSwitch.parse((byte) 0);
+        protocolSwitch.turnOn(ProtocolSwitch.CRC32_INDEX);
+        protocolSwitch.turnOn(ProtocolSwitch.CRC32C_INDEX);
+        req.setProtocolSwitch(protocolSwitch);
+
+        ByteBuf in = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, req, in);
+
+        List<Object> out = new ArrayList<>();
+        new RpcProtocolDecoder().decode(null, in.copy(), out);
+        assertThat(out).hasSize(1);
+        assertThat(((RequestCommand) out.get(0)).getContent()).isEqualTo(req.getContent());
+
+        // 篡改内容后校验失败
+        in.setByte(in.writerIndex() - 5, 9);
+        assertThatExceptionOfType(ProtocolException.class)
+            .isThrownBy(() -> new RpcProtocolDecoder().decode(null, in, new ArrayList<>()))
+            .withMessageContaining("Invalid CRC32");
+    }
+
+    @Test
+    public void testDecodeWithRetainedSlice() throws Exception {
+        ResponseCommand resp = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        resp.setCommandCode(CommandCode.RESPONSE);
+        resp.setId(6);
+        resp.setSerializer((byte) 1);
+        resp.setStatus(RpcStatus.OK);
+        resp.setProtocolSwitch(ProtocolSwitch.parse((byte) 0));
+        resp.setClazz(new byte[] { 1, 2, 3 });
+        resp.setContent(new byte[] { 4, 5, 6, 7 });
+
+        ByteBuf in = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, resp, in);
+
+        List<Object> out = new ArrayList<>();
+        EmbeddedChannel channel = new EmbeddedChannel(new ByteToMessageDecoder() {
+            @Override
+            protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> ignored) throws Exception {
+                new RpcProtocolDecoder().decode(ctx, in, out);
+            }
+        });
+
+        RpcOptions options = new RpcOptions();
+        options.setOption(RpcOptions.RETAINED_SLICE_DECODE, true);
+        channel.attr(AttributeKeys.OPTIONS).set(options);
+
+        channel.writeInbound(in);
+        assertThat(out).hasSize(1);
+
+        ResponseCommand command = (ResponseCommand) out.get(0);
+        assertThat(command.getContent()).isNull();
+        assertThat(command.getContentLength()).isEqualTo(4);
+        assertThat(ByteBufUtil.getBytes(command.getContentBuf())).isEqualTo(resp.getContent());
+
+        ByteBuf contentBuf = command.getContentBuf();
+        assertThat(contentBuf.refCnt()).isEqualTo(1);
+        assertThat(command.release()).isTrue();
+        assertThat(command.getContentBuf()).isNull();
+        assertThat(contentBuf.refCnt()).isEqualTo(0);
+    }
 }
@@ -5,11 +5,16 @@ import static org.assertj.core.api.Assertions.*;
 import cn.zcn.rpc.remoting.protocol.*;
 import cn.zcn.rpc.remoting.utils.Crc32Util;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.embedded.EmbeddedChannel;
 import java.util.Arrays;
 import io.netty.handler.codec.EncoderException;
 import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
 import org.junit.Test;
 
 public class RpcProtocolEncoderTest {
@@ -125,6 +130,69 @@ public class RpcProtocolEncoderTest {
         channel.writeOutbound(req);
     }
 
+    @Test
+    public void testEncodeCompositeWithLargeContent() throws Exception {
+        RequestCommand req = newRequestCommand(4096);
+
+        ByteBuf composite = encodeComposite(req);
+        assertThat(composite).isInstanceOf(CompositeByteBuf.class);
+
+        ByteBuf expected = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, req, expected);
+        assertThat(ByteBufUtil.equals(composite, expected)).isTrue();
+
+        composite.release();
+        expected.release();
+    }
+
+    @Test
+    public void testEncodeCompositeWithSmallContent() throws Exception {
+        RequestCommand req = newRequestCommand(30);
+
+        ByteBuf out = encodeComposite(req);
+        assertThat(out).isNotInstanceOf(CompositeByteBuf.class);
+
+        ByteBuf expected = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, req, expected);
+        assertThat(ByteBufUtil.equals(out, expected)).isTrue();
+
+        out.release();
+        expected.release();
+    }
+
+    private RequestCommand newRequestCommand(int contentLength) {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(7);
+        req.setSerializer((byte) 1);
+
+        ProtocolSwitch protocolSwitch = ProtocolSwitch.parse((byte) 0);
+        protocolSwitch.turnOn(0);
+        req.setProtocolSwitch(protocolSwitch);
+        req.setTimeout(3000);
+
+        byte[] clazz = new byte[10];
+        Arrays.fill(clazz, (byte) 9);
+        req.setClazz(clazz);
+
+        byte[] content = new byte[contentLength];
+        Arrays.fill(content, (byte) 5);
+        req.setContent(content);
+        return req;
+    }
+
+    private ByteBuf encodeComposite(RequestCommand req) {
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageToMessageEncoder<Object>() {
+            @Override
+            protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception {
+                out.add(new RpcProtocolEncoder().encodeComposite(ctx, msg));
+            }
+        });
+
+        channel.writeOutbound(req);
+        return channel.readOutbound();
+    }
+
     private void checkCRC32(byte[] bytes, int i) {
         byte[] bytesWithoutCRC32 = new byte[bytes.length - 4];
         System.arraycopy(bytes, 0, bytesWithoutCRC32, 0, bytesWithoutCRC32.length);
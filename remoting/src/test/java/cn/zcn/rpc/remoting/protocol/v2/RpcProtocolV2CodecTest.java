@@ -0,0 +1,136 @@
+package cn.zcn.rpc.remoting.protocol.v2;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import cn.zcn.rpc.remoting.protocol.*;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolEncoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class RpcProtocolV2CodecTest {
+
+    private final RpcProtocolV2Encoder encoder = new RpcProtocolV2Encoder();
+    private final RpcProtocolV2Decoder decoder = new RpcProtocolV2Decoder();
+
+    private RequestCommand newRequest(byte protocolSwitch, CommandHeaders headers) {
+        RequestCommand req = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        req.setCommandCode(CommandCode.REQUEST);
+        req.setId(300);
+        req.setSerializer((byte) 1);
+        req.setProtocolSwitchValue(protocolSwitch);
+        req.setTimeout(3000);
+        req.setClazz("java.lang.String".getBytes());
+        req.setContent(new byte[] { 1, 2, 3, 4, 5 });
+        req.setHeaders(headers);
+        return req;
+    }
+
+    private <T> T decode(ByteBuf in) throws Exception {
+        List<Object> out = new ArrayList<>();
+        decoder.decode(null, in, out);
+        assertThat(out).hasSize(1);
+        assertThat(in.isReadable()).isFalse();
+
+        @SuppressWarnings("unchecked")
+        T command = (T) out.get(0);
+        return command;
+    }
+
+    @Test
+    public void testRequestWithHeaders() throws Exception {
+        CommandHeaders headers = new CommandHeaders()
+            .putString("trace-id", "追踪-1")
+            .putLong("deadline", -42L)
+            .putBytes("token", new byte[] { 9, 8 });
+
+        byte protocolSwitch = ProtocolSwitch.turnOn((byte) 0, ProtocolSwitch.CRC32_INDEX);
+        ByteBuf out = Unpooled.buffer();
+        encoder.encode(null, newRequest(protocolSwitch, headers), out);
+
+        assertThat(decoder.frameLength(out)).isEqualTo(out.readableBytes());
+
+        RequestCommand req = decode(out);
+        assertThat(req.getProtocolCode()).isEqualTo(RpcProtocolV2.PROTOCOL_CODE);
+        assertThat(req.getCommandType()).isEqualTo(CommandType.REQUEST);
+        assertThat(req.getId()).isEqualTo(300);
+        assertThat(req.getTimeout()).isEqualTo(3000);
+        assertThat(req.isProtocolSwitchOn(ProtocolSwitch.CRC32_INDEX)).isTrue();
+        assertThat(req.getClazz()).isEqualTo("java.lang.String".getBytes());
+        assertThat(req.getContent()).containsExactly(1, 2, 3, 4, 5);
+
+        assertThat(req.getHeaders().size()).isEqualTo(3);
+        assertThat(req.getHeaders().getString("trace-id")).isEqualTo("追踪-1");
+        assertThat(req.getHeaders().getLong("deadline")).isEqualTo(-42L);
+        assertThat(req.getHeaders().getBytes("token")).containsExactly(9, 8);
+    }
+
+    @Test
+    public void testResponse() throws Exception {
+        ResponseCommand response = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        response.setCommandCode(CommandCode.RESPONSE);
+        response.setId(-1);
+        response.setSerializer((byte) 1);
+        response.setProtocolSwitchValue((byte) 0);
+        response.setStatus(RpcStatus.SERVICE_ERROR);
+
+        ByteBuf out = Unpooled.buffer();
+        encoder.encode(null, response, out);
+
+        ResponseCommand decoded = decode(out);
+        assertThat(decoded.getId()).isEqualTo(-1);
+        assertThat(decoded.getStatus()).isEqualTo(RpcStatus.SERVICE_ERROR);
+        assertThat(decoded.getHeaders()).isNull();
+        assertThat(decoded.getClazz()).isEmpty();
+        assertThat(decoded.getContent()).isEmpty();
+    }
+
+    @Test
+    public void testSmallerThanV1() throws Exception {
+        ByteBuf v1 = Unpooled.buffer();
+        new RpcProtocolEncoder().encode(null, newRequest((byte) 0, null), v1);
+
+        ByteBuf v2 = Unpooled.buffer();
+        encoder.encode(null, newRequest((byte) 0, null), v2);
+
+        assertThat(v2.readableBytes()).isLessThan(v1.readableBytes() - 8);
+    }
+
+    @Test
+    public void testInvalidCrc32() throws Exception {
+        byte protocolSwitch = ProtocolSwitch.turnOn((byte) 0, ProtocolSwitch.CRC32_INDEX);
+        ByteBuf out = Unpooled.buffer();
+        encoder.encode(null, newRequest(protocolSwitch, new CommandHeaders().putLong("k", 1)), out);
+        out.setByte(out.writerIndex() - 5, 0);
+
+        assertThatExceptionOfType(ProtocolException.class).isThrownBy(() -> decode(out))
+            .withMessageContaining("CRC32");
+    }
+
+    @Test
+    public void testDecodeFrameInSegments() throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel(new RpcProtocolV2().newFrameDecoder(null));
+
+        ByteBuf in = Unpooled.buffer();
+        encoder.encode(null, newRequest((byte) 0, new CommandHeaders().putString("k", "v")), in);
+        encoder.encode(null, newRequest((byte) 0, null), in);
+
+        while (in.isReadable()) {
+            channel.writeInbound(in.readRetainedSlice(Math.min(3, in.readableBytes())));
+        }
+        in.release();
+
+        RequestCommand first = channel.readInbound();
+        assertThat(first.getHeaders().getString("k")).isEqualTo("v");
+
+        RequestCommand second = channel.readInbound();
+        assertThat(second.getHeaders()).isNull();
+        assertThat(second.getContent()).containsExactly(1, 2, 3, 4, 5);
+        assertThat((Object) channel.readInbound()).isNull();
+    }
+}
@@ -0,0 +1,78 @@
+package cn.zcn.rpc.remoting.serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import cn.zcn.rpc.remoting.exception.SerializationException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class HessianSerializerTest {
+
+    private final HessianSerializer serializer = new HessianSerializer();
+
+    @Test
+    public void testSerializeToByteBuf() {
+        Map<String, Object> obj = new HashMap<>();
+        obj.put("name", "zicung");
+        obj.put("values", Arrays.asList(1, 2, 3));
+        obj.put("payload", new byte[8192]);
+
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.directBuffer(16);
+        try {
+            serializer.serialize(obj, out);
+            assertThat(ByteBufUtil.getBytes(out)).isEqualTo(serializer.serialize(obj));
+
+            Map<String, Object> result = serializer.deserialize(out, Map.class.getName());
+            assertThat(result).containsEntry("name", "zicung").containsEntry("values", Arrays.asList(1, 2, 3));
+            assertThat(out.isReadable()).isFalse();
+        } finally {
+            out.release();
+        }
+    }
+
+    @Test
+    public void testReusePooledStreams() {
+        HessianSerializer pooled = new HessianSerializer(1);
+        HessianSerializer unpooled = new HessianSerializer(0);
+
+        for (int i = 0; i < 3; i++) {
+            Dto dto = new Dto("dto" + i, i);
+
+            // 复用的输出流不应残留上一次写入的类定义与引用
+            byte[] bytes = pooled.serialize(dto);
+            assertThat(bytes).isEqualTo(unpooled.serialize(dto));
+
+            Dto result = pooled.deserialize(bytes, Dto.class.getName());
+            assertThat(result.name).isEqualTo(dto.name);
+            assertThat(result.value).isEqualTo(dto.value);
+            assertThat(pooled.<String>deserialize(pooled.serialize("s" + i), null)).isEqualTo("s" + i);
+        }
+    }
+
+    @Test
+    public void testDeserializeMalformedThenReuse() {
+        HessianSerializer pooled = new HessianSerializer(1);
+
+        assertThatExceptionOfType(SerializationException.class)
+            .isThrownBy(() -> pooled.deserialize(new byte[] { 'C', 0x05 }, null));
+
+        assertThat(pooled.<Integer>deserialize(pooled.serialize(7), null)).isEqualTo(7);
+    }
+
+    private static class Dto implements Serializable {
+        private String name;
+        private int value;
+
+        Dto(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package cn.zcn.rpc.remoting.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * @author zicung
+ */
+public class Crc32UtilTest {
+
+    @Test
+    public void testCalculateCrc32OnByteBuf() {
+        byte[] bytes = new byte[4096];
+        new Random(7).nextBytes(bytes);
+        int expected = Crc32Util.calculate(bytes);
+
+        ByteBuf heap = Unpooled.wrappedBuffer(bytes);
+        assertThat(Crc32Util.calculate(heap, 0, bytes.length, false)).isEqualTo(expected);
+
+        ByteBuf direct = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        assertThat(Crc32Util.calculate(direct, 0, bytes.length, false)).isEqualTo(expected);
+        direct.release();
+
+        CompositeByteBuf composite = Unpooled.compositeBuffer();
+        composite.addComponent(true, Unpooled.directBuffer().writeBytes(bytes, 0, 100));
+        composite.addComponent(true, Unpooled.wrappedBuffer(bytes, 100, bytes.length - 100));
+        assertThat(Crc32Util.calculate(composite, 0, bytes.length, false)).isEqualTo(expected);
+        assertThat(composite.readerIndex()).isEqualTo(0);
+        composite.release();
+    }
+
+    @Test
+    public void testCalculateCrc32c() {
+        byte[] bytes = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+        ByteBuf heap = Unpooled.wrappedBuffer(bytes);
+        assertThat(Crc32Util.calculate(heap, 0, bytes.length, true)).isEqualTo(0xE3069283);
+
+        ByteBuf direct = Unpooled.directBuffer(bytes.length).writeBytes(bytes);
+        assertThat(Crc32Util.calculate(direct, 0, bytes.length, true)).isEqualTo(0xE3069283);
+        direct.release();
+    }
+
+    @Test
+    public void testPureJavaCrc32c() {
+        byte[] bytes = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+        Crc32c crc32c = new Crc32c();
+        crc32c.update(bytes, 0, 4);
+        crc32c.update(Unpooled.directBuffer().writeBytes(bytes, 4, 5).nioBuffer());
+        assertThat((int) crc32c.getValue()).isEqualTo(0xE3069283);
+
+        crc32c.reset();
+        crc32c.update(bytes, 0, bytes.length);
+        assertThat((int) crc32c.getValue()).isEqualTo(0xE3069283);
+    }
+}
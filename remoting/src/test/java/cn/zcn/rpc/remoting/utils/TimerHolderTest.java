@@ -0,0 +1,94 @@
+package cn.zcn.rpc.remoting.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimerHolderTest {
+    private EventLoopGroup eventLoopGroup;
+
+    @Before
+    public void before() {
+        eventLoopGroup = new DefaultEventLoopGroup(1);
+    }
+
+    @After
+    public void after() {
+        eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    public void testGetTimer() {
+        assertThat(TimerHolder.getTimer(null, null)).isSameAs(TimerHolder.getTimer());
+        assertThat(TimerHolder.getTimer(TimerHolder.WHEEL, null)).isSameAs(TimerHolder.getTimer());
+        assertThat(TimerHolder.getTimer(TimerHolder.SHARDED_WHEEL, null))
+            .isInstanceOf(ShardedTimer.class)
+            .isSameAs(TimerHolder.getTimer(TimerHolder.SHARDED_WHEEL, null));
+        assertThat(TimerHolder.getTimer(TimerHolder.EVENT_LOOP, eventLoopGroup.next()))
+            .isInstanceOf(EventLoopTimer.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownStrategy() {
+        TimerHolder.getTimer("unknown", null);
+    }
+
+    @Test
+    public void testShardedTimerExpire() throws InterruptedException {
+        assertExpire(TimerHolder.getTimer(TimerHolder.SHARDED_WHEEL, null));
+    }
+
+    @Test
+    public void testEventLoopTimerExpire() throws InterruptedException {
+        assertExpire(TimerHolder.getTimer(TimerHolder.EVENT_LOOP, eventLoopGroup.next()));
+    }
+
+    @Test
+    public void testEventLoopTimerCancel() throws InterruptedException {
+        Timer timer = TimerHolder.getTimer(TimerHolder.EVENT_LOOP, eventLoopGroup.next());
+
+        AtomicBoolean expired = new AtomicBoolean();
+        Timeout timeout = timer.newTimeout(t -> expired.set(true), 50, TimeUnit.MILLISECONDS);
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(timeout.isExpired()).isFalse();
+
+        Thread.sleep(150);
+        assertThat(expired.get()).isFalse();
+    }
+
+    @Test
+    public void testEventLoopTimeoutInTask() throws InterruptedException {
+        Timer timer = TimerHolder.getTimer(TimerHolder.EVENT_LOOP, eventLoopGroup.next());
+
+        for (int i = 0; i < 100; i++) {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicBoolean state = new AtomicBoolean();
+            timer.newTimeout(t -> {
+                state.set(t.isExpired() && !t.isCancelled() && !t.cancel());
+                latch.countDown();
+            }, 0, TimeUnit.MILLISECONDS);
+
+            assertThat(latch.await(3000, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(state.get()).isTrue();
+        }
+    }
+
+    private void assertExpire(Timer timer) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        Timeout timeout = timer.newTimeout(t -> latch.countDown(), 10, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(3000, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(timeout.timer()).isNotNull();
+        assertThat(timeout.cancel()).isFalse();
+    }
+}
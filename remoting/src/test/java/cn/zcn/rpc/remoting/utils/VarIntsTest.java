@@ -0,0 +1,70 @@
+package cn.zcn.rpc.remoting.utils;
+
+import static org.assertj.core.api.Assertions.*;
+
+import cn.zcn.rpc.remoting.exception.ProtocolException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+/**
+ * @author zicung
+ */
+public class VarIntsTest {
+
+    @Test
+    public void testVarint32RoundTrip() {
+        int[] values = { 0, 1, 127, 128, 16383, 16384, 2097151, 2097152, 268435455, 268435456, Integer.MAX_VALUE, -1,
+            Integer.MIN_VALUE };
+
+        for (int value : values) {
+            ByteBuf buf = Unpooled.buffer();
+            VarInts.writeVarint32(buf, value);
+            assertThat(buf.readableBytes()).isEqualTo(VarInts.varint32Size(value));
+
+            long peeked = VarInts.peekVarint32(buf, 0);
+            assertThat((int) peeked).isEqualTo(value);
+            assertThat(peeked >>> 32).isEqualTo(buf.readableBytes());
+
+            assertThat(VarInts.readVarint32(buf)).isEqualTo(value);
+            assertThat(buf.isReadable()).isFalse();
+        }
+    }
+
+    @Test
+    public void testVarint64RoundTrip() {
+        long[] values = { 0, 1, 127, 128, Integer.MAX_VALUE, 1L << 35, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+
+        for (long value : values) {
+            ByteBuf buf = Unpooled.buffer();
+            VarInts.writeVarint64(buf, value);
+            assertThat(buf.readableBytes()).isEqualTo(VarInts.varint64Size(value));
+            assertThat(VarInts.readVarint64(buf)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void testZigZag() {
+        assertThat(VarInts.encodeZigZag32(0)).isEqualTo(0);
+        assertThat(VarInts.encodeZigZag32(-1)).isEqualTo(1);
+        assertThat(VarInts.encodeZigZag32(1)).isEqualTo(2);
+        assertThat(VarInts.decodeZigZag32(VarInts.encodeZigZag32(Integer.MIN_VALUE))).isEqualTo(Integer.MIN_VALUE);
+
+        assertThat(VarInts.encodeZigZag64(-1)).isEqualTo(1);
+        assertThat(VarInts.varint64Size(VarInts.encodeZigZag64(-3))).isEqualTo(1);
+        assertThat(VarInts.decodeZigZag64(VarInts.encodeZigZag64(Long.MIN_VALUE))).isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void testPeekIncompleteAndMalformed() {
+        ByteBuf buf = Unpooled.buffer();
+        VarInts.writeVarint32(buf, 300);
+        buf.writerIndex(1);
+        assertThat(VarInts.peekVarint32(buf, 0)).isEqualTo(-1);
+        assertThat(VarInts.peekVarint32(buf, 1)).isEqualTo(-1);
+
+        ByteBuf malformed = Unpooled.wrappedBuffer(new byte[] { -1, -1, -1, -1, -1, 1 });
+        assertThatExceptionOfType(ProtocolException.class).isThrownBy(() -> VarInts.peekVarint32(malformed, 0));
+        assertThatExceptionOfType(ProtocolException.class).isThrownBy(() -> VarInts.readVarint32(malformed));
+    }
+}
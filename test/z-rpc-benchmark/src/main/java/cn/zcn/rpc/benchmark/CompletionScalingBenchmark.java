@@ -0,0 +1,99 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.InvocationContext;
+import cn.zcn.rpc.remoting.RemotingClient;
+import cn.zcn.rpc.remoting.RemotingServer;
+import cn.zcn.rpc.remoting.RequestHandler;
+import cn.zcn.rpc.remoting.Url;
+import cn.zcn.rpc.remoting.config.ClientOptions;
+import io.netty.util.NettyRuntime;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 多个线程通过多个连接并发调用时的吞吐量。每次调用的响应 promise 绑定到发送请求的连接所在的 EventLoop（eventloop），
+ * 或者绑定到 {@link ClientOptions#CALLBACK_EXECUTOR} 回调线程池（executor），响应处理分散在多个线程中，
+ * 吞吐量随连接数与 CPU 核数增长。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar CompletionScalingBenchmark
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class CompletionScalingBenchmark {
+
+    @Param({ "1", "4" })
+    private int connections;
+
+    @Param({ "eventloop", "executor" })
+    private String completion;
+
+    private RemotingServer server;
+    private RemotingClient client;
+    private EventExecutorGroup callbackExecutor;
+    private Url url;
+
+    @Setup
+    public void setup() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        server = new RemotingServer("127.0.0.1", port);
+        server.registerRequestHandler(new RequestHandler<String>() {
+            @Override
+            public String acceptableClass() {
+                return String.class.getName();
+            }
+
+            @Override
+            public boolean ignoredTimeoutRequest() {
+                return false;
+            }
+
+            @Override
+            public void handle(InvocationContext ctx, String obj) {
+                ctx.writeAndFlushResponse(obj);
+            }
+        });
+        server.start();
+
+        client = new RemotingClient();
+        if ("executor".equals(completion)) {
+            callbackExecutor = new DefaultEventExecutorGroup(NettyRuntime.availableProcessors());
+            client.option(ClientOptions.CALLBACK_EXECUTOR, callbackExecutor);
+        }
+        client.start();
+
+        url = new Url.Builder(new InetSocketAddress("127.0.0.1", port)).maxConnectionNum(connections).build();
+        client.invoke(url, "warmup", 3000).syncUninterruptibly();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.stop();
+        server.stop();
+        if (callbackExecutor != null) {
+            callbackExecutor.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        }
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return client.invoke(url, "ping", 3000).get();
+    }
+}
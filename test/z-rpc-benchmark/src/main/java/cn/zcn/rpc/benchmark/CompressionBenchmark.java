@@ -0,0 +1,110 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import cn.zcn.rpc.remoting.constants.AttributeKeys;
+import cn.zcn.rpc.remoting.protocol.CommandCode;
+import cn.zcn.rpc.remoting.protocol.CommandType;
+import cn.zcn.rpc.remoting.protocol.RequestCommand;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolDecoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolEncoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+import cn.zcn.rpc.test.student.Student;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 不同大小的 Hessian 列表在不同压缩算法下的编解码吞吐量。压缩率在 Setup 阶段输出，结合吞吐量评估带宽与 CPU 的取舍。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar CompressionBenchmark
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({ "1024", "16384", "262144" })
+    private int size;
+
+    @Param({ "", "deflate", "lz4" })
+    private String compressor;
+
+    private final RpcProtocolEncoder encoder = new RpcProtocolEncoder();
+    private final RpcProtocolDecoder decoder = new RpcProtocolDecoder();
+    private final List<Object> out = new ArrayList<>(1);
+
+    private ChannelHandlerContext context;
+    private byte[] content;
+    private ByteBuf encodeBuf;
+    private ByteBuf frame;
+
+    @Setup
+    public void setup() throws Exception {
+        List<Student> students = new ArrayList<>();
+        HessianSerializer serializer = new HessianSerializer();
+        do {
+            students.add(new Student("student-" + students.size(), 18 + students.size() % 10));
+            content = serializer.serialize(students);
+        } while (content.length < size);
+
+        RpcOptions options = new RpcOptions();
+        options.setOption(RpcOptions.COMPRESSOR, compressor);
+        options.setOption(RpcOptions.COMPRESS_THRESHOLD, 0);
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        channel.attr(AttributeKeys.OPTIONS).set(options);
+        context = channel.pipeline().firstContext();
+
+        encodeBuf = Unpooled.buffer(content.length + 64);
+        frame = Unpooled.buffer(content.length + 64);
+        encoder.encode(context, newRequest(), frame);
+
+        System.out.printf("%n%s, content %d bytes, frame %d bytes, ratio %.2f%n",
+            compressor.isEmpty() ? "none" : compressor, content.length, frame.readableBytes(),
+            (double) frame.readableBytes() / content.length);
+    }
+
+    private RequestCommand newRequest() {
+        RequestCommand request = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        request.setCommandCode(CommandCode.REQUEST);
+        request.setId(1);
+        request.setSerializer((byte) 1);
+        request.setProtocolSwitchValue((byte) 0);
+        request.setTimeout(3000);
+        request.setClazz("java.util.ArrayList".getBytes());
+        request.setContent(content);
+        return request;
+    }
+
+    @Benchmark
+    public ByteBuf encode() throws Exception {
+        RequestCommand request = newRequest();
+        encodeBuf.clear();
+        encoder.encode(context, request, encodeBuf);
+        request.release();
+        return encodeBuf;
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        out.clear();
+        frame.readerIndex(0);
+        decoder.decode(context, frame, out);
+        return out.get(0);
+    }
+}
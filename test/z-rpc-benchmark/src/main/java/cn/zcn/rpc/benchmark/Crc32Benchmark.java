@@ -0,0 +1,66 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.utils.Crc32Util;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 比较拷贝到 byte[] 后计算 CRC32 与直接在 ByteBuf 上流式计算 CRC32/CRC32C 的开销。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar Crc32Benchmark -prof gc
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Crc32Benchmark {
+
+    @Param({ "256", "4096", "65536", "1048576" })
+    private int size;
+
+    private ByteBuf frame;
+
+    @Setup
+    public void setup() {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+
+        frame = PooledByteBufAllocator.DEFAULT.directBuffer(size);
+        frame.writeBytes(bytes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+    }
+
+    /**
+     * 优化前的实现：拷贝整个报文后计算
+     */
+    @Benchmark
+    public int copyThenCrc32() {
+        byte[] bytes = new byte[frame.readableBytes()];
+        frame.getBytes(frame.readerIndex(), bytes);
+        return Crc32Util.calculate(bytes);
+    }
+
+    @Benchmark
+    public int streamingCrc32() {
+        return Crc32Util.calculate(frame, frame.readerIndex(), frame.readableBytes(), false);
+    }
+
+    @Benchmark
+    public int streamingCrc32c() {
+        return Crc32Util.calculate(frame, frame.readerIndex(), frame.readableBytes(), true);
+    }
+}
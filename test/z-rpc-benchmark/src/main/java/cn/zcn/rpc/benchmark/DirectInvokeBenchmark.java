@@ -0,0 +1,85 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.InvocationContext;
+import cn.zcn.rpc.remoting.RemotingClient;
+import cn.zcn.rpc.remoting.RemotingServer;
+import cn.zcn.rpc.remoting.RequestHandler;
+import cn.zcn.rpc.remoting.Url;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 回环地址上单次调用的延迟分布与每次调用的内存分配。single 为单连接的连接组，连接建立后请求直接写入连接；
+ * multi 为两条连接的连接组，每次调用都要经过连接组线程获取与释放连接。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar DirectInvokeBenchmark -prof gc
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class DirectInvokeBenchmark {
+
+    @Param({ "single", "multi" })
+    private String group;
+
+    private RemotingServer server;
+    private RemotingClient client;
+    private Url url;
+
+    @Setup
+    public void setup() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        server = new RemotingServer("127.0.0.1", port);
+        server.registerRequestHandler(new RequestHandler<String>() {
+            @Override
+            public String acceptableClass() {
+                return String.class.getName();
+            }
+
+            @Override
+            public boolean ignoredTimeoutRequest() {
+                return false;
+            }
+
+            @Override
+            public void handle(InvocationContext ctx, String obj) {
+                ctx.writeAndFlushResponse(obj);
+            }
+        });
+        server.start();
+
+        client = new RemotingClient();
+        client.start();
+
+        url = new Url.Builder(new InetSocketAddress("127.0.0.1", port))
+            .maxConnectionNum("single".equals(group) ? 1 : 2)
+            .build();
+        client.invoke(url, "warmup", 3000).syncUninterruptibly();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.stop();
+        server.stop();
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return client.invoke(url, "ping", 3000).get();
+    }
+}
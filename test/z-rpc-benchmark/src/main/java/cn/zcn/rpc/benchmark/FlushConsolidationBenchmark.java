@@ -0,0 +1,135 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.config.RpcOptions;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.util.ReferenceCountUtil;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 多个线程在同一个连接上并发发送请求时，开启 {@link RpcOptions#FLUSH_CONSOLIDATION} 前后的吞吐量以及每个请求的 flush 次数。
+ * 到达 Channel 头部的 flush 即一次写系统调用，结果在每轮测试结束时输出。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar FlushConsolidationBenchmark
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class FlushConsolidationBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean consolidation;
+
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    private EventLoopGroup serverGroup;
+    private EventLoopGroup clientGroup;
+    private Channel server;
+    private Channel client;
+    private ByteBuf request;
+
+    /**
+     * 位于 pipeline 的头部，统计真正写入 Socket 的 flush 次数
+     */
+    private class FlushCounter extends ChannelOutboundHandlerAdapter {
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            writes.incrementAndGet();
+            ctx.write(msg, promise);
+        }
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) {
+            flushes.incrementAndGet();
+            ctx.flush();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        serverGroup = new NioEventLoopGroup(1);
+        clientGroup = new NioEventLoopGroup(1);
+
+        server = new ServerBootstrap()
+            .group(serverGroup)
+            .channel(NioServerSocketChannel.class)
+            .childHandler(new ChannelInboundHandlerAdapter() {
+                @Override
+                public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                    ReferenceCountUtil.release(msg);
+                }
+            })
+            .bind(new InetSocketAddress("127.0.0.1", 0))
+            .syncUninterruptibly()
+            .channel();
+
+        client = new Bootstrap()
+            .group(clientGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, true)
+            .handler(new ChannelInitializer<SocketChannel>() {
+                @Override
+                protected void initChannel(SocketChannel ch) {
+                    ch.pipeline().addLast(new FlushCounter());
+                    if (consolidation) {
+                        ch.pipeline().addLast(new FlushConsolidationHandler(
+                            RpcOptions.FLUSH_CONSOLIDATION_LIMIT.getDefaultValue(), true));
+                    }
+                }
+            })
+            .connect(server.localAddress())
+            .syncUninterruptibly()
+            .channel();
+
+        request = Unpooled.unreleasableBuffer(Unpooled.directBuffer(128).writeZero(128));
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounters() {
+        writes.set(0);
+        flushes.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCounters() {
+        System.out.printf(" [writes %d, flushes %d, flushes/request %.3f]",
+            writes.get(), flushes.get(), (double) flushes.get() / Math.max(1, writes.get()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close().syncUninterruptibly();
+        server.close().syncUninterruptibly();
+        clientGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    /**
+     * 与 RemotingInvoker 一样，业务线程调用 writeAndFlush，并等待写入完成
+     */
+    @Benchmark
+    public void writeAndFlush() {
+        client.writeAndFlush(request.duplicate()).syncUninterruptibly();
+    }
+}
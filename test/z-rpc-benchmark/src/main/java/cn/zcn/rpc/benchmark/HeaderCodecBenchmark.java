@@ -0,0 +1,136 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.protocol.*;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolDecoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolEncoder;
+import cn.zcn.rpc.remoting.protocol.v1.RpcProtocolV1;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 协议头编解码的开销与内存分配。编码不应产生任何分配，解码只应分配命令对象本身。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar HeaderCodecBenchmark -prof gc
+ *
+ * # 运行并校验 gc.alloc.rate.norm
+ * java -cp test/z-rpc-benchmark/target/benchmarks.jar cn.zcn.rpc.benchmark.HeaderCodecBenchmark
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderCodecBenchmark {
+
+    /**
+     * 编码的分配上限，单位为 bytes/op
+     */
+    private static final double ENCODE_ALLOC_LIMIT = 1;
+
+    /**
+     * 解码的分配上限，单位为 bytes/op，只允许分配命令对象本身
+     */
+    private static final double DECODE_ALLOC_LIMIT = 64;
+
+    private final RpcProtocolEncoder encoder = new RpcProtocolEncoder();
+    private final RpcProtocolDecoder decoder = new RpcProtocolDecoder();
+    private final List<Object> out = new ArrayList<>(1);
+
+    private RequestCommand request;
+    private ByteBuf encodeBuf;
+    private ByteBuf requestFrame;
+    private ByteBuf responseFrame;
+
+    @Setup
+    public void setup() throws Exception {
+        request = new RequestCommand(RpcProtocolV1.PROTOCOL_CODE, CommandType.REQUEST);
+        request.setCommandCode(CommandCode.REQUEST);
+        request.setId(1);
+        request.setSerializer((byte) 1);
+        request.setProtocolSwitchValue((byte) 0);
+        request.setTimeout(3000);
+
+        ResponseCommand response = new ResponseCommand(RpcProtocolV1.PROTOCOL_CODE);
+        response.setCommandCode(CommandCode.RESPONSE);
+        response.setId(1);
+        response.setSerializer((byte) 1);
+        response.setProtocolSwitchValue((byte) 0);
+        response.setStatus(RpcStatus.SERVICE_ERROR);
+
+        encodeBuf = Unpooled.buffer(64);
+
+        requestFrame = Unpooled.buffer(64);
+        encoder.encode(null, request, requestFrame);
+
+        responseFrame = Unpooled.buffer(64);
+        encoder.encode(null, response, responseFrame);
+    }
+
+    @Benchmark
+    public ByteBuf encodeRequestHeader() throws Exception {
+        encodeBuf.clear();
+        encoder.encode(null, request, encodeBuf);
+        return encodeBuf;
+    }
+
+    @Benchmark
+    public Object decodeRequestHeader() throws Exception {
+        return decode(requestFrame);
+    }
+
+    @Benchmark
+    public Object decodeResponseHeader() throws Exception {
+        return decode(responseFrame);
+    }
+
+    private Object decode(ByteBuf frame) throws Exception {
+        out.clear();
+        frame.readerIndex(0);
+        decoder.decode(null, frame, out);
+        return out.get(0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(HeaderCodecBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        for (RunResult runResult : new Runner(options).run()) {
+            BenchmarkParams params = runResult.getParams();
+            Result<?> alloc = runResult.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (alloc == null) {
+                alloc = runResult.getSecondaryResults().get("·gc.alloc.rate.norm");
+            }
+
+            if (alloc == null) {
+                throw new IllegalStateException("No gc.alloc.rate.norm result for " + params.getBenchmark());
+            }
+
+            double limit = params.getBenchmark().endsWith("encodeRequestHeader") ? ENCODE_ALLOC_LIMIT
+                : DECODE_ALLOC_LIMIT;
+            if (alloc.getScore() > limit) {
+                throw new IllegalStateException(params.getBenchmark() + " allocates " + alloc.getScore()
+                    + " bytes/op, limit is " + limit + " bytes/op.");
+            }
+        }
+    }
+}
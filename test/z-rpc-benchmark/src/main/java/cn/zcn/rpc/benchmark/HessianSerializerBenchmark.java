@@ -0,0 +1,78 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.serialization.HessianSerializer;
+import cn.zcn.rpc.test.student.Student;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Hessian 序列化器复用输入、输出流对象前后的耗时与内存分配。{@code poolSize} 为 0 时每次调用都创建新的流对象。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar HessianSerializerBenchmark -prof gc
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class HessianSerializerBenchmark {
+
+    @Param({ "0", "16" })
+    private int poolSize;
+
+    @Param({ "1", "32" })
+    private int students;
+
+    private HessianSerializer serializer;
+    private Object payload;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        serializer = new HessianSerializer(poolSize);
+
+        if (students == 1) {
+            payload = new Student("student", 18);
+        } else {
+            List<Student> list = new ArrayList<>(students);
+            for (int i = 0; i < students; i++) {
+                list.add(new Student("student-" + i, 18 + i % 10));
+            }
+            payload = list;
+        }
+
+        bytes = serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(payload);
+    }
+
+    @Benchmark
+    public int serializeToByteBuf() {
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            serializer.serialize(payload, out);
+            return out.readableBytes();
+        } finally {
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes, null);
+    }
+}
@@ -0,0 +1,232 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.SerializerManager;
+import cn.zcn.rpc.remoting.serialization.Serializer;
+import cn.zcn.rpc.remoting.serialization.codec.RpcMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 注解处理器生成的编解码器与 Hessian 序列化的对比。small 为两个字段的学生，medium 为带嵌套对象与列表的学生档案，
+ * large 为包含 100 个学生档案的班级。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar MessageCodecBenchmark -prof gc
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+    @Param({ "hessian", "codec" })
+    private String serializer;
+
+    @Param({ "small", "medium", "large" })
+    private String graph;
+
+    private Serializer delegate;
+    private Object payload;
+    private String clazz;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        delegate = SerializerManager.getSerializer("codec".equals(serializer) ? SerializerManager.MESSAGE_CODEC
+            : SerializerManager.HESSIAN);
+
+        switch (graph) {
+            case "small":
+                payload = new SmallStudent("student", 18);
+                break;
+            case "medium":
+                payload = newProfile(0);
+                break;
+            default:
+                Classroom classroom = new Classroom();
+                classroom.setName("classroom");
+                classroom.setProfiles(new ArrayList<>());
+                for (int i = 0; i < 100; i++) {
+                    classroom.getProfiles().add(newProfile(i));
+                }
+                payload = classroom;
+                break;
+        }
+
+        clazz = payload.getClass().getName();
+        bytes = delegate.serialize(payload);
+    }
+
+    private static Profile newProfile(int i) {
+        Profile profile = new Profile();
+        profile.setId(10000L + i);
+        profile.setName("student-" + i);
+        profile.setAge(18 + i % 10);
+        profile.setScore(90.5 + i);
+        profile.setActive(i % 2 == 0);
+        profile.setTags(Arrays.asList("math", "physics", "chemistry"));
+        profile.setAddress(new Address("Beijing", "Haidian", 100080 + i));
+        return profile;
+    }
+
+    @Benchmark
+    public int serialize() {
+        ByteBuf out = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            delegate.serialize(payload, out);
+            return out.readableBytes();
+        } finally {
+            out.release();
+        }
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return delegate.deserialize(bytes, clazz);
+    }
+
+    @RpcMessage
+    public static class SmallStudent implements Serializable {
+        private final String name;
+        private final int age;
+
+        public SmallStudent(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+
+    @RpcMessage
+    public static class Address implements Serializable {
+        private final String city;
+        private final String district;
+        private final int zipCode;
+
+        public Address(String city, String district, int zipCode) {
+            this.city = city;
+            this.district = district;
+            this.zipCode = zipCode;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public String getDistrict() {
+            return district;
+        }
+
+        public int getZipCode() {
+            return zipCode;
+        }
+    }
+
+    @RpcMessage
+    public static class Profile implements Serializable {
+        private long id;
+        private String name;
+        private int age;
+        private double score;
+        private boolean active;
+        private List<String> tags;
+        private Address address;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(double score) {
+            this.score = score;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+    }
+
+    @RpcMessage
+    public static class Classroom implements Serializable {
+        private String name;
+        private List<Profile> profiles;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Profile> getProfiles() {
+            return profiles;
+        }
+
+        public void setProfiles(List<Profile> profiles) {
+            this.profiles = profiles;
+        }
+    }
+}
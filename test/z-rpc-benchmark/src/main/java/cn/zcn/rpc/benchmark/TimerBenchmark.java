@@ -0,0 +1,66 @@
+package cn.zcn.rpc.benchmark;
+
+import cn.zcn.rpc.remoting.utils.TimerHolder;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * 高并发下请求超时任务的调度与取消吞吐量。每次操作调度一个 3 秒后到期的任务并立即取消，模拟大部分请求在超时前收到响应的场景。
+ * wheel 为全局共享的时间轮；sharded 为按线程分片的多个时间轮；eventloop 为 EventLoop 的定时任务队列，
+ * 每个线程使用一个 EventLoop，与连接分散在各个 EventLoop 上的情况一致。
+ *
+ * <pre>
+ * mvn -pl test/z-rpc-benchmark -am package -DskipTests
+ * java -jar test/z-rpc-benchmark/target/benchmarks.jar TimerBenchmark
+ * </pre>
+ *
+ * @author zicung
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class TimerBenchmark {
+
+    private static final TimerTask NOOP = timeout -> {
+    };
+
+    @Param({ TimerHolder.WHEEL, TimerHolder.SHARDED_WHEEL, TimerHolder.EVENT_LOOP })
+    private String strategy;
+
+    private EventLoopGroup eventLoopGroup;
+
+    @Setup
+    public void setup() {
+        eventLoopGroup = new DefaultEventLoopGroup(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS).syncUninterruptibly();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadTimer {
+        private Timer timer;
+
+        @Setup
+        public void setup(TimerBenchmark benchmark) {
+            timer = TimerHolder.getTimer(benchmark.strategy, benchmark.eventLoopGroup.next());
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel(ThreadTimer threadTimer) {
+        Timeout timeout = threadTimer.timer.newTimeout(NOOP, 3000, TimeUnit.MILLISECONDS);
+        return timeout.cancel();
+    }
+}